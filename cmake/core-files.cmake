@@ -324,10 +324,12 @@ set(MBGL_CORE_FILES
     include/mbgl/style/filter_evaluator.hpp
     include/mbgl/style/image.hpp
     include/mbgl/style/layer.hpp
+    include/mbgl/style/layer_observer.hpp
     include/mbgl/style/layer_type.hpp
     include/mbgl/style/light.hpp
     include/mbgl/style/position.hpp
     include/mbgl/style/property_value.hpp
+    include/mbgl/style/rapidjson_conversion.hpp
     include/mbgl/style/source.hpp
     include/mbgl/style/style.hpp
     include/mbgl/style/transition_options.hpp
@@ -340,7 +342,6 @@ set(MBGL_CORE_FILES
     src/mbgl/style/layer.cpp
     src/mbgl/style/layer_impl.cpp
     src/mbgl/style/layer_impl.hpp
-    src/mbgl/style/layer_observer.hpp
     src/mbgl/style/layout_property.hpp
     src/mbgl/style/light.cpp
     src/mbgl/style/light_impl.cpp
@@ -351,7 +352,6 @@ set(MBGL_CORE_FILES
     src/mbgl/style/parser.cpp
     src/mbgl/style/parser.hpp
     src/mbgl/style/properties.hpp
-    src/mbgl/style/rapidjson_conversion.hpp
     src/mbgl/style/source.cpp
     src/mbgl/style/source_impl.cpp
     src/mbgl/style/source_impl.hpp
@@ -595,6 +595,7 @@ set(MBGL_CORE_FILES
     include/mbgl/util/feature.hpp
     include/mbgl/util/font_stack.hpp
     include/mbgl/util/geo.hpp
+    include/mbgl/util/geobuf.hpp
     include/mbgl/util/geojson.hpp
     include/mbgl/util/geometry.hpp
     include/mbgl/util/ignore.hpp
@@ -609,6 +610,7 @@ set(MBGL_CORE_FILES
     include/mbgl/util/premultiply.hpp
     include/mbgl/util/projection.hpp
     include/mbgl/util/range.hpp
+    include/mbgl/util/rapidjson.hpp
     include/mbgl/util/run_loop.hpp
     include/mbgl/util/size.hpp
     include/mbgl/util/string.hpp
@@ -635,6 +637,7 @@ set(MBGL_CORE_FILES
     src/mbgl/util/event.cpp
     src/mbgl/util/font_stack.cpp
     src/mbgl/util/geo.cpp
+    src/mbgl/util/geobuf.cpp
     src/mbgl/util/geojson_impl.cpp
     src/mbgl/util/grid_index.cpp
     src/mbgl/util/grid_index.hpp
@@ -663,7 +666,6 @@ set(MBGL_CORE_FILES
     src/mbgl/util/offscreen_texture.cpp
     src/mbgl/util/offscreen_texture.hpp
     src/mbgl/util/premultiply.cpp
-    src/mbgl/util/rapidjson.hpp
     src/mbgl/util/rect.hpp
     src/mbgl/util/std.hpp
     src/mbgl/util/stopwatch.cpp
@@ -58,6 +58,31 @@ public:
     void listOfflineRegions(std::function<void (std::exception_ptr,
                                                 optional<std::vector<OfflineRegion>>)>);
 
+    /*
+     * Retrieve the regions whose download was still active when the database was
+     * last used, for example because the process was stopped, and that have not
+     * been activated since. Reactivating such a region resumes its download:
+     * resources stored before the interruption are not requested again.
+     *
+     * The query will be executed asynchronously and the results passed to the given
+     * callback, which will be executed on the database thread; it is the responsibility
+     * of the SDK bindings to re-execute a user-provided callback on the main thread.
+     */
+    void listInterruptedOfflineRegions(std::function<void (std::exception_ptr,
+                                                           optional<std::vector<OfflineRegion>>)>);
+
+    /*
+     * Retrieve all regions in the offline database along with their current status,
+     * in a single call rather than one `getOfflineRegionStatus` call per region. The
+     * status of each region is still computed separately on the database thread.
+     *
+     * The query will be executed asynchronously and the results passed to the given
+     * callback, which will be executed on the database thread; it is the responsibility
+     * of the SDK bindings to re-execute a user-provided callback on the main thread.
+     */
+    void listOfflineRegionsWithStatus(std::function<void (std::exception_ptr,
+                                                          optional<std::vector<std::pair<OfflineRegion, OfflineRegionStatus>>>)>);
+
     /*
      * Create an offline region in the database.
      *
@@ -100,6 +125,18 @@ public:
     void getOfflineRegionStatus(OfflineRegion&, std::function<void (std::exception_ptr,
                                                                     optional<OfflineRegionStatus>)>) const;
 
+    /*
+     * Estimate the number of tiles and the storage an offline region definition requires,
+     * before creating the region. The estimate only uses the style, sources and tiles
+     * already in the database and makes no network request. The query will be executed
+     * asynchronously and the results passed to the given callback, which will be executed
+     * on the database thread; it is the responsibility of the SDK bindings to re-execute
+     * a user-provided callback on the main thread.
+     */
+    void estimateOfflineRegion(const OfflineRegionDefinition& definition,
+                               std::function<void (std::exception_ptr,
+                                                   optional<OfflineRegionEstimate>)>) const;
+
     /*
      * Remove an offline region from the database and perform any resources evictions
      * necessary as a result.
@@ -117,6 +154,39 @@ public:
      */
     void deleteOfflineRegion(OfflineRegion&&, std::function<void (std::exception_ptr)>);
 
+    /*
+     * Remove several offline regions from the database at once, given their IDs, and
+     * perform the resulting resource evictions a single time. The database file does not
+     * shrink until `compactOfflineDatabase` is called. It is not legal to perform further
+     * actions with `OfflineRegion` instances of the deleted regions.
+     *
+     * When the operation is complete or encounters an error, the given callback will be
+     * executed on the database thread; it is the responsibility of the SDK bindings
+     * to re-execute a user-provided callback on the main thread.
+     */
+    void deleteOfflineRegions(std::vector<int64_t> regionIDs, std::function<void (std::exception_ptr)>);
+
+    /*
+     * Shrink the offline database file, evicting cached resources beyond the maximum
+     * cache size and returning the free pages of the file to the file system.
+     *
+     * The database is truncated in steps, between which other requests and database
+     * operations run; the progress callback receives the size reclaimed so far and the
+     * total reclaimable size, in bytes, after each step. Once complete, the given callback
+     * receives the reclaimed size. Both callbacks will be executed on the database thread;
+     * it is the responsibility of the SDK bindings to re-execute user-provided callbacks
+     * on the main thread.
+     */
+    void compactOfflineDatabase(std::function<void (uint64_t, uint64_t)> progress,
+                                std::function<void (std::exception_ptr, optional<uint64_t>)>);
+
+    /*
+     * Set the request, bandwidth and retry limits shared by the downloads of all
+     * active regions. Downloads already in progress adopt the new limits as their
+     * requests complete.
+     */
+    void setOfflineDownloadOptions(const OfflineDownloadOptions&);
+
     /*
      * Changing or bypassing this limit without permission from Mapbox is prohibited
      * by the Mapbox Terms of Service.
@@ -1,8 +1,11 @@
 #pragma once
 
 #include <mbgl/util/geo.hpp>
+#include <mbgl/util/geometry.hpp>
 #include <mbgl/util/range.hpp>
 #include <mbgl/util/optional.hpp>
+#include <mbgl/util/variant.hpp>
+#include <mbgl/util/chrono.hpp>
 #include <mbgl/style/types.hpp>
 #include <mbgl/storage/response.hpp>
 
@@ -42,10 +45,38 @@ private:
 };
 
 /*
- * For the present, a tile pyramid is the only type of offline region. In the future,
- * other definition types will be available and this will be a variant type.
+ * An offline region defined by a style URL, geometry, buffer, zoom range, and device
+ * pixel ratio.
+ *
+ * The geometry uses longitude/latitude coordinates. At each zoom level, the region only
+ * includes the tiles within bufferDistance meters of the geometry: a polygon covers its
+ * interior and border, a line string with a buffer covers a corridor along a route.
+ *
+ * Zoom levels and pixelRatio follow the same rules as for OfflineTilePyramidRegionDefinition,
+ * bufferDistance must be ≥ 0.
  */
-using OfflineRegionDefinition = OfflineTilePyramidRegionDefinition;
+class OfflineGeometryRegionDefinition {
+public:
+    OfflineGeometryRegionDefinition(std::string, Geometry<double>, double, double, float, double bufferDistance = 0);
+
+    /* Private */
+    std::vector<CanonicalTileID> tileCover(style::SourceType, uint16_t tileSize, const Range<uint8_t>& zoomRange) const;
+    uint64_t tileCount(style::SourceType, uint16_t tileSize, const Range<uint8_t>& zoomRange) const;
+    const std::string styleURL;
+    const Geometry<double> geometry;
+    const double minZoom;
+    const double maxZoom;
+    const float pixelRatio;
+    const double bufferDistance;
+private:
+    Range<uint8_t> coveringZoomRange(style::SourceType, uint16_t tileSize, const Range<uint8_t>& zoomRange) const;
+};
+
+/*
+ * The definition of an offline region: either a tile pyramid covering a bounding box, or
+ * the tiles covering a geometry.
+ */
+using OfflineRegionDefinition = variant<OfflineTilePyramidRegionDefinition, OfflineGeometryRegionDefinition>;
 
 /*
  * The encoded format is private.
@@ -135,6 +166,76 @@ public:
     }
 };
 
+/*
+ * An estimate of the tiles an offline region definition requires, computed from the
+ * resources and tiles already stored in the database, without any network request.
+ */
+class OfflineRegionEstimate {
+public:
+    /**
+     * The number of tiles covering the region, across the tiled sources of the style.
+     */
+    uint64_t tileCount = 0;
+
+    /**
+     * Whether the style and all of its sources are stored in the database. When they
+     * are not, the missing sources are assumed to be vector sources with the default
+     * zoom range, and tileCount is only an approximation.
+     */
+    bool tileCountIsPrecise = false;
+
+    /**
+     * The estimated size of the tiles in bytes, based on the average size of the
+     * stored tiles of each source at each zoom level.
+     */
+    uint64_t tileSize = 0;
+
+    /**
+     * The number of stored tiles the average sizes were computed from. When no tiles
+     * are stored, there is nothing to base the size on and tileSize is 0.
+     */
+    uint64_t sampledTileCount = 0;
+};
+
+/*
+ * Controls how the resources of active offline regions are requested. The limits
+ * are shared by all regions downloading through the same file source, so that
+ * activating several regions at once does not multiply the load on the network.
+ */
+class OfflineDownloadOptions {
+public:
+    /**
+     * The maximum number of resources requested at once across all active regions.
+     * A value of 0 uses the maximum number of concurrent requests of the platform
+     * HTTP implementation.
+     */
+    uint32_t maximumConcurrentRequests = 0;
+
+    /**
+     * The maximum average rate, in bytes per second, at which resources are
+     * downloaded across all active regions. A value of 0 means unlimited.
+     *
+     * Sizes are only known once responses are received, so the rate is enforced
+     * by delaying subsequent requests rather than by throttling transfers.
+     */
+    uint64_t maximumBytesPerSecond = 0;
+
+    /**
+     * The delay before a failed request is retried. It is multiplied by
+     * `retryBackoffFactor` after each consecutive failure of the same resource, up
+     * to `maximumRetryDelay`. A later retry requested by the server takes precedence.
+     */
+    Duration initialRetryDelay = Seconds(1);
+    double retryBackoffFactor = 2.0;
+    Duration maximumRetryDelay = Seconds(60);
+
+    /**
+     * The number of times a failed request is retried before the download of its
+     * region is deactivated. A value of 0 retries indefinitely.
+     */
+    uint32_t maximumRetries = 0;
+};
+
 /*
  * A region can have a single observer, which gets notified whenever a change
  * to the region's status occurs.
@@ -42,6 +42,13 @@ public:
         All         = Cache | Network,
     };
 
+    // Low priority requests are only sent to the network when no regular request is waiting,
+    // e.g. offline downloads yield to the resources needed by the map on screen.
+    enum class Priority : bool {
+        Regular,
+        Low
+    };
+
     Resource(Kind kind_,
              std::string url_,
              optional<TileData> tileData_ = {},
@@ -72,6 +79,7 @@ public:
     
     Kind kind;
     LoadingMethod loadingMethod;
+    Priority priority = Priority::Regular;
     std::string url;
 
     // Includes auxiliary data if this is a tile request.
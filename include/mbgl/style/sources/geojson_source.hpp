@@ -2,6 +2,7 @@
 
 #include <mbgl/style/source.hpp>
 #include <mbgl/util/geojson.hpp>
+#include <mbgl/util/feature.hpp>
 #include <mbgl/util/optional.hpp>
 
 namespace mbgl {
@@ -21,8 +22,14 @@ struct GeoJSONOptions {
     bool cluster = false;
     uint16_t clusterRadius = 50;
     uint8_t clusterMaxZoom = 17;
+
+    // Keeps a copy of the features, which takes about as much memory as the features themselves,
+    // to support addFeatures, updateFeatures and removeFeatures.
+    bool incrementalUpdates = false;
 };
 
+class GeoJSONData;
+
 class GeoJSONSource : public Source {
 public:
     GeoJSONSource(const std::string& id, const GeoJSONOptions& = {});
@@ -31,18 +38,49 @@ public:
     void setURL(const std::string& url);
     void setGeoJSON(const GeoJSON&);
 
+    class Prepared;
+    void setGeoJSON(std::unique_ptr<Prepared>);
+
+    // Incremental updates of the current features, matched by id. Only the tiles covering
+    // the changed features are updated. Features without an id can only be added.
+    // Requires the incrementalUpdates option, updates are ignored otherwise.
+    void addFeatures(const FeatureCollection&);
+    void updateFeatures(const FeatureCollection&);
+    void removeFeatures(const std::vector<FeatureIdentifier>&);
+
     optional<std::string> getURL() const;
 
+    const GeoJSONOptions& getOptions() const;
+
     class Impl;
     const Impl& impl() const;
 
     void loadDescription(FileSource&) final;
 
 private:
+    void applyFeatureChanges(const FeatureCollection& changed,
+                             const std::vector<FeatureIdentifier>& removed,
+                             bool addUnmatched);
+
     optional<std::string> url;
     std::unique_ptr<AsyncRequest> req;
 };
 
+// GeoJSON with its tile index built for the given options. Building the index is the expensive
+// part of setting data on a source, preparing the data allows doing it on any thread.
+class GeoJSONSource::Prepared {
+public:
+    Prepared(GeoJSON, const GeoJSONOptions&);
+    ~Prepared();
+
+private:
+    friend class GeoJSONSource::Impl;
+
+    GeoJSONOptions options;
+    std::unique_ptr<GeoJSONData> data;
+    std::shared_ptr<const GeoJSON> geoJSON;
+};
+
 template <>
 inline bool Source::is<GeoJSONSource>() const {
     return getType() == SourceType::GeoJSON;
@@ -7,6 +7,7 @@
 #include <string>
 #include <vector>
 #include <memory>
+#include <exception>
 
 namespace mbgl {
 
@@ -19,6 +20,7 @@ class Light;
 class Image;
 class Source;
 class Layer;
+class Parser;
 
 class Style {
 public:
@@ -28,6 +30,12 @@ public:
     void loadJSON(const std::string&);
     void loadURL(const std::string&);
 
+    // A style document parsed ahead of loading. Parsing does not touch any style, so it
+    // may happen on any thread; only loading the result must happen on the style's thread.
+    class Parsed;
+    static std::unique_ptr<Parsed> parseJSON(const std::string&);
+    void loadJSON(std::unique_ptr<Parsed>);
+
     std::string getJSON() const;
     std::string getURL() const;
 
@@ -75,5 +83,21 @@ public:
     const std::unique_ptr<Impl> impl;
 };
 
+class Style::Parsed {
+public:
+    explicit Parsed(std::string json);
+    ~Parsed();
+
+    // The parse error, or nullptr if the document is a valid style.
+    std::exception_ptr getError() const;
+
+private:
+    friend class Style::Impl;
+
+    std::string json;
+    std::unique_ptr<Parser> parser;
+    std::exception_ptr error;
+};
+
 } // namespace style
 } // namespace mbgl
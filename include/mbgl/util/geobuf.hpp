@@ -0,0 +1,15 @@
+#pragma once
+
+#include <mbgl/util/geojson.hpp>
+
+#include <cstddef>
+
+namespace mbgl {
+namespace util {
+
+// Decodes GeoJSON from the compact Geobuf encoding, see https://github.com/mapbox/geobuf.
+// Throws a std::exception when the data is malformed.
+GeoJSON decodeGeobuf(const char* data, std::size_t size);
+
+} // namespace util
+} // namespace mbgl
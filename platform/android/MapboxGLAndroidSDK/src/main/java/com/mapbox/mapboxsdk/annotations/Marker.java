@@ -152,6 +152,19 @@ public class Marker extends Annotation {
     }
   }
 
+  /**
+   * Do not use this method, used internally by the SDK.
+   * <p>
+   * Sets the icon loaded for the marker, without updating the marker on the map.
+   * </p>
+   *
+   * @param icon the loaded icon
+   */
+  public void setLoadedIcon(@Nullable Icon icon) {
+    this.icon = icon;
+    this.iconId = icon != null ? icon.getId() : null;
+  }
+
   /**
    * Gets the {@link Icon} currently used for the marker. If no Icon was set for the marker, the
    * default icon will be returned.
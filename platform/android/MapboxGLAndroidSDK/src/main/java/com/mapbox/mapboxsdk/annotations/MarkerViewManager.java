@@ -21,9 +21,11 @@ import com.mapbox.mapboxsdk.utils.AnimatorUtils;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * Interface for interacting with ViewMarkers objects inside of a MapView.
@@ -483,13 +485,14 @@ public class MarkerViewManager implements MapView.OnMapChangedListener {
   public void invalidateViewMarkersInVisibleRegion() {
     RectF mapViewRect = new RectF(0, 0, markerViewContainer.getWidth(), markerViewContainer.getHeight());
     List<MarkerView> markers = mapboxMap.getMarkerViewsInRect(mapViewRect);
+    Set<MarkerView> visibleMarkers = new HashSet<>(markers);
     View convertView;
 
     // remove old markers
     Iterator<MarkerView> iterator = markerViewMap.keySet().iterator();
     while (iterator.hasNext()) {
       MarkerView marker = iterator.next();
-      if (!markers.contains(marker)) {
+      if (!visibleMarkers.contains(marker)) {
         // remove marker
         convertView = markerViewMap.get(marker);
         for (MapboxMap.MarkerViewAdapter adapter : markerViewAdapters) {
@@ -77,6 +77,16 @@ public class MapboxConstants {
    */
   public static final double MINIMUM_DIRECTION = 0;
 
+  /**
+   * The maximum latitude of the spherical mercator projection, the map is clamped beyond it
+   */
+  public static final double MAX_MERCATOR_LATITUDE = 85.05112877980659;
+
+  /**
+   * The minimum latitude of the spherical mercator projection, the map is clamped beyond it
+   */
+  public static final double MIN_MERCATOR_LATITUDE = -85.05112877980659;
+
   /**
    * The currently used minimun scale factor to clamp to when a quick zoom gesture occurs
    */
@@ -0,0 +1,97 @@
+package com.mapbox.mapboxsdk.http;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Pool of direct byte buffers used to hand response bodies to native code without an intermediate heap array.
+ * <p>
+ * Buffer capacities are rounded up to a power of two. Released buffers are retained as long as they do not exceed
+ * the maximum buffer size and the total retained capacity stays within the pool size, otherwise they are left to the
+ * garbage collector.
+ * </p>
+ */
+class ByteBufferPool {
+
+  static final int MIN_BUFFER_SIZE = 16 * 1024;
+
+  private final int maxBufferSize;
+  private final int maxPoolSize;
+  private final List<ByteBuffer> buffers = new ArrayList<>();
+  private int pooledSize;
+
+  ByteBufferPool(int maxBufferSize, int maxPoolSize) {
+    this.maxBufferSize = maxBufferSize;
+    this.maxPoolSize = maxPoolSize;
+  }
+
+  /**
+   * Obtain a cleared buffer with at least the requested capacity.
+   *
+   * @param minCapacity the minimum capacity
+   * @return a direct buffer
+   */
+  synchronized ByteBuffer acquire(int minCapacity) {
+    ByteBuffer candidate = null;
+    int candidateIndex = -1;
+    for (int i = 0; i < buffers.size(); i++) {
+      ByteBuffer buffer = buffers.get(i);
+      if (buffer.capacity() >= minCapacity && (candidate == null || buffer.capacity() < candidate.capacity())) {
+        candidate = buffer;
+        candidateIndex = i;
+      }
+    }
+
+    if (candidate != null) {
+      buffers.remove(candidateIndex);
+      pooledSize -= candidate.capacity();
+      candidate.clear();
+      return candidate;
+    }
+    return ByteBuffer.allocateDirect(roundUp(minCapacity)).order(ByteOrder.nativeOrder());
+  }
+
+  /**
+   * Obtain a buffer twice the capacity of a full buffer, holding a copy of its content. The full buffer is released.
+   *
+   * @param buffer the buffer to grow
+   * @return a larger direct buffer positioned after the copied content
+   */
+  ByteBuffer grow(ByteBuffer buffer) {
+    if (buffer.capacity() > Integer.MAX_VALUE / 2) {
+      throw new OutOfMemoryError("Response body exceeds the maximum buffer size");
+    }
+    ByteBuffer larger = acquire(buffer.capacity() * 2);
+    buffer.flip();
+    larger.put(buffer);
+    release(buffer);
+    return larger;
+  }
+
+  /**
+   * Return a buffer to the pool.
+   *
+   * @param buffer the buffer to release, it must not be used afterwards
+   */
+  synchronized void release(ByteBuffer buffer) {
+    int capacity = buffer.capacity();
+    if (capacity <= maxBufferSize && pooledSize + capacity <= maxPoolSize) {
+      buffers.add(buffer);
+      pooledSize += capacity;
+    }
+  }
+
+  synchronized int getPooledSize() {
+    return pooledSize;
+  }
+
+  private static int roundUp(int capacity) {
+    int size = MIN_BUFFER_SIZE;
+    while (size < capacity && size > 0) {
+      size <<= 1;
+    }
+    return size > 0 ? size : capacity;
+  }
+}
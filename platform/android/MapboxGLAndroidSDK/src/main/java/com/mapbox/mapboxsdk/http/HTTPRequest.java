@@ -7,52 +7,69 @@ import android.os.Build;
 import android.text.TextUtils;
 
 import com.mapbox.mapboxsdk.BuildConfig;
+import com.mapbox.mapboxsdk.LibraryLoader;
 import com.mapbox.mapboxsdk.Mapbox;
 import com.mapbox.mapboxsdk.constants.MapboxConstants;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.InterruptedIOException;
 import java.net.NoRouteToHostException;
 import java.net.ProtocolException;
 import java.net.SocketException;
 import java.net.UnknownHostException;
-import java.util.concurrent.locks.ReentrantLock;
+import java.nio.ByteBuffer;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 import javax.net.ssl.SSLException;
 
-import okhttp3.Call;
-import okhttp3.Callback;
 import okhttp3.HttpUrl;
-import okhttp3.OkHttpClient;
-import okhttp3.Request;
-import okhttp3.Response;
 import okhttp3.internal.Util;
 import timber.log.Timber;
 
-class HTTPRequest implements Callback {
+class HTTPRequest extends NativeCallbackGuard implements HttpRequestScheduler.Receiver {
 
-  private static OkHttpClient mClient = new OkHttpClient();
   private String USER_AGENT_STRING = null;
 
   private static final int CONNECTION_ERROR = 0;
   private static final int TEMPORARY_ERROR = 1;
   private static final int PERMANENT_ERROR = 2;
 
-  // Reentrancy is not needed, but "Lock" is an
-  // abstract class.
-  private ReentrantLock mLock = new ReentrantLock();
+  // Bounds the direct memory retained for response bodies to 4 MiB, in buffers of at most 1 MiB
+  private static final ByteBufferPool bufferPool = new ByteBufferPool(1024 * 1024, 4 * 1024 * 1024);
+
+  // Per-thread chunk used to move body segments from the transport into direct buffers
+  private static final ThreadLocal<byte[]> readChunk = new ThreadLocal<byte[]>() {
+    @Override
+    protected byte[] initialValue() {
+      return new byte[8 * 1024];
+    }
+  };
 
   private long mNativePtr = 0;
 
-  private Call mCall;
-  private Request mRequest;
+  private HttpRequestScheduler.ScheduledCall mScheduledCall;
+
+  static {
+    LibraryLoader.load();
+  }
+
+  /**
+   * Sets the maximum amount of requests native code keeps in flight, following the shared HTTP client configuration.
+   *
+   * @param maxRequests the maximum amount of requests
+   */
+  static native void nativeSetMaxRequests(int maxRequests);
 
   private native void nativeOnFailure(int type, String message);
 
   private native void nativeOnResponse(int code, String etag, String modified, String cacheControl, String expires,
-                                       String retryAfter, String xRateLimitReset, byte[] body);
+                                       String retryAfter, String xRateLimitReset, ByteBuffer body,
+                                       int length);
 
-  private HTTPRequest(long nativePtr, String resourceUrl, String etag, String modified) {
+  private HTTPRequest(long nativePtr, String resourceUrl, String etag, String modified, int kind,
+                      boolean lowPriority, int zoom) {
     mNativePtr = nativePtr;
 
     try {
@@ -74,24 +91,21 @@ class HTTPRequest implements Callback {
         resourceUrl = resourceUrl + "events=true";
       }
 
-      Request.Builder builder = new Request.Builder()
-        .url(resourceUrl)
-        .tag(resourceUrl.toLowerCase(MapboxConstants.MAPBOX_LOCALE))
-        .addHeader("User-Agent", getUserAgent());
+      Map<String, String> headers = new LinkedHashMap<>(2);
+      headers.put("User-Agent", getUserAgent());
       if (etag.length() > 0) {
-        builder = builder.addHeader("If-None-Match", etag);
+        headers.put("If-None-Match", etag);
       } else if (modified.length() > 0) {
-        builder = builder.addHeader("If-Modified-Since", modified);
+        headers.put("If-Modified-Since", modified);
       }
-      mRequest = builder.build();
-      mCall = mClient.newCall(mRequest);
 
+      int priority = HttpRequestScheduler.getPriority(kind, lowPriority);
       // TODO remove code block for workaround in #10303
       if (Build.VERSION.SDK_INT <= Build.VERSION_CODES.N_MR1) {
-        mCall.enqueue(this);
+        mScheduledCall = HttpRequestUtil.getScheduler().schedule(resourceUrl, headers, priority, zoom, this);
       } else {
-        // Calling execute instead of enqueue is a workaround for #10303
-        onResponse(mCall, mCall.execute());
+        // Executing instead of scheduling is a workaround for #10303
+        mScheduledCall = HttpRequestUtil.getScheduler().execute(resourceUrl, headers, priority, zoom, this);
       }
     } catch (Exception exception) {
       onFailure(exception);
@@ -99,62 +113,84 @@ class HTTPRequest implements Callback {
   }
 
   public void cancel() {
-    // mCall can be null if the constructor gets aborted (e.g, under a NoRouteToHostException).
-    if (mCall != null) {
-      mCall.cancel();
+    // mScheduledCall can be null if the constructor gets aborted (e.g, under a NoRouteToHostException).
+    if (mScheduledCall != null) {
+      HttpRequestUtil.getScheduler().cancel(mScheduledCall, this);
     }
 
-    // TODO: We need a lock here because we can try
-    // to cancel at the same time the request is getting
-    // answered on the OkHTTP thread. We could get rid of
-    // this lock by using Runnable when we move Android
-    // implementation of mbgl::RunLoop to Looper.
-    mLock.lock();
+    // We can try to cancel at the same time the request is getting answered on the OkHTTP thread.
+    // Once cancelCallbacks returns, no callback is running and none will reach the native peer.
+    cancelCallbacks();
     mNativePtr = 0;
-    mLock.unlock();
   }
 
   @Override
-  public void onResponse(Call call, Response response) throws IOException {
+  public void onResponse(HttpResponse response, ByteBuffer body, int length) {
     if (response.isSuccessful()) {
-      Timber.v("[HTTP] Request was successful (code = %s).", response.code());
+      Timber.v("[HTTP] Request was successful (code = %s).", response.getCode());
     } else {
       // We don't want to call this unsuccessful because a 304 isn't really an error
-      String message = !TextUtils.isEmpty(response.message()) ? response.message() : "No additional information";
-      Timber.d("[HTTP] Request with response code = %s: %s", response.code(), message);
+      String message = !TextUtils.isEmpty(response.getMessage())
+        ? response.getMessage() : "No additional information";
+      Timber.d("[HTTP] Request with response code = %s: %s", response.getCode(), message);
     }
 
-    byte[] body;
-    try {
-      body = response.body().bytes();
-    } catch (IOException ioException) {
-      onFailure(ioException);
-      // throw ioException;
-      return;
-    } finally {
-      response.body().close();
+    if (enterCallback()) {
+      try {
+        nativeOnResponse(response.getCode(),
+          response.getHeader("ETag"),
+          response.getHeader("Last-Modified"),
+          response.getHeader("Cache-Control"),
+          response.getHeader("Expires"),
+          response.getHeader("Retry-After"),
+          response.getHeader("x-rate-limit-reset"),
+          body,
+          length);
+      } finally {
+        exitCallback();
+      }
     }
+  }
 
-    mLock.lock();
-    if (mNativePtr != 0) {
-      nativeOnResponse(response.code(),
-        response.header("ETag"),
-        response.header("Last-Modified"),
-        response.header("Cache-Control"),
-        response.header("Expires"),
-        response.header("Retry-After"),
-        response.header("x-rate-limit-reset"),
-        body);
+  /**
+   * Streams a response body into a pooled direct buffer.
+   *
+   * @param response the response to read the body of
+   * @return the buffer, positioned after the last byte of the body
+   * @throws IOException when reading the body fails
+   */
+  static ByteBuffer readBody(HttpResponse response) throws IOException {
+    long contentLength = response.getContentLength();
+    ByteBuffer buffer = bufferPool.acquire(contentLength > 0 && contentLength <= Integer.MAX_VALUE
+      ? (int) contentLength : ByteBufferPool.MIN_BUFFER_SIZE);
+    byte[] chunk = readChunk.get();
+    try {
+      InputStream source = response.getBody();
+      int read;
+      while ((read = source.read(chunk, 0, chunk.length)) != -1) {
+        if (buffer.remaining() < read) {
+          buffer = bufferPool.grow(buffer);
+        }
+        buffer.put(chunk, 0, read);
+      }
+    } catch (IOException | RuntimeException exception) {
+      bufferPool.release(buffer);
+      throw exception;
     }
-    mLock.unlock();
+    return buffer;
   }
 
-  @Override
-  public void onFailure(Call call, IOException e) {
-    onFailure(e);
+  /**
+   * Returns a buffer obtained from {@link #readBody(HttpResponse)} to the pool.
+   *
+   * @param body the buffer to release
+   */
+  static void releaseBody(ByteBuffer body) {
+    bufferPool.release(body);
   }
 
-  private void onFailure(Exception e) {
+  @Override
+  public void onFailure(Exception e) {
     int type = PERMANENT_ERROR;
     if ((e instanceof NoRouteToHostException) || (e instanceof UnknownHostException) || (e instanceof SocketException)
       || (e instanceof ProtocolException) || (e instanceof SSLException)) {
@@ -174,11 +210,13 @@ class HTTPRequest implements Callback {
       Timber.w("Request failed due to a permanent error: %s", errorMessage);
     }
 
-    mLock.lock();
-    if (mNativePtr != 0) {
-      nativeOnFailure(type, errorMessage);
+    if (enterCallback()) {
+      try {
+        nativeOnFailure(type, errorMessage);
+      } finally {
+        exitCallback();
+      }
     }
-    mLock.unlock();
   }
 
   private String getUserAgent() {
@@ -0,0 +1,336 @@
+package com.mapbox.mapboxsdk.http;
+
+import android.support.annotation.IntRange;
+import android.support.annotation.NonNull;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+
+/**
+ * Configuration of the shared HTTP client used to load styles, tiles, sprites and glyphs.
+ * <p>
+ * Use {@link com.mapbox.mapboxsdk.storage.FileSource#setHttpClientConfig(HttpClientConfig)} to apply a configuration.
+ * Requests that are in flight while a new configuration is applied finish on the previous client.
+ * </p>
+ */
+public class HttpClientConfig {
+
+  /**
+   * Default maximum amount of requests executing concurrently.
+   */
+  public static final int DEFAULT_MAX_REQUESTS = 20;
+
+  /**
+   * Default maximum amount of requests executing concurrently for a single host.
+   */
+  public static final int DEFAULT_MAX_REQUESTS_PER_HOST = 5;
+
+  /**
+   * Default maximum amount of idle connections kept in the connection pool.
+   */
+  public static final int DEFAULT_MAX_IDLE_CONNECTIONS = 5;
+
+  /**
+   * Default keep-alive duration of idle connections, in milliseconds.
+   */
+  public static final long DEFAULT_KEEP_ALIVE_DURATION = 5 * 60 * 1000;
+
+  /**
+   * Default connect, read and write timeout, in milliseconds.
+   */
+  public static final long DEFAULT_TIMEOUT = 10 * 1000;
+
+  private final int maxRequests;
+  private final int maxRequestsPerHost;
+  private final int maxIdleConnections;
+  private final long keepAliveDuration;
+  private final boolean http2Enabled;
+  private final long connectTimeout;
+  private final long readTimeout;
+  private final long writeTimeout;
+
+  private HttpClientConfig(Builder builder) {
+    this.maxRequests = builder.maxRequests;
+    this.maxRequestsPerHost = builder.maxRequestsPerHost;
+    this.maxIdleConnections = builder.maxIdleConnections;
+    this.keepAliveDuration = builder.keepAliveDuration;
+    this.http2Enabled = builder.http2Enabled;
+    this.connectTimeout = builder.connectTimeout;
+    this.readTimeout = builder.readTimeout;
+    this.writeTimeout = builder.writeTimeout;
+  }
+
+  /**
+   * Get the maximum amount of requests executing concurrently.
+   *
+   * @return the maximum amount of requests
+   */
+  public int getMaxRequests() {
+    return maxRequests;
+  }
+
+  /**
+   * Get the maximum amount of requests executing concurrently for a single host.
+   *
+   * @return the maximum amount of requests per host
+   */
+  public int getMaxRequestsPerHost() {
+    return maxRequestsPerHost;
+  }
+
+  /**
+   * Get the maximum amount of idle connections kept in the connection pool.
+   *
+   * @return the maximum amount of idle connections
+   */
+  public int getMaxIdleConnections() {
+    return maxIdleConnections;
+  }
+
+  /**
+   * Get the duration an idle connection is kept alive, in milliseconds.
+   *
+   * @return the keep-alive duration
+   */
+  public long getKeepAliveDuration() {
+    return keepAliveDuration;
+  }
+
+  /**
+   * Returns true if HTTP/2 is negotiated when the server supports it.
+   *
+   * @return true if HTTP/2 is enabled
+   */
+  public boolean isHttp2Enabled() {
+    return http2Enabled;
+  }
+
+  /**
+   * Get the connect timeout, in milliseconds.
+   *
+   * @return the connect timeout
+   */
+  public long getConnectTimeout() {
+    return connectTimeout;
+  }
+
+  /**
+   * Get the read timeout, in milliseconds.
+   *
+   * @return the read timeout
+   */
+  public long getReadTimeout() {
+    return readTimeout;
+  }
+
+  /**
+   * Get the write timeout, in milliseconds.
+   *
+   * @return the write timeout
+   */
+  public long getWriteTimeout() {
+    return writeTimeout;
+  }
+
+  /**
+   * Builds an OkHttpClient matching this configuration.
+   *
+   * @return the configured client
+   */
+  OkHttpClient createClient() {
+    Dispatcher dispatcher = new Dispatcher();
+    dispatcher.setMaxRequests(maxRequests);
+    dispatcher.setMaxRequestsPerHost(maxRequestsPerHost);
+
+    OkHttpClient.Builder builder = new OkHttpClient.Builder()
+      .dispatcher(dispatcher)
+      .connectionPool(new ConnectionPool(maxIdleConnections, keepAliveDuration, TimeUnit.MILLISECONDS))
+      .connectTimeout(connectTimeout, TimeUnit.MILLISECONDS)
+      .readTimeout(readTimeout, TimeUnit.MILLISECONDS)
+      .writeTimeout(writeTimeout, TimeUnit.MILLISECONDS);
+
+    if (http2Enabled) {
+      builder.protocols(Arrays.asList(Protocol.HTTP_2, Protocol.HTTP_1_1));
+    } else {
+      builder.protocols(Collections.singletonList(Protocol.HTTP_1_1));
+    }
+    return builder.build();
+  }
+
+  @Override
+  public String toString() {
+    return "HttpClientConfig [maxRequests=" + maxRequests + ", maxRequestsPerHost=" + maxRequestsPerHost
+      + ", maxIdleConnections=" + maxIdleConnections + ", keepAliveDuration=" + keepAliveDuration
+      + ", http2Enabled=" + http2Enabled + ", connectTimeout=" + connectTimeout + ", readTimeout=" + readTimeout
+      + ", writeTimeout=" + writeTimeout + "]";
+  }
+
+  /**
+   * Builder for composing HttpClientConfig objects.
+   */
+  public static final class Builder {
+
+    private int maxRequests = DEFAULT_MAX_REQUESTS;
+    private int maxRequestsPerHost = DEFAULT_MAX_REQUESTS_PER_HOST;
+    private int maxIdleConnections = DEFAULT_MAX_IDLE_CONNECTIONS;
+    private long keepAliveDuration = DEFAULT_KEEP_ALIVE_DURATION;
+    private boolean http2Enabled = true;
+    private long connectTimeout = DEFAULT_TIMEOUT;
+    private long readTimeout = DEFAULT_TIMEOUT;
+    private long writeTimeout = DEFAULT_TIMEOUT;
+
+    /**
+     * Create a builder initialised with the default configuration.
+     */
+    public Builder() {
+    }
+
+    /**
+     * Create a builder initialised with an existing configuration.
+     *
+     * @param config the configuration to copy
+     */
+    public Builder(@NonNull HttpClientConfig config) {
+      this.maxRequests = config.maxRequests;
+      this.maxRequestsPerHost = config.maxRequestsPerHost;
+      this.maxIdleConnections = config.maxIdleConnections;
+      this.keepAliveDuration = config.keepAliveDuration;
+      this.http2Enabled = config.http2Enabled;
+      this.connectTimeout = config.connectTimeout;
+      this.readTimeout = config.readTimeout;
+      this.writeTimeout = config.writeTimeout;
+    }
+
+    /**
+     * Set the maximum amount of requests executing concurrently. Above this limit requests are queued.
+     * <p>
+     * The map and offline downloads also keep at most this amount of requests in flight.
+     * </p>
+     *
+     * @param maxRequests the maximum amount of requests - Defaults to {@link #DEFAULT_MAX_REQUESTS}
+     * @return this
+     */
+    public Builder maxRequests(@IntRange(from = 1) int maxRequests) {
+      if (maxRequests < 1) {
+        throw new IllegalArgumentException("maxRequests < 1: " + maxRequests);
+      }
+      this.maxRequests = maxRequests;
+      return this;
+    }
+
+    /**
+     * Set the maximum amount of requests executing concurrently for a single host.
+     * <p>
+     * Requests multiplexed over a single HTTP/2 connection each count towards this limit.
+     * </p>
+     *
+     * @param maxRequestsPerHost the maximum amount of requests per host - Defaults to
+     *                           {@link #DEFAULT_MAX_REQUESTS_PER_HOST}
+     * @return this
+     */
+    public Builder maxRequestsPerHost(@IntRange(from = 1) int maxRequestsPerHost) {
+      if (maxRequestsPerHost < 1) {
+        throw new IllegalArgumentException("maxRequestsPerHost < 1: " + maxRequestsPerHost);
+      }
+      this.maxRequestsPerHost = maxRequestsPerHost;
+      return this;
+    }
+
+    /**
+     * Set the maximum amount of idle connections kept in the connection pool.
+     *
+     * @param maxIdleConnections the maximum amount of idle connections - Defaults to
+     *                           {@link #DEFAULT_MAX_IDLE_CONNECTIONS}
+     * @return this
+     */
+    public Builder maxIdleConnections(@IntRange(from = 0) int maxIdleConnections) {
+      if (maxIdleConnections < 0) {
+        throw new IllegalArgumentException("maxIdleConnections < 0: " + maxIdleConnections);
+      }
+      this.maxIdleConnections = maxIdleConnections;
+      return this;
+    }
+
+    /**
+     * Set the duration an idle connection is kept alive in the connection pool.
+     *
+     * @param keepAliveDuration the keep-alive duration, in milliseconds - Defaults to
+     *                          {@link #DEFAULT_KEEP_ALIVE_DURATION}
+     * @return this
+     */
+    public Builder keepAliveDuration(@IntRange(from = 1) long keepAliveDuration) {
+      if (keepAliveDuration < 1) {
+        throw new IllegalArgumentException("keepAliveDuration < 1: " + keepAliveDuration);
+      }
+      this.keepAliveDuration = keepAliveDuration;
+      return this;
+    }
+
+    /**
+     * Set if HTTP/2 should be negotiated when the server supports it. When enabled, requests to the same host are
+     * multiplexed over a single connection.
+     *
+     * @param http2Enabled true to prefer HTTP/2, false to restrict to HTTP/1.1 - Defaults to true
+     * @return this
+     */
+    public Builder http2Enabled(boolean http2Enabled) {
+      this.http2Enabled = http2Enabled;
+      return this;
+    }
+
+    /**
+     * Set the connect timeout. A value of 0 means no timeout.
+     *
+     * @param connectTimeout the connect timeout, in milliseconds - Defaults to {@link #DEFAULT_TIMEOUT}
+     * @return this
+     */
+    public Builder connectTimeout(@IntRange(from = 0) long connectTimeout) {
+      this.connectTimeout = checkTimeout("connectTimeout", connectTimeout);
+      return this;
+    }
+
+    /**
+     * Set the read timeout. A value of 0 means no timeout.
+     *
+     * @param readTimeout the read timeout, in milliseconds - Defaults to {@link #DEFAULT_TIMEOUT}
+     * @return this
+     */
+    public Builder readTimeout(@IntRange(from = 0) long readTimeout) {
+      this.readTimeout = checkTimeout("readTimeout", readTimeout);
+      return this;
+    }
+
+    /**
+     * Set the write timeout. A value of 0 means no timeout.
+     *
+     * @param writeTimeout the write timeout, in milliseconds - Defaults to {@link #DEFAULT_TIMEOUT}
+     * @return this
+     */
+    public Builder writeTimeout(@IntRange(from = 0) long writeTimeout) {
+      this.writeTimeout = checkTimeout("writeTimeout", writeTimeout);
+      return this;
+    }
+
+    /**
+     * Builds the HttpClientConfig.
+     *
+     * @return HttpClientConfig
+     */
+    public HttpClientConfig build() {
+      return new HttpClientConfig(this);
+    }
+
+    private static long checkTimeout(String name, long timeout) {
+      if (timeout < 0) {
+        throw new IllegalArgumentException(name + " < 0: " + timeout);
+      }
+      return timeout;
+    }
+  }
+}
@@ -0,0 +1,460 @@
+package com.mapbox.mapboxsdk.http;
+
+import android.support.annotation.NonNull;
+
+import com.mapbox.mapboxsdk.storage.Resource;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.CountDownLatch;
+
+import okhttp3.HttpUrl;
+
+/**
+ * Dispatches HTTP requests by priority instead of in FIFO order, and coalesces identical requests in flight.
+ * <p>
+ * Requests are held back until the limits of the active {@link HttpClientConfig} allow them to run on the
+ * {@link HttpRequestTransport}, so a style, source, sprite or glyph request always runs before the next tile, and
+ * tiles run before low priority requests such as offline downloads. Among tiles, higher zoom levels go first:
+ * prefetched tiles are requested at lower zoom levels than the tiles covering the viewport. Requests with the same
+ * URL and validators share a single network call.
+ * </p>
+ */
+class HttpRequestScheduler {
+
+  static final int PRIORITY_HIGH = 0;
+  static final int PRIORITY_NORMAL = 1;
+  static final int PRIORITY_LOW = 2;
+
+  /**
+   * Receives the outcome of a scheduled request.
+   */
+  interface Receiver {
+
+    /**
+     * Called with the response of the network call.
+     *
+     * @param response the response, its body has already been consumed
+     * @param body     the body of a 200 response, or null
+     * @param length   the length of the body
+     */
+    void onResponse(HttpResponse response, ByteBuffer body, int length);
+
+    /**
+     * Called when the network call failed.
+     *
+     * @param exception the cause of the failure
+     */
+    void onFailure(Exception exception);
+  }
+
+  private static final Comparator<ScheduledCall> ORDER = new Comparator<ScheduledCall>() {
+    @Override
+    public int compare(ScheduledCall lhs, ScheduledCall rhs) {
+      if (lhs.priority != rhs.priority) {
+        return lhs.priority < rhs.priority ? -1 : 1;
+      }
+      if (lhs.zoom != rhs.zoom) {
+        return lhs.zoom > rhs.zoom ? -1 : 1;
+      }
+      return lhs.sequence < rhs.sequence ? -1 : (lhs.sequence == rhs.sequence ? 0 : 1);
+    }
+  };
+
+  // pending calls are queued per host, so that hosts at their limit don't need to be scanned when dispatching
+  private final Map<String, PriorityQueue<ScheduledCall>> pendingCallsPerHost = new HashMap<>();
+  private final Map<String, ScheduledCall> activeCalls = new HashMap<>();
+  private final Map<String, Integer> runningCallsPerHost = new HashMap<>();
+  private int pendingCallCount;
+  private int runningCallCount;
+  private long sequence;
+
+  /**
+   * Maps a resource kind to a scheduling priority.
+   *
+   * @param kind        the resource kind, one of {@link Resource.Kind}
+   * @param lowPriority true if the request was marked as low priority, e.g. for an offline download
+   * @return the priority
+   */
+  static int getPriority(@Resource.Kind int kind, boolean lowPriority) {
+    if (lowPriority) {
+      return PRIORITY_LOW;
+    }
+    switch (kind) {
+      case Resource.STYLE:
+      case Resource.SOURCE:
+      case Resource.GLYPHS:
+      case Resource.SPRITE_IMAGE:
+      case Resource.SPRITE_JSON:
+        return PRIORITY_HIGH;
+      default:
+        return PRIORITY_NORMAL;
+    }
+  }
+
+  /**
+   * Schedules a request. If an identical request is already pending or running, the receiver joins it.
+   *
+   * @param url      the URL to request
+   * @param headers  the request headers
+   * @param priority the priority of the request
+   * @param zoom     the zoom level of a tile request, -1 otherwise
+   * @param receiver the receiver of the outcome
+   * @return the call the receiver was attached to
+   */
+  ScheduledCall schedule(@NonNull String url, @NonNull Map<String, String> headers, int priority, int zoom,
+                         @NonNull Receiver receiver) {
+    String key = getKey(url, headers);
+    ScheduledCall scheduledCall;
+    synchronized (this) {
+      scheduledCall = activeCalls.get(key);
+      if (scheduledCall != null) {
+        scheduledCall.receivers.add(receiver);
+        if (!scheduledCall.started && (priority < scheduledCall.priority
+          || (priority == scheduledCall.priority && zoom > scheduledCall.zoom))) {
+          // the joining request is more urgent, move the call up in the queue
+          removePending(scheduledCall);
+          scheduledCall.priority = priority;
+          scheduledCall.zoom = zoom;
+          addPending(scheduledCall);
+        }
+        return scheduledCall;
+      }
+
+      scheduledCall = new ScheduledCall(key, url, headers, priority, zoom, sequence++);
+      scheduledCall.receivers.add(receiver);
+      activeCalls.put(key, scheduledCall);
+      addPending(scheduledCall);
+    }
+    dispatch();
+    return scheduledCall;
+  }
+
+  /**
+   * Runs a request right away and delivers its outcome on the calling thread, once the transport completes it.
+   * <p>
+   * The call counts towards the limits of the pending requests but isn't held back by them, nor coalesced.
+   * </p>
+   *
+   * @param url      the URL to request
+   * @param headers  the request headers
+   * @param priority the priority of the request
+   * @param zoom     the zoom level of a tile request, -1 otherwise
+   * @param receiver the receiver of the outcome
+   * @return the completed call
+   */
+  ScheduledCall execute(@NonNull String url, @NonNull Map<String, String> headers, int priority, int zoom,
+                        @NonNull Receiver receiver) {
+    ScheduledCall scheduledCall;
+    synchronized (this) {
+      scheduledCall = new ScheduledCall(getKey(url, headers), url, headers, priority, zoom, sequence++);
+      scheduledCall.receivers.add(receiver);
+      scheduledCall.started = true;
+      runningCallCount++;
+      runningCallsPerHost.put(scheduledCall.host, getRunningCount(scheduledCall.host) + 1);
+    }
+
+    SynchronousCallback callback = new SynchronousCallback();
+    HttpRequestTransport.Call call = getTransport().enqueue(url, headers, callback);
+    synchronized (this) {
+      scheduledCall.call = call;
+    }
+    try {
+      callback.latch.await();
+    } catch (InterruptedException interruptedException) {
+      call.cancel();
+      Thread.currentThread().interrupt();
+      scheduledCall.onFailure(new InterruptedIOException("Request interrupted"));
+      return scheduledCall;
+    }
+
+    if (callback.response != null) {
+      scheduledCall.onResponse(callback.response);
+    } else {
+      scheduledCall.onFailure(callback.exception);
+    }
+    return scheduledCall;
+  }
+
+  /**
+   * Detaches a receiver from its call. The network call is cancelled once no receiver is attached anymore.
+   *
+   * @param scheduledCall the call returned by {@link #schedule(String, Map, int, int, Receiver)} or
+   *                      {@link #execute(String, Map, int, int, Receiver)}
+   * @param receiver      the receiver to detach
+   */
+  void cancel(@NonNull ScheduledCall scheduledCall, @NonNull Receiver receiver) {
+    HttpRequestTransport.Call call;
+    synchronized (this) {
+      if (!scheduledCall.receivers.remove(receiver) || !scheduledCall.receivers.isEmpty()) {
+        return;
+      }
+      if (!scheduledCall.started) {
+        if (activeCalls.get(scheduledCall.key) == scheduledCall) {
+          activeCalls.remove(scheduledCall.key);
+        }
+        removePending(scheduledCall);
+        return;
+      }
+      // transports aren't required to report cancellation, release the slot right away
+      scheduledCall.cancelled = true;
+      call = scheduledCall.call;
+      finish(scheduledCall);
+    }
+    if (call != null) {
+      call.cancel();
+    }
+    dispatch();
+  }
+
+  /**
+   * Starts pending calls, in priority order, as long as the dispatcher limits allow.
+   * <p>
+   * The calls are handed to the transport outside of the lock, a transport may run callbacks right away.
+   * </p>
+   */
+  void dispatch() {
+    List<ScheduledCall> startedCalls = startPendingCalls();
+    HttpRequestTransport transport = getTransport();
+    for (ScheduledCall scheduledCall : startedCalls) {
+      HttpRequestTransport.Call call = transport.enqueue(scheduledCall.url, scheduledCall.headers, scheduledCall);
+      boolean cancelled;
+      synchronized (this) {
+        scheduledCall.call = call;
+        cancelled = scheduledCall.cancelled;
+      }
+      if (cancelled) {
+        // cancelled before the transport returned the call
+        call.cancel();
+      }
+    }
+  }
+
+  /**
+   * Get the amount of requests waiting to be dispatched.
+   *
+   * @return the amount of pending requests
+   */
+  synchronized int getPendingCount() {
+    return pendingCallCount;
+  }
+
+  /**
+   * Get the amount of calls running on the transport.
+   *
+   * @return the amount of running calls
+   */
+  synchronized int getRunningCount() {
+    return runningCallCount;
+  }
+
+  HttpRequestTransport getTransport() {
+    return HttpRequestUtil.getTransport();
+  }
+
+  int getMaxRequests() {
+    return HttpRequestUtil.getClientConfig().getMaxRequests();
+  }
+
+  int getMaxRequestsPerHost() {
+    return HttpRequestUtil.getClientConfig().getMaxRequestsPerHost();
+  }
+
+  /**
+   * Marks the most urgent pending calls as started, as long as the dispatcher limits allow. Only the first pending
+   * call of each host with a free slot is considered for every call started.
+   *
+   * @return the calls to hand to the transport
+   */
+  private synchronized List<ScheduledCall> startPendingCalls() {
+    int maxRequests = getMaxRequests();
+    int maxRequestsPerHost = getMaxRequestsPerHost();
+    List<ScheduledCall> startedCalls = new ArrayList<>(0);
+    while (runningCallCount < maxRequests && pendingCallCount > 0) {
+      ScheduledCall next = null;
+      for (Map.Entry<String, PriorityQueue<ScheduledCall>> entry : pendingCallsPerHost.entrySet()) {
+        if (getRunningCount(entry.getKey()) >= maxRequestsPerHost) {
+          continue;
+        }
+        ScheduledCall first = entry.getValue().peek();
+        if (next == null || ORDER.compare(first, next) < 0) {
+          next = first;
+        }
+      }
+      if (next == null) {
+        // every host with pending calls is at its limit
+        break;
+      }
+
+      removePending(next);
+      runningCallCount++;
+      runningCallsPerHost.put(next.host, getRunningCount(next.host) + 1);
+      next.started = true;
+      startedCalls.add(next);
+    }
+    return startedCalls;
+  }
+
+  private int getRunningCount(String host) {
+    Integer hostCount = runningCallsPerHost.get(host);
+    return hostCount != null ? hostCount : 0;
+  }
+
+  private void addPending(ScheduledCall scheduledCall) {
+    PriorityQueue<ScheduledCall> hostCalls = pendingCallsPerHost.get(scheduledCall.host);
+    if (hostCalls == null) {
+      hostCalls = new PriorityQueue<>(16, ORDER);
+      pendingCallsPerHost.put(scheduledCall.host, hostCalls);
+    }
+    hostCalls.add(scheduledCall);
+    pendingCallCount++;
+  }
+
+  private void removePending(ScheduledCall scheduledCall) {
+    PriorityQueue<ScheduledCall> hostCalls = pendingCallsPerHost.get(scheduledCall.host);
+    if (hostCalls != null && hostCalls.remove(scheduledCall)) {
+      pendingCallCount--;
+      if (hostCalls.isEmpty()) {
+        pendingCallsPerHost.remove(scheduledCall.host);
+      }
+    }
+  }
+
+  /**
+   * Releases the slot of a started call, once. Callers dispatch the pending calls afterwards, outside of the lock.
+   *
+   * @param scheduledCall the call to finish
+   * @return the receivers to notify, empty if the call was already finished
+   */
+  private synchronized List<Receiver> finish(ScheduledCall scheduledCall) {
+    if (scheduledCall.finished) {
+      return new ArrayList<>(0);
+    }
+    scheduledCall.finished = true;
+
+    String host = scheduledCall.host;
+    Integer hostCount = runningCallsPerHost.get(host);
+    if (hostCount == null || hostCount <= 1) {
+      runningCallsPerHost.remove(host);
+    } else {
+      runningCallsPerHost.put(host, hostCount - 1);
+    }
+    runningCallCount--;
+
+    if (activeCalls.get(scheduledCall.key) == scheduledCall) {
+      activeCalls.remove(scheduledCall.key);
+    }
+    List<Receiver> receivers = new ArrayList<>(scheduledCall.receivers);
+    scheduledCall.receivers.clear();
+    return receivers;
+  }
+
+  private static String getKey(String url, Map<String, String> headers) {
+    String etag = headers.get("If-None-Match");
+    String modified = headers.get("If-Modified-Since");
+    return url + '\n' + (etag != null ? etag : "") + '\n' + (modified != null ? modified : "");
+  }
+
+  /**
+   * Holds the outcome of a transport call until the thread executing it picks it up.
+   */
+  private static final class SynchronousCallback implements HttpRequestTransport.Callback {
+
+    private final CountDownLatch latch = new CountDownLatch(1);
+    private volatile HttpResponse response;
+    private volatile Exception exception;
+
+    @Override
+    public void onResponse(@NonNull HttpResponse response) {
+      this.response = response;
+      latch.countDown();
+    }
+
+    @Override
+    public void onFailure(@NonNull Exception exception) {
+      this.exception = exception;
+      latch.countDown();
+    }
+  }
+
+  /**
+   * A network call shared by one or more receivers.
+   */
+  final class ScheduledCall implements HttpRequestTransport.Callback {
+
+    private final String key;
+    private final String url;
+    private final Map<String, String> headers;
+    private final String host;
+    private final long sequence;
+    private final List<Receiver> receivers = new ArrayList<>(1);
+    private int priority;
+    private int zoom;
+    private boolean started;
+    private boolean finished;
+    private boolean cancelled;
+    private HttpRequestTransport.Call call;
+
+    private ScheduledCall(String key, String url, Map<String, String> headers, int priority, int zoom,
+                          long sequence) {
+      this.key = key;
+      this.url = url;
+      this.headers = headers;
+      HttpUrl httpUrl = HttpUrl.parse(url);
+      this.host = httpUrl != null ? httpUrl.host() : "";
+      this.priority = priority;
+      this.zoom = zoom;
+      this.sequence = sequence;
+    }
+
+    @Override
+    public void onResponse(@NonNull HttpResponse response) {
+      List<Receiver> receivers = finish(this);
+      dispatch();
+      if (receivers.isEmpty()) {
+        response.close();
+        return;
+      }
+
+      ByteBuffer body = null;
+      int length = 0;
+      try {
+        if (response.getCode() == 200) {
+          body = HTTPRequest.readBody(response);
+          length = body.position();
+        }
+      } catch (IOException ioException) {
+        for (Receiver receiver : receivers) {
+          receiver.onFailure(ioException);
+        }
+        return;
+      } finally {
+        response.close();
+      }
+
+      for (Receiver receiver : receivers) {
+        // receivers copy the body before returning
+        receiver.onResponse(response, body, length);
+      }
+      if (body != null) {
+        HTTPRequest.releaseBody(body);
+      }
+    }
+
+    @Override
+    public void onFailure(@NonNull Exception exception) {
+      List<Receiver> receivers = finish(this);
+      dispatch();
+      for (Receiver receiver : receivers) {
+        receiver.onFailure(exception);
+      }
+    }
+  }
+}
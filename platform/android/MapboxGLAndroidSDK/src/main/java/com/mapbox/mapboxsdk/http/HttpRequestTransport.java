@@ -0,0 +1,75 @@
+package com.mapbox.mapboxsdk.http;
+
+import android.support.annotation.NonNull;
+
+import java.util.Map;
+
+/**
+ * Transport executing the HTTP requests of the file source.
+ * <p>
+ * The default transport is {@link OkHttpRequestTransport}. A custom transport, for example backed by Cronet or
+ * replaying recorded responses with {@link ReplayRequestTransport}, can be installed with
+ * {@link com.mapbox.mapboxsdk.storage.FileSource#setHttpRequestTransport(HttpRequestTransport)}.
+ * </p>
+ * <p>
+ * Requests are prioritised, limited and coalesced before reaching the transport, according to the
+ * {@link HttpClientConfig} in use. Implementations must be thread safe: requests are started from the file source
+ * thread and from the threads delivering responses.
+ * </p>
+ */
+public interface HttpRequestTransport {
+
+  /**
+   * Starts an asynchronous request.
+   * <p>
+   * The callback is invoked exactly once, on any thread, unless the request gets cancelled.
+   * </p>
+   *
+   * @param url      the URL to request
+   * @param headers  the request headers, e.g. User-Agent and the validators of a conditional request
+   * @param callback the callback to invoke with the outcome of the request
+   * @return a handle to cancel the request
+   */
+  @NonNull
+  Call enqueue(@NonNull String url, @NonNull Map<String, String> headers, @NonNull Callback callback);
+
+  /**
+   * A request started by a transport.
+   */
+  interface Call {
+
+    /**
+     * Cancels the request. Callbacks invoked after cancellation are ignored.
+     */
+    void cancel();
+  }
+
+  /**
+   * Receives the outcome of a request.
+   */
+  interface Callback {
+
+    /**
+     * Called when a response was received, whatever its status code.
+     * <p>
+     * The response is closed by the file source once its body has been read.
+     * </p>
+     *
+     * @param response the response
+     */
+    void onResponse(@NonNull HttpResponse response);
+
+    /**
+     * Called when the request could not be executed.
+     * <p>
+     * Connection failures are reported as {@link java.net.NoRouteToHostException},
+     * {@link java.net.UnknownHostException}, {@link java.net.SocketException}, {@link java.net.ProtocolException} or
+     * {@link javax.net.ssl.SSLException}, timeouts as {@link java.io.InterruptedIOException}. Any other exception is
+     * treated as a permanent error.
+     * </p>
+     *
+     * @param exception the cause of the failure
+     */
+    void onFailure(@NonNull Exception exception);
+  }
+}
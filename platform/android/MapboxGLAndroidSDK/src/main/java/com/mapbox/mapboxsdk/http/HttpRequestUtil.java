@@ -0,0 +1,101 @@
+package com.mapbox.mapboxsdk.http;
+
+import android.support.annotation.NonNull;
+
+import okhttp3.OkHttpClient;
+
+/**
+ * Holds the HTTP client and transport shared by all requests of the file source.
+ * <p>
+ * Applications should configure the client through
+ * {@link com.mapbox.mapboxsdk.storage.FileSource#setHttpClientConfig(HttpClientConfig)} and the transport through
+ * {@link com.mapbox.mapboxsdk.storage.FileSource#setHttpRequestTransport(HttpRequestTransport)}.
+ * </p>
+ */
+public class HttpRequestUtil {
+
+  private static volatile HttpClientConfig clientConfig = new HttpClientConfig.Builder().build();
+  private static volatile OkHttpClient client = clientConfig.createClient();
+  private static volatile HttpRequestTransport transport = new OkHttpRequestTransport();
+  private static final HttpRequestScheduler scheduler = new HttpRequestScheduler();
+
+  private HttpRequestUtil() {
+  }
+
+  /**
+   * Replaces the shared HTTP client with a client built from the given configuration.
+   * <p>
+   * Requests that are already in flight complete on the previous client, whose idle connections are evicted.
+   * </p>
+   *
+   * @param config the configuration to apply
+   */
+  public static void setClientConfig(@NonNull HttpClientConfig config) {
+    synchronized (HttpRequestUtil.class) {
+      OkHttpClient previous = client;
+      clientConfig = config;
+      client = config.createClient();
+      previous.connectionPool().evictAll();
+    }
+    HTTPRequest.nativeSetMaxRequests(config.getMaxRequests());
+
+    // the limits may have been raised, dispatch outside of the lock as the scheduler reads the configuration
+    scheduler.dispatch();
+  }
+
+  /**
+   * Get the configuration of the shared HTTP client.
+   *
+   * @return the active configuration
+   */
+  public static HttpClientConfig getClientConfig() {
+    return clientConfig;
+  }
+
+  /**
+   * Replaces the transport executing requests. Requests that are already in flight complete on the previous
+   * transport.
+   *
+   * @param requestTransport the transport to use
+   */
+  public static void setTransport(@NonNull HttpRequestTransport requestTransport) {
+    transport = requestTransport;
+  }
+
+  /**
+   * Get the transport executing requests.
+   *
+   * @return the active transport, an {@link OkHttpRequestTransport} by default
+   */
+  @NonNull
+  public static HttpRequestTransport getTransport() {
+    return transport;
+  }
+
+  /**
+   * Get the amount of requests waiting for the dispatcher because the maximum amount of concurrent requests,
+   * either in total or for a single host, has been reached.
+   *
+   * @return the amount of queued requests
+   */
+  public static int getQueuedRequestCount() {
+    return scheduler.getPendingCount() + client.dispatcher().queuedCallsCount();
+  }
+
+  /**
+   * Get the amount of requests currently executing.
+   *
+   * @return the amount of running requests
+   */
+  public static int getRunningRequestCount() {
+    return scheduler.getRunningCount();
+  }
+
+  static OkHttpClient getClient() {
+    return client;
+  }
+
+  static HttpRequestScheduler getScheduler() {
+    return scheduler;
+  }
+}
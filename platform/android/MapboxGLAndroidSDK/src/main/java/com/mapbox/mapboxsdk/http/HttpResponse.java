@@ -0,0 +1,70 @@
+package com.mapbox.mapboxsdk.http;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Response delivered by a {@link HttpRequestTransport}.
+ */
+public abstract class HttpResponse implements Closeable {
+
+  /**
+   * Get the HTTP status code.
+   *
+   * @return the status code
+   */
+  public abstract int getCode();
+
+  /**
+   * Get the HTTP status message.
+   *
+   * @return the status message, or null if none was received
+   */
+  @Nullable
+  public abstract String getMessage();
+
+  /**
+   * Get the value of a response header.
+   *
+   * @param name the case insensitive name of the header
+   * @return the value of the header, or null if it is absent
+   */
+  @Nullable
+  public abstract String getHeader(@NonNull String name);
+
+  /**
+   * Get the length of the body, if known in advance.
+   *
+   * @return the length of the body in bytes, or -1 if unknown
+   */
+  public abstract long getContentLength();
+
+  /**
+   * Get the body. The stream is only read once and only for successful responses.
+   *
+   * @return the body
+   * @throws IOException when the body can't be opened
+   */
+  @NonNull
+  public abstract InputStream getBody() throws IOException;
+
+  /**
+   * Releases the resources held by the response.
+   */
+  @Override
+  public void close() {
+  }
+
+  /**
+   * Returns true if the status code is in the range [200..300).
+   *
+   * @return true if the request succeeded
+   */
+  public boolean isSuccessful() {
+    return getCode() >= 200 && getCode() < 300;
+  }
+}
@@ -0,0 +1,62 @@
+package com.mapbox.mapboxsdk.http;
+
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
+/**
+ * Guards callbacks into a native peer that can be destroyed concurrently, without allocating a lock per request.
+ * <p>
+ * Callbacks run between {@link #enterCallback()} and {@link #exitCallback()}. Once {@link #cancelCallbacks()}
+ * returns, no callback is running and none will start, so the native peer can safely be freed. Cancelling only
+ * waits when it races with a callback that is already running.
+ * </p>
+ */
+abstract class NativeCallbackGuard {
+
+  private static final int IDLE = 0;
+  private static final int IN_CALLBACK = 1;
+  private static final int CANCELLED = 2;
+
+  private static final AtomicIntegerFieldUpdater<NativeCallbackGuard> STATE =
+    AtomicIntegerFieldUpdater.newUpdater(NativeCallbackGuard.class, "state");
+
+  private volatile int state = IDLE;
+
+  /**
+   * Marks the start of a callback into the native peer.
+   *
+   * @return true if the callback may proceed, false if the request was cancelled
+   */
+  final boolean enterCallback() {
+    return STATE.compareAndSet(this, IDLE, IN_CALLBACK);
+  }
+
+  /**
+   * Marks the end of a callback started with a successful {@link #enterCallback()}.
+   */
+  final void exitCallback() {
+    state = IDLE;
+  }
+
+  /**
+   * Prevents any further callback into the native peer, waiting for a running callback to finish.
+   */
+  final void cancelCallbacks() {
+    while (true) {
+      int current = state;
+      if (current == CANCELLED) {
+        return;
+      } else if (current == IDLE) {
+        if (STATE.compareAndSet(this, IDLE, CANCELLED)) {
+          return;
+        }
+      } else {
+        // a callback is running on another thread, it only copies the response and returns
+        Thread.yield();
+      }
+    }
+  }
+
+  final boolean isCancelled() {
+    return state == CANCELLED;
+  }
+}
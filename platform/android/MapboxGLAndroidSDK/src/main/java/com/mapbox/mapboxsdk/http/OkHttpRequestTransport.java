@@ -0,0 +1,123 @@
+package com.mapbox.mapboxsdk.http;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import com.mapbox.mapboxsdk.constants.MapboxConstants;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * {@link HttpRequestTransport} backed by OkHttp, used by default.
+ * <p>
+ * Unless constructed with a specific client, requests run on the shared client configured with
+ * {@link com.mapbox.mapboxsdk.storage.FileSource#setHttpClientConfig(HttpClientConfig)}.
+ * </p>
+ */
+public class OkHttpRequestTransport implements HttpRequestTransport {
+
+  private final OkHttpClient client;
+
+  /**
+   * Creates a transport running requests on the shared, configurable client.
+   */
+  public OkHttpRequestTransport() {
+    this.client = null;
+  }
+
+  /**
+   * Creates a transport running requests on the given client.
+   * <p>
+   * The limits of the active {@link HttpClientConfig} still apply to requests of the file source.
+   * </p>
+   *
+   * @param client the client to use
+   */
+  public OkHttpRequestTransport(@NonNull OkHttpClient client) {
+    this.client = client;
+  }
+
+  @NonNull
+  @Override
+  public Call enqueue(@NonNull String url, @NonNull Map<String, String> headers, @NonNull final Callback callback) {
+    final okhttp3.Call call = newCall(url, headers);
+    call.enqueue(new okhttp3.Callback() {
+      @Override
+      public void onResponse(okhttp3.Call call, Response response) {
+        callback.onResponse(new OkHttpResponse(response));
+      }
+
+      @Override
+      public void onFailure(okhttp3.Call call, IOException exception) {
+        callback.onFailure(exception);
+      }
+    });
+    return new Call() {
+      @Override
+      public void cancel() {
+        call.cancel();
+      }
+    };
+  }
+
+  okhttp3.Call newCall(String url, Map<String, String> headers) {
+    Request.Builder builder = new Request.Builder()
+      .url(url)
+      .tag(url.toLowerCase(MapboxConstants.MAPBOX_LOCALE));
+    for (Map.Entry<String, String> header : headers.entrySet()) {
+      builder.addHeader(header.getKey(), header.getValue());
+    }
+    return (client != null ? client : HttpRequestUtil.getClient()).newCall(builder.build());
+  }
+
+  /**
+   * Exposes an OkHttp response as a {@link HttpResponse}.
+   */
+  static final class OkHttpResponse extends HttpResponse {
+
+    private final Response response;
+
+    OkHttpResponse(Response response) {
+      this.response = response;
+    }
+
+    @Override
+    public int getCode() {
+      return response.code();
+    }
+
+    @Nullable
+    @Override
+    public String getMessage() {
+      return response.message();
+    }
+
+    @Nullable
+    @Override
+    public String getHeader(@NonNull String name) {
+      return response.header(name);
+    }
+
+    @Override
+    public long getContentLength() {
+      return response.body().contentLength();
+    }
+
+    @NonNull
+    @Override
+    public InputStream getBody() {
+      return response.body().byteStream();
+    }
+
+    @Override
+    public void close() {
+      response.body().close();
+    }
+  }
+}
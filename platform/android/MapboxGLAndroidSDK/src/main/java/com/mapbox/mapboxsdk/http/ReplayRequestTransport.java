@@ -0,0 +1,198 @@
+package com.mapbox.mapboxsdk.http;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import com.mapbox.mapboxsdk.constants.MapboxConstants;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-memory {@link HttpRequestTransport} replaying recorded responses, without touching the network.
+ * <p>
+ * Useful to run the map against a fixed set of tiles, for tests and benchmarks. Responses are matched on the exact
+ * URL: requests to mapbox.com and mapbox.cn carry an additional {@code events=true} query parameter. A request
+ * for a URL that wasn't recorded gets a 404 response. Conditional requests matching the recorded ETag get a 304
+ * response.
+ * </p>
+ */
+public class ReplayRequestTransport implements HttpRequestTransport {
+
+  private final Map<String, RecordedResponse> responses = new ConcurrentHashMap<>();
+  private final AtomicInteger requestCount = new AtomicInteger();
+  private final Executor executor;
+
+  /**
+   * Creates a transport delivering responses on a background thread.
+   */
+  public ReplayRequestTransport() {
+    this(newDefaultExecutor());
+  }
+
+  /**
+   * Creates a transport delivering responses on the given executor.
+   *
+   * @param executor the executor to deliver responses on
+   */
+  public ReplayRequestTransport(@NonNull Executor executor) {
+    this.executor = executor;
+  }
+
+  /**
+   * Records a successful response.
+   *
+   * @param url  the URL to respond to
+   * @param body the body of the response
+   */
+  public void record(@NonNull String url, @NonNull byte[] body) {
+    record(url, 200, Collections.<String, String>emptyMap(), body);
+  }
+
+  /**
+   * Records a response.
+   *
+   * @param url     the URL to respond to
+   * @param code    the status code of the response
+   * @param headers the headers of the response, e.g. ETag or Cache-Control
+   * @param body    the body of the response
+   */
+  public void record(@NonNull String url, int code, @NonNull Map<String, String> headers, @NonNull byte[] body) {
+    responses.put(url, new RecordedResponse(code, headers, body));
+  }
+
+  /**
+   * Removes all recorded responses.
+   */
+  public void clear() {
+    responses.clear();
+  }
+
+  /**
+   * Get the amount of requests received since creation, whether they matched a recorded response or not.
+   *
+   * @return the amount of requests
+   */
+  public int getRequestCount() {
+    return requestCount.get();
+  }
+
+  @NonNull
+  @Override
+  public Call enqueue(@NonNull final String url, @NonNull final Map<String, String> headers,
+                      @NonNull final Callback callback) {
+    requestCount.incrementAndGet();
+    final ReplayCall call = new ReplayCall();
+    executor.execute(new Runnable() {
+      @Override
+      public void run() {
+        if (call.cancelled) {
+          return;
+        }
+
+        RecordedResponse recorded = responses.get(url);
+        if (recorded == null) {
+          callback.onResponse(new ReplayResponse(404, Collections.<String, String>emptyMap(), new byte[0]));
+          return;
+        }
+
+        String etag = recorded.headers.get("etag");
+        if (etag != null && etag.equals(headers.get("If-None-Match"))) {
+          callback.onResponse(new ReplayResponse(304, recorded.headers, new byte[0]));
+        } else {
+          callback.onResponse(new ReplayResponse(recorded.code, recorded.headers, recorded.body));
+        }
+      }
+    });
+    return call;
+  }
+
+  private static ExecutorService newDefaultExecutor() {
+    return Executors.newSingleThreadExecutor(new ThreadFactory() {
+      @Override
+      public Thread newThread(@NonNull Runnable runnable) {
+        Thread thread = new Thread(runnable, "ReplayRequestTransport");
+        thread.setDaemon(true);
+        return thread;
+      }
+    });
+  }
+
+  private static final class ReplayCall implements Call {
+
+    private volatile boolean cancelled;
+
+    @Override
+    public void cancel() {
+      cancelled = true;
+    }
+  }
+
+  private static final class RecordedResponse {
+
+    private final int code;
+    private final Map<String, String> headers;
+    private final byte[] body;
+
+    RecordedResponse(int code, Map<String, String> headers, byte[] body) {
+      this.code = code;
+      // header names are case insensitive
+      Map<String, String> normalized = new HashMap<>(headers.size());
+      for (Map.Entry<String, String> header : headers.entrySet()) {
+        normalized.put(header.getKey().toLowerCase(MapboxConstants.MAPBOX_LOCALE), header.getValue());
+      }
+      this.headers = normalized;
+      this.body = body;
+    }
+  }
+
+  private static final class ReplayResponse extends HttpResponse {
+
+    private final int code;
+    private final Map<String, String> headers;
+    private final byte[] body;
+
+    ReplayResponse(int code, Map<String, String> headers, byte[] body) {
+      this.code = code;
+      this.headers = headers;
+      this.body = body;
+    }
+
+    @Override
+    public int getCode() {
+      return code;
+    }
+
+    @Nullable
+    @Override
+    public String getMessage() {
+      return null;
+    }
+
+    @Nullable
+    @Override
+    public String getHeader(@NonNull String name) {
+      return headers.get(name.toLowerCase(MapboxConstants.MAPBOX_LOCALE));
+    }
+
+    @Override
+    public long getContentLength() {
+      return body.length;
+    }
+
+    @NonNull
+    @Override
+    public InputStream getBody() {
+      return new ByteArrayInputStream(body);
+    }
+  }
+}
@@ -1,4 +1,6 @@
 /**
- * Do not use this package. Internal use only.
+ * Contains the Mapbox Maps Android HTTP stack. Do not use this package directly, except for
+ * {@link com.mapbox.mapboxsdk.http.HttpClientConfig} to configure the shared client and
+ * {@link com.mapbox.mapboxsdk.http.HttpRequestTransport} to replace the transport executing requests.
  */
 package com.mapbox.mapboxsdk.http;
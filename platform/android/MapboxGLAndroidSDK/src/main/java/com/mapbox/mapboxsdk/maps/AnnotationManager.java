@@ -14,6 +14,7 @@ import com.mapbox.mapboxsdk.R;
 import com.mapbox.mapboxsdk.annotations.Annotation;
 import com.mapbox.mapboxsdk.annotations.BaseMarkerOptions;
 import com.mapbox.mapboxsdk.annotations.BaseMarkerViewOptions;
+import com.mapbox.mapboxsdk.annotations.Icon;
 import com.mapbox.mapboxsdk.annotations.Marker;
 import com.mapbox.mapboxsdk.annotations.MarkerView;
 import com.mapbox.mapboxsdk.annotations.MarkerViewManager;
@@ -23,6 +24,7 @@ import com.mapbox.mapboxsdk.annotations.Polyline;
 import com.mapbox.mapboxsdk.annotations.PolylineOptions;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 
 import timber.log.Timber;
@@ -42,12 +44,15 @@ class AnnotationManager {
 
   private static final long NO_ANNOTATION_ID = -1;
 
+  private final NativeMapView nativeMapView;
   private final MapView mapView;
   private final IconManager iconManager;
   private final InfoWindowManager infoWindowManager = new InfoWindowManager();
   private final MarkerViewManager markerViewManager;
   private final LongSparseArray<Annotation> annotationsArray;
   private final List<Marker> selectedMarkers = new ArrayList<>();
+  private final LongSparseArray<Marker> pendingMarkerUpdates = new LongSparseArray<>();
+  private int markerBatchDepth;
 
   private MapboxMap mapboxMap;
   private MapboxMap.OnMarkerClickListener onMarkerClickListener;
@@ -60,9 +65,13 @@ class AnnotationManager {
   private Polygons polygons;
   private Polylines polylines;
 
+  private MarkerIndex markerIndex;
+  private IndexedMarkerHitResolver indexedMarkerHitResolver;
+
   AnnotationManager(NativeMapView view, MapView mapView, LongSparseArray<Annotation> annotationsArray,
                     MarkerViewManager markerViewManager, IconManager iconManager, Annotations annotations,
                     Markers markers, Polygons polygons, Polylines polylines, ShapeAnnotations shapeAnnotations) {
+    this.nativeMapView = view;
     this.mapView = mapView;
     this.annotationsArray = annotationsArray;
     this.markerViewManager = markerViewManager;
@@ -104,6 +113,12 @@ class AnnotationManager {
   }
 
   void removeAnnotation(long id) {
+    if (markerIndex != null) {
+      Annotation annotation = annotationsArray.get(id);
+      if (annotation != null) {
+        markerIndex.remove(annotation);
+      }
+    }
     annotations.removeBy(id);
   }
 
@@ -122,6 +137,9 @@ class AnnotationManager {
         iconManager.iconCleanup(marker.getIcon());
       }
     }
+    if (markerIndex != null && isAddedToMap(annotation)) {
+      markerIndex.remove(annotation);
+    }
     annotations.removeBy(annotation);
   }
 
@@ -140,6 +158,9 @@ class AnnotationManager {
           iconManager.iconCleanup(marker.getIcon());
         }
       }
+      if (markerIndex != null && isAddedToMap(annotation)) {
+        markerIndex.remove(annotation);
+      }
     }
     annotations.removeBy(annotationList);
   }
@@ -162,6 +183,9 @@ class AnnotationManager {
         }
       }
     }
+    if (markerIndex != null) {
+      markerIndex.clear();
+    }
     annotations.removeAll();
   }
 
@@ -170,11 +194,16 @@ class AnnotationManager {
   //
 
   Marker addMarker(@NonNull BaseMarkerOptions markerOptions, @NonNull MapboxMap mapboxMap) {
-    return markers.addBy(markerOptions, mapboxMap);
+    return addToIndex(markers.addBy(markerOptions, mapboxMap));
   }
 
   List<Marker> addMarkers(@NonNull List<? extends BaseMarkerOptions> markerOptionsList, @NonNull MapboxMap mapboxMap) {
-    return markers.addBy(markerOptionsList, mapboxMap);
+    return addToIndex(markers.addBy(markerOptionsList, mapboxMap));
+  }
+
+  List<Marker> addMarkers(@NonNull double[] latLngs, @Nullable Icon[] icons, @Nullable int[] iconIndices,
+                          @NonNull MapboxMap mapboxMap) {
+    return addToIndex(markers.addBy(latLngs, icons, iconIndices, mapboxMap));
   }
 
   void updateMarker(@NonNull Marker updatedMarker, @NonNull MapboxMap mapboxMap) {
@@ -182,7 +211,68 @@ class AnnotationManager {
       logNonAdded(updatedMarker);
       return;
     }
+    if (markerBatchDepth > 0) {
+      pendingMarkerUpdates.put(updatedMarker.getId(), updatedMarker);
+      return;
+    }
     markers.update(updatedMarker, mapboxMap);
+    if (markerIndex != null) {
+      markerIndex.update(updatedMarker);
+    }
+  }
+
+  void updateMarkers(@NonNull Collection<? extends Marker> updatedMarkers, @NonNull MapboxMap mapboxMap) {
+    beginMarkerBatch();
+    for (Marker updatedMarker : updatedMarkers) {
+      if (!isAddedToMap(updatedMarker)) {
+        logNonAdded(updatedMarker);
+        continue;
+      }
+      pendingMarkerUpdates.put(updatedMarker.getId(), updatedMarker);
+    }
+    commitMarkerBatch(mapboxMap);
+  }
+
+  void beginMarkerBatch() {
+    markerBatchDepth++;
+  }
+
+  void commitMarkerBatch(@NonNull MapboxMap mapboxMap) {
+    if (markerBatchDepth == 0) {
+      throw new IllegalStateException("commitMarkerBatch called without a matching beginMarkerBatch");
+    }
+    if (markerBatchDepth > 1) {
+      markerBatchDepth--;
+      return;
+    }
+    // the batch stays open while flushing, updates made meanwhile are flushed together afterwards
+    try {
+      flushMarkerUpdates(mapboxMap);
+    } finally {
+      markerBatchDepth--;
+    }
+  }
+
+  private void flushMarkerUpdates(@NonNull MapboxMap mapboxMap) {
+    while (pendingMarkerUpdates.size() > 0) {
+      List<Marker> updatedMarkers = new ArrayList<>(pendingMarkerUpdates.size());
+      for (int i = 0; i < pendingMarkerUpdates.size(); i++) {
+        Marker updatedMarker = pendingMarkerUpdates.valueAt(i);
+        // markers removed while the batch was open are dropped
+        if (isAddedToMap(updatedMarker)) {
+          updatedMarkers.add(updatedMarker);
+        }
+      }
+      pendingMarkerUpdates.clear();
+      if (!updatedMarkers.isEmpty()) {
+        markers.update(updatedMarkers, mapboxMap);
+        if (markerIndex != null) {
+          for (Marker updatedMarker : updatedMarkers) {
+            markerIndex.update(updatedMarker);
+          }
+        }
+      }
+    }
   }
 
   List<Marker> getMarkers() {
@@ -196,12 +286,12 @@ class AnnotationManager {
 
   MarkerView addMarker(@NonNull BaseMarkerViewOptions markerOptions, @NonNull MapboxMap mapboxMap,
                        @Nullable MarkerViewManager.OnMarkerViewAddedListener onMarkerViewAddedListener) {
-    return markers.addViewBy(markerOptions, mapboxMap, onMarkerViewAddedListener);
+    return addToIndex(markers.addViewBy(markerOptions, mapboxMap, onMarkerViewAddedListener));
   }
 
   List<MarkerView> addMarkerViews(@NonNull List<? extends BaseMarkerViewOptions> markerViewOptions,
                                   @NonNull MapboxMap mapboxMap) {
-    return markers.addViewsBy(markerViewOptions, mapboxMap);
+    return addToIndex(markers.addViewsBy(markerViewOptions, mapboxMap));
   }
 
   List<MarkerView> getMarkerViewsInRect(@NonNull RectF rectangle) {
@@ -212,16 +302,56 @@ class AnnotationManager {
     markers.reload();
   }
 
+  //
+  // Tap index
+  //
+
+  void setMarkerTapIndexEnabled(boolean enabled) {
+    if (enabled == (markerIndex != null)) {
+      return;
+    }
+    if (enabled) {
+      markerIndex = new MarkerIndex();
+      indexedMarkerHitResolver = new IndexedMarkerHitResolver(nativeMapView, markerViewManager, markerIndex);
+      for (int i = 0; i < annotationsArray.size(); i++) {
+        markerIndex.add(annotationsArray.valueAt(i));
+      }
+    } else {
+      markerIndex = null;
+      indexedMarkerHitResolver = null;
+    }
+  }
+
+  boolean isMarkerTapIndexEnabled() {
+    return markerIndex != null;
+  }
+
+  private <T extends Annotation> T addToIndex(T annotation) {
+    if (markerIndex != null && annotation != null) {
+      markerIndex.add(annotation);
+    }
+    return annotation;
+  }
+
+  private <T extends Annotation> List<T> addToIndex(List<T> annotations) {
+    if (markerIndex != null) {
+      for (T annotation : annotations) {
+        markerIndex.add(annotation);
+      }
+    }
+    return annotations;
+  }
+
   //
   // Polygons
   //
 
   Polygon addPolygon(@NonNull PolygonOptions polygonOptions, @NonNull MapboxMap mapboxMap) {
-    return polygons.addBy(polygonOptions, mapboxMap);
+    return addToIndex(polygons.addBy(polygonOptions, mapboxMap));
   }
 
   List<Polygon> addPolygons(@NonNull List<PolygonOptions> polygonOptionsList, @NonNull MapboxMap mapboxMap) {
-    return polygons.addBy(polygonOptionsList, mapboxMap);
+    return addToIndex(polygons.addBy(polygonOptionsList, mapboxMap));
   }
 
   void updatePolygon(Polygon polygon) {
@@ -241,11 +371,11 @@ class AnnotationManager {
   //
 
   Polyline addPolyline(@NonNull PolylineOptions polylineOptions, @NonNull MapboxMap mapboxMap) {
-    return polylines.addBy(polylineOptions, mapboxMap);
+    return addToIndex(polylines.addBy(polylineOptions, mapboxMap));
   }
 
   List<Polyline> addPolylines(@NonNull List<PolylineOptions> polylineOptionsList, @NonNull MapboxMap mapboxMap) {
-    return polylines.addBy(polylineOptionsList, mapboxMap);
+    return addToIndex(polylines.addBy(polylineOptionsList, mapboxMap));
   }
 
   void updatePolyline(Polyline polyline) {
@@ -375,16 +505,25 @@ class AnnotationManager {
   //
 
   boolean onTap(PointF tapPoint) {
-    ShapeAnnotationHit shapeAnnotationHit = getShapeAnnotationHitFromTap(tapPoint);
-    Annotation annotation = new ShapeAnnotationHitResolver(shapeAnnotations).execute(shapeAnnotationHit);
-    if (annotation != null) {
-      if (handleClickForShapeAnnotation(annotation)) {
-        return true;
+    // shapes are hit tested by the native map, skip the query when the index knows there are none
+    if (markerIndex == null || markerIndex.hasShapes()) {
+      ShapeAnnotationHit shapeAnnotationHit = getShapeAnnotationHitFromTap(tapPoint);
+      Annotation annotation = new ShapeAnnotationHitResolver(shapeAnnotations).execute(shapeAnnotationHit);
+      if (annotation != null) {
+        if (handleClickForShapeAnnotation(annotation)) {
+          return true;
+        }
       }
     }
 
-    MarkerHit markerHit = getMarkerHitFromTouchArea(tapPoint);
-    long markerId = new MarkerHitResolver(mapboxMap).execute(markerHit);
+    long markerId;
+    if (markerIndex != null) {
+      markerId = indexedMarkerHitResolver.execute(tapPoint,
+        (int) (iconManager.getHighestIconHeight() * 1.5), (int) (iconManager.getHighestIconWidth() * 1.5));
+    } else {
+      MarkerHit markerHit = getMarkerHitFromTouchArea(tapPoint);
+      markerId = new MarkerHitResolver(mapboxMap).execute(markerHit);
+    }
     return markerId != NO_ANNOTATION_ID && isClickHandledForMarker(markerId);
   }
 
@@ -536,6 +675,127 @@ class AnnotationManager {
     }
   }
 
+  /**
+   * Resolves taps on markers from a {@link MarkerIndex}.
+   * <p>
+   * The tap location and the local transformation from screen to world coordinates are obtained with a single call
+   * to the native map, candidates are then hit tested without allocating.
+   * </p>
+   */
+  private static class IndexedMarkerHitResolver implements MarkerIndex.Visitor {
+
+    private final NativeMapView nativeMapView;
+    private final MarkerViewManager markerViewManager;
+    private final MarkerIndex markerIndex;
+
+    private final double[] pixels = new double[6];
+    private final Rect hitRectView = new Rect();
+
+    private float tapX;
+    private float tapY;
+    private float tapLeft;
+    private float tapTop;
+    private float tapRight;
+    private float tapBottom;
+
+    // world coordinates of the tap and the world offsets of a screen pixel along the x and y axes
+    private double originX;
+    private double originY;
+    private double xAxisX;
+    private double xAxisY;
+    private double yAxisX;
+    private double yAxisY;
+    private double determinant;
+
+    private float highestSurfaceIntersection;
+    private long closestMarkerId;
+
+    IndexedMarkerHitResolver(NativeMapView nativeMapView, MarkerViewManager markerViewManager,
+                             MarkerIndex markerIndex) {
+      this.nativeMapView = nativeMapView;
+      this.markerViewManager = markerViewManager;
+      this.markerIndex = markerIndex;
+    }
+
+    long execute(PointF tapPoint, int touchSurfaceWidth, int touchSurfaceHeight) {
+      if (markerIndex.size() == 0) {
+        return NO_ANNOTATION_ID;
+      }
+
+      tapX = tapPoint.x;
+      tapY = tapPoint.y;
+      tapLeft = tapX - touchSurfaceWidth;
+      tapTop = tapY - touchSurfaceHeight;
+      tapRight = tapX + touchSurfaceWidth;
+      tapBottom = tapY + touchSurfaceHeight;
+
+      float stepX = Math.max(1, touchSurfaceWidth);
+      float stepY = Math.max(1, touchSurfaceHeight);
+      pixels[0] = tapX;
+      pixels[1] = tapY;
+      pixels[2] = tapX + stepX;
+      pixels[3] = tapY;
+      pixels[4] = tapX;
+      pixels[5] = tapY + stepY;
+      double[] latLngs = nativeMapView.latLngsForPixels(pixels);
+
+      originX = MarkerIndex.toWorldX(latLngs[1]);
+      originY = MarkerIndex.toWorldY(latLngs[0]);
+      xAxisX = wrap(MarkerIndex.toWorldX(latLngs[3]) - originX) / stepX;
+      xAxisY = (MarkerIndex.toWorldY(latLngs[2]) - originY) / stepX;
+      yAxisX = wrap(MarkerIndex.toWorldX(latLngs[5]) - originX) / stepY;
+      yAxisY = (MarkerIndex.toWorldY(latLngs[4]) - originY) / stepY;
+      determinant = xAxisX * yAxisY - yAxisX * xAxisY;
+      if (determinant == 0) {
+        return NO_ANNOTATION_ID;
+      }
+
+      highestSurfaceIntersection = 0;
+      closestMarkerId = NO_ANNOTATION_ID;
+      double extentX = Math.abs(xAxisX) * touchSurfaceWidth + Math.abs(yAxisX) * touchSurfaceHeight;
+      double extentY = Math.abs(xAxisY) * touchSurfaceWidth + Math.abs(yAxisY) * touchSurfaceHeight;
+      markerIndex.query(originX - extentX, originY - extentY, originX + extentX, originY + extentY, this);
+      return closestMarkerId;
+    }
+
+    @Override
+    public void visit(@NonNull Marker marker, double worldX, double worldY) {
+      if (marker instanceof MarkerView) {
+        View view = markerViewManager.getView((MarkerView) marker);
+        if (view != null) {
+          view.getHitRect(hitRectView);
+          hitTestMarker(marker, hitRectView.left, hitRectView.top, hitRectView.right, hitRectView.bottom);
+        }
+      } else {
+        double deltaX = wrap(worldX - originX);
+        double deltaY = worldY - originY;
+        float screenX = (float) (tapX + (yAxisY * deltaX - yAxisX * deltaY) / determinant);
+        float screenY = (float) (tapY + (xAxisX * deltaY - xAxisY * deltaX) / determinant);
+        Bitmap bitmap = marker.getIcon().getBitmap();
+        float left = screenX - bitmap.getWidth() / 2;
+        float top = screenY - bitmap.getHeight() / 2;
+        hitTestMarker(marker, left, top, left + bitmap.getWidth(), top + bitmap.getHeight());
+      }
+    }
+
+    private void hitTestMarker(Marker marker, float left, float top, float right, float bottom) {
+      if (left < right && top < bottom && tapX >= left && tapX < right && tapY >= top && tapY < bottom) {
+        float surfaceIntersection = (Math.min(right, tapRight) - Math.max(left, tapLeft))
+          * (Math.min(bottom, tapBottom) - Math.max(top, tapTop));
+        // ties go to the lowest id, as when resolving markers queried from the native map
+        if (surfaceIntersection > highestSurfaceIntersection
+          || (surfaceIntersection == highestSurfaceIntersection && marker.getId() < closestMarkerId)) {
+          highestSurfaceIntersection = surfaceIntersection;
+          closestMarkerId = marker.getId();
+        }
+      }
+    }
+
+    private static double wrap(double worldDelta) {
+      return worldDelta - Math.rint(worldDelta);
+    }
+  }
+
   private static class ShapeAnnotationHit {
     private final RectF tapPoint;
 
@@ -8,9 +8,14 @@ import com.mapbox.mapboxsdk.annotations.IconFactory;
 import com.mapbox.mapboxsdk.annotations.Marker;
 import com.mapbox.mapboxsdk.annotations.MarkerView;
 
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * Responsible for managing icons added to the Map.
@@ -22,19 +27,34 @@ import java.util.Map;
  * Keep track of icons added and the resulting average icon size. This is used internally by our
  * gestures detection to calculate the size of a touch target.
  * </p>
+ * <p>
+ * Icons are deduplicated by content: markers using distinct icons with identical pixels share the icon uploaded
+ * first. Pixels are copied through a single reusable direct buffer, and icons are uploaded to the native annotation
+ * images only once, as those survive style changes.
+ * </p>
  */
 class IconManager {
 
   private final Map<Icon, Integer> iconMap = new HashMap<>();
 
+  // icons uploaded to the native map, by content hash
+  private final Map<Integer, Icon> iconsByContentHash = new HashMap<>();
+  private final Map<Icon, Integer> contentHashes = new HashMap<>();
+  // icons resolved to an icon with identical content, and the other way around
+  private final Map<Icon, Icon> iconAliases = new HashMap<>();
+  private final Map<Icon, List<Icon>> aliasesByIcon = new HashMap<>();
+  private final Set<Icon> uploadedIcons = new HashSet<>();
+
   private NativeMapView nativeMapView;
+  private ByteBuffer pixelBuffer;
   private int highestIconWidth;
   private int highestIconHeight;
 
   IconManager(NativeMapView nativeMapView) {
     this.nativeMapView = nativeMapView;
     // load transparent icon for MarkerView to trace actual markers, see #6352
-    loadIcon(IconFactory.recreate(IconFactory.ICON_MARKERVIEW_ID, IconFactory.ICON_MARKERVIEW_BITMAP));
+    Icon markerViewIcon = IconFactory.recreate(IconFactory.ICON_MARKERVIEW_ID, IconFactory.ICON_MARKERVIEW_BITMAP);
+    uploadIcon(markerViewIcon, copyPixels(markerViewIcon.getBitmap()));
   }
 
   Icon loadIconForMarker(Marker marker) {
@@ -46,15 +66,32 @@ class IconManager {
     } else {
       updateHighestIconSize(icon);
     }
-    addIcon(icon);
-    return icon;
+    return addIcon(marker, icon);
+  }
+
+  /**
+   * Loads an icon shared by a batch of markers, counting a reference for each of them.
+   *
+   * @param icon        the icon, or null for the default marker icon
+   * @param markerCount the amount of markers using the icon
+   * @return the loaded icon, which may be an icon with identical content loaded before
+   */
+  Icon loadIconForMarkers(Icon icon, int markerCount) {
+    if (icon == null) {
+      icon = IconFactory.getInstance(Mapbox.getApplicationContext()).defaultMarker();
+      Bitmap bitmap = icon.getBitmap();
+      updateHighestIconSize(bitmap.getWidth(), bitmap.getHeight() / 2);
+    } else {
+      updateHighestIconSize(icon);
+    }
+    return addIcon(icon, true, markerCount);
   }
 
   void loadIconForMarkerView(MarkerView marker) {
     Icon icon = marker.getIcon();
     Bitmap bitmap = icon.getBitmap();
     updateHighestIconSize(bitmap);
-    addIcon(icon, false);
+    addIcon(icon, false, 1);
   }
 
   int getTopOffsetPixelsForIcon(Icon icon) {
@@ -73,23 +110,47 @@ class IconManager {
     Icon icon = IconFactory.getInstance(Mapbox.getApplicationContext()).defaultMarker();
     Bitmap bitmap = icon.getBitmap();
     updateHighestIconSize(bitmap.getWidth(), bitmap.getHeight() / 2);
-    marker.setIcon(icon);
+    marker.setLoadedIcon(icon);
     return icon;
   }
 
-  private void addIcon(Icon icon) {
-    addIcon(icon, true);
+  private Icon addIcon(Marker marker, Icon icon) {
+    Icon loadedIcon = addIcon(icon, true, 1);
+    if (loadedIcon != icon) {
+      // reference the icon with identical content, native code only knows about that one. The marker is being
+      // added or updated already, setIcon would update it again and count another reference to the icon.
+      marker.setLoadedIcon(loadedIcon);
+    }
+    return loadedIcon;
   }
 
-  private void addIcon(Icon icon, boolean addIconToMap) {
-    if (!iconMap.keySet().contains(icon)) {
-      iconMap.put(icon, 1);
-      if (addIconToMap) {
-        loadIcon(icon);
+  private Icon addIcon(Icon icon, boolean addIconToMap, int refCount) {
+    Icon alias = iconAliases.get(icon);
+    if (alias != null) {
+      icon = alias;
+    }
+
+    Integer refCounter = iconMap.get(icon);
+    if (refCounter == null && addIconToMap) {
+      Icon loadedIcon = loadIcon(icon);
+      if (loadedIcon != icon) {
+        addAlias(icon, loadedIcon);
+        icon = loadedIcon;
+        refCounter = iconMap.get(icon);
       }
-    } else {
-      iconMap.put(icon, iconMap.get(icon) + 1);
     }
+    iconMap.put(icon, refCounter != null ? refCounter + refCount : refCount);
+    return icon;
+  }
+
+  private void addAlias(Icon icon, Icon loadedIcon) {
+    iconAliases.put(icon, loadedIcon);
+    List<Icon> aliases = aliasesByIcon.get(loadedIcon);
+    if (aliases == null) {
+      aliases = new ArrayList<>(1);
+      aliasesByIcon.put(loadedIcon, aliases);
+    }
+    aliases.add(icon);
   }
 
   private void updateHighestIconSize(Icon icon) {
@@ -110,18 +171,61 @@ class IconManager {
     }
   }
 
-  private void loadIcon(Icon icon) {
+  /**
+   * Uploads an icon, unless an icon with identical content was uploaded before.
+   *
+   * @param icon the icon to upload
+   * @return the uploaded icon with the content of the given icon
+   */
+  private Icon loadIcon(Icon icon) {
+    Bitmap bitmap = icon.getBitmap();
+    ByteBuffer pixels = copyPixels(bitmap);
+    int contentHash = 31 * (31 * pixels.hashCode() + bitmap.getWidth()) + Float.floatToIntBits(icon.getScale());
+
+    Icon uploadedIcon = iconsByContentHash.get(contentHash);
+    if (uploadedIcon != null && isSameContent(uploadedIcon, icon)) {
+      return uploadedIcon;
+    }
+
+    uploadIcon(icon, pixels);
+    if (uploadedIcon == null) {
+      iconsByContentHash.put(contentHash, icon);
+      contentHashes.put(icon, contentHash);
+    }
+    return icon;
+  }
+
+  private ByteBuffer copyPixels(Bitmap bitmap) {
+    int byteCount = bitmap.getRowBytes() * bitmap.getHeight();
+    if (pixelBuffer == null || pixelBuffer.capacity() < byteCount) {
+      pixelBuffer = ByteBuffer.allocateDirect(byteCount).order(ByteOrder.nativeOrder());
+    }
+    pixelBuffer.clear();
+    bitmap.copyPixelsToBuffer(pixelBuffer);
+    pixelBuffer.flip();
+    return pixelBuffer;
+  }
+
+  private static boolean isSameContent(Icon uploadedIcon, Icon icon) {
+    return uploadedIcon.getScale() == icon.getScale() && uploadedIcon.getBitmap().sameAs(icon.getBitmap());
+  }
+
+  private void uploadIcon(Icon icon, ByteBuffer pixels) {
     Bitmap bitmap = icon.getBitmap();
     nativeMapView.addAnnotationIcon(icon.getId(),
       bitmap.getWidth(),
       bitmap.getHeight(),
       icon.getScale(),
-      icon.toBytes());
+      pixels);
+    uploadedIcons.add(icon);
   }
 
   void reloadIcons() {
+    // uploaded icons are kept by the native map across style changes, only upload the ones missing
     for (Icon icon : iconMap.keySet()) {
-      loadIcon(icon);
+      if (!uploadedIcons.contains(icon) && !IconFactory.ICON_MARKERVIEW_ID.equals(icon.getId())) {
+        uploadIcon(icon, copyPixels(icon.getBitmap()));
+      }
     }
   }
 
@@ -130,7 +234,7 @@ class IconManager {
     if (icon == null) {
       icon = loadDefaultIconForMarker(marker);
     }
-    addIcon(icon);
+    icon = addIcon(marker, icon);
     setTopOffsetPixels(marker, mapboxMap, icon);
   }
 
@@ -155,8 +259,21 @@ class IconManager {
   }
 
   private void remove(Icon icon) {
-    nativeMapView.removeAnnotationIcon(icon.getId());
+    if (uploadedIcons.remove(icon)) {
+      nativeMapView.removeAnnotationIcon(icon.getId());
+    }
     iconMap.remove(icon);
+
+    Integer contentHash = contentHashes.remove(icon);
+    if (contentHash != null) {
+      iconsByContentHash.remove(contentHash);
+    }
+    List<Icon> aliases = aliasesByIcon.remove(icon);
+    if (aliases != null) {
+      for (Icon alias : aliases) {
+        iconAliases.remove(alias);
+      }
+    }
   }
 
   private void updateIconRefCounter(Icon icon, int refCounter) {
@@ -1,17 +1,24 @@
 package com.mapbox.mapboxsdk.maps;
 
+import java.nio.ByteBuffer;
+
 class Image {
-  private final byte[] buffer;
+  // direct buffer of premultiplied RGBA pixels, read in place by native code
+  private final ByteBuffer buffer;
   private final float pixelRatio;
   private final String name;
   private final int width;
   private final int height;
 
-  public Image(byte[] buffer, float pixelRatio, String name, int width, int height) {
+  public Image(ByteBuffer buffer, float pixelRatio, String name, int width, int height) {
     this.buffer = buffer;
     this.pixelRatio = pixelRatio;
     this.name = name;
     this.width = width;
     this.height = height;
   }
+
+  ByteBuffer getBuffer() {
+    return buffer;
+  }
 }
@@ -0,0 +1,186 @@
+package com.mapbox.mapboxsdk.maps;
+
+import android.graphics.Bitmap;
+import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
+import android.support.annotation.NonNull;
+import android.util.DisplayMetrics;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Converts bitmaps to the premultiplied RGBA pixels of style images.
+ * <p>
+ * Pixels are written to direct buffers read in place by native code, without an intermediate bitmap copy or byte
+ * array. Buffers are pooled across all maps, converted images must be released once added to the map. Asynchronous
+ * conversions run one after the other on a worker thread shared by all maps, and deliver their images on the main
+ * thread in the order they were requested.
+ * </p>
+ */
+class ImageConverter {
+
+  private static final int MAX_POOLED_BYTES = 8 * 1024 * 1024;
+  private static final int BYTES_PER_PIXEL = 4;
+
+  private static final Executor EXECUTOR = newExecutor();
+  private static final BufferPool bufferPool = new BufferPool(MAX_POOLED_BYTES);
+
+  private final Handler handler = new Handler(Looper.getMainLooper());
+
+  /**
+   * Receives the images converted asynchronously, on the main thread.
+   */
+  interface Callback {
+    void onImagesConverted(@NonNull Image[] images);
+  }
+
+  Image convert(@NonNull String name, @NonNull Bitmap bitmap) {
+    ByteBuffer pixels = bufferPool.acquire(bitmap.getWidth() * bitmap.getHeight() * BYTES_PER_PIXEL);
+    copyPixels(bitmap, pixels);
+
+    float density = bitmap.getDensity() == Bitmap.DENSITY_NONE ? Bitmap.DENSITY_NONE : bitmap.getDensity();
+    float pixelRatio = density / DisplayMetrics.DENSITY_DEFAULT;
+    return new Image(pixels, pixelRatio, name, bitmap.getWidth(), bitmap.getHeight());
+  }
+
+  void convertAsync(@NonNull Map<String, Bitmap> bitmaps, @NonNull final Callback callback) {
+    final List<Map.Entry<String, Bitmap>> entries = new ArrayList<>(bitmaps.entrySet());
+    EXECUTOR.execute(new Runnable() {
+      @Override
+      public void run() {
+        final Image[] images = new Image[entries.size()];
+        for (int i = 0; i < images.length; i++) {
+          Map.Entry<String, Bitmap> entry = entries.get(i);
+          images[i] = convert(entry.getKey(), entry.getValue());
+        }
+        handler.post(new Runnable() {
+          @Override
+          public void run() {
+            callback.onImagesConverted(images);
+          }
+        });
+      }
+    });
+  }
+
+  void release(@NonNull Image... images) {
+    for (Image image : images) {
+      bufferPool.release(image.getBuffer());
+    }
+  }
+
+  /**
+   * Writes the premultiplied RGBA pixels of a bitmap to a buffer, converting other configurations on the fly.
+   */
+  static void copyPixels(@NonNull Bitmap bitmap, @NonNull ByteBuffer pixels) {
+    int width = bitmap.getWidth();
+    int height = bitmap.getHeight();
+    if (bitmap.getConfig() == Bitmap.Config.ARGB_8888 && bitmap.getRowBytes() == width * BYTES_PER_PIXEL
+      && isPremultiplied(bitmap)) {
+      // already laid out as premultiplied RGBA
+      bitmap.copyPixelsToBuffer(pixels);
+    } else {
+      // Bitmap.getPixels returns unpremultiplied ARGB colors for any configuration
+      int[] row = new int[width];
+      for (int y = 0; y < height; y++) {
+        bitmap.getPixels(row, 0, width, 0, y, width, 1);
+        putPremultiplied(row, width, pixels);
+      }
+    }
+    pixels.flip();
+  }
+
+  static void putPremultiplied(@NonNull int[] colors, int count, @NonNull ByteBuffer pixels) {
+    for (int i = 0; i < count; i++) {
+      int color = colors[i];
+      int alpha = color >>> 24;
+      pixels.put((byte) premultiply((color >> 16) & 0xFF, alpha));
+      pixels.put((byte) premultiply((color >> 8) & 0xFF, alpha));
+      pixels.put((byte) premultiply(color & 0xFF, alpha));
+      pixels.put((byte) alpha);
+    }
+  }
+
+  private static int premultiply(int component, int alpha) {
+    return (component * alpha + 127) / 255;
+  }
+
+  private static boolean isPremultiplied(Bitmap bitmap) {
+    // before KitKat, ARGB_8888 bitmaps are always premultiplied
+    return Build.VERSION.SDK_INT < Build.VERSION_CODES.KITKAT || bitmap.isPremultiplied();
+  }
+
+  private static Executor newExecutor() {
+    // a single thread keeps the conversions, and the images they add, in order
+    ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 30, TimeUnit.SECONDS,
+      new LinkedBlockingQueue<Runnable>(), new ThreadFactory() {
+        @Override
+        public Thread newThread(@NonNull Runnable runnable) {
+          Thread thread = new Thread(runnable, "ImageConverter");
+          thread.setDaemon(true);
+          return thread;
+        }
+      });
+    executor.allowCoreThreadTimeOut(true);
+    return executor;
+  }
+
+  /**
+   * Pool of direct buffers in native byte order, keeping up to a maximum amount of bytes for reuse.
+   */
+  static class BufferPool {
+
+    private final List<ByteBuffer> buffers = new ArrayList<>();
+    private final int maxPooledBytes;
+    private int pooledBytes;
+
+    BufferPool(int maxPooledBytes) {
+      this.maxPooledBytes = maxPooledBytes;
+    }
+
+    /**
+     * Returns a cleared buffer with a limit of the requested size, reusing the smallest pooled buffer fitting it.
+     */
+    synchronized ByteBuffer acquire(int byteCount) {
+      int best = -1;
+      for (int i = 0; i < buffers.size(); i++) {
+        int capacity = buffers.get(i).capacity();
+        if (capacity >= byteCount && (best == -1 || capacity < buffers.get(best).capacity())) {
+          best = i;
+        }
+      }
+
+      ByteBuffer buffer;
+      if (best != -1) {
+        buffer = buffers.remove(best);
+        pooledBytes -= buffer.capacity();
+      } else {
+        buffer = ByteBuffer.allocateDirect(byteCount).order(ByteOrder.nativeOrder());
+      }
+      buffer.clear();
+      buffer.limit(byteCount);
+      return buffer;
+    }
+
+    synchronized void release(@NonNull ByteBuffer buffer) {
+      if (pooledBytes + buffer.capacity() <= maxPooledBytes) {
+        buffers.add(buffer);
+        pooledBytes += buffer.capacity();
+      }
+    }
+
+    synchronized int getPooledBytes() {
+      return pooledBytes;
+    }
+  }
+}
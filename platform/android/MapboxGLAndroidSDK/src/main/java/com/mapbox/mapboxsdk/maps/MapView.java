@@ -293,7 +293,7 @@ public class MapView extends FrameLayout {
   private void initialiseDrawingSurface(MapboxMapOptions options) {
     if (options.getTextureMode()) {
       TextureView textureView = new TextureView(getContext());
-      mapRenderer = new TextureViewMapRenderer(getContext(), textureView) {
+      mapRenderer = new TextureViewMapRenderer(getContext(), textureView, options.getMaximumFps()) {
         @Override
         protected void onSurfaceCreated(GL10 gl, EGLConfig config) {
           MapView.this.post(new Runnable() {
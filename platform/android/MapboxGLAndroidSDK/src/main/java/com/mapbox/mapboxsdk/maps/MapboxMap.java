@@ -20,6 +20,7 @@ import android.view.ViewGroup;
 import com.mapbox.mapboxsdk.annotations.Annotation;
 import com.mapbox.mapboxsdk.annotations.BaseMarkerOptions;
 import com.mapbox.mapboxsdk.annotations.BaseMarkerViewOptions;
+import com.mapbox.mapboxsdk.annotations.Icon;
 import com.mapbox.mapboxsdk.annotations.Marker;
 import com.mapbox.mapboxsdk.annotations.MarkerOptions;
 import com.mapbox.mapboxsdk.annotations.MarkerView;
@@ -37,7 +38,10 @@ import com.mapbox.mapboxsdk.constants.MyLocationTracking;
 import com.mapbox.mapboxsdk.constants.Style;
 import com.mapbox.mapboxsdk.geometry.LatLng;
 import com.mapbox.mapboxsdk.geometry.LatLngBounds;
+import com.mapbox.mapboxsdk.maps.renderer.RenderStats;
+import com.mapbox.mapboxsdk.maps.renderer.RenderStatsListener;
 import com.mapbox.mapboxsdk.maps.widgets.MyLocationViewSettings;
+import com.mapbox.mapboxsdk.style.layers.CompiledFilter;
 import com.mapbox.mapboxsdk.style.layers.Filter;
 import com.mapbox.mapboxsdk.style.layers.Layer;
 import com.mapbox.mapboxsdk.style.light.Light;
@@ -47,6 +51,7 @@ import com.mapbox.services.commons.geojson.Feature;
 import com.mapbox.services.commons.geojson.Geometry;
 
 import java.lang.reflect.ParameterizedType;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 
@@ -465,9 +470,22 @@ public final class MapboxMap {
 
   /**
    * Adds an images to be used in the map's style
+   * <p>
+   * The images are converted on a worker thread and added to the style asynchronously.
+   * </p>
    */
   public void addImages(@NonNull HashMap<String, Bitmap> images) {
-    nativeMapView.addImages(images);
+    addImages(images, null);
+  }
+
+  /**
+   * Adds images to be used in the map's style, converting them on a worker thread.
+   *
+   * @param images   the bitmaps by image name
+   * @param listener the listener invoked on the UI thread once the images have been added, or null
+   */
+  public void addImages(@NonNull HashMap<String, Bitmap> images, @Nullable OnImagesAddedListener listener) {
+    nativeMapView.addImages(images, listener);
   }
 
   /**
@@ -1180,6 +1198,26 @@ public final class MapboxMap {
     nativeMapView.setStyleJson(styleJson);
   }
 
+  /**
+   * Loads a new map style from a json string, parsing and validating it on a worker thread.
+   * <p>
+   * Only setting the parsed style happens on the UI thread, which keeps large style documents from stalling it.
+   * Setting another style, with this method, {@link #setStyleJson(String)} or {@link #setStyleUrl(String)}, before
+   * parsing completes supersedes the pending style, whose callback is then never invoked.
+   * </p>
+   * <p>
+   * If the style fails to parse, the current style is left unchanged and the error is passed to the callback.
+   * Unlike with {@link #setStyleJson(String)}, no {@link MapView#DID_FAIL_LOADING_MAP} event is sent.
+   * </p>
+   *
+   * @param styleJson the style json
+   * @param callback  the callback invoked on the UI thread once the style is set, or null
+   */
+  @UiThread
+  public void setStyleJsonAsync(@NonNull String styleJson, @Nullable StyleJsonCallback callback) {
+    nativeMapView.setStyleJsonAsync(styleJson, callback);
+  }
+
   /**
    * Returns the map style json currently displayed in the map view.
    *
@@ -1310,6 +1348,23 @@ public final class MapboxMap {
     return annotationManager.addMarkers(markerOptionsList, this);
   }
 
+  /**
+   * <p>
+   * Adds multiple markers to this map from columnar data, in a single call into the native map.
+   * </p>
+   * This avoids building a {@link MarkerOptions} for each marker and loads each icon only once, which makes it the
+   * fastest way to add thousands of markers. Markers added this way have no title or snippet.
+   *
+   * @param latLngs     the positions of the markers, as consecutive latitude and longitude pairs
+   * @param icons       the distinct icons used by the markers, or null to use the default marker icon for all of them
+   * @param iconIndices for each marker, the index of its icon in icons. Ignored when icons is null.
+   * @return A list of the {@code Marker}s that were added to the map, in the order of latLngs
+   */
+  @NonNull
+  public List<Marker> addMarkers(@NonNull double[] latLngs, @Nullable Icon[] icons, @Nullable int[] iconIndices) {
+    return annotationManager.addMarkers(latLngs, icons, iconIndices, this);
+  }
+
   /**
    * <p>
    * Updates a marker on this map. Does nothing if the marker isn't already added.
@@ -1321,6 +1376,45 @@ public final class MapboxMap {
     annotationManager.updateMarker(updatedMarker, this);
   }
 
+  /**
+   * <p>
+   * Updates the position and icon of multiple markers on this map in a single call to the renderer. Markers that
+   * aren't already added are ignored.
+   * </p>
+   * Prefer this over {@link #updateMarker(Marker)} when moving many markers at once, for example a fleet of vehicles.
+   *
+   * @param updatedMarkers The updated marker objects
+   */
+  public void updateMarkers(@NonNull Collection<? extends Marker> updatedMarkers) {
+    annotationManager.updateMarkers(updatedMarkers, this);
+  }
+
+  /**
+   * <p>
+   * Starts collecting marker updates instead of applying them one by one.
+   * </p>
+   * Until {@link #commitMarkerBatch()} is called, {@link #updateMarker(Marker)}, and in turn
+   * {@link Marker#setPosition(LatLng)} and {@link Marker#setIcon(Icon)}, only record the change. Repeated changes to
+   * the same marker are coalesced. Batches can be nested, changes are applied when the outermost batch is committed.
+   */
+  @UiThread
+  public void beginMarkerBatch() {
+    annotationManager.beginMarkerBatch();
+  }
+
+  /**
+   * <p>
+   * Applies the marker updates collected since {@link #beginMarkerBatch()} in a single call to the renderer.
+   * </p>
+   * Markers removed while the batch was open are skipped.
+   *
+   * @throws IllegalStateException if no batch was started
+   */
+  @UiThread
+  public void commitMarkerBatch() {
+    annotationManager.commitMarkerBatch(this);
+  }
+
   /**
    * Adds a polyline to this map.
    *
@@ -1515,6 +1609,30 @@ public final class MapboxMap {
     return annotationManager.getPolylines();
   }
 
+  /**
+   * <p>
+   * Enables or disables resolving taps on markers from an index kept in memory, instead of querying the renderer for
+   * the markers around the tap and projecting each of them to the screen. Disabled by default.
+   * </p>
+   * Enable this when showing large amounts of markers. The index is maintained as markers are added, updated and
+   * removed, and costs some memory per marker.
+   *
+   * @param enabled true to resolve marker taps from the index
+   */
+  @UiThread
+  public void setMarkerTapIndexEnabled(boolean enabled) {
+    annotationManager.setMarkerTapIndexEnabled(enabled);
+  }
+
+  /**
+   * Returns whether taps on markers are resolved from an index kept in memory.
+   *
+   * @return true if the index is enabled
+   */
+  public boolean isMarkerTapIndexEnabled() {
+    return annotationManager.isMarkerTapIndexEnabled();
+  }
+
   /**
    * Sets a callback that's invoked when the user clicks on a marker.
    *
@@ -1892,6 +2010,28 @@ public final class MapboxMap {
     nativeMapView.setOnFpsChangedListener(listener);
   }
 
+  /**
+   * Sets a callback that's invoked on the ui thread with the render stats of the map view, about once per second
+   * while rendering. The stats hold the frame times of the frames rendered most recently, and the amount of late
+   * and dropped frames.
+   *
+   * @param listener The callback that's invoked with the render stats. To unset the callback, use null.
+   */
+  public void setRenderStatsListener(@Nullable RenderStatsListener listener) {
+    nativeMapView.setRenderStatsListener(listener);
+  }
+
+  /**
+   * Returns the render stats of the map view, holding the frame times of the frames rendered most recently and the
+   * amount of late and dropped frames. The returned object is kept up to date while rendering and can be polled.
+   *
+   * @return The render stats
+   */
+  @NonNull
+  public RenderStats getRenderStats() {
+    return nativeMapView.getRenderStats();
+  }
+
   // used by MapView
   OnFpsChangedListener getOnFpsChangedListener() {
     return onFpsChangedListener;
@@ -2118,7 +2258,7 @@ public final class MapboxMap {
   @NonNull
   public List<Feature> queryRenderedFeatures(@NonNull PointF coordinates, @Nullable String...
     layerIds) {
-    return nativeMapView.queryRenderedFeatures(coordinates, layerIds, null);
+    return nativeMapView.queryRenderedFeatures(coordinates, layerIds, (Filter.Statement) null);
   }
 
   /**
@@ -2136,6 +2276,21 @@ public final class MapboxMap {
     return nativeMapView.queryRenderedFeatures(coordinates, layerIds, filter);
   }
 
+  /**
+   * Queries the map for rendered features, with a filter compiled once and reused across queries
+   *
+   * @param coordinates the point to query
+   * @param filter      filters the returned features
+   * @param layerIds    optionally - only query these layers
+   * @return the list of feature
+   */
+  @NonNull
+  public List<Feature> queryRenderedFeatures(@NonNull PointF coordinates,
+                                             @NonNull CompiledFilter filter,
+                                             @Nullable String... layerIds) {
+    return nativeMapView.queryRenderedFeatures(coordinates, layerIds, filter);
+  }
+
   /**
    * Queries the map for rendered features
    *
@@ -2146,7 +2301,7 @@ public final class MapboxMap {
   @NonNull
   public List<Feature> queryRenderedFeatures(@NonNull RectF coordinates,
                                              @Nullable String... layerIds) {
-    return nativeMapView.queryRenderedFeatures(coordinates, layerIds, null);
+    return nativeMapView.queryRenderedFeatures(coordinates, layerIds, (Filter.Statement) null);
   }
 
   /**
@@ -2164,6 +2319,21 @@ public final class MapboxMap {
     return nativeMapView.queryRenderedFeatures(coordinates, layerIds, filter);
   }
 
+  /**
+   * Queries the map for rendered features, with a filter compiled once and reused across queries
+   *
+   * @param coordinates the box to query
+   * @param filter      filters the returned features
+   * @param layerIds    optionally - only query these layers
+   * @return the list of feature
+   */
+  @NonNull
+  public List<Feature> queryRenderedFeatures(@NonNull RectF coordinates,
+                                             @NonNull CompiledFilter filter,
+                                             @Nullable String... layerIds) {
+    return nativeMapView.queryRenderedFeatures(coordinates, layerIds, filter);
+  }
+
   FocalPointChangeListener createFocalPointChangeListener() {
     return new FocalPointChangeListener() {
       @Override
@@ -2654,6 +2824,33 @@ public final class MapboxMap {
     void onSnapshotReady(Bitmap snapshot);
   }
 
+  /**
+   * Interface definition for a callback to be invoked when a style json set asynchronously has been parsed and set.
+   */
+  public interface StyleJsonCallback {
+    /**
+     * Invoked when the style json has been parsed and set on the map.
+     */
+    void onStyleJsonLoaded();
+
+    /**
+     * Invoked when the style json failed to parse, the map style is left unchanged.
+     *
+     * @param message the parse error
+     */
+    void onStyleJsonError(String message);
+  }
+
+  /**
+   * Interface definition for a callback to be invoked when images added asynchronously have been added to the style.
+   */
+  public interface OnImagesAddedListener {
+    /**
+     * Invoked when the images have been added to the style.
+     */
+    void onImagesAdded();
+  }
+
   /**
    * Interface definition for a callback to be invoked when the style has finished loading.
    */
@@ -86,6 +86,7 @@ public class MapboxMapOptions implements Parcelable {
   private String apiBaseUrl;
 
   private boolean textureMode;
+  private int maximumFps;
 
   private String style;
 
@@ -157,6 +158,7 @@ public class MapboxMapOptions implements Parcelable {
     textureMode = in.readByte() != 0;
     prefetchesTiles = in.readByte() != 0;
     zMediaOverlay = in.readByte() != 0;
+    maximumFps = in.readInt();
   }
 
   static Bitmap getBitmapFromDrawable(Drawable drawable) {
@@ -300,6 +302,8 @@ public class MapboxMapOptions implements Parcelable {
         typedArray.getFloat(R.styleable.mapbox_MapView_mapbox_myLocationAccuracyThreshold, 0));
       mapboxMapOptions.textureMode(
         typedArray.getBoolean(R.styleable.mapbox_MapView_mapbox_renderTextureMode, false));
+      mapboxMapOptions.maximumFps(
+        typedArray.getInt(R.styleable.mapbox_MapView_mapbox_renderMaximumFps, 0));
       mapboxMapOptions.setPrefetchesTiles(
         typedArray.getBoolean(R.styleable.mapbox_MapView_mapbox_enableTilePrefetch, true));
       mapboxMapOptions.renderSurfaceOnTop(
@@ -720,6 +724,21 @@ public class MapboxMapOptions implements Parcelable {
     return this;
   }
 
+  /**
+   * Set the maximum amount of frames rendered per second, for example 30 to save battery.
+   * <p>
+   * Only applies to {@link #textureMode(boolean)}, where frames are aligned with the display vsync.
+   * No limit by default.
+   * </p>
+   *
+   * @param maximumFps The maximum frames per second, 0 for no limit
+   * @return This
+   */
+  public MapboxMapOptions maximumFps(int maximumFps) {
+    this.maximumFps = maximumFps;
+    return this;
+  }
+
   /**
    * Enable tile pre-fetching. Loads tiles at a lower zoom-level to pre-render
    * a low resolution preview while more detailed tiles are loaded.
@@ -1079,6 +1098,15 @@ public class MapboxMapOptions implements Parcelable {
     return textureMode;
   }
 
+  /**
+   * Returns the maximum amount of frames rendered per second.
+   *
+   * @return The maximum frames per second, 0 if there is no limit.
+   */
+  public int getMaximumFps() {
+    return maximumFps;
+  }
+
   public static final Parcelable.Creator<MapboxMapOptions> CREATOR = new Parcelable.Creator<MapboxMapOptions>() {
     public MapboxMapOptions createFromParcel(Parcel in) {
       return new MapboxMapOptions(in);
@@ -1145,6 +1173,7 @@ public class MapboxMapOptions implements Parcelable {
     dest.writeByte((byte) (textureMode ? 1 : 0));
     dest.writeByte((byte) (prefetchesTiles ? 1 : 0));
     dest.writeByte((byte) (zMediaOverlay ? 1 : 0));
+    dest.writeInt(maximumFps);
   }
 
   @Override
@@ -1274,6 +1303,9 @@ public class MapboxMapOptions implements Parcelable {
     if (zMediaOverlay != options.zMediaOverlay) {
       return false;
     }
+    if (maximumFps != options.maximumFps) {
+      return false;
+    }
 
     return false;
   }
@@ -1323,6 +1355,7 @@ public class MapboxMapOptions implements Parcelable {
     result = 31 * result + (style != null ? style.hashCode() : 0);
     result = 31 * result + (prefetchesTiles ? 1 : 0);
     result = 31 * result + (zMediaOverlay ? 1 : 0);
+    result = 31 * result + maximumFps;
     return result;
   }
 }
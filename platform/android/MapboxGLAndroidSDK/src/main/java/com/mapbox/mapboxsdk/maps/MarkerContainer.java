@@ -12,11 +12,16 @@ import com.mapbox.mapboxsdk.annotations.BaseMarkerViewOptions;
 import com.mapbox.mapboxsdk.annotations.Icon;
 import com.mapbox.mapboxsdk.annotations.IconFactory;
 import com.mapbox.mapboxsdk.annotations.Marker;
+import com.mapbox.mapboxsdk.annotations.MarkerOptions;
 import com.mapbox.mapboxsdk.annotations.MarkerView;
 import com.mapbox.mapboxsdk.annotations.MarkerViewManager;
+import com.mapbox.mapboxsdk.geometry.LatLng;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Encapsulates {@link Marker}'s functionality.
@@ -54,11 +59,19 @@ class MarkerContainer implements Markers {
     int count = markerOptionsList.size();
     List<Marker> markers = new ArrayList<>(count);
     if (nativeMapView != null && count > 0) {
-      BaseMarkerOptions markerOptions;
+      // markers usually share a few icons, resolve the top offset once per icon
+      Map<Icon, Integer> topOffsets = new HashMap<>();
       Marker marker;
+      Icon icon;
       for (int i = 0; i < count; i++) {
-        markerOptions = markerOptionsList.get(i);
-        marker = prepareMarker(markerOptions);
+        marker = markerOptionsList.get(i).getMarker();
+        icon = iconManager.loadIconForMarker(marker);
+        Integer topOffset = topOffsets.get(icon);
+        if (topOffset == null) {
+          topOffset = iconManager.getTopOffsetPixelsForIcon(icon);
+          topOffsets.put(icon, topOffset);
+        }
+        marker.setTopOffsetPixels(topOffset);
         markers.add(marker);
       }
 
@@ -75,6 +88,69 @@ class MarkerContainer implements Markers {
     return markers;
   }
 
+  @Override
+  public List<Marker> addBy(@NonNull double[] latLngs, @Nullable Icon[] icons, @Nullable int[] iconIndices,
+                            @NonNull MapboxMap mapboxMap) {
+    if (latLngs.length % 2 != 0) {
+      throw new IllegalArgumentException("latLngs must hold latitude and longitude pairs");
+    }
+    int count = latLngs.length / 2;
+    if (icons == null || icons.length == 0) {
+      // all markers use the default icon
+      icons = new Icon[] {null};
+      iconIndices = new int[count];
+    } else if (iconIndices == null || iconIndices.length != count) {
+      throw new IllegalArgumentException("iconIndices must hold an icon index for each marker");
+    }
+
+    int[] markerCounts = new int[icons.length];
+    for (int iconIndex : iconIndices) {
+      if (iconIndex < 0 || iconIndex >= icons.length) {
+        throw new IllegalArgumentException("Icon index " + iconIndex + " is out of bounds");
+      }
+      markerCounts[iconIndex]++;
+    }
+
+    List<Marker> markers = new ArrayList<>(count);
+    if (nativeMapView == null || count == 0) {
+      return markers;
+    }
+
+    Icon[] loadedIcons = new Icon[icons.length];
+    String[] iconIds = new String[icons.length];
+    int[] topOffsets = new int[icons.length];
+    for (int i = 0; i < icons.length; i++) {
+      if (markerCounts[i] > 0) {
+        loadedIcons[i] = iconManager.loadIconForMarkers(icons[i], markerCounts[i]);
+        iconIds[i] = loadedIcons[i].getId();
+        topOffsets[i] = iconManager.getTopOffsetPixelsForIcon(loadedIcons[i]);
+      } else {
+        // unused icon, keep the index valid for native code
+        iconIds[i] = "";
+      }
+    }
+
+    MarkerOptions markerOptions = new MarkerOptions();
+    for (int i = 0; i < count; i++) {
+      int iconIndex = iconIndices[i];
+      Marker marker = markerOptions
+        .position(new LatLng(latLngs[i * 2], latLngs[i * 2 + 1]))
+        .icon(loadedIcons[iconIndex])
+        .getMarker();
+      marker.setTopOffsetPixels(topOffsets[iconIndex]);
+      markers.add(marker);
+    }
+
+    long[] ids = nativeMapView.addMarkers(latLngs, iconIds, iconIndices);
+    for (int i = 0; i < ids.length; i++) {
+      Marker createdMarker = markers.get(i);
+      createdMarker.setMapboxMap(mapboxMap);
+      createdMarker.setId(ids[i]);
+      annotations.put(ids[i], createdMarker);
+    }
+    return markers;
+  }
+
   @Override
   public void update(@NonNull Marker updatedMarker, @NonNull MapboxMap mapboxMap) {
     ensureIconLoaded(updatedMarker, mapboxMap);
@@ -82,6 +158,17 @@ class MarkerContainer implements Markers {
     annotations.setValueAt(annotations.indexOfKey(updatedMarker.getId()), updatedMarker);
   }
 
+  @Override
+  public void update(@NonNull List<Marker> updatedMarkers, @NonNull MapboxMap mapboxMap) {
+    for (Marker updatedMarker : updatedMarkers) {
+      ensureIconLoaded(updatedMarker, mapboxMap);
+    }
+    nativeMapView.updateMarkers(updatedMarkers);
+    for (Marker updatedMarker : updatedMarkers) {
+      annotations.setValueAt(annotations.indexOfKey(updatedMarker.getId()), updatedMarker);
+    }
+  }
+
   @Override
   public List<Marker> obtainAll() {
     List<Marker> markers = new ArrayList<>();
@@ -100,22 +187,7 @@ class MarkerContainer implements Markers {
   public List<Marker> obtainAllIn(@NonNull RectF rectangle) {
     RectF rect = nativeMapView.getDensityDependantRectangle(rectangle);
     long[] ids = nativeMapView.queryPointAnnotations(rect);
-    List<Long> idsList = new ArrayList<>(ids.length);
-    for (long id : ids) {
-      idsList.add(id);
-    }
-
-    List<Marker> annotations = new ArrayList<>(ids.length);
-    List<Annotation> annotationList = obtainAnnotations();
-    int count = annotationList.size();
-    for (int i = 0; i < count; i++) {
-      Annotation annotation = annotationList.get(i);
-      if (annotation instanceof com.mapbox.mapboxsdk.annotations.Marker && idsList.contains(annotation.getId())) {
-        annotations.add((com.mapbox.mapboxsdk.annotations.Marker) annotation);
-      }
-    }
-
-    return new ArrayList<>(annotations);
+    return obtainByIds(ids, Marker.class);
   }
 
   @Override
@@ -169,23 +241,7 @@ class MarkerContainer implements Markers {
       rectangle.bottom / pixelRatio);
 
     long[] ids = nativeMapView.queryPointAnnotations(rect);
-
-    List<Long> idsList = new ArrayList<>(ids.length);
-    for (long id : ids) {
-      idsList.add(id);
-    }
-
-    List<MarkerView> annotations = new ArrayList<>(ids.length);
-    List<Annotation> annotationList = obtainAnnotations();
-    int count = annotationList.size();
-    for (int i = 0; i < count; i++) {
-      Annotation annotation = annotationList.get(i);
-      if (annotation instanceof MarkerView && idsList.contains(annotation.getId())) {
-        annotations.add((MarkerView) annotation);
-      }
-    }
-
-    return new ArrayList<>(annotations);
+    return obtainByIds(ids, MarkerView.class);
   }
 
   @Override
@@ -216,12 +272,24 @@ class MarkerContainer implements Markers {
     }
   }
 
-  private List<Annotation> obtainAnnotations() {
-    List<Annotation> annotations = new ArrayList<>();
-    for (int i = 0; i < this.annotations.size(); i++) {
-      annotations.add(this.annotations.get(this.annotations.keyAt(i)));
+  /**
+   * Resolves queried ids against the annotations, in ascending id order.
+   *
+   * @param ids  the ids of the queried annotations, sorted in place
+   * @param type the type of annotations to retain
+   * @param <T>  the type of annotations to retain
+   * @return the annotations of the given type matching the ids
+   */
+  private <T extends Annotation> List<T> obtainByIds(long[] ids, Class<T> type) {
+    Arrays.sort(ids);
+    List<T> result = new ArrayList<>(ids.length);
+    for (long id : ids) {
+      Annotation annotation = annotations.get(id);
+      if (type.isInstance(annotation)) {
+        result.add(type.cast(annotation));
+      }
     }
-    return annotations;
+    return result;
   }
 
   private MarkerView prepareViewMarker(BaseMarkerViewOptions markerViewOptions) {
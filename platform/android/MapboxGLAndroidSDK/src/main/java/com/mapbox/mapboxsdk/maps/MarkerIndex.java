@@ -0,0 +1,223 @@
+package com.mapbox.mapboxsdk.maps;
+
+import android.support.annotation.NonNull;
+import android.support.v4.util.LongSparseArray;
+
+import com.mapbox.mapboxsdk.annotations.Annotation;
+import com.mapbox.mapboxsdk.annotations.Marker;
+import com.mapbox.mapboxsdk.constants.MapboxConstants;
+import com.mapbox.mapboxsdk.geometry.LatLng;
+
+/**
+ * Grid index of markers in world coordinates, used to resolve taps on markers without querying the native map.
+ * <p>
+ * World coordinates are spherical mercator coordinates normalised to [0, 1], with y pointing south. Markers are
+ * bucketed in a fixed grid of cells, and are kept in sync by {@link AnnotationManager} when they are added, updated
+ * or removed. Markers are tracked by id, an updated marker replaces any marker instance with the same id. Shape
+ * annotations are only counted, they are still hit tested by the native map.
+ * </p>
+ */
+class MarkerIndex {
+
+  private static final int GRID_SIZE = 1 << 12;
+
+  private final LongSparseArray<Cell> cells = new LongSparseArray<>();
+  private final LongSparseArray<Cell> cellByMarkerId = new LongSparseArray<>();
+  private int shapeCount;
+
+  /**
+   * Receives the markers found by a query.
+   */
+  interface Visitor {
+    void visit(@NonNull Marker marker, double worldX, double worldY);
+  }
+
+  void add(@NonNull Annotation annotation) {
+    if (annotation instanceof Marker) {
+      Marker marker = (Marker) annotation;
+      if (cellByMarkerId.get(marker.getId()) == null) {
+        insert(marker);
+      }
+    } else {
+      shapeCount++;
+    }
+  }
+
+  void update(@NonNull Marker marker) {
+    removeMarker(marker.getId());
+    insert(marker);
+  }
+
+  void remove(@NonNull Annotation annotation) {
+    if (annotation instanceof Marker) {
+      removeMarker(annotation.getId());
+    } else if (shapeCount > 0) {
+      shapeCount--;
+    }
+  }
+
+  void clear() {
+    cells.clear();
+    cellByMarkerId.clear();
+    shapeCount = 0;
+  }
+
+  int size() {
+    return cellByMarkerId.size();
+  }
+
+  boolean hasShapes() {
+    return shapeCount > 0;
+  }
+
+  /**
+   * Visits the markers within world bounds. Bounds crossing the antimeridian, below 0 or above 1 horizontally, wrap
+   * around; the world coordinates passed to the visitor are always within [0, 1].
+   *
+   * @param minX    the western bound
+   * @param minY    the northern bound
+   * @param maxX    the eastern bound
+   * @param maxY    the southern bound
+   * @param visitor the visitor receiving the markers
+   */
+  void query(double minX, double minY, double maxX, double maxY, @NonNull Visitor visitor) {
+    if (maxX - minX >= 1) {
+      queryRange(0, minY, 1, maxY, visitor);
+    } else if (minX < 0) {
+      queryRange(minX + 1, minY, 1, maxY, visitor);
+      queryRange(0, minY, maxX, maxY, visitor);
+    } else if (maxX > 1) {
+      queryRange(minX, minY, 1, maxY, visitor);
+      queryRange(0, minY, maxX - 1, maxY, visitor);
+    } else {
+      queryRange(minX, minY, maxX, maxY, visitor);
+    }
+  }
+
+  private void queryRange(double minX, double minY, double maxX, double maxY, Visitor visitor) {
+    int minCellX = toCell(minX);
+    int minCellY = toCell(minY);
+    int maxCellX = toCell(maxX);
+    int maxCellY = toCell(maxY);
+    long cellCount = (long) (maxCellX - minCellX + 1) * (maxCellY - minCellY + 1);
+    if (cellCount > cells.size()) {
+      // a large area, visiting the occupied cells is cheaper than looking up each cell
+      for (int i = 0; i < cells.size(); i++) {
+        cells.valueAt(i).query(minX, minY, maxX, maxY, visitor);
+      }
+    } else {
+      for (int cellX = minCellX; cellX <= maxCellX; cellX++) {
+        for (int cellY = minCellY; cellY <= maxCellY; cellY++) {
+          Cell cell = cells.get(toKey(cellX, cellY));
+          if (cell != null) {
+            cell.query(minX, minY, maxX, maxY, visitor);
+          }
+        }
+      }
+    }
+  }
+
+  private void insert(Marker marker) {
+    LatLng position = marker.getPosition();
+    if (position == null) {
+      return;
+    }
+    double worldX = toWorldX(position.getLongitude());
+    double worldY = toWorldY(position.getLatitude());
+    long key = toKey(toCell(worldX), toCell(worldY));
+    Cell cell = cells.get(key);
+    if (cell == null) {
+      cell = new Cell(key);
+      cells.put(key, cell);
+    }
+    cell.add(marker, worldX, worldY);
+    cellByMarkerId.put(marker.getId(), cell);
+  }
+
+  private void removeMarker(long id) {
+    Cell cell = cellByMarkerId.get(id);
+    if (cell == null) {
+      return;
+    }
+    cellByMarkerId.remove(id);
+    cell.remove(id);
+    if (cell.size == 0) {
+      cells.remove(cell.key);
+    }
+  }
+
+  static double toWorldX(double longitude) {
+    double worldX = (longitude + 180) / 360;
+    return worldX - Math.floor(worldX);
+  }
+
+  static double toWorldY(double latitude) {
+    double clamped = Math.max(MapboxConstants.MIN_MERCATOR_LATITUDE,
+      Math.min(MapboxConstants.MAX_MERCATOR_LATITUDE, latitude));
+    double sin = Math.sin(Math.toRadians(clamped));
+    return 0.5 - Math.log((1 + sin) / (1 - sin)) / (4 * Math.PI);
+  }
+
+  private static int toCell(double world) {
+    return Math.max(0, Math.min(GRID_SIZE - 1, (int) Math.floor(world * GRID_SIZE)));
+  }
+
+  private static long toKey(int cellX, int cellY) {
+    return (long) cellX * GRID_SIZE + cellY;
+  }
+
+  private static class Cell {
+
+    private final long key;
+    private Marker[] markers = new Marker[4];
+    private double[] worldXs = new double[4];
+    private double[] worldYs = new double[4];
+    private int size;
+
+    Cell(long key) {
+      this.key = key;
+    }
+
+    void add(Marker marker, double worldX, double worldY) {
+      if (size == markers.length) {
+        int capacity = size * 2;
+        Marker[] grownMarkers = new Marker[capacity];
+        double[] grownXs = new double[capacity];
+        double[] grownYs = new double[capacity];
+        System.arraycopy(markers, 0, grownMarkers, 0, size);
+        System.arraycopy(worldXs, 0, grownXs, 0, size);
+        System.arraycopy(worldYs, 0, grownYs, 0, size);
+        markers = grownMarkers;
+        worldXs = grownXs;
+        worldYs = grownYs;
+      }
+      markers[size] = marker;
+      worldXs[size] = worldX;
+      worldYs[size] = worldY;
+      size++;
+    }
+
+    void remove(long id) {
+      for (int i = 0; i < size; i++) {
+        if (markers[i].getId() == id) {
+          size--;
+          markers[i] = markers[size];
+          worldXs[i] = worldXs[size];
+          worldYs[i] = worldYs[size];
+          markers[size] = null;
+          return;
+        }
+      }
+    }
+
+    void query(double minX, double minY, double maxX, double maxY, Visitor visitor) {
+      for (int i = 0; i < size; i++) {
+        double worldX = worldXs[i];
+        double worldY = worldYs[i];
+        if (worldX >= minX && worldX <= maxX && worldY >= minY && worldY <= maxY) {
+          visitor.visit(markers[i], worldX, worldY);
+        }
+      }
+    }
+  }
+}
@@ -9,7 +9,6 @@ import android.support.annotation.IntRange;
 import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
 import android.text.TextUtils;
-import android.util.DisplayMetrics;
 
 import com.mapbox.mapboxsdk.LibraryLoader;
 import com.mapbox.mapboxsdk.annotations.Icon;
@@ -21,8 +20,11 @@ import com.mapbox.mapboxsdk.geometry.LatLng;
 import com.mapbox.mapboxsdk.geometry.LatLngBounds;
 import com.mapbox.mapboxsdk.geometry.ProjectedMeters;
 import com.mapbox.mapboxsdk.maps.renderer.MapRenderer;
+import com.mapbox.mapboxsdk.maps.renderer.RenderStats;
+import com.mapbox.mapboxsdk.maps.renderer.RenderStatsListener;
 import com.mapbox.mapboxsdk.storage.FileSource;
 import com.mapbox.mapboxsdk.style.layers.CannotAddLayerException;
+import com.mapbox.mapboxsdk.style.layers.CompiledFilter;
 import com.mapbox.mapboxsdk.style.layers.Filter;
 import com.mapbox.mapboxsdk.style.layers.Layer;
 import com.mapbox.mapboxsdk.style.light.Light;
@@ -65,6 +67,12 @@ final class NativeMapView {
   // Listener invoked to return a bitmap of the map
   private MapboxMap.SnapshotReadyCallback snapshotReadyCallback;
 
+  // Pending style json parsed off the UI thread, superseded by any later style change
+  private StyleJsonParseTask styleJsonParseTask;
+
+  // Converts bitmaps to style images through pooled direct buffers
+  private final ImageConverter imageConverter = new ImageConverter();
+
   static {
     LibraryLoader.load();
   }
@@ -99,6 +107,7 @@ final class NativeMapView {
   }
 
   public void destroy() {
+    cancelStyleJsonParsing();
     nativeDestroy();
     mapView = null;
     destroyed = true;
@@ -148,6 +157,7 @@ final class NativeMapView {
     if (isDestroyedOn("setStyleUrl")) {
       return;
     }
+    cancelStyleJsonParsing();
     nativeSetStyleUrl(url);
   }
 
@@ -162,9 +172,26 @@ final class NativeMapView {
     if (isDestroyedOn("setStyleJson")) {
       return;
     }
+    cancelStyleJsonParsing();
     nativeSetStyleJson(newStyleJson);
   }
 
+  public void setStyleJsonAsync(String newStyleJson, @Nullable MapboxMap.StyleJsonCallback callback) {
+    if (isDestroyedOn("setStyleJsonAsync")) {
+      return;
+    }
+    cancelStyleJsonParsing();
+    styleJsonParseTask = new StyleJsonParseTask(this, callback);
+    styleJsonParseTask.executeOnExecutor(AsyncTask.THREAD_POOL_EXECUTOR, newStyleJson);
+  }
+
+  private void cancelStyleJsonParsing() {
+    if (styleJsonParseTask != null) {
+      styleJsonParseTask.cancel(false);
+      styleJsonParseTask = null;
+    }
+  }
+
   public String getStyleJson() {
     if (isDestroyedOn("getStyleJson")) {
       return null;
@@ -385,15 +412,35 @@ final class NativeMapView {
     if (isDestroyedOn("addMarker")) {
       return 0;
     }
-    Marker[] markers = {marker};
-    return nativeAddMarkers(markers)[0];
+    LatLng position = marker.getPosition();
+    return nativeAddMarkers(new double[] {position.getLatitude(), position.getLongitude()},
+      new String[] {marker.getIcon().getId()}, new int[] {0})[0];
   }
 
   public long[] addMarkers(List<Marker> markers) {
     if (isDestroyedOn("addMarkers")) {
       return new long[] {};
     }
-    return nativeAddMarkers(markers.toArray(new Marker[markers.size()]));
+    int count = markers.size();
+    double[] latLngs = new double[count * 2];
+    int[] iconIndices = new int[count];
+    String[] iconIds = toMarkerColumns(markers, latLngs, iconIndices);
+    return nativeAddMarkers(latLngs, iconIds, iconIndices);
+  }
+
+  /**
+   * Adds markers in a single call, without reading their attributes one by one.
+   *
+   * @param latLngs     the positions of the markers, as consecutive latitude and longitude pairs
+   * @param iconIds     the distinct ids of the icons used by the markers
+   * @param iconIndices for each marker, the index of its icon in iconIds
+   * @return the ids of the added markers
+   */
+  public long[] addMarkers(double[] latLngs, String[] iconIds, int[] iconIndices) {
+    if (isDestroyedOn("addMarkers")) {
+      return new long[] {};
+    }
+    return nativeAddMarkers(latLngs, iconIds, iconIndices);
   }
 
   public long addPolyline(Polyline polyline) {
@@ -435,6 +482,47 @@ final class NativeMapView {
     nativeUpdateMarker(marker.getId(), position.getLatitude(), position.getLongitude(), icon.getId());
   }
 
+  /**
+   * Updates the position and icon of markers in a single call.
+   *
+   * @param markers the markers to update, each marker at most once
+   */
+  public void updateMarkers(List<Marker> markers) {
+    if (isDestroyedOn("updateMarkers")) {
+      return;
+    }
+    int count = markers.size();
+    long[] ids = new long[count];
+    double[] latLngs = new double[count * 2];
+    int[] iconIndices = new int[count];
+    String[] iconIds = toMarkerColumns(markers, latLngs, iconIndices);
+    for (int i = 0; i < count; i++) {
+      ids[i] = markers.get(i).getId();
+    }
+    nativeUpdateMarkers(ids, latLngs, iconIds, iconIndices);
+  }
+
+  private static String[] toMarkerColumns(List<Marker> markers, double[] latLngs, int[] iconIndices) {
+    List<String> iconIds = new ArrayList<>();
+    Map<String, Integer> iconIndexById = new HashMap<>();
+    for (int i = 0; i < markers.size(); i++) {
+      Marker marker = markers.get(i);
+      LatLng position = marker.getPosition();
+      latLngs[i * 2] = position.getLatitude();
+      latLngs[i * 2 + 1] = position.getLongitude();
+
+      String iconId = marker.getIcon().getId();
+      Integer iconIndex = iconIndexById.get(iconId);
+      if (iconIndex == null) {
+        iconIndex = iconIds.size();
+        iconIndexById.put(iconId, iconIndex);
+        iconIds.add(iconId);
+      }
+      iconIndices[i] = iconIndex;
+    }
+    return iconIds.toArray(new String[iconIds.size()]);
+  }
+
   public void updatePolygon(Polygon polygon) {
     if (isDestroyedOn("updatePolygon")) {
       return;
@@ -478,11 +566,12 @@ final class NativeMapView {
     return nativeQueryShapeAnnotations(rectF);
   }
 
-  public void addAnnotationIcon(String symbol, int width, int height, float scale, byte[] pixels) {
+  public void addAnnotationIcon(String symbol, int width, int height, float scale, ByteBuffer pixels) {
     if (isDestroyedOn("addAnnotationIcon")) {
       return;
     }
-    nativeAddAnnotationIcon(symbol, width, height, scale, pixels);
+    // the buffer is reused, only the bytes up to its limit hold the icon
+    nativeAddAnnotationIcon(symbol, width, height, scale, pixels, pixels.limit());
   }
 
   public void removeAnnotationIcon(String symbol) {
@@ -579,6 +668,23 @@ final class NativeMapView {
     return nativeLatLngForPixel(pixel.x / pixelRatio, pixel.y / pixelRatio).wrap();
   }
 
+  /**
+   * Converts screen locations to geographical locations in a single call.
+   *
+   * @param pixels the screen locations, as consecutive x and y pairs
+   * @return the geographical locations, as consecutive latitude and longitude pairs
+   */
+  public double[] latLngsForPixels(double[] pixels) {
+    if (isDestroyedOn("latLngsForPixels")) {
+      return new double[pixels.length];
+    }
+    double[] scaledPixels = new double[pixels.length];
+    for (int i = 0; i < pixels.length; i++) {
+      scaledPixels[i] = pixels[i] / pixelRatio;
+    }
+    return nativeLatLngsForPixels(scaledPixels);
+  }
+
   public double getTopOffsetPixelsForAnnotationSymbol(String symbolName) {
     if (isDestroyedOn("getTopOffsetPixelsForAnnotationSymbol")) {
       return 0;
@@ -756,29 +862,28 @@ final class NativeMapView {
     if (isDestroyedOn("addImage")) {
       return;
     }
-
-    // Check/correct config
-    if (image.getConfig() != Bitmap.Config.ARGB_8888) {
-      image = image.copy(Bitmap.Config.ARGB_8888, false);
-    }
-
-    // Get pixels
-    ByteBuffer buffer = ByteBuffer.allocate(image.getByteCount());
-    image.copyPixelsToBuffer(buffer);
-
-    // Determine pixel ratio
-    float density = image.getDensity() == Bitmap.DENSITY_NONE ? Bitmap.DENSITY_NONE : image.getDensity();
-    float pixelRatio = density / DisplayMetrics.DENSITY_DEFAULT;
-
-    nativeAddImage(name, image.getWidth(), image.getHeight(), pixelRatio, buffer.array());
+    Image converted = imageConverter.convert(name, image);
+    nativeAddImages(new Image[] {converted});
+    imageConverter.release(converted);
   }
 
-  public void addImages(@NonNull HashMap<String, Bitmap> bitmapHashMap) {
+  public void addImages(@NonNull HashMap<String, Bitmap> bitmapHashMap,
+                        @Nullable final MapboxMap.OnImagesAddedListener listener) {
     if (isDestroyedOn("addImages")) {
       return;
     }
-    //noinspection unchecked
-    new BitmapImageConversionTask(this).execute(bitmapHashMap);
+    imageConverter.convertAsync(bitmapHashMap, new ImageConverter.Callback() {
+      @Override
+      public void onImagesConverted(@NonNull Image[] images) {
+        if (!isDestroyedOn("addImages")) {
+          nativeAddImages(images);
+        }
+        imageConverter.release(images);
+        if (listener != null && !destroyed) {
+          listener.onImagesAdded();
+        }
+      }
+    });
   }
 
   public void removeImage(String name) {
@@ -801,18 +906,44 @@ final class NativeMapView {
   public List<Feature> queryRenderedFeatures(@NonNull PointF coordinates,
                                              @Nullable String[] layerIds,
                                              @Nullable Filter.Statement filter) {
+    return queryRenderedFeatures(coordinates, layerIds, filter != null ? filter.toArray() : null, 0);
+  }
+
+  @NonNull
+  public List<Feature> queryRenderedFeatures(@NonNull PointF coordinates,
+                                             @Nullable String[] layerIds,
+                                             @Nullable CompiledFilter filter) {
+    return queryRenderedFeatures(coordinates, layerIds, null, filter != null ? filter.getNativePtr() : 0);
+  }
+
+  @NonNull
+  public List<Feature> queryRenderedFeatures(@NonNull RectF coordinates,
+                                             @Nullable String[] layerIds,
+                                             @Nullable Filter.Statement filter) {
+    return queryRenderedFeatures(coordinates, layerIds, filter != null ? filter.toArray() : null, 0);
+  }
+
+  @NonNull
+  public List<Feature> queryRenderedFeatures(@NonNull RectF coordinates,
+                                             @Nullable String[] layerIds,
+                                             @Nullable CompiledFilter filter) {
+    return queryRenderedFeatures(coordinates, layerIds, null, filter != null ? filter.getNativePtr() : 0);
+  }
+
+  @NonNull
+  private List<Feature> queryRenderedFeatures(@NonNull PointF coordinates, @Nullable String[] layerIds,
+                                              @Nullable Object[] filter, long compiledFilter) {
     if (isDestroyedOn("queryRenderedFeatures")) {
       return new ArrayList<>();
     }
     Feature[] features = nativeQueryRenderedFeaturesForPoint(coordinates.x / pixelRatio,
-      coordinates.y / pixelRatio, layerIds, filter != null ? filter.toArray() : null);
+      coordinates.y / pixelRatio, layerIds, filter, compiledFilter);
     return features != null ? Arrays.asList(features) : new ArrayList<Feature>();
   }
 
   @NonNull
-  public List<Feature> queryRenderedFeatures(@NonNull RectF coordinates,
-                                             @Nullable String[] layerIds,
-                                             @Nullable Filter.Statement filter) {
+  private List<Feature> queryRenderedFeatures(@NonNull RectF coordinates, @Nullable String[] layerIds,
+                                              @Nullable Object[] filter, long compiledFilter) {
     if (isDestroyedOn("queryRenderedFeatures")) {
       return new ArrayList<>();
     }
@@ -822,7 +953,8 @@ final class NativeMapView {
       coordinates.right / pixelRatio,
       coordinates.bottom / pixelRatio,
       layerIds,
-      filter != null ? filter.toArray() : null);
+      filter,
+      compiledFilter);
     return features != null ? Arrays.asList(features) : new ArrayList<Feature>();
   }
 
@@ -895,6 +1027,14 @@ final class NativeMapView {
 
   private native String nativeGetStyleJson();
 
+  private native void nativeSetParsedStyleJson(long parsedStyleJson);
+
+  private static native long nativeParseStyleJson(String styleJson);
+
+  private static native String nativeGetParsedStyleJsonError(long parsedStyleJson);
+
+  private static native void nativeReleaseParsedStyleJson(long parsedStyleJson);
+
   private native void nativeSetLatLngBounds(LatLngBounds latLngBounds);
 
   private native void nativeCancelTransitions();
@@ -945,7 +1085,9 @@ final class NativeMapView {
 
   private native void nativeUpdateMarker(long markerId, double lat, double lon, String iconId);
 
-  private native long[] nativeAddMarkers(Marker[] markers);
+  private native long[] nativeAddMarkers(double[] latLngs, String[] iconIds, int[] iconIndices);
+
+  private native void nativeUpdateMarkers(long[] markerIds, double[] latLngs, String[] iconIds, int[] iconIndices);
 
   private native long[] nativeAddPolylines(Polyline[] polylines);
 
@@ -957,7 +1099,8 @@ final class NativeMapView {
 
   private native long[] nativeQueryShapeAnnotations(RectF rect);
 
-  private native void nativeAddAnnotationIcon(String symbol, int width, int height, float scale, byte[] pixels);
+  private native void nativeAddAnnotationIcon(String symbol, int width, int height, float scale,
+                                               ByteBuffer pixels, int length);
 
   private native void nativeRemoveAnnotationIcon(String symbol);
 
@@ -986,6 +1129,8 @@ final class NativeMapView {
 
   private native LatLng nativeLatLngForPixel(float x, float y);
 
+  private native double[] nativeLatLngsForPixels(double[] pixels);
+
   private native double nativeGetTopOffsetPixelsForAnnotationSymbol(String symbolName);
 
   private native void nativeJumpTo(double angle, double latitude, double longitude, double pitch, double zoom);
@@ -1033,9 +1178,6 @@ final class NativeMapView {
 
   private native void nativeRemoveSource(long sourcePtr);
 
-  private native void nativeAddImage(String name, int width, int height, float pixelRatio,
-                                     byte[] array);
-
   private native void nativeAddImages(Image[] images);
 
   private native void nativeRemoveImage(String name);
@@ -1050,12 +1192,14 @@ final class NativeMapView {
 
   private native Feature[] nativeQueryRenderedFeaturesForPoint(float x, float y,
                                                                String[] layerIds,
-                                                               Object[] filter);
+                                                               Object[] filter,
+                                                               long compiledFilter);
 
   private native Feature[] nativeQueryRenderedFeaturesForBox(float left, float top,
                                                              float right, float bottom,
                                                              String[] layerIds,
-                                                             Object[] filter);
+                                                             Object[] filter,
+                                                             long compiledFilter);
 
   private native Light nativeGetLight();
 
@@ -1126,53 +1270,101 @@ final class NativeMapView {
     });
   }
 
+  public void setRenderStatsListener(@Nullable final RenderStatsListener listener) {
+    mapRenderer.queueEvent(new Runnable() {
+
+      @Override
+      public void run() {
+        if (listener == null) {
+          mapRenderer.setRenderStatsListener(null);
+          return;
+        }
+
+        mapRenderer.setRenderStatsListener(new RenderStatsListener() {
+
+          @Override
+          public void onRenderStats(@NonNull final RenderStats renderStats) {
+            mapView.post(new Runnable() {
+
+              @Override
+              public void run() {
+                listener.onRenderStats(renderStats);
+              }
+
+            });
+          }
+
+        });
+      }
+
+    });
+  }
+
+  public RenderStats getRenderStats() {
+    return mapRenderer.getRenderStats();
+  }
+
 
   //
-  // Image conversion
+  // Style json parsing
   //
 
-  private static class BitmapImageConversionTask extends AsyncTask<HashMap<String, Bitmap>, Void, List<Image>> {
+  void setParsedStyleJson(long parsedStyleJson) {
+    nativeSetParsedStyleJson(parsedStyleJson);
+  }
 
-    private NativeMapView nativeMapView;
+  void releaseParsedStyleJson(long parsedStyleJson) {
+    nativeReleaseParsedStyleJson(parsedStyleJson);
+  }
+
+  static class StyleJsonParseTask extends AsyncTask<String, Void, Long> {
+
+    private final NativeMapView nativeMapView;
+    private final MapboxMap.StyleJsonCallback callback;
 
-    BitmapImageConversionTask(NativeMapView nativeMapView) {
+    StyleJsonParseTask(NativeMapView nativeMapView, MapboxMap.StyleJsonCallback callback) {
       this.nativeMapView = nativeMapView;
+      this.callback = callback;
     }
 
     @Override
-    protected List<Image> doInBackground(HashMap<String, Bitmap>... params) {
-      HashMap<String, Bitmap> bitmapHashMap = params[0];
-
-      List<Image> images = new ArrayList<>();
-      ByteBuffer buffer;
-      String name;
-      Bitmap bitmap;
+    protected Long doInBackground(String... params) {
+      return nativeParseStyleJson(params[0]);
+    }
 
-      for (Map.Entry<String, Bitmap> stringBitmapEntry : bitmapHashMap.entrySet()) {
-        name = stringBitmapEntry.getKey();
-        bitmap = stringBitmapEntry.getValue();
+    @Override
+    protected void onPostExecute(Long parsedStyleJson) {
+      super.onPostExecute(parsedStyleJson);
+      if (nativeMapView.styleJsonParseTask != this || nativeMapView.isDestroyedOn("setStyleJsonAsync")) {
+        // superseded by a later style change
+        nativeReleaseParsedStyleJson(parsedStyleJson);
+        return;
+      }
+      nativeMapView.styleJsonParseTask = null;
+      onParsed(parsedStyleJson, nativeGetParsedStyleJsonError(parsedStyleJson));
+    }
 
-        if (bitmap.getConfig() != Bitmap.Config.ARGB_8888) {
-          bitmap = bitmap.copy(Bitmap.Config.ARGB_8888, false);
+    void onParsed(long parsedStyleJson, @Nullable String error) {
+      if (error != null) {
+        // a style failing to parse leaves the current style in place
+        nativeMapView.releaseParsedStyleJson(parsedStyleJson);
+        if (callback != null) {
+          callback.onStyleJsonError(error);
         }
-
-        buffer = ByteBuffer.allocate(bitmap.getByteCount());
-        bitmap.copyPixelsToBuffer(buffer);
-
-        float density = bitmap.getDensity() == Bitmap.DENSITY_NONE ? Bitmap.DENSITY_NONE : bitmap.getDensity();
-        float pixelRatio = density / DisplayMetrics.DENSITY_DEFAULT;
-
-        images.add(new Image(buffer.array(), pixelRatio, name, bitmap.getWidth(), bitmap.getHeight()));
+        return;
       }
 
-      return images;
+      nativeMapView.setParsedStyleJson(parsedStyleJson);
+      if (callback != null) {
+        callback.onStyleJsonLoaded();
+      }
     }
 
     @Override
-    protected void onPostExecute(List<Image> images) {
-      super.onPostExecute(images);
-      if (nativeMapView != null && !nativeMapView.isDestroyedOn("nativeAddImages")) {
-        nativeMapView.nativeAddImages(images.toArray(new Image[images.size()]));
+    protected void onCancelled(Long parsedStyleJson) {
+      super.onCancelled(parsedStyleJson);
+      if (parsedStyleJson != null) {
+        nativeReleaseParsedStyleJson(parsedStyleJson);
       }
     }
   }
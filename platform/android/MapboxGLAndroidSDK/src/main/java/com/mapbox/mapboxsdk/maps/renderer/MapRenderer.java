@@ -2,6 +2,7 @@ package com.mapbox.mapboxsdk.maps.renderer;
 
 import android.content.Context;
 import android.support.annotation.CallSuper;
+import android.support.annotation.NonNull;
 
 import com.mapbox.mapboxsdk.maps.MapboxMap;
 import com.mapbox.mapboxsdk.storage.FileSource;
@@ -23,6 +24,11 @@ public abstract class MapRenderer implements MapRendererScheduler {
 
   private MapboxMap.OnFpsChangedListener onFpsChangedListener;
 
+  private final RenderStats renderStats = new RenderStats();
+  private RenderStatsListener renderStatsListener;
+  private long renderNanos;
+  private long renderStatsReported;
+
   public MapRenderer(Context context) {
 
     FileSource fileSource = FileSource.getInstance(context);
@@ -49,6 +55,25 @@ public abstract class MapRenderer implements MapRendererScheduler {
     onFpsChangedListener = listener;
   }
 
+  /**
+   * Sets a listener invoked on the render thread with the render stats, about once per second while rendering.
+   *
+   * @param listener the listener, null to unset
+   */
+  public void setRenderStatsListener(RenderStatsListener listener) {
+    renderStatsListener = listener;
+  }
+
+  /**
+   * Returns the timings of the frames rendered most recently. May be polled from any thread.
+   *
+   * @return the render stats
+   */
+  @NonNull
+  public RenderStats getRenderStats() {
+    return renderStats;
+  }
+
   @CallSuper
   protected void onSurfaceCreated(GL10 gl, EGLConfig config) {
     nativeOnSurfaceCreated();
@@ -80,13 +105,33 @@ public abstract class MapRenderer implements MapRendererScheduler {
 
   @CallSuper
   protected void onDrawFrame(GL10 gl) {
+    long renderStart = System.nanoTime();
     nativeRender();
+    renderNanos = System.nanoTime() - renderStart;
 
     if (onFpsChangedListener != null) {
       updateFps();
     }
   }
 
+  /**
+   * Records the stats of the frame drawn last, to be called by renderers once its buffers are swapped.
+   *
+   * @param swapNanos     the time spent swapping buffers, in nanoseconds, 0 if unknown
+   * @param eventsDrained the amount of queued events run since the previous frame, 0 if unknown
+   */
+  protected void onFrameCompleted(long swapNanos, int eventsDrained) {
+    renderStats.record(renderNanos, swapNanos, eventsDrained);
+
+    if (renderStatsListener != null) {
+      long currentTime = System.nanoTime();
+      if (currentTime - renderStatsReported >= 1E9) {
+        renderStatsListener.onRenderStats(renderStats);
+        renderStatsReported = currentTime;
+      }
+    }
+  }
+
   /**
    * May be called from any thread.
    * <p>
@@ -123,7 +168,7 @@ public abstract class MapRenderer implements MapRendererScheduler {
     frames++;
     long currentTime = System.nanoTime();
     double fps = 0;
-    if (currentTime - timeElapsed >= 1) {
+    if (currentTime - timeElapsed >= 1E9) {
       fps = frames / ((currentTime - timeElapsed) / 1E9);
       onFpsChangedListener.onFpsChanged(fps);
       timeElapsed = currentTime;
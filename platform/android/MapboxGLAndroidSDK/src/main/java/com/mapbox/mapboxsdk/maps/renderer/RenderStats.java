@@ -0,0 +1,227 @@
+package com.mapbox.mapboxsdk.maps.renderer;
+
+import android.support.annotation.FloatRange;
+
+/**
+ * Timings of the frames rendered most recently by a {@link MapRenderer}.
+ * <p>
+ * Frames are recorded into a fixed-size ring buffer, together with a histogram of their frame times, without
+ * allocating. The frame time of a frame is the time spent rendering it plus the time spent swapping buffers. A frame
+ * is late when its frame time exceeds the frame budget, and each frame budget it overruns counts as a dropped frame.
+ * </p>
+ * <p>
+ * May be read from any thread, while frames are being recorded on the render thread.
+ * </p>
+ */
+public class RenderStats {
+
+  /**
+   * The default amount of frames kept.
+   */
+  public static final int DEFAULT_CAPACITY = 240;
+
+  /**
+   * The default frame budget, one frame at 60 frames per second.
+   */
+  public static final long DEFAULT_FRAME_BUDGET_NANOS = 16_666_667L;
+
+  private static final long HISTOGRAM_BUCKET_NANOS = 500_000L;
+  // up to 100 ms per bucket, the last bucket collects slower frames
+  private static final int HISTOGRAM_BUCKET_COUNT = 201;
+
+  private final long frameBudgetNanos;
+  private final long[] renderNanos;
+  private final long[] swapNanos;
+  private final int[] eventsDrained;
+  private final int[] frameTimeHistogram = new int[HISTOGRAM_BUCKET_COUNT];
+
+  private int position;
+  private int size;
+  private long frameCount;
+  private long lateFrameCount;
+  private long droppedFrameCount;
+
+  /**
+   * Creates render stats with the default capacity and frame budget.
+   */
+  public RenderStats() {
+    this(DEFAULT_CAPACITY, DEFAULT_FRAME_BUDGET_NANOS);
+  }
+
+  /**
+   * Creates render stats.
+   *
+   * @param capacity         the amount of frames kept
+   * @param frameBudgetNanos the time available to render and swap a frame, in nanoseconds
+   */
+  public RenderStats(int capacity, long frameBudgetNanos) {
+    if (capacity <= 0) {
+      throw new IllegalArgumentException("capacity must be positive");
+    }
+    if (frameBudgetNanos <= 0) {
+      throw new IllegalArgumentException("frameBudgetNanos must be positive");
+    }
+    this.frameBudgetNanos = frameBudgetNanos;
+    this.renderNanos = new long[capacity];
+    this.swapNanos = new long[capacity];
+    this.eventsDrained = new int[capacity];
+  }
+
+  /**
+   * Records a frame, replacing the oldest frame when full.
+   *
+   * @param renderNanos   the time spent rendering the frame, in nanoseconds
+   * @param swapNanos     the time spent swapping buffers, in nanoseconds
+   * @param eventsDrained the amount of queued events run on the render thread since the previous frame
+   */
+  synchronized void record(long renderNanos, long swapNanos, int eventsDrained) {
+    if (size == this.renderNanos.length) {
+      frameTimeHistogram[toBucket(this.renderNanos[position] + this.swapNanos[position])]--;
+    } else {
+      size++;
+    }
+    this.renderNanos[position] = renderNanos;
+    this.swapNanos[position] = swapNanos;
+    this.eventsDrained[position] = eventsDrained;
+    position = (position + 1) % this.renderNanos.length;
+
+    long frameNanos = renderNanos + swapNanos;
+    frameTimeHistogram[toBucket(frameNanos)]++;
+    frameCount++;
+    if (frameNanos > frameBudgetNanos) {
+      lateFrameCount++;
+      droppedFrameCount += (frameNanos - 1) / frameBudgetNanos;
+    }
+  }
+
+  /**
+   * Returns the maximum amount of frames kept.
+   *
+   * @return the capacity
+   */
+  public int getCapacity() {
+    return renderNanos.length;
+  }
+
+  /**
+   * Returns the frame budget.
+   *
+   * @return the time available to render and swap a frame, in nanoseconds
+   */
+  public long getFrameBudgetNanos() {
+    return frameBudgetNanos;
+  }
+
+  /**
+   * Returns the amount of frames kept, at most the capacity.
+   *
+   * @return the amount of frames
+   */
+  public synchronized int getFrameCount() {
+    return size;
+  }
+
+  /**
+   * Returns the amount of frames recorded since creation or the last reset.
+   *
+   * @return the amount of frames
+   */
+  public synchronized long getTotalFrameCount() {
+    return frameCount;
+  }
+
+  /**
+   * Returns the amount of frames that exceeded the frame budget since creation or the last reset.
+   *
+   * @return the amount of late frames
+   */
+  public synchronized long getLateFrameCount() {
+    return lateFrameCount;
+  }
+
+  /**
+   * Returns the amount of frame budgets overrun by late frames since creation or the last reset.
+   *
+   * @return the amount of dropped frames
+   */
+  public synchronized long getDroppedFrameCount() {
+    return droppedFrameCount;
+  }
+
+  /**
+   * Returns a frame time percentile of the frames kept, with a resolution of half a millisecond.
+   *
+   * @param percentile the percentile, for example 50 for the median or 99
+   * @return the frame time below which the given percentage of frames falls, in nanoseconds, or 0 without frames
+   */
+  public synchronized long getFrameTimePercentile(@FloatRange(from = 0, to = 100) double percentile) {
+    if (size == 0) {
+      return 0;
+    }
+    long threshold = (long) Math.ceil(size * percentile / 100);
+    long count = 0;
+    for (int bucket = 0; bucket < HISTOGRAM_BUCKET_COUNT; bucket++) {
+      count += frameTimeHistogram[bucket];
+      if (count >= threshold && count > 0) {
+        return (bucket + 1) * HISTOGRAM_BUCKET_NANOS;
+      }
+    }
+    return HISTOGRAM_BUCKET_COUNT * HISTOGRAM_BUCKET_NANOS;
+  }
+
+  /**
+   * Copies the frames kept, oldest first, into the given arrays. Each array may be null when not needed, and
+   * receives at most as many frames as it can hold.
+   *
+   * @param renderNanos   receives the time spent rendering each frame, in nanoseconds
+   * @param swapNanos     receives the time spent swapping buffers for each frame, in nanoseconds
+   * @param eventsDrained receives the amount of queued events run before each frame
+   * @return the amount of frames copied
+   */
+  public synchronized int copyFrames(long[] renderNanos, long[] swapNanos, int[] eventsDrained) {
+    int count = size;
+    count = renderNanos != null ? Math.min(count, renderNanos.length) : count;
+    count = swapNanos != null ? Math.min(count, swapNanos.length) : count;
+    count = eventsDrained != null ? Math.min(count, eventsDrained.length) : count;
+    int capacity = this.renderNanos.length;
+    // skip the oldest frames that don't fit
+    int start = (position - size + capacity) % capacity + (size - count);
+    for (int i = 0; i < count; i++) {
+      int index = (start + i) % capacity;
+      if (renderNanos != null) {
+        renderNanos[i] = this.renderNanos[index];
+      }
+      if (swapNanos != null) {
+        swapNanos[i] = this.swapNanos[index];
+      }
+      if (eventsDrained != null) {
+        eventsDrained[i] = this.eventsDrained[index];
+      }
+    }
+    return count;
+  }
+
+  /**
+   * Clears the frames kept and the counters.
+   */
+  public synchronized void reset() {
+    position = 0;
+    size = 0;
+    frameCount = 0;
+    lateFrameCount = 0;
+    droppedFrameCount = 0;
+    for (int bucket = 0; bucket < HISTOGRAM_BUCKET_COUNT; bucket++) {
+      frameTimeHistogram[bucket] = 0;
+    }
+  }
+
+  private static int toBucket(long frameNanos) {
+    return (int) Math.min(HISTOGRAM_BUCKET_COUNT - 1, Math.max(0, frameNanos) / HISTOGRAM_BUCKET_NANOS);
+  }
+
+  @Override
+  public synchronized String toString() {
+    return "RenderStats{frames=" + size + ", late=" + lateFrameCount + ", dropped=" + droppedFrameCount
+      + ", p50=" + getFrameTimePercentile(50) + "ns, p99=" + getFrameTimePercentile(99) + "ns}";
+  }
+}
@@ -0,0 +1,19 @@
+package com.mapbox.mapboxsdk.maps.renderer;
+
+import android.support.annotation.NonNull;
+
+/**
+ * Interface definition for a callback to be invoked with the {@link RenderStats} of a map, about once per second
+ * while rendering.
+ *
+ * @see com.mapbox.mapboxsdk.maps.MapboxMap#setRenderStatsListener(RenderStatsListener)
+ */
+public interface RenderStatsListener {
+
+  /**
+   * Called with the stats of the frames rendered most recently.
+   *
+   * @param renderStats the render stats, kept up to date while rendering
+   */
+  void onRenderStats(@NonNull RenderStats renderStats);
+}
@@ -53,6 +53,8 @@ public class GLSurfaceViewMapRenderer extends MapRenderer implements GLSurfaceVi
   @Override
   public void onDrawFrame(GL10 gl) {
     super.onDrawFrame(gl);
+    // buffers are swapped and events are run by GLSurfaceView, out of sight
+    onFrameCompleted(0, 0);
   }
 
   /**
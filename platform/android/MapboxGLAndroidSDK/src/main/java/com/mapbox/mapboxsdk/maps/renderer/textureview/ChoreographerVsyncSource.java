@@ -0,0 +1,52 @@
+package com.mapbox.mapboxsdk.maps.renderer.textureview;
+
+import android.annotation.TargetApi;
+import android.os.Build;
+import android.support.annotation.NonNull;
+import android.support.annotation.UiThread;
+import android.view.Choreographer;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * {@link VsyncSource} backed by the {@link Choreographer} of the thread it was created on, callbacks are invoked on
+ * that thread.
+ */
+@TargetApi(Build.VERSION_CODES.JELLY_BEAN)
+class ChoreographerVsyncSource implements VsyncSource {
+
+  private final Choreographer choreographer;
+  private final Map<Callback, Choreographer.FrameCallback> frameCallbacks = new HashMap<>();
+
+  @UiThread
+  ChoreographerVsyncSource() {
+    this.choreographer = Choreographer.getInstance();
+  }
+
+  @Override
+  public void postFrameCallback(@NonNull Callback callback) {
+    choreographer.postFrameCallback(getFrameCallback(callback));
+  }
+
+  @Override
+  public void removeFrameCallback(@NonNull Callback callback) {
+    choreographer.removeFrameCallback(getFrameCallback(callback));
+  }
+
+  private Choreographer.FrameCallback getFrameCallback(final Callback callback) {
+    synchronized (frameCallbacks) {
+      Choreographer.FrameCallback frameCallback = frameCallbacks.get(callback);
+      if (frameCallback == null) {
+        frameCallback = new Choreographer.FrameCallback() {
+          @Override
+          public void doFrame(long frameTimeNanos) {
+            callback.onVsync(frameTimeNanos);
+          }
+        };
+        frameCallbacks.put(callback, frameCallback);
+      }
+      return frameCallback;
+    }
+  }
+}
@@ -0,0 +1,91 @@
+package com.mapbox.mapboxsdk.maps.renderer.textureview;
+
+import android.support.annotation.NonNull;
+
+/**
+ * Aligns frames with the display vsync.
+ * <p>
+ * Frame requests are coalesced into at most one frame per vsync. With a maximum frame rate set, vsyncs arriving
+ * sooner than the frame interval after the previous frame are skipped.
+ * </p>
+ */
+class FramePacer implements VsyncSource.Callback {
+
+  private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+  private final VsyncSource vsyncSource;
+  private final Runnable frame;
+  private final Object lock = new Object();
+
+  // Guarded by lock
+  private long minFrameIntervalNanos;
+  private long lastFrameTimeNanos;
+  private boolean scheduled;
+  private boolean stopped;
+
+  /**
+   * Creates a frame pacer.
+   *
+   * @param vsyncSource the source of vsync signals
+   * @param maximumFps  the maximum amount of frames per second, 0 or less to render on each vsync
+   * @param frame       invoked on vsync when a frame is due, on the thread of the vsync source
+   */
+  FramePacer(@NonNull VsyncSource vsyncSource, int maximumFps, @NonNull Runnable frame) {
+    this.vsyncSource = vsyncSource;
+    this.frame = frame;
+    setMaximumFps(maximumFps);
+  }
+
+  /**
+   * Sets the maximum frame rate.
+   *
+   * @param maximumFps the maximum amount of frames per second, 0 or less to render on each vsync
+   */
+  void setMaximumFps(int maximumFps) {
+    synchronized (lock) {
+      minFrameIntervalNanos = maximumFps > 0 ? NANOS_PER_SECOND / maximumFps : 0;
+    }
+  }
+
+  /**
+   * Requests a frame on one of the next vsyncs. May be called from any thread.
+   */
+  void requestFrame() {
+    synchronized (lock) {
+      if (scheduled || stopped) {
+        return;
+      }
+      scheduled = true;
+    }
+    vsyncSource.postFrameCallback(this);
+  }
+
+  /**
+   * Stops pacing, pending frame requests are dropped.
+   */
+  void stop() {
+    synchronized (lock) {
+      stopped = true;
+      scheduled = false;
+    }
+    vsyncSource.removeFrameCallback(this);
+  }
+
+  @Override
+  public void onVsync(long frameTimeNanos) {
+    synchronized (lock) {
+      if (!scheduled) {
+        return;
+      }
+      // vsyncs are not exactly a frame interval apart, allow a quarter of the interval of slack
+      long elapsedNanos = frameTimeNanos - lastFrameTimeNanos;
+      if (lastFrameTimeNanos != 0 && elapsedNanos < minFrameIntervalNanos - minFrameIntervalNanos / 4) {
+        vsyncSource.postFrameCallback(this);
+        return;
+      }
+      lastFrameTimeNanos = frameTimeNanos;
+      scheduled = false;
+    }
+    frame.run();
+  }
+}
@@ -1,6 +1,7 @@
 package com.mapbox.mapboxsdk.maps.renderer.textureview;
 
 import android.content.Context;
+import android.os.Build;
 import android.support.annotation.NonNull;
 import android.view.TextureView;
 
@@ -12,11 +13,17 @@ import javax.microedition.khronos.opengles.GL10;
 /**
  * The {@link TextureViewMapRenderer} encapsulates the GL thread and
  * {@link TextureView} specifics to render the map.
+ * <p>
+ * From Jelly Bean on, frames are aligned with the display vsync through
+ * {@link android.view.Choreographer}, render requests are coalesced into
+ * at most one frame per vsync.
+ * </p>
  *
  * @see MapRenderer
  */
 public class TextureViewMapRenderer extends MapRenderer {
   private TextureViewRenderThread renderThread;
+  private FramePacer framePacer;
 
   /**
    * Create a {@link MapRenderer} for the given {@link TextureView}
@@ -25,11 +32,48 @@ public class TextureViewMapRenderer extends MapRenderer {
    * @param textureView the TextureView
    */
   public TextureViewMapRenderer(@NonNull Context context, @NonNull TextureView textureView) {
+    this(context, textureView, 0);
+  }
+
+  /**
+   * Create a {@link MapRenderer} for the given {@link TextureView}, rendering at most
+   * the given amount of frames per second.
+   * <p>
+   * Must be called on the ui thread, its vsync drives the frames.
+   * </p>
+   *
+   * @param context     the current Context
+   * @param textureView the TextureView
+   * @param maximumFps  the maximum amount of frames per second, 0 for no limit
+   */
+  public TextureViewMapRenderer(@NonNull Context context, @NonNull TextureView textureView, int maximumFps) {
     super(context);
     renderThread = new TextureViewRenderThread(textureView, this);
+    if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN) {
+      framePacer = new FramePacer(new ChoreographerVsyncSource(), maximumFps, new Runnable() {
+        @Override
+        public void run() {
+          renderThread.requestRender();
+        }
+      });
+    }
     renderThread.start();
   }
 
+  /**
+   * Sets the maximum amount of frames rendered per second.
+   * <p>
+   * Has no effect before Jelly Bean, where frames are not paced.
+   * </p>
+   *
+   * @param maximumFps the maximum amount of frames per second, 0 for no limit
+   */
+  public void setMaximumFps(int maximumFps) {
+    if (framePacer != null) {
+      framePacer.setMaximumFps(maximumFps);
+    }
+  }
+
   /**
    * Overridden to provide package access
    */
@@ -54,12 +98,24 @@ public class TextureViewMapRenderer extends MapRenderer {
     super.onDrawFrame(gl);
   }
 
+  /**
+   * Overridden to provide package access
+   */
+  @Override
+  protected void onFrameCompleted(long swapNanos, int eventsDrained) {
+    super.onFrameCompleted(swapNanos, eventsDrained);
+  }
+
   /**
    * {@inheritDoc}
    */
   @Override
   public void requestRender() {
-    renderThread.requestRender();
+    if (framePacer != null) {
+      framePacer.requestFrame();
+    } else {
+      renderThread.requestRender();
+    }
   }
 
   /**
@@ -91,6 +147,9 @@ public class TextureViewMapRenderer extends MapRenderer {
    */
   @Override
   public void onDestroy() {
+    if (framePacer != null) {
+      framePacer.stop();
+    }
     renderThread.onDestroy();
   }
 }
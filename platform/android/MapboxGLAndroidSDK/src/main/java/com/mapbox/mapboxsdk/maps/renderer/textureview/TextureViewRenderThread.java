@@ -8,7 +8,8 @@ import android.view.TextureView;
 import com.mapbox.mapboxsdk.maps.renderer.egl.EGLConfigChooser;
 
 import java.lang.ref.WeakReference;
-import java.util.ArrayList;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 import javax.microedition.khronos.egl.EGL10;
 import javax.microedition.khronos.egl.EGL11;
@@ -27,14 +28,23 @@ import timber.log.Timber;
  */
 class TextureViewRenderThread extends Thread implements TextureView.SurfaceTextureListener {
 
+  // Time spent running queued events before a pending frame is rendered, half a frame at 60 fps
+  private static final long EVENT_BUDGET_NANOS = 8_000_000;
+
   private final TextureViewMapRenderer mapRenderer;
   private final EGLHolder eglHolder;
 
   // Lock used for synchronization
   private final Object lock = new Object();
 
+  // Lock free, producers only take the lock to wake up the render thread when it is waiting
+  private final Queue<Runnable> eventQueue = new ConcurrentLinkedQueue<>();
+  private volatile boolean waiting;
+
+  // Only accessed from the render thread
+  private int eventsDrained;
+
   // Guarded by lock
-  private final ArrayList<Runnable> eventQueue = new ArrayList<>();
   private SurfaceTexture surface;
   private int width;
   private int height;
@@ -122,9 +132,11 @@ class TextureViewRenderThread extends Thread implements TextureView.SurfaceTextu
     if (runnable == null) {
       throw new IllegalArgumentException("runnable must not be null");
     }
-    synchronized (lock) {
-      eventQueue.add(runnable);
-      lock.notifyAll();
+    eventQueue.offer(runnable);
+    if (waiting) {
+      synchronized (lock) {
+        lock.notifyAll();
+      }
     }
   }
 
@@ -169,8 +181,11 @@ class TextureViewRenderThread extends Thread implements TextureView.SurfaceTextu
   public void run() {
     try {
 
+      // Set when queued events ran out of their budget, the next frame is rendered before running more of them
+      boolean eventBudgetExceeded = false;
+
       while (true) {
-        Runnable event = null;
+        boolean drainEvents = false;
         boolean initializeEGL = false;
         boolean recreateSurface = false;
         int w = -1;
@@ -184,9 +199,9 @@ class TextureViewRenderThread extends Thread implements TextureView.SurfaceTextu
               return;
             }
 
-            // If any events are scheduled, pop one for processing
-            if (!eventQueue.isEmpty()) {
-              event = eventQueue.remove(0);
+            // If any events are scheduled, run them
+            if (!eventBudgetExceeded && !eventQueue.isEmpty()) {
+              drainEvents = true;
               break;
             }
 
@@ -235,16 +250,28 @@ class TextureViewRenderThread extends Thread implements TextureView.SurfaceTextu
             }
 
 
-            // Wait until needed
-            lock.wait();
+            // Nothing to render, run the events that were deferred for rendering
+            if (!eventQueue.isEmpty()) {
+              eventBudgetExceeded = false;
+              drainEvents = true;
+              break;
+            }
+
+            // Wait until needed, producers only notify when waiting is set, check the queue once more after
+            // setting it so no event is missed
+            waiting = true;
+            if (eventQueue.isEmpty()) {
+              lock.wait();
+            }
+            waiting = false;
 
           } // end guarded while loop
 
         } // end guarded block
 
-        // Run event, if any
-        if (event != null) {
-          event.run();
+        // Run the pending events, until the queue is drained or the budget is spent
+        if (drainEvents) {
+          eventBudgetExceeded = !runQueuedEvents();
           continue;
         }
 
@@ -280,9 +307,13 @@ class TextureViewRenderThread extends Thread implements TextureView.SurfaceTextu
 
         // Time to render a frame
         mapRenderer.onDrawFrame(gl);
+        eventBudgetExceeded = false;
 
         // Swap and check the result
+        long swapStart = System.nanoTime();
         int swapError = eglHolder.swap();
+        mapRenderer.onFrameCompleted(System.nanoTime() - swapStart, eventsDrained);
+        eventsDrained = 0;
         switch (swapError) {
           case EGL10.EGL_SUCCESS:
             break;
@@ -320,6 +351,24 @@ class TextureViewRenderThread extends Thread implements TextureView.SurfaceTextu
     }
   }
 
+  /**
+   * Runs queued events on the render thread.
+   *
+   * @return true if the queue was drained, false if the event budget was spent first
+   */
+  private boolean runQueuedEvents() {
+    long start = System.nanoTime();
+    Runnable event;
+    while ((event = eventQueue.poll()) != null) {
+      event.run();
+      eventsDrained++;
+      if (System.nanoTime() - start > EVENT_BUDGET_NANOS) {
+        return eventQueue.isEmpty();
+      }
+    }
+    return true;
+  }
+
   /**
    * Holds the EGL state and offers methods to mutate it.
    */
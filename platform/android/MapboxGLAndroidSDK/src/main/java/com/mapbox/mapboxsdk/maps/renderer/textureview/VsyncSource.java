@@ -0,0 +1,31 @@
+package com.mapbox.mapboxsdk.maps.renderer.textureview;
+
+import android.support.annotation.NonNull;
+
+/**
+ * Source of display vsync signals, abstracted from {@link android.view.Choreographer} so frame pacing can be driven
+ * by a fake in tests.
+ */
+interface VsyncSource {
+
+  /**
+   * Posts a callback to be invoked once, on the next vsync. May be called from any thread.
+   *
+   * @param callback the callback to invoke
+   */
+  void postFrameCallback(@NonNull Callback callback);
+
+  /**
+   * Removes a posted callback. May be called from any thread.
+   *
+   * @param callback the callback to remove
+   */
+  void removeFrameCallback(@NonNull Callback callback);
+
+  /**
+   * Invoked on vsync.
+   */
+  interface Callback {
+    void onVsync(long frameTimeNanos);
+  }
+}
@@ -0,0 +1,115 @@
+package com.mapbox.mapboxsdk.offline;
+
+import android.support.annotation.NonNull;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Forwards the callbacks of an offline region to an observer on an executor.
+ * <p>
+ * Status changes are coalesced: while a delivery is pending, newer statuses replace the pending one, and deliveries
+ * are spaced by a minimum interval. Errors and the tile count limit are forwarded as they occur.
+ * </p>
+ */
+class CoalescingObserver implements OfflineRegion.OfflineRegionObserver {
+
+  // Only delays deliveries, the observer is called on the executor
+  private static final ScheduledExecutorService SCHEDULER = newScheduler();
+
+  private final OfflineRegion.OfflineRegionObserver observer;
+  private final Executor executor;
+  private final long minStatusInterval;
+
+  private OfflineRegionStatus pendingStatus;
+  private boolean deliveryScheduled;
+  private long lastDeliveryTime = Long.MIN_VALUE;
+
+  private final Runnable deliverStatus = new Runnable() {
+    @Override
+    public void run() {
+      OfflineRegionStatus status;
+      synchronized (CoalescingObserver.this) {
+        status = pendingStatus;
+        pendingStatus = null;
+        deliveryScheduled = false;
+        lastDeliveryTime = now();
+      }
+      observer.onStatusChanged(status);
+    }
+  };
+
+  private final Runnable executeDeliverStatus = new Runnable() {
+    @Override
+    public void run() {
+      executor.execute(deliverStatus);
+    }
+  };
+
+  CoalescingObserver(@NonNull OfflineRegion.OfflineRegionObserver observer, @NonNull Executor executor,
+                     long minStatusInterval) {
+    this.observer = observer;
+    this.executor = executor;
+    this.minStatusInterval = minStatusInterval;
+  }
+
+  @Override
+  public void onStatusChanged(OfflineRegionStatus status) {
+    long delay;
+    synchronized (this) {
+      pendingStatus = status;
+      if (deliveryScheduled) {
+        return;
+      }
+      deliveryScheduled = true;
+      delay = lastDeliveryTime == Long.MIN_VALUE ? 0 : lastDeliveryTime + minStatusInterval - now();
+    }
+
+    if (delay > 0) {
+      SCHEDULER.schedule(executeDeliverStatus, delay, TimeUnit.MILLISECONDS);
+    } else {
+      executor.execute(deliverStatus);
+    }
+  }
+
+  @Override
+  public void onError(final OfflineRegionError error) {
+    executor.execute(new Runnable() {
+      @Override
+      public void run() {
+        observer.onError(error);
+      }
+    });
+  }
+
+  @Override
+  public void mapboxTileCountLimitExceeded(final long limit) {
+    executor.execute(new Runnable() {
+      @Override
+      public void run() {
+        observer.mapboxTileCountLimitExceeded(limit);
+      }
+    });
+  }
+
+  private static long now() {
+    return TimeUnit.NANOSECONDS.toMillis(System.nanoTime());
+  }
+
+  private static ScheduledExecutorService newScheduler() {
+    ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1, new ThreadFactory() {
+      @Override
+      public Thread newThread(@NonNull Runnable runnable) {
+        Thread thread = new Thread(runnable, "OfflineRegionObserver");
+        thread.setDaemon(true);
+        return thread;
+      }
+    });
+    scheduler.setKeepAliveTime(30, TimeUnit.SECONDS);
+    scheduler.allowCoreThreadTimeOut(true);
+    return scheduler;
+  }
+}
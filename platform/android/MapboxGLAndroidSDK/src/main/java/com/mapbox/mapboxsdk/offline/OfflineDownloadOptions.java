@@ -0,0 +1,257 @@
+package com.mapbox.mapboxsdk.offline;
+
+import android.support.annotation.FloatRange;
+import android.support.annotation.IntRange;
+import android.support.annotation.NonNull;
+
+/**
+ * Limits applied to the downloads of offline regions.
+ * <p>
+ * The limits are shared by all active regions: activating several regions at once takes turns between them instead of
+ * multiplying the requests. Use {@link OfflineManager#setOfflineDownloadOptions(OfflineDownloadOptions)} to apply
+ * options, downloads in progress adopt them as their requests complete.
+ * </p>
+ */
+public class OfflineDownloadOptions {
+
+  /**
+   * Default maximum amount of resources requested at once across all active regions.
+   */
+  public static final int DEFAULT_MAX_CONCURRENT_REQUESTS = 20;
+
+  /**
+   * Default maximum download rate, no limit.
+   */
+  public static final long DEFAULT_MAX_BYTES_PER_SECOND = 0;
+
+  /**
+   * Default delay before the first retry of a failed request, in milliseconds.
+   */
+  public static final long DEFAULT_INITIAL_RETRY_DELAY = 1000;
+
+  /**
+   * Default factor the retry delay is multiplied by after each consecutive failure.
+   */
+  public static final double DEFAULT_RETRY_BACKOFF_FACTOR = 2.0;
+
+  /**
+   * Default maximum delay between retries, in milliseconds.
+   */
+  public static final long DEFAULT_MAX_RETRY_DELAY = 60 * 1000;
+
+  /**
+   * Default maximum amount of retries of a failed request, no limit.
+   */
+  public static final int DEFAULT_MAX_RETRIES = 0;
+
+  private final int maxConcurrentRequests;
+  private final long maxBytesPerSecond;
+  private final long initialRetryDelay;
+  private final double retryBackoffFactor;
+  private final long maxRetryDelay;
+  private final int maxRetries;
+
+  private OfflineDownloadOptions(Builder builder) {
+    this.maxConcurrentRequests = builder.maxConcurrentRequests;
+    this.maxBytesPerSecond = builder.maxBytesPerSecond;
+    this.initialRetryDelay = builder.initialRetryDelay;
+    this.retryBackoffFactor = builder.retryBackoffFactor;
+    this.maxRetryDelay = builder.maxRetryDelay;
+    this.maxRetries = builder.maxRetries;
+  }
+
+  /**
+   * Get the maximum amount of resources requested at once across all active regions.
+   *
+   * @return the maximum amount of concurrent requests
+   */
+  public int getMaxConcurrentRequests() {
+    return maxConcurrentRequests;
+  }
+
+  /**
+   * Get the maximum average download rate across all active regions, in bytes per second. 0 means no limit.
+   *
+   * @return the maximum download rate
+   */
+  public long getMaxBytesPerSecond() {
+    return maxBytesPerSecond;
+  }
+
+  /**
+   * Get the delay before the first retry of a failed request, in milliseconds.
+   *
+   * @return the initial retry delay
+   */
+  public long getInitialRetryDelay() {
+    return initialRetryDelay;
+  }
+
+  /**
+   * Get the factor the retry delay is multiplied by after each consecutive failure of a request.
+   *
+   * @return the retry backoff factor
+   */
+  public double getRetryBackoffFactor() {
+    return retryBackoffFactor;
+  }
+
+  /**
+   * Get the maximum delay between retries of a failed request, in milliseconds.
+   *
+   * @return the maximum retry delay
+   */
+  public long getMaxRetryDelay() {
+    return maxRetryDelay;
+  }
+
+  /**
+   * Get the maximum amount of retries of a failed request before the download of its region is set to
+   * {@link OfflineRegion#STATE_INACTIVE}. 0 means no limit.
+   *
+   * @return the maximum amount of retries
+   */
+  public int getMaxRetries() {
+    return maxRetries;
+  }
+
+  @Override
+  public String toString() {
+    return "OfflineDownloadOptions [maxConcurrentRequests=" + maxConcurrentRequests
+      + ", maxBytesPerSecond=" + maxBytesPerSecond + ", initialRetryDelay=" + initialRetryDelay
+      + ", retryBackoffFactor=" + retryBackoffFactor + ", maxRetryDelay=" + maxRetryDelay
+      + ", maxRetries=" + maxRetries + "]";
+  }
+
+  /**
+   * Builder for composing OfflineDownloadOptions objects.
+   */
+  public static final class Builder {
+
+    private int maxConcurrentRequests = DEFAULT_MAX_CONCURRENT_REQUESTS;
+    private long maxBytesPerSecond = DEFAULT_MAX_BYTES_PER_SECOND;
+    private long initialRetryDelay = DEFAULT_INITIAL_RETRY_DELAY;
+    private double retryBackoffFactor = DEFAULT_RETRY_BACKOFF_FACTOR;
+    private long maxRetryDelay = DEFAULT_MAX_RETRY_DELAY;
+    private int maxRetries = DEFAULT_MAX_RETRIES;
+
+    /**
+     * Create a builder initialised with the default options.
+     */
+    public Builder() {
+    }
+
+    /**
+     * Create a builder initialised with existing options.
+     *
+     * @param options the options to copy
+     */
+    public Builder(@NonNull OfflineDownloadOptions options) {
+      this.maxConcurrentRequests = options.maxConcurrentRequests;
+      this.maxBytesPerSecond = options.maxBytesPerSecond;
+      this.initialRetryDelay = options.initialRetryDelay;
+      this.retryBackoffFactor = options.retryBackoffFactor;
+      this.maxRetryDelay = options.maxRetryDelay;
+      this.maxRetries = options.maxRetries;
+    }
+
+    /**
+     * Set the maximum amount of resources requested at once across all active regions.
+     *
+     * @param maxConcurrentRequests the maximum amount of concurrent requests - Defaults to
+     *                              {@link #DEFAULT_MAX_CONCURRENT_REQUESTS}
+     * @return this
+     */
+    public Builder maxConcurrentRequests(@IntRange(from = 1) int maxConcurrentRequests) {
+      if (maxConcurrentRequests < 1) {
+        throw new IllegalArgumentException("maxConcurrentRequests < 1: " + maxConcurrentRequests);
+      }
+      this.maxConcurrentRequests = maxConcurrentRequests;
+      return this;
+    }
+
+    /**
+     * Set the maximum average download rate across all active regions. Sizes are only known once resources are
+     * received, the rate is kept by delaying subsequent requests.
+     *
+     * @param maxBytesPerSecond the maximum download rate in bytes per second, 0 for no limit - Defaults to
+     *                          {@link #DEFAULT_MAX_BYTES_PER_SECOND}
+     * @return this
+     */
+    public Builder maxBytesPerSecond(@IntRange(from = 0) long maxBytesPerSecond) {
+      if (maxBytesPerSecond < 0) {
+        throw new IllegalArgumentException("maxBytesPerSecond < 0: " + maxBytesPerSecond);
+      }
+      this.maxBytesPerSecond = maxBytesPerSecond;
+      return this;
+    }
+
+    /**
+     * Set the delay before the first retry of a failed request. A later retry requested by the server takes
+     * precedence.
+     *
+     * @param initialRetryDelay the initial retry delay, in milliseconds - Defaults to
+     *                          {@link #DEFAULT_INITIAL_RETRY_DELAY}
+     * @return this
+     */
+    public Builder initialRetryDelay(@IntRange(from = 0) long initialRetryDelay) {
+      if (initialRetryDelay < 0) {
+        throw new IllegalArgumentException("initialRetryDelay < 0: " + initialRetryDelay);
+      }
+      this.initialRetryDelay = initialRetryDelay;
+      return this;
+    }
+
+    /**
+     * Set the factor the retry delay is multiplied by after each consecutive failure of a request.
+     *
+     * @param retryBackoffFactor the retry backoff factor - Defaults to {@link #DEFAULT_RETRY_BACKOFF_FACTOR}
+     * @return this
+     */
+    public Builder retryBackoffFactor(@FloatRange(from = 1.0) double retryBackoffFactor) {
+      if (!(retryBackoffFactor >= 1.0)) {
+        throw new IllegalArgumentException("retryBackoffFactor < 1.0: " + retryBackoffFactor);
+      }
+      this.retryBackoffFactor = retryBackoffFactor;
+      return this;
+    }
+
+    /**
+     * Set the maximum delay between retries of a failed request.
+     *
+     * @param maxRetryDelay the maximum retry delay, in milliseconds - Defaults to {@link #DEFAULT_MAX_RETRY_DELAY}
+     * @return this
+     */
+    public Builder maxRetryDelay(@IntRange(from = 0) long maxRetryDelay) {
+      if (maxRetryDelay < 0) {
+        throw new IllegalArgumentException("maxRetryDelay < 0: " + maxRetryDelay);
+      }
+      this.maxRetryDelay = maxRetryDelay;
+      return this;
+    }
+
+    /**
+     * Set the maximum amount of retries of a failed request. Once exceeded, the download of the region is set to
+     * {@link OfflineRegion#STATE_INACTIVE} and resources downloaded so far are kept.
+     *
+     * @param maxRetries the maximum amount of retries, 0 for no limit - Defaults to {@link #DEFAULT_MAX_RETRIES}
+     * @return this
+     */
+    public Builder maxRetries(@IntRange(from = 0) int maxRetries) {
+      if (maxRetries < 0) {
+        throw new IllegalArgumentException("maxRetries < 0: " + maxRetries);
+      }
+      this.maxRetries = maxRetries;
+      return this;
+    }
+
+    /**
+     * Builds the OfflineDownloadOptions.
+     *
+     * @return OfflineDownloadOptions
+     */
+    public OfflineDownloadOptions build() {
+      return new OfflineDownloadOptions(this);
+    }
+  }
+}
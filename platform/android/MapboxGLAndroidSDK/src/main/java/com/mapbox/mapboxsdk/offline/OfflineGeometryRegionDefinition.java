@@ -0,0 +1,179 @@
+package com.mapbox.mapboxsdk.offline;
+
+import android.os.Parcel;
+import android.os.Parcelable;
+import android.support.annotation.NonNull;
+
+import com.mapbox.mapboxsdk.geometry.LatLng;
+import com.mapbox.mapboxsdk.geometry.LatLngBounds;
+import com.mapbox.services.commons.geojson.Feature;
+import com.mapbox.services.commons.geojson.Geometry;
+import com.mapbox.services.commons.models.Position;
+
+import java.util.List;
+
+/**
+ * An offline region defined by a style URL, geometry, buffer distance, zoom range, and
+ * device pixel ratio.
+ * <p>
+ * At each zoom level, the region only includes the tiles within bufferDistance meters of the geometry: a
+ * Polygon covers its interior and border, a LineString with a buffer distance covers a corridor along a route.
+ * Compared to the bounding box of a {@link OfflineTilePyramidRegionDefinition}, this avoids downloading the
+ * tiles that are far from the geometry.
+ * <p>
+ * Both minZoom and maxZoom must be ≥ 0, and maxZoom must be ≥ minZoom.
+ * <p>
+ * maxZoom may be ∞, in which case for each tile source, the region will include
+ * tiles from minZoom up to the maximum zoom level provided by that source.
+ * <p>
+ * pixelRatio must be ≥ 0 and should typically be 1.0 or 2.0, bufferDistance must be ≥ 0.
+ */
+public class OfflineGeometryRegionDefinition implements OfflineRegionDefinition, Parcelable {
+
+  private String styleURL;
+  private Geometry geometry;
+  private double minZoom;
+  private double maxZoom;
+  private float pixelRatio;
+  private double bufferDistance;
+
+  /**
+   * Constructor to create an OfflineGeometryRegionDefinition from parameters, covering the tiles intersecting
+   * the geometry.
+   *
+   * @param styleURL   the style
+   * @param geometry   the geometry
+   * @param minZoom    min zoom
+   * @param maxZoom    max zoom
+   * @param pixelRatio pixel ratio of the device
+   */
+  public OfflineGeometryRegionDefinition(
+    String styleURL, Geometry geometry, double minZoom, double maxZoom, float pixelRatio) {
+    this(styleURL, geometry, minZoom, maxZoom, pixelRatio, 0);
+  }
+
+  /**
+   * Constructor to create an OfflineGeometryRegionDefinition from parameters, covering the tiles within a distance
+   * of the geometry.
+   *
+   * @param styleURL       the style
+   * @param geometry       the geometry
+   * @param minZoom        min zoom
+   * @param maxZoom        max zoom
+   * @param pixelRatio     pixel ratio of the device
+   * @param bufferDistance distance around the geometry to include, in meters
+   */
+  public OfflineGeometryRegionDefinition(
+    String styleURL, Geometry geometry, double minZoom, double maxZoom, float pixelRatio, double bufferDistance) {
+    this.styleURL = styleURL;
+    this.geometry = geometry;
+    this.minZoom = minZoom;
+    this.maxZoom = maxZoom;
+    this.pixelRatio = pixelRatio;
+    this.bufferDistance = bufferDistance;
+  }
+
+  OfflineGeometryRegionDefinition(
+    String styleURL, String geometryJson, double minZoom, double maxZoom, float pixelRatio, double bufferDistance) {
+    // Note: Also used in JNI
+    this(styleURL, parseGeometry(geometryJson), minZoom, maxZoom, pixelRatio, bufferDistance);
+  }
+
+  /**
+   * Constructor to create an OfflineGeometryRegionDefinition from a Parcel.
+   *
+   * @param parcel the parcel to create the OfflineGeometryRegionDefinition from
+   */
+  public OfflineGeometryRegionDefinition(Parcel parcel) {
+    this.styleURL = parcel.readString();
+    this.geometry = parseGeometry(parcel.readString());
+    this.minZoom = parcel.readDouble();
+    this.maxZoom = parcel.readDouble();
+    this.pixelRatio = parcel.readFloat();
+    this.bufferDistance = parcel.readDouble();
+  }
+
+  /*
+   * Getters
+   */
+
+  public String getStyleURL() {
+    return styleURL;
+  }
+
+  public Geometry getGeometry() {
+    return geometry;
+  }
+
+  /**
+   * Get the bounding box of the geometry, not including the buffer distance.
+   *
+   * @return the bounds of the geometry
+   */
+  @Override
+  public LatLngBounds getBounds() {
+    LatLngBounds.Builder builder = new LatLngBounds.Builder();
+    includeCoordinates(builder, geometry.getCoordinates());
+    return builder.build();
+  }
+
+  public double getMinZoom() {
+    return minZoom;
+  }
+
+  public double getMaxZoom() {
+    return maxZoom;
+  }
+
+  public float getPixelRatio() {
+    return pixelRatio;
+  }
+
+  public double getBufferDistance() {
+    return bufferDistance;
+  }
+
+  private static void includeCoordinates(LatLngBounds.Builder builder, Object coordinates) {
+    if (coordinates instanceof Position) {
+      Position position = (Position) coordinates;
+      builder.include(new LatLng(position.getLatitude(), position.getLongitude()));
+    } else if (coordinates instanceof List) {
+      for (Object element : (List) coordinates) {
+        includeCoordinates(builder, element);
+      }
+    }
+  }
+
+  private static Geometry parseGeometry(@NonNull String geometryJson) {
+    return Feature.fromJson("{\"type\":\"Feature\",\"properties\":{},\"geometry\":" + geometryJson + "}").getGeometry();
+  }
+
+  /*
+   * Parceable
+   */
+
+  @Override
+  public int describeContents() {
+    return 0;
+  }
+
+  @Override
+  public void writeToParcel(Parcel dest, int flags) {
+    dest.writeString(styleURL);
+    dest.writeString(geometry.toJson());
+    dest.writeDouble(minZoom);
+    dest.writeDouble(maxZoom);
+    dest.writeFloat(pixelRatio);
+    dest.writeDouble(bufferDistance);
+  }
+
+  public static final Parcelable.Creator CREATOR = new Parcelable.Creator() {
+    public OfflineGeometryRegionDefinition createFromParcel(Parcel in) {
+      return new OfflineGeometryRegionDefinition(in);
+    }
+
+    public OfflineGeometryRegionDefinition[] newArray(int size) {
+      return new OfflineGeometryRegionDefinition[size];
+    }
+  };
+}
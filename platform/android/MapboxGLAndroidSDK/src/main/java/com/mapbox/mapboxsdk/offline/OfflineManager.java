@@ -67,6 +67,56 @@ public class OfflineManager {
     void onError(String error);
   }
 
+  /**
+   * This callback receives an asynchronous response containing a list of all
+   * OfflineRegion in the database along with their status or an error message otherwise.
+   */
+  public interface ListOfflineRegionsWithStatusCallback {
+    /**
+     * Receives the list of offline regions and their status, the status of a region
+     * has the same index as the region.
+     *
+     * @param offlineRegions        the offline region array
+     * @param offlineRegionStatuses the offline region status array
+     */
+    void onList(OfflineRegion[] offlineRegions, OfflineRegionStatus[] offlineRegionStatuses);
+
+    /**
+     * Receives the error message.
+     *
+     * @param error the error message
+     */
+    void onError(String error);
+  }
+
+  /**
+   * This callback receives the progress and the result of an asynchronous
+   * compaction of the offline database or an error message otherwise.
+   */
+  public interface CompactCallback {
+    /**
+     * Receives the progress of the compaction.
+     *
+     * @param reclaimedSize   the size reclaimed so far, in bytes
+     * @param reclaimableSize the total size to reclaim, in bytes
+     */
+    void onProgress(long reclaimedSize, long reclaimableSize);
+
+    /**
+     * Receives the compaction completion.
+     *
+     * @param reclaimedSize the size returned to the file system, in bytes
+     */
+    void onCompact(long reclaimedSize);
+
+    /**
+     * Receives the error message.
+     *
+     * @param error the error message
+     */
+    void onError(String error);
+  }
+
   /**
    * This callback receives an asynchronous response containing the newly created
    * OfflineRegion in the database or an error message otherwise.
@@ -87,6 +137,26 @@ public class OfflineManager {
     void onError(String error);
   }
 
+  /**
+   * This callback receives an asynchronous response containing the estimate of
+   * an offline region definition or an error message otherwise.
+   */
+  public interface EstimateOfflineRegionCallback {
+    /**
+     * Receives the estimate of the offline region definition.
+     *
+     * @param estimate the offline region estimate
+     */
+    void onEstimate(OfflineRegionEstimate estimate);
+
+    /**
+     * Receives the error message.
+     *
+     * @param error the error message
+     */
+    void onError(String error);
+  }
+
   /*
    * Constructor
    */
@@ -175,6 +245,172 @@ public class OfflineManager {
     });
   }
 
+  /**
+   * Retrieve all regions in the offline database along with their status, in a single call instead of
+   * calling {@link OfflineRegion#getStatus(OfflineRegion.OfflineRegionStatusCallback)} on each region.
+   * The status of each region is still computed separately, in one round trip to the database thread.
+   * <p>
+   * The query will be executed asynchronously and the results passed to the given
+   * callback on the main thread.
+   * </p>
+   *
+   * @param callback the callback to be invoked
+   */
+  public void listOfflineRegionsWithStatus(@NonNull final ListOfflineRegionsWithStatusCallback callback) {
+    listOfflineRegionsWithStatus(fileSource, new ListOfflineRegionsWithStatusCallback() {
+
+      @Override
+      public void onList(final OfflineRegion[] offlineRegions, final OfflineRegionStatus[] offlineRegionStatuses) {
+        getHandler().post(new Runnable() {
+          @Override
+          public void run() {
+            callback.onList(offlineRegions, offlineRegionStatuses);
+          }
+        });
+      }
+
+      @Override
+      public void onError(final String error) {
+        getHandler().post(new Runnable() {
+          @Override
+          public void run() {
+            callback.onError(error);
+          }
+        });
+      }
+    });
+  }
+
+  /**
+   * Remove several offline regions from the database at once and perform any resources evictions
+   * necessary as a result, a single time for all regions.
+   * <p>
+   * The database file keeps its size until {@link #compact(CompactCallback)} is called.
+   * </p>
+   * <p>
+   * When the operation is complete or encounters an error, the given callback will be
+   * executed on the main thread.
+   * </p>
+   * <p>
+   * After you call this method, you may not call any additional methods on the OfflineRegion
+   * objects of the deleted regions.
+   * </p>
+   *
+   * @param regionIds the ids of the regions to delete, see {@link OfflineRegion#getID()}
+   * @param callback  the callback to be invoked
+   */
+  public void deleteOfflineRegions(@NonNull long[] regionIds,
+                                   @NonNull final OfflineRegion.OfflineRegionDeleteCallback callback) {
+    deleteOfflineRegions(fileSource, regionIds, new OfflineRegion.OfflineRegionDeleteCallback() {
+
+      @Override
+      public void onDelete() {
+        getHandler().post(new Runnable() {
+          @Override
+          public void run() {
+            callback.onDelete();
+          }
+        });
+      }
+
+      @Override
+      public void onError(final String error) {
+        getHandler().post(new Runnable() {
+          @Override
+          public void run() {
+            callback.onError(error);
+          }
+        });
+      }
+    });
+  }
+
+  /**
+   * Shrink the offline database file, for example after deleting large regions.
+   * <p>
+   * Cached resources beyond the maximum cache size are evicted and the free space of the database is returned to
+   * the file system. The compaction runs on the database thread in steps, so that map requests and other database
+   * operations are not held back until it completes. The progress and the result are passed to the given callback
+   * on the main thread.
+   * </p>
+   *
+   * @param callback the callback to be invoked
+   */
+  public void compact(@NonNull final CompactCallback callback) {
+    compact(fileSource, new CompactCallback() {
+
+      @Override
+      public void onProgress(final long reclaimedSize, final long reclaimableSize) {
+        getHandler().post(new Runnable() {
+          @Override
+          public void run() {
+            callback.onProgress(reclaimedSize, reclaimableSize);
+          }
+        });
+      }
+
+      @Override
+      public void onCompact(final long reclaimedSize) {
+        getHandler().post(new Runnable() {
+          @Override
+          public void run() {
+            callback.onCompact(reclaimedSize);
+          }
+        });
+      }
+
+      @Override
+      public void onError(final String error) {
+        getHandler().post(new Runnable() {
+          @Override
+          public void run() {
+            callback.onError(error);
+          }
+        });
+      }
+    });
+  }
+
+  /**
+   * Resume the downloads of offline regions that were still active when the application was last stopped, for
+   * example because its process was killed.
+   * <p>
+   * Each of those regions is set to {@link OfflineRegion#STATE_ACTIVE} again, resources downloaded before the
+   * interruption are not requested again. The resumed regions are passed to the given callback on the main thread,
+   * register an observer on them to follow their progress. Regions activated or deactivated since the application
+   * started are not resumed.
+   * </p>
+   *
+   * @param callback the callback to be invoked with the resumed regions
+   */
+  public void resumeInterruptedOfflineRegions(@NonNull final ListOfflineRegionsCallback callback) {
+    listInterruptedOfflineRegions(fileSource, new ListOfflineRegionsCallback() {
+
+      @Override
+      public void onList(final OfflineRegion[] offlineRegions) {
+        getHandler().post(new Runnable() {
+          @Override
+          public void run() {
+            for (OfflineRegion offlineRegion : offlineRegions) {
+              offlineRegion.setDownloadState(OfflineRegion.STATE_ACTIVE);
+            }
+            callback.onList(offlineRegions);
+          }
+        });
+      }
+
+      @Override
+      public void onError(final String error) {
+        getHandler().post(new Runnable() {
+          @Override
+          public void run() {
+            callback.onError(error);
+          }
+        });
+      }
+    });
+  }
+
   /**
    * Create an offline region in the database.
    * <p>
@@ -228,6 +464,43 @@ public class OfflineManager {
     });
   }
 
+  /**
+   * Estimate the number of tiles and the storage an offline region definition requires, before creating the region.
+   * <p>
+   * The estimate only uses the style, sources and tiles already stored in the offline database and makes no network
+   * request, it can be used to budget device storage across regions. Sizes are based on the average size of the
+   * stored tiles at each zoom level, see {@link OfflineRegionEstimate}.
+   * </p>
+   *
+   * @param definition the offline region definition
+   * @param callback   the callback to be invoked
+   */
+  public void estimateOfflineRegion(@NonNull OfflineRegionDefinition definition,
+                                    @NonNull final EstimateOfflineRegionCallback callback) {
+    estimateOfflineRegion(fileSource, definition, new EstimateOfflineRegionCallback() {
+
+      @Override
+      public void onEstimate(final OfflineRegionEstimate estimate) {
+        getHandler().post(new Runnable() {
+          @Override
+          public void run() {
+            callback.onEstimate(estimate);
+          }
+        });
+      }
+
+      @Override
+      public void onError(final String error) {
+        getHandler().post(new Runnable() {
+          @Override
+          public void run() {
+            callback.onError(error);
+          }
+        });
+      }
+    });
+  }
+
   /**
    * Validates if the offline region definition bounds is valid for an offline region download.
    *
@@ -238,6 +511,18 @@ public class OfflineManager {
     return LatLngBounds.world().contains(definition.getBounds());
   }
 
+  /**
+   * Set the limits applied to the downloads of all offline regions, such as the maximum amount of concurrent
+   * requests, the maximum download rate and how failed requests are retried.
+   *
+   * @param options the offline download options
+   */
+  public void setOfflineDownloadOptions(@NonNull OfflineDownloadOptions options) {
+    setOfflineDownloadOptions(options.getMaxConcurrentRequests(), options.getMaxBytesPerSecond(),
+      options.getInitialRetryDelay(), options.getRetryBackoffFactor(), options.getMaxRetryDelay(),
+      options.getMaxRetries());
+  }
+
   /**
    * Changing or bypassing this limit without permission from Mapbox is prohibited
    * by the Mapbox Terms of Service.
@@ -252,7 +537,24 @@ public class OfflineManager {
 
   private native void listOfflineRegions(FileSource fileSource, ListOfflineRegionsCallback callback);
 
+  private native void listInterruptedOfflineRegions(FileSource fileSource, ListOfflineRegionsCallback callback);
+
+  private native void listOfflineRegionsWithStatus(FileSource fileSource,
+                                                   ListOfflineRegionsWithStatusCallback callback);
+
+  private native void deleteOfflineRegions(FileSource fileSource, long[] regionIds,
+                                           OfflineRegion.OfflineRegionDeleteCallback callback);
+
+  private native void compact(FileSource fileSource, CompactCallback callback);
+
+  private native void setOfflineDownloadOptions(int maxConcurrentRequests, long maxBytesPerSecond,
+                                                long initialRetryDelay, double retryBackoffFactor,
+                                                long maxRetryDelay, int maxRetries);
+
   private native void createOfflineRegion(FileSource fileSource, OfflineRegionDefinition definition,
                                           byte[] metadata, CreateOfflineRegionCallback callback);
 
+  private native void estimateOfflineRegion(FileSource fileSource, OfflineRegionDefinition definition,
+                                            EstimateOfflineRegionCallback callback);
+
 }
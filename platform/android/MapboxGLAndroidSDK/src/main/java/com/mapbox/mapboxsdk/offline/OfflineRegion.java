@@ -3,6 +3,7 @@ package com.mapbox.mapboxsdk.offline;
 import android.os.Handler;
 import android.os.Looper;
 import android.support.annotation.IntDef;
+import android.support.annotation.IntRange;
 import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
 
@@ -11,6 +12,7 @@ import com.mapbox.mapboxsdk.storage.FileSource;
 
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
+import java.util.concurrent.Executor;
 
 /**
  * An offline region is the basic building block for offline mobile maps.
@@ -298,6 +300,72 @@ public class OfflineRegion {
     });
   }
 
+  /**
+   * Register an observer to be notified when the state of the region changes, with status changes coalesced.
+   * <p>
+   * Status changes are reported for every downloaded resource. With this observer only the latest status is kept
+   * and delivered, at most once per interval, so large regions do not flood the thread receiving them. Errors and
+   * the tile count limit are delivered as they occur.
+   * </p>
+   *
+   * @param observer          the observer to be notified
+   * @param looper            the looper of the thread the observer is called on
+   * @param minStatusInterval the minimum interval between two status changes delivered, in milliseconds
+   */
+  public void setObserver(@NonNull OfflineRegionObserver observer, @NonNull Looper looper,
+                          @IntRange(from = 0) long minStatusInterval) {
+    final Handler looperHandler = new Handler(looper);
+    setObserver(observer, new Executor() {
+      @Override
+      public void execute(@NonNull Runnable runnable) {
+        looperHandler.post(runnable);
+      }
+    }, minStatusInterval);
+  }
+
+  /**
+   * Register an observer to be notified when the state of the region changes, with status changes coalesced.
+   * <p>
+   * Status changes are reported for every downloaded resource. With this observer only the latest status is kept
+   * and delivered, at most once per interval, so large regions do not flood the thread receiving them. Errors and
+   * the tile count limit are delivered as they occur.
+   * </p>
+   *
+   * @param observer          the observer to be notified
+   * @param executor          the executor the observer is called on
+   * @param minStatusInterval the minimum interval between two status changes delivered, in milliseconds
+   */
+  public void setObserver(@NonNull OfflineRegionObserver observer, @NonNull Executor executor,
+                          @IntRange(from = 0) long minStatusInterval) {
+    if (minStatusInterval < 0) {
+      throw new IllegalArgumentException("minStatusInterval < 0: " + minStatusInterval);
+    }
+
+    final CoalescingObserver coalescingObserver = new CoalescingObserver(observer, executor, minStatusInterval);
+    setOfflineRegionObserver(new OfflineRegionObserver() {
+      @Override
+      public void onStatusChanged(OfflineRegionStatus status) {
+        if (deliverMessages()) {
+          coalescingObserver.onStatusChanged(status);
+        }
+      }
+
+      @Override
+      public void onError(OfflineRegionError error) {
+        if (deliverMessages()) {
+          coalescingObserver.onError(error);
+        }
+      }
+
+      @Override
+      public void mapboxTileCountLimitExceeded(long limit) {
+        if (deliverMessages()) {
+          coalescingObserver.mapboxTileCountLimitExceeded(limit);
+        }
+      }
+    });
+  }
+
   /**
    * Pause or resume downloading of regional resources.
    * <p>
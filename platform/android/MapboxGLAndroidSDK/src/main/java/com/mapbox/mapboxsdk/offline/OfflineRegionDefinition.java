@@ -5,7 +5,8 @@ import com.mapbox.mapboxsdk.geometry.LatLngBounds;
 /**
  * This is the interface that all Offline Region definitions have to implement.
  * <p>
- * For the present, a tile pyramid is the only type of offline region.
+ * A region is either a tile pyramid covering a bounding box, see {@link OfflineTilePyramidRegionDefinition}, or
+ * the tiles covering a geometry, see {@link OfflineGeometryRegionDefinition}.
  */
 public interface OfflineRegionDefinition {
 
@@ -0,0 +1,86 @@
+package com.mapbox.mapboxsdk.offline;
+
+/**
+ * An estimate of the tiles an offline region definition requires, obtained with
+ * {@link OfflineManager#estimateOfflineRegion(OfflineRegionDefinition, OfflineManager.EstimateOfflineRegionCallback)}
+ * before creating the region.
+ * <p>
+ * The estimate is computed from the style, sources and tiles already stored in the offline database, without any
+ * network request. Tiles are enumerated for each zoom level of the region and weighted by the average size of the
+ * stored tiles of their source at that zoom level.
+ * </p>
+ */
+public class OfflineRegionEstimate {
+
+  /**
+   * The number of tiles covering the region, across the tiled sources of the style.
+   */
+  private final long tileCount;
+
+  /**
+   * This property is true when the style and all of its sources are stored in the offline database. When they are
+   * not, the missing sources are assumed to be vector sources with the default zoom range.
+   */
+  private final boolean tileCountIsPrecise;
+
+  /**
+   * The estimated size, in bytes, of the tiles covering the region.
+   */
+  private final long tileSize;
+
+  /**
+   * The number of stored tiles the average tile sizes were computed from.
+   */
+  private final long sampledTileCount;
+
+  /*
+   * Use OfflineManager#estimateOfflineRegion to obtain a OfflineRegionEstimate object.
+   *
+   * For JNI use only
+   */
+  private OfflineRegionEstimate(long tileCount, boolean tileCountIsPrecise, long tileSize, long sampledTileCount) {
+    this.tileCount = tileCount;
+    this.tileCountIsPrecise = tileCountIsPrecise;
+    this.tileSize = tileSize;
+    this.sampledTileCount = sampledTileCount;
+  }
+
+  /**
+   * Get the number of tiles covering the region, across the tiled sources of the style.
+   *
+   * @return the tile count
+   */
+  public long getTileCount() {
+    return tileCount;
+  }
+
+  /**
+   * Returns true when the tile count is exact, false when the style or one of its sources
+   * isn't stored in the offline database and the count is an approximation.
+   *
+   * @return true if the tile count is precise
+   */
+  public boolean isTileCountPrecise() {
+    return tileCountIsPrecise;
+  }
+
+  /**
+   * Get the estimated size, in bytes, of the tiles covering the region. Tiles already stored
+   * for other regions are included, they are shared with the new region.
+   *
+   * @return the estimated tile size
+   */
+  public long getTileSize() {
+    return tileSize;
+  }
+
+  /**
+   * Get the number of stored tiles the average tile sizes were computed from. When 0, no tiles
+   * are stored yet and the estimated tile size is 0.
+   *
+   * @return the sampled tile count
+   */
+  public long getSampledTileCount() {
+    return sampledTileCount;
+  }
+}
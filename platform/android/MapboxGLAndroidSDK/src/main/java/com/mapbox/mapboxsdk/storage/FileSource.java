@@ -9,6 +9,9 @@ import android.support.annotation.NonNull;
 
 import com.mapbox.mapboxsdk.Mapbox;
 import com.mapbox.mapboxsdk.constants.MapboxConstants;
+import com.mapbox.mapboxsdk.http.HttpClientConfig;
+import com.mapbox.mapboxsdk.http.HttpRequestTransport;
+import com.mapbox.mapboxsdk.http.HttpRequestUtil;
 
 import timber.log.Timber;
 
@@ -118,6 +121,74 @@ public class FileSource {
     return false;
   }
 
+  /**
+   * Configures the HTTP client used to request resources from the internet.
+   * <p>
+   * This allows tuning the dispatcher limits, the connection pool, HTTP/2 negotiation and timeouts to the tile
+   * server in use. Requests already in flight complete with the previous configuration.
+   * </p>
+   *
+   * @param config the configuration to apply
+   */
+  public static void setHttpClientConfig(@NonNull HttpClientConfig config) {
+    HttpRequestUtil.setClientConfig(config);
+  }
+
+  /**
+   * Get the configuration of the HTTP client used to request resources from the internet.
+   *
+   * @return the active configuration
+   */
+  public static HttpClientConfig getHttpClientConfig() {
+    return HttpRequestUtil.getClientConfig();
+  }
+
+  /**
+   * Replaces the transport executing the HTTP requests of the file source, e.g. with a Cronet backed
+   * implementation or a {@link com.mapbox.mapboxsdk.http.ReplayRequestTransport} serving recorded tiles.
+   * <p>
+   * Requests keep being prioritised and limited according to the {@link HttpClientConfig} in use. Requests already
+   * in flight complete on the previous transport.
+   * </p>
+   *
+   * @param transport the transport to use
+   */
+  public static void setHttpRequestTransport(@NonNull HttpRequestTransport transport) {
+    HttpRequestUtil.setTransport(transport);
+  }
+
+  /**
+   * Get the transport executing the HTTP requests of the file source.
+   *
+   * @return the active transport
+   */
+  @NonNull
+  public static HttpRequestTransport getHttpRequestTransport() {
+    return HttpRequestUtil.getTransport();
+  }
+
+  /**
+   * Get the amount of HTTP requests waiting for a free slot in the dispatcher.
+   * <p>
+   * A persistently non-zero value while loading tiles indicates the dispatcher limits of
+   * {@link HttpClientConfig} are lower than what the tile server can handle.
+   * </p>
+   *
+   * @return the amount of queued requests
+   */
+  public static int getQueuedHttpRequestCount() {
+    return HttpRequestUtil.getQueuedRequestCount();
+  }
+
+  /**
+   * Get the amount of HTTP requests currently executing.
+   *
+   * @return the amount of running requests
+   */
+  public static int getRunningHttpRequestCount() {
+    return HttpRequestUtil.getRunningRequestCount();
+  }
+
   private long nativePtr;
   private long activeCounter;
   private boolean wasPaused;
@@ -0,0 +1,31 @@
+package com.mapbox.mapboxsdk.style.layers;
+
+/**
+ * A filter converted once for the native map, see {@link Filter.Statement#compile()}.
+ * <p>
+ * Compiled filters are immutable and can be set on any amount of layers and used to query rendered features, without
+ * converting the filter again each time.
+ * </p>
+ */
+public final class CompiledFilter {
+
+  private long nativePtr;
+
+  CompiledFilter(Object[] filter) {
+    initialize(filter);
+  }
+
+  /**
+   * Not part of the public API.
+   *
+   * @return the native peer pointer
+   */
+  public long getNativePtr() {
+    return nativePtr;
+  }
+
+  private native void initialize(Object[] filter);
+
+  @Override
+  protected native void finalize() throws Throwable;
+}
@@ -0,0 +1,22 @@
+package com.mapbox.mapboxsdk.style.layers;
+
+/**
+ * A property value converted once for the native map, see {@link PropertyValue#compile()}.
+ */
+final class CompiledValue {
+
+  private long nativePtr;
+
+  CompiledValue(Object value) {
+    initialize(value);
+  }
+
+  long getNativePtr() {
+    return nativePtr;
+  }
+
+  private native void initialize(Object value);
+
+  @Override
+  protected native void finalize() throws Throwable;
+}
@@ -26,6 +26,17 @@ public class Filter {
      * @return the filter represented as an array
      */
     public abstract Object[] toArray();
+
+    /**
+     * Converts the filter once for the native map. Compiled filters can be reused without converting them again,
+     * which avoids the conversion cost when the same filter is set repeatedly.
+     *
+     * @return the compiled filter
+     * @throws IllegalArgumentException when the filter is invalid
+     */
+    public CompiledFilter compile() {
+      return new CompiledFilter(toArray());
+    }
   }
 
   /**
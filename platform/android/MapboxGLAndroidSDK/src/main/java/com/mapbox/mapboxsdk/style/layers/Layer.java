@@ -24,14 +24,22 @@ public abstract class Layer {
       return;
     }
 
-    for (PropertyValue<?> property : properties) {
-      Object converted = convertValue(property.value);
-      if (property instanceof PaintPropertyValue) {
-        nativeSetPaintProperty(property.name, converted);
+    // applied in a single native call, notifying the style once for all properties
+    String[] names = new String[properties.length];
+    Object[] values = new Object[properties.length];
+    long[] compiledValues = new long[properties.length];
+    boolean[] paint = new boolean[properties.length];
+    for (int i = 0; i < properties.length; i++) {
+      PropertyValue<?> property = properties[i];
+      names[i] = property.name;
+      if (property.compiled != null) {
+        compiledValues[i] = property.compiled.getNativePtr();
       } else {
-        nativeSetLayoutProperty(property.name, converted);
+        values[i] = convertValue(property.value);
       }
+      paint[i] = property instanceof PaintPropertyValue;
     }
+    nativeSetProperties(names, values, compiledValues, paint);
   }
 
   public String getId() {
@@ -69,8 +77,12 @@ public abstract class Layer {
 
   protected native void nativeSetPaintProperty(String name, Object value);
 
+  protected native void nativeSetProperties(String[] names, Object[] values, long[] compiledValues, boolean[] paint);
+
   protected native void nativeSetFilter(Object[] filter);
 
+  protected native void nativeSetCompiledFilter(long compiledFilter);
+
   protected native void nativeSetSourceLayer(String sourceLayer);
 
   protected native String nativeGetSourceLayer();
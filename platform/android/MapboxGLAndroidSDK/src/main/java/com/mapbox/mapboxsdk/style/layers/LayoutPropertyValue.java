@@ -8,4 +8,13 @@ class LayoutPropertyValue<T> extends PropertyValue<T> {
     super(name, value);
   }
 
+  private LayoutPropertyValue(@NonNull String name, T value, CompiledValue compiled) {
+    super(name, value, compiled);
+  }
+
+  @Override
+  PropertyValue<T> withCompiled(CompiledValue compiled) {
+    return new LayoutPropertyValue<>(name, value, compiled);
+  }
+
 }
@@ -88,6 +88,26 @@ public class LineLayer extends Layer {
     return this;
   }
 
+  /**
+   * Set a single compiled filter.
+   *
+   * @param filter the compiled filter to set
+   */
+  public void setFilter(CompiledFilter filter) {
+    nativeSetCompiledFilter(filter.getNativePtr());
+  }
+
+  /**
+   * Set a single compiled filter.
+   *
+   * @param filter the compiled filter to set
+   * @return This
+   */
+  public LineLayer withFilter(CompiledFilter filter) {
+    setFilter(filter);
+    return this;
+  }
+
   /**
    * Set a property or properties.
    *
@@ -8,4 +8,13 @@ class PaintPropertyValue<T> extends PropertyValue<T> {
     super(name, value);
   }
 
+  private PaintPropertyValue(@NonNull String name, T value, CompiledValue compiled) {
+    super(name, value, compiled);
+  }
+
+  @Override
+  PropertyValue<T> withCompiled(CompiledValue compiled) {
+    return new PaintPropertyValue<>(name, value, compiled);
+  }
+
 }
@@ -18,6 +18,9 @@ public class PropertyValue<T> {
   public final String name;
   public final T value;
 
+  // the value converted for the native map, when compiled
+  final CompiledValue compiled;
+
   /**
    * Not part of the public API.
    *
@@ -26,8 +29,35 @@ public class PropertyValue<T> {
    * @see PropertyFactory for construction of {@link PropertyValue}s
    */
   public PropertyValue(@NonNull String name, T value) {
+    this(name, value, null);
+  }
+
+  PropertyValue(@NonNull String name, T value, CompiledValue compiled) {
     this.name = name;
     this.value = value;
+    this.compiled = compiled;
+  }
+
+  /**
+   * Returns a compiled copy of this property value, converted once for the native map.
+   * <p>
+   * Setting a compiled property value reuses the converted value instead of converting it again, compile property
+   * values that are set repeatedly, such as functions applied to many layers. The compiled copy is immutable, later
+   * changes to the function of this property value are not reflected.
+   * </p>
+   *
+   * @return the compiled property value
+   */
+  public PropertyValue<T> compile() {
+    if (compiled != null) {
+      return this;
+    }
+    Object converted = value instanceof Function ? ((Function) value).toValueObject() : value;
+    return withCompiled(new CompiledValue(converted));
+  }
+
+  PropertyValue<T> withCompiled(CompiledValue compiled) {
+    return new PropertyValue<>(name, value, compiled);
   }
 
   /**
@@ -78,4 +78,16 @@ public class GeoJsonOptions extends HashMap<String, Object> {
     return this;
   }
 
+  /**
+   * Keeps a copy of the features, to support {@link GeoJsonSource#addFeatures}, {@link GeoJsonSource#updateFeatures}
+   * and {@link GeoJsonSource#removeFeatures}. The copy takes about as much memory as the features themselves.
+   *
+   * @param incrementalUpdates support incremental updates? - Defaults to false
+   * @return the current instance for chaining
+   */
+  public GeoJsonOptions withIncrementalUpdates(boolean incrementalUpdates) {
+    this.put("incrementalUpdates", incrementalUpdates);
+    return this;
+  }
+
 }
@@ -1,5 +1,6 @@
 package com.mapbox.mapboxsdk.style.sources;
 
+import android.os.AsyncTask;
 import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
 import android.support.annotation.UiThread;
@@ -9,7 +10,15 @@ import com.mapbox.services.commons.geojson.Feature;
 import com.mapbox.services.commons.geojson.FeatureCollection;
 import com.mapbox.services.commons.geojson.Geometry;
 
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
 import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -22,6 +31,28 @@ import java.util.List;
 @UiThread
 public class GeoJsonSource extends Source {
 
+  private static final int STREAM_BUFFER_SIZE = 64 * 1024;
+
+  private PrepareDataTask pendingDataTask;
+
+  /**
+   * Notified on the main thread when data set asynchronously was set on the source.
+   */
+  public interface OnSourceDataLoaded {
+
+    /**
+     * Invoked when the data was set with its tile index built, the source renders it from the next frame.
+     */
+    void onSourceDataLoaded();
+
+    /**
+     * Invoked when the data could not be read or converted, the source keeps its current data.
+     *
+     * @param message the error message
+     */
+    void onSourceDataError(@NonNull String message);
+  }
+
   /**
    * Internal use
    *
@@ -179,6 +210,7 @@ public class GeoJsonSource extends Source {
    * @param feature the GeoJSON {@link Feature} to set
    */
   public void setGeoJson(Feature feature) {
+    cancelPendingData();
     nativeSetFeature(feature);
   }
 
@@ -188,6 +220,7 @@ public class GeoJsonSource extends Source {
    * @param geometry the GeoJSON {@link Geometry} to set
    */
   public void setGeoJson(Geometry<?> geometry) {
+    cancelPendingData();
     nativeSetGeometry(geometry);
   }
 
@@ -197,6 +230,7 @@ public class GeoJsonSource extends Source {
    * @param features the GeoJSON FeatureCollection
    */
   public void setGeoJson(FeatureCollection features) {
+    cancelPendingData();
     nativeSetFeatureCollection(features);
   }
 
@@ -206,9 +240,264 @@ public class GeoJsonSource extends Source {
    * @param json the raw GeoJson FeatureCollection string
    */
   public void setGeoJson(String json) {
+    cancelPendingData();
     nativeSetGeoJsonString(json);
   }
 
+  /**
+   * Updates the GeoJson with a single feature, converted and tiled on a worker thread.
+   * <p>
+   * Setting the GeoJson again supersedes this update while it is in progress, its callback is not invoked then.
+   * The feature must not be modified until the callback is invoked.
+   * </p>
+   *
+   * @param feature  the GeoJSON {@link Feature} to set
+   * @param callback optional callback invoked when the data was set
+   */
+  public void setGeoJsonAsync(@NonNull final Feature feature, @Nullable OnSourceDataLoaded callback) {
+    execute(new PrepareDataTask(this, callback) {
+      @Override
+      long prepare() {
+        return nativePrepareFeature(feature);
+      }
+    });
+  }
+
+  /**
+   * Updates the GeoJson with a single geometry, converted and tiled on a worker thread.
+   * <p>
+   * Setting the GeoJson again supersedes this update while it is in progress, its callback is not invoked then.
+   * The geometry must not be modified until the callback is invoked.
+   * </p>
+   *
+   * @param geometry the GeoJSON {@link Geometry} to set
+   * @param callback optional callback invoked when the data was set
+   */
+  public void setGeoJsonAsync(@NonNull final Geometry<?> geometry, @Nullable OnSourceDataLoaded callback) {
+    execute(new PrepareDataTask(this, callback) {
+      @Override
+      long prepare() {
+        return nativePrepareGeometry(geometry);
+      }
+    });
+  }
+
+  /**
+   * Updates the GeoJson, converted and tiled on a worker thread.
+   * <p>
+   * Setting the GeoJson again supersedes this update while it is in progress, its callback is not invoked then.
+   * The features must not be modified until the callback is invoked.
+   * </p>
+   *
+   * @param features the GeoJSON FeatureCollection
+   * @param callback optional callback invoked when the data was set
+   */
+  public void setGeoJsonAsync(@NonNull final FeatureCollection features, @Nullable OnSourceDataLoaded callback) {
+    execute(new PrepareDataTask(this, callback) {
+      @Override
+      long prepare() {
+        return nativePrepareFeatureCollection(features);
+      }
+    });
+  }
+
+  /**
+   * Updates the GeoJson, parsed and tiled on a worker thread.
+   * <p>
+   * Setting the GeoJson again supersedes this update while it is in progress, its callback is not invoked then.
+   * </p>
+   *
+   * @param json     the raw GeoJson FeatureCollection string
+   * @param callback optional callback invoked when the data was set
+   */
+  public void setGeoJsonAsync(@NonNull final String json, @Nullable OnSourceDataLoaded callback) {
+    execute(new PrepareDataTask(this, callback) {
+      @Override
+      long prepare() {
+        return nativePrepareGeoJsonString(json);
+      }
+    });
+  }
+
+  /**
+   * Updates the GeoJson with data in the compact Geobuf binary encoding.
+   * <p>
+   * The data is decoded on a worker thread, directly from the buffer and without creating {@link Feature} objects.
+   * Direct buffers are decoded in place, the buffer must not be modified until the callback is invoked. Setting the
+   * GeoJson again supersedes this update while it is in progress.
+   * </p>
+   *
+   * @param data     the Geobuf encoded data, from its position to its limit
+   * @param callback optional callback invoked when the data was set
+   * @see <a href="https://github.com/mapbox/geobuf">Geobuf</a>
+   */
+  public void setGeobufAsync(@NonNull final ByteBuffer data, @Nullable OnSourceDataLoaded callback) {
+    execute(new PrepareDataTask(this, callback) {
+      @Override
+      long prepare() {
+        if (data.isDirect()) {
+          return nativePrepareGeobuf(data, data.position(), data.remaining());
+        }
+        ByteBuffer direct = ByteBuffer.allocateDirect(data.remaining());
+        direct.put(data.duplicate()).flip();
+        return nativePrepareGeobuf(direct, 0, direct.remaining());
+      }
+    });
+  }
+
+  /**
+   * Updates the GeoJson with data in the compact Geobuf binary encoding, read from a stream.
+   * <p>
+   * The stream is read and decoded on a worker thread, and closed afterwards. Setting the GeoJson again supersedes
+   * this update while it is in progress.
+   * </p>
+   *
+   * @param stream   the stream of Geobuf encoded data
+   * @param callback optional callback invoked when the data was set
+   * @see <a href="https://github.com/mapbox/geobuf">Geobuf</a>
+   */
+  public void setGeobufAsync(@NonNull final InputStream stream, @Nullable OnSourceDataLoaded callback) {
+    execute(new PrepareDataTask(this, callback) {
+      @Override
+      long prepare() throws IOException {
+        ReadableByteChannel channel = Channels.newChannel(stream);
+        try {
+          ByteBuffer buffer = ByteBuffer.allocateDirect(Math.max(stream.available(), STREAM_BUFFER_SIZE));
+          while (channel.read(buffer) != -1) {
+            if (!buffer.hasRemaining()) {
+              ByteBuffer larger = ByteBuffer.allocateDirect(buffer.capacity() * 2);
+              buffer.flip();
+              larger.put(buffer);
+              buffer = larger;
+            }
+          }
+          buffer.flip();
+          return nativePrepareGeobuf(buffer, 0, buffer.remaining());
+        } finally {
+          channel.close();
+        }
+      }
+    });
+  }
+
+  /**
+   * Updates the GeoJson with data in the compact Geobuf binary encoding, read from a file.
+   * <p>
+   * The file is memory mapped and decoded on a worker thread, without copying it to the heap. Setting the GeoJson
+   * again supersedes this update while it is in progress.
+   * </p>
+   *
+   * @param file     the file of Geobuf encoded data
+   * @param callback optional callback invoked when the data was set
+   * @see <a href="https://github.com/mapbox/geobuf">Geobuf</a>
+   */
+  public void setGeobufAsync(@NonNull final File file, @Nullable OnSourceDataLoaded callback) {
+    execute(new PrepareDataTask(this, callback) {
+      @Override
+      long prepare() throws IOException {
+        ByteBuffer mapped;
+        RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r");
+        try {
+          // The mapping stays valid after the file is closed
+          FileChannel channel = randomAccessFile.getChannel();
+          mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        } finally {
+          randomAccessFile.close();
+        }
+        return nativePrepareGeobuf(mapped, 0, mapped.remaining());
+      }
+    });
+  }
+
+  /**
+   * Adds features to the current GeoJson, replacing the features with the same id.
+   * <p>
+   * Only the changed features are converted, and only the tiles covering them are updated. Prefer this over setting
+   * the whole GeoJson again when a few features change. Requires
+   * {@link GeoJsonOptions#withIncrementalUpdates(boolean)}.
+   * </p>
+   * <p>
+   * While GeoJson set asynchronously is in progress, the features are added once that GeoJson is set.
+   * </p>
+   *
+   * @param features the GeoJSON features to add
+   */
+  public void addFeatures(@NonNull final FeatureCollection features) {
+    applyFeatureChange(new Runnable() {
+      @Override
+      public void run() {
+        nativeAddFeatures(features);
+      }
+    });
+  }
+
+  /**
+   * Replaces the features of the current GeoJson with the same id. Features without an id, or without a feature with
+   * the same id, are ignored.
+   * <p>
+   * Only the changed features are converted, and only the tiles covering them are updated. Requires
+   * {@link GeoJsonOptions#withIncrementalUpdates(boolean)}.
+   * </p>
+   * <p>
+   * While GeoJson set asynchronously is in progress, the features are replaced once that GeoJson is set.
+   * </p>
+   *
+   * @param features the updated GeoJSON features
+   */
+  public void updateFeatures(@NonNull final FeatureCollection features) {
+    applyFeatureChange(new Runnable() {
+      @Override
+      public void run() {
+        nativeUpdateFeatures(features);
+      }
+    });
+  }
+
+  /**
+   * Removes features from the current GeoJson.
+   * <p>
+   * Only the tiles covering the removed features are updated. Requires
+   * {@link GeoJsonOptions#withIncrementalUpdates(boolean)}.
+   * </p>
+   * <p>
+   * While GeoJson set asynchronously is in progress, the features are removed once that GeoJson is set.
+   * </p>
+   *
+   * @param ids the ids of the features to remove
+   */
+  public void removeFeatures(@NonNull String... ids) {
+    removeFeatureIds(ids);
+  }
+
+  /**
+   * Removes features with numeric ids, as parsed from GeoJson strings or Geobuf data, from the current GeoJson.
+   * <p>
+   * Only the tiles covering the removed features are updated. Requires
+   * {@link GeoJsonOptions#withIncrementalUpdates(boolean)}.
+   * </p>
+   * <p>
+   * While GeoJson set asynchronously is in progress, the features are removed once that GeoJson is set.
+   * </p>
+   *
+   * @param id  the id of a feature to remove
+   * @param ids the ids of further features to remove
+   */
+  public void removeFeatures(@NonNull Number id, @NonNull Number... ids) {
+    Number[] removed = new Number[ids.length + 1];
+    removed[0] = id;
+    System.arraycopy(ids, 0, removed, 1, ids.length);
+    removeFeatureIds(removed);
+  }
+
+  private void removeFeatureIds(final Object[] ids) {
+    applyFeatureChange(new Runnable() {
+      @Override
+      public void run() {
+        nativeRemoveFeatures(ids);
+      }
+    });
+  }
+
   /**
    * Updates the url
    *
@@ -224,6 +513,7 @@ public class GeoJsonSource extends Source {
    * @param url the GeoJSON FeatureCollection url
    */
   public void setUrl(String url) {
+    cancelPendingData();
     nativeSetUrl(url);
   }
 
@@ -247,6 +537,103 @@ public class GeoJsonSource extends Source {
     return features != null ? Arrays.asList(features) : new ArrayList<Feature>();
   }
 
+  /**
+   * Applies a change to the features right away, or queues it behind the GeoJson set asynchronously, so that the
+   * change isn't overwritten once that GeoJson is set.
+   */
+  private void applyFeatureChange(Runnable change) {
+    if (pendingDataTask != null) {
+      pendingDataTask.featureChanges.add(change);
+    } else {
+      change.run();
+    }
+  }
+
+  private void execute(PrepareDataTask task) {
+    cancelPendingData();
+    pendingDataTask = task;
+    task.executeOnExecutor(AsyncTask.THREAD_POOL_EXECUTOR);
+  }
+
+  private void cancelPendingData() {
+    if (pendingDataTask != null) {
+      pendingDataTask.cancel(false);
+      pendingDataTask = null;
+    }
+  }
+
+  /**
+   * Prepares data on a worker thread, converting it and building its tile index, and sets it on the source on the
+   * main thread unless superseded.
+   */
+  private abstract static class PrepareDataTask extends AsyncTask<Void, Void, Long> {
+
+    private final GeoJsonSource source;
+    private final OnSourceDataLoaded callback;
+    // changes made while preparing, applied on top of the prepared data
+    private final List<Runnable> featureChanges = new ArrayList<>(0);
+    private String error;
+
+    PrepareDataTask(GeoJsonSource source, OnSourceDataLoaded callback) {
+      this.source = source;
+      this.callback = callback;
+    }
+
+    /**
+     * Returns the prepared data, to be set on the source or released.
+     */
+    abstract long prepare() throws IOException;
+
+    @Override
+    protected Long doInBackground(Void... params) {
+      try {
+        return prepare();
+      } catch (IOException | RuntimeException exception) {
+        error = exception.getMessage() != null ? exception.getMessage() : exception.toString();
+        return 0L;
+      }
+    }
+
+    @Override
+    protected void onPostExecute(Long preparedPtr) {
+      if (source.pendingDataTask != this) {
+        // Superseded
+        onCancelled(preparedPtr);
+        return;
+      }
+      source.pendingDataTask = null;
+
+      if (preparedPtr == 0L) {
+        // the current data is kept, the changes apply to it
+        applyFeatureChanges();
+        if (callback != null) {
+          callback.onSourceDataError(error);
+        }
+        return;
+      }
+
+      source.nativeSetPreparedGeoJson(preparedPtr);
+      applyFeatureChanges();
+      if (callback != null) {
+        callback.onSourceDataLoaded();
+      }
+    }
+
+    private void applyFeatureChanges() {
+      for (Runnable change : featureChanges) {
+        change.run();
+      }
+      featureChanges.clear();
+    }
+
+    @Override
+    protected void onCancelled(Long preparedPtr) {
+      if (preparedPtr != null && preparedPtr != 0L) {
+        nativeReleasePreparedGeoJson(preparedPtr);
+      }
+    }
+  }
+
   protected native void initialize(String layerId, Object options);
 
   protected native void nativeSetUrl(String url);
@@ -261,6 +648,26 @@ public class GeoJsonSource extends Source {
 
   private native void nativeSetGeometry(Geometry<?> geometry);
 
+  private native void nativeAddFeatures(FeatureCollection features);
+
+  private native void nativeUpdateFeatures(FeatureCollection features);
+
+  private native void nativeRemoveFeatures(Object[] ids);
+
+  private native long nativePrepareGeoJsonString(String geoJson);
+
+  private native long nativePrepareFeatureCollection(FeatureCollection geoJson);
+
+  private native long nativePrepareFeature(Feature feature);
+
+  private native long nativePrepareGeometry(Geometry<?> geometry);
+
+  private native long nativePrepareGeobuf(ByteBuffer data, int offset, int length);
+
+  private native void nativeSetPreparedGeoJson(long preparedPtr);
+
+  private static native void nativeReleasePreparedGeoJson(long preparedPtr);
+
   private native Feature[] querySourceFeatures(Object[] filter);
 
   @Override
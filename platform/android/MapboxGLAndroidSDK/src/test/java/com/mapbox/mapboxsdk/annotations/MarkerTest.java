@@ -5,6 +5,7 @@ import android.os.Parcelable;
 
 import com.mapbox.mapboxsdk.exceptions.InvalidMarkerPositionException;
 import com.mapbox.mapboxsdk.geometry.LatLng;
+import com.mapbox.mapboxsdk.maps.MapboxMap;
 import com.mapbox.mapboxsdk.utils.MockParcel;
 
 import org.junit.Test;
@@ -13,6 +14,9 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 
 public class MarkerTest {
 
@@ -74,6 +78,21 @@ public class MarkerTest {
     assertEquals("Icon should match", icon, markerOptions.getIcon());
   }
 
+  @Test
+  public void testSetLoadedIconDoesNotUpdateMarker() {
+    Icon icon = mock(Icon.class);
+    MapboxMap mapboxMap = mock(MapboxMap.class);
+    Marker marker = new MarkerOptions().position(new LatLng()).getMarker();
+    marker.setMapboxMap(mapboxMap);
+
+    marker.setLoadedIcon(icon);
+    assertEquals("Icon should match", icon, marker.getIcon());
+    verify(mapboxMap, never()).updateMarker(marker);
+
+    marker.setIcon(icon);
+    verify(mapboxMap, times(1)).updateMarker(marker);
+  }
+
   @Test
   public void testHashCode() {
     Marker marker = new MarkerOptions().position(new LatLng()).getMarker();
@@ -0,0 +1,60 @@
+package com.mapbox.mapboxsdk.http;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertSame;
+import static junit.framework.Assert.assertTrue;
+
+public class ByteBufferPoolTest {
+
+  @Test
+  public void testAcquireDirect() {
+    ByteBufferPool pool = new ByteBufferPool(64 * 1024, 128 * 1024);
+    ByteBuffer buffer = pool.acquire(1000);
+    assertTrue(buffer.isDirect());
+    assertEquals(ByteBufferPool.MIN_BUFFER_SIZE, buffer.capacity());
+    assertEquals(64 * 1024, pool.acquire(40 * 1024).capacity());
+  }
+
+  @Test
+  public void testReuse() {
+    ByteBufferPool pool = new ByteBufferPool(64 * 1024, 128 * 1024);
+    ByteBuffer buffer = pool.acquire(1000);
+    buffer.put((byte) 1);
+    pool.release(buffer);
+    assertEquals(buffer.capacity(), pool.getPooledSize());
+
+    ByteBuffer reused = pool.acquire(2000);
+    assertSame(buffer, reused);
+    assertEquals(0, reused.position());
+    assertEquals(0, pool.getPooledSize());
+  }
+
+  @Test
+  public void testPoolSizeBound() {
+    ByteBufferPool pool = new ByteBufferPool(64 * 1024, 96 * 1024);
+    pool.release(pool.acquire(64 * 1024));
+    pool.release(pool.acquire(64 * 1024 + 1));
+    pool.release(ByteBuffer.allocateDirect(64 * 1024));
+    assertEquals(64 * 1024, pool.getPooledSize());
+    pool.release(ByteBuffer.allocateDirect(32 * 1024));
+    assertEquals(96 * 1024, pool.getPooledSize());
+  }
+
+  @Test
+  public void testGrow() {
+    ByteBufferPool pool = new ByteBufferPool(64 * 1024, 128 * 1024);
+    ByteBuffer buffer = pool.acquire(1);
+    while (buffer.hasRemaining()) {
+      buffer.put((byte) 7);
+    }
+    ByteBuffer larger = pool.grow(buffer);
+    assertEquals(2 * buffer.capacity(), larger.capacity());
+    assertEquals(buffer.capacity(), larger.position());
+    assertEquals(7, larger.get(buffer.capacity() - 1));
+    assertEquals(buffer.capacity(), pool.getPooledSize());
+  }
+}
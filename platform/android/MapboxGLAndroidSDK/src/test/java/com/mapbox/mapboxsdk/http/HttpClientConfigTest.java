@@ -0,0 +1,75 @@
+package com.mapbox.mapboxsdk.http;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertFalse;
+import static junit.framework.Assert.assertTrue;
+
+public class HttpClientConfigTest {
+
+  @Test
+  public void testDefaults() {
+    HttpClientConfig config = new HttpClientConfig.Builder().build();
+    assertEquals(HttpClientConfig.DEFAULT_MAX_REQUESTS, config.getMaxRequests());
+    assertEquals(HttpClientConfig.DEFAULT_MAX_REQUESTS_PER_HOST, config.getMaxRequestsPerHost());
+    assertEquals(HttpClientConfig.DEFAULT_MAX_IDLE_CONNECTIONS, config.getMaxIdleConnections());
+    assertEquals(HttpClientConfig.DEFAULT_KEEP_ALIVE_DURATION, config.getKeepAliveDuration());
+    assertEquals(HttpClientConfig.DEFAULT_TIMEOUT, config.getConnectTimeout());
+    assertEquals(HttpClientConfig.DEFAULT_TIMEOUT, config.getReadTimeout());
+    assertEquals(HttpClientConfig.DEFAULT_TIMEOUT, config.getWriteTimeout());
+    assertTrue(config.isHttp2Enabled());
+  }
+
+  @Test
+  public void testCopyBuilder() {
+    HttpClientConfig config = new HttpClientConfig.Builder()
+      .maxRequestsPerHost(20)
+      .http2Enabled(false)
+      .build();
+    HttpClientConfig copy = new HttpClientConfig.Builder(config).readTimeout(500).build();
+    assertEquals(20, copy.getMaxRequestsPerHost());
+    assertFalse(copy.isHttp2Enabled());
+    assertEquals(500, copy.getReadTimeout());
+  }
+
+  @Test
+  public void testCreateClient() {
+    HttpClientConfig config = new HttpClientConfig.Builder()
+      .maxRequests(32)
+      .maxRequestsPerHost(16)
+      .connectTimeout(1000)
+      .readTimeout(2000)
+      .writeTimeout(3000)
+      .build();
+    OkHttpClient client = config.createClient();
+    assertEquals(32, client.dispatcher().getMaxRequests());
+    assertEquals(16, client.dispatcher().getMaxRequestsPerHost());
+    assertEquals(1000, client.connectTimeoutMillis());
+    assertEquals(2000, client.readTimeoutMillis());
+    assertEquals(3000, client.writeTimeoutMillis());
+    assertEquals(Arrays.asList(Protocol.HTTP_2, Protocol.HTTP_1_1), client.protocols());
+  }
+
+  @Test
+  public void testHttp2Disabled() {
+    OkHttpClient client = new HttpClientConfig.Builder().http2Enabled(false).build().createClient();
+    assertEquals(Collections.singletonList(Protocol.HTTP_1_1), client.protocols());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidMaxRequestsPerHost() {
+    new HttpClientConfig.Builder().maxRequestsPerHost(0);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidTimeout() {
+    new HttpClientConfig.Builder().readTimeout(-1);
+  }
+}
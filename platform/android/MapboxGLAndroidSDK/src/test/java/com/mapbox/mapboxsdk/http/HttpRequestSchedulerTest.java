@@ -0,0 +1,278 @@
+package com.mapbox.mapboxsdk.http;
+
+import com.mapbox.mapboxsdk.storage.Resource;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertTrue;
+
+public class HttpRequestSchedulerTest {
+
+  private static final Map<String, String> NO_HEADERS = Collections.emptyMap();
+
+  private TestScheduler scheduler;
+
+  @Before
+  public void setUp() {
+    scheduler = new TestScheduler(1, 1);
+  }
+
+  @Test
+  public void testPriorityFromKind() {
+    assertEquals(HttpRequestScheduler.PRIORITY_HIGH, HttpRequestScheduler.getPriority(Resource.STYLE, false));
+    assertEquals(HttpRequestScheduler.PRIORITY_HIGH, HttpRequestScheduler.getPriority(Resource.GLYPHS, false));
+    assertEquals(HttpRequestScheduler.PRIORITY_NORMAL, HttpRequestScheduler.getPriority(Resource.TILE, false));
+    assertEquals(HttpRequestScheduler.PRIORITY_LOW, HttpRequestScheduler.getPriority(Resource.TILE, true));
+  }
+
+  @Test
+  public void testDispatchOrder() {
+    scheduler.schedule("http://host/first", NO_HEADERS, HttpRequestScheduler.PRIORITY_NORMAL, 10, new TestReceiver());
+    scheduler.schedule("http://host/offline", NO_HEADERS, HttpRequestScheduler.PRIORITY_LOW, 14, new TestReceiver());
+    scheduler.schedule("http://host/prefetch", NO_HEADERS, HttpRequestScheduler.PRIORITY_NORMAL, 12, new TestReceiver());
+    scheduler.schedule("http://host/visible", NO_HEADERS, HttpRequestScheduler.PRIORITY_NORMAL, 14, new TestReceiver());
+    scheduler.schedule("http://host/style", NO_HEADERS, HttpRequestScheduler.PRIORITY_HIGH, -1, new TestReceiver());
+    assertEquals(4, scheduler.getPendingCount());
+
+    for (int i = 0; i < 5; i++) {
+      scheduler.calls.get(i).respond(200);
+    }
+    assertEquals(5, scheduler.calls.size());
+    assertEquals("/first", scheduler.calls.get(0).path());
+    assertEquals("/style", scheduler.calls.get(1).path());
+    assertEquals("/visible", scheduler.calls.get(2).path());
+    assertEquals("/prefetch", scheduler.calls.get(3).path());
+    assertEquals("/offline", scheduler.calls.get(4).path());
+  }
+
+  @Test
+  public void testHostLimit() {
+    scheduler = new TestScheduler(2, 1);
+    scheduler.schedule("http://a/1", NO_HEADERS, HttpRequestScheduler.PRIORITY_NORMAL, 1, new TestReceiver());
+    scheduler.schedule("http://a/2", NO_HEADERS, HttpRequestScheduler.PRIORITY_HIGH, 1, new TestReceiver());
+    scheduler.schedule("http://b/1", NO_HEADERS, HttpRequestScheduler.PRIORITY_NORMAL, 1, new TestReceiver());
+    assertEquals(2, scheduler.calls.size());
+    assertEquals("b", scheduler.calls.get(1).host());
+
+    scheduler.calls.get(0).respond(200);
+    assertEquals(3, scheduler.calls.size());
+    assertEquals("/2", scheduler.calls.get(2).path());
+  }
+
+  @Test
+  public void testHostLimitWithManyPending() {
+    scheduler = new TestScheduler(2, 1);
+    for (int i = 0; i < 5; i++) {
+      scheduler.schedule("http://a/" + i, NO_HEADERS, HttpRequestScheduler.PRIORITY_HIGH, 1, new TestReceiver());
+    }
+    scheduler.schedule("http://b/1", NO_HEADERS, HttpRequestScheduler.PRIORITY_LOW, 1, new TestReceiver());
+    assertEquals(2, scheduler.calls.size());
+    assertEquals("b", scheduler.calls.get(1).host());
+    assertEquals(4, scheduler.getPendingCount());
+
+    scheduler.calls.get(1).respond(200);
+    assertEquals(2, scheduler.calls.size());
+    scheduler.calls.get(0).respond(200);
+    assertEquals(3, scheduler.calls.size());
+    assertEquals("/1", scheduler.calls.get(2).path());
+    assertEquals(3, scheduler.getPendingCount());
+  }
+
+  @Test
+  public void testExecute() {
+    scheduler.schedule("http://host/running", NO_HEADERS, HttpRequestScheduler.PRIORITY_NORMAL, 1, new TestReceiver());
+    scheduler.respondOnEnqueue = true;
+    TestReceiver receiver = new TestReceiver();
+    scheduler.execute("http://host/executed", NO_HEADERS, HttpRequestScheduler.PRIORITY_HIGH, -1, receiver);
+
+    // delivered before returning, without waiting for a free slot
+    assertEquals(1, receiver.responses);
+    assertEquals(2, scheduler.calls.size());
+    assertEquals(1, scheduler.getRunningCount());
+  }
+
+  @Test
+  public void testCoalescing() {
+    TestReceiver first = new TestReceiver();
+    TestReceiver second = new TestReceiver();
+    scheduler.schedule("http://host/tile", NO_HEADERS, HttpRequestScheduler.PRIORITY_NORMAL, 1, first);
+    scheduler.schedule("http://host/tile", NO_HEADERS, HttpRequestScheduler.PRIORITY_NORMAL, 1, second);
+    assertEquals(1, scheduler.calls.size());
+
+    scheduler.calls.get(0).respond(200);
+    assertEquals(1, first.responses);
+    assertEquals(1, second.responses);
+
+    // a new request after completion goes to the network again
+    scheduler.schedule("http://host/tile", NO_HEADERS, HttpRequestScheduler.PRIORITY_NORMAL, 1, first);
+    assertEquals(2, scheduler.calls.size());
+  }
+
+  @Test
+  public void testCancelCoalesced() {
+    TestReceiver first = new TestReceiver();
+    TestReceiver second = new TestReceiver();
+    HttpRequestScheduler.ScheduledCall call = scheduler.schedule("http://host/tile", NO_HEADERS, HttpRequestScheduler.PRIORITY_NORMAL, 1, first);
+    scheduler.schedule("http://host/tile", NO_HEADERS, HttpRequestScheduler.PRIORITY_NORMAL, 1, second);
+
+    scheduler.cancel(call, first);
+    assertTrue(!scheduler.calls.get(0).isCanceled());
+    scheduler.cancel(call, second);
+    assertTrue(scheduler.calls.get(0).isCanceled());
+    assertEquals(0, scheduler.getRunningCount());
+
+    // a late response of the cancelled call is dropped
+    scheduler.calls.get(0).respond(200);
+    assertEquals(0, first.responses + first.failures + second.responses + second.failures);
+    assertEquals(0, scheduler.getRunningCount());
+  }
+
+  @Test
+  public void testCancelReleasesSlot() {
+    TestReceiver running = new TestReceiver();
+    HttpRequestScheduler.ScheduledCall call = scheduler.schedule("http://host/running", NO_HEADERS,
+      HttpRequestScheduler.PRIORITY_NORMAL, 1, running);
+    scheduler.schedule("http://host/pending", NO_HEADERS, HttpRequestScheduler.PRIORITY_NORMAL, 1,
+      new TestReceiver());
+    assertEquals(1, scheduler.calls.size());
+
+    scheduler.cancel(call, running);
+    assertEquals(2, scheduler.calls.size());
+    assertEquals("/pending", scheduler.calls.get(1).path());
+  }
+
+  @Test
+  public void testCancelPending() {
+    scheduler.schedule("http://host/running", NO_HEADERS, HttpRequestScheduler.PRIORITY_NORMAL, 1, new TestReceiver());
+    TestReceiver pending = new TestReceiver();
+    HttpRequestScheduler.ScheduledCall call = scheduler.schedule("http://host/pending", NO_HEADERS, HttpRequestScheduler.PRIORITY_NORMAL, 1, pending);
+    assertEquals(1, scheduler.getPendingCount());
+
+    scheduler.cancel(call, pending);
+    assertEquals(0, scheduler.getPendingCount());
+    scheduler.calls.get(0).respond(200);
+    assertEquals(1, scheduler.calls.size());
+  }
+
+  private static class TestScheduler extends HttpRequestScheduler {
+
+    private final int maxRequests;
+    private final int maxRequestsPerHost;
+    final List<TestCall> calls = new ArrayList<>();
+    boolean respondOnEnqueue;
+
+    TestScheduler(int maxRequests, int maxRequestsPerHost) {
+      this.maxRequests = maxRequests;
+      this.maxRequestsPerHost = maxRequestsPerHost;
+    }
+
+    @Override
+    HttpRequestTransport getTransport() {
+      return new HttpRequestTransport() {
+        @Override
+        public Call enqueue(String url, Map<String, String> headers, Callback callback) {
+          TestCall call = new TestCall(url, callback);
+          calls.add(call);
+          if (respondOnEnqueue) {
+            call.respond(200);
+          }
+          return call;
+        }
+      };
+    }
+
+    @Override
+    int getMaxRequests() {
+      return maxRequests;
+    }
+
+    @Override
+    int getMaxRequestsPerHost() {
+      return maxRequestsPerHost;
+    }
+  }
+
+  private static class TestReceiver implements HttpRequestScheduler.Receiver {
+
+    int responses;
+    int failures;
+
+    @Override
+    public void onResponse(HttpResponse response, ByteBuffer body, int length) {
+      responses++;
+    }
+
+    @Override
+    public void onFailure(Exception exception) {
+      failures++;
+    }
+  }
+
+  private static class TestCall implements HttpRequestTransport.Call {
+
+    private final String url;
+    private final HttpRequestTransport.Callback callback;
+    private boolean canceled;
+
+    TestCall(String url, HttpRequestTransport.Callback callback) {
+      this.url = url;
+      this.callback = callback;
+    }
+
+    String host() {
+      return url.substring("http://".length(), url.indexOf('/', "http://".length()));
+    }
+
+    String path() {
+      return url.substring(url.indexOf('/', "http://".length()));
+    }
+
+    void respond(final int code) {
+      callback.onResponse(new HttpResponse() {
+        @Override
+        public int getCode() {
+          return code;
+        }
+
+        @Override
+        public String getMessage() {
+          return null;
+        }
+
+        @Override
+        public String getHeader(String name) {
+          return null;
+        }
+
+        @Override
+        public long getContentLength() {
+          return 3;
+        }
+
+        @Override
+        public InputStream getBody() {
+          return new ByteArrayInputStream(new byte[] {1, 2, 3});
+        }
+      });
+    }
+
+    @Override
+    public void cancel() {
+      canceled = true;
+    }
+
+    boolean isCanceled() {
+      return canceled;
+    }
+  }
+}
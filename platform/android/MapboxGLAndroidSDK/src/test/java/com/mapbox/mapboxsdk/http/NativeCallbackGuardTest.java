@@ -0,0 +1,113 @@
+package com.mapbox.mapboxsdk.http;
+
+import org.junit.Test;
+
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertFalse;
+import static junit.framework.Assert.assertTrue;
+
+public class NativeCallbackGuardTest {
+
+  private static final int ITERATIONS = 20000;
+
+  @Test
+  public void testCallbackBeforeCancel() {
+    FakeRequest request = new FakeRequest();
+    assertTrue(request.enterCallback());
+    request.exitCallback();
+    request.cancelCallbacks();
+    assertTrue(request.isCancelled());
+  }
+
+  @Test
+  public void testNoCallbackAfterCancel() {
+    FakeRequest request = new FakeRequest();
+    request.cancelCallbacks();
+    assertFalse(request.enterCallback());
+    // cancelling twice is a no-op
+    request.cancelCallbacks();
+    assertTrue(request.isCancelled());
+  }
+
+  @Test
+  public void testConcurrentCancelAndCallbacks() throws Exception {
+    final AtomicInteger violations = new AtomicInteger();
+    final AtomicInteger delivered = new AtomicInteger();
+    final CyclicBarrier barrier = new CyclicBarrier(3);
+    final FakeRequest[] requests = new FakeRequest[ITERATIONS];
+    for (int i = 0; i < ITERATIONS; i++) {
+      requests[i] = new FakeRequest();
+    }
+
+    Runnable responder = new Runnable() {
+      @Override
+      public void run() {
+        await(barrier);
+        for (FakeRequest request : requests) {
+          if (request.enterCallback()) {
+            try {
+              if (request.peerFreed) {
+                violations.incrementAndGet();
+              }
+              // simulate native work while the peer must stay alive
+              for (int spin = 0; spin < 50; spin++) {
+                request.work++;
+              }
+              if (request.peerFreed) {
+                violations.incrementAndGet();
+              }
+              delivered.incrementAndGet();
+            } finally {
+              request.exitCallback();
+            }
+          }
+        }
+      }
+    };
+
+    Runnable canceller = new Runnable() {
+      @Override
+      public void run() {
+        await(barrier);
+        for (FakeRequest request : requests) {
+          request.cancelCallbacks();
+          // the native destructor frees the peer as soon as cancel returns
+          request.peerFreed = true;
+        }
+      }
+    };
+
+    Thread first = new Thread(responder);
+    Thread second = new Thread(responder);
+    Thread third = new Thread(canceller);
+    first.start();
+    second.start();
+    third.start();
+    first.join();
+    second.join();
+    third.join();
+
+    assertEquals("callback reached a freed native peer", 0, violations.get());
+    for (FakeRequest request : requests) {
+      assertTrue(request.isCancelled());
+      assertFalse(request.enterCallback());
+    }
+    assertTrue(delivered.get() <= 2 * ITERATIONS);
+  }
+
+  private static void await(CyclicBarrier barrier) {
+    try {
+      barrier.await();
+    } catch (Exception exception) {
+      throw new RuntimeException(exception);
+    }
+  }
+
+  private static class FakeRequest extends NativeCallbackGuard {
+    volatile boolean peerFreed;
+    int work;
+  }
+}
@@ -0,0 +1,105 @@
+package com.mapbox.mapboxsdk.http;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertNull;
+
+public class ReplayRequestTransportTest {
+
+  private static final Map<String, String> NO_HEADERS = Collections.emptyMap();
+
+  private ReplayRequestTransport transport;
+  private TestCallback callback;
+
+  @Before
+  public void setUp() {
+    // deliver on the calling thread
+    transport = new ReplayRequestTransport(new Executor() {
+      @Override
+      public void execute(Runnable runnable) {
+        runnable.run();
+      }
+    });
+    callback = new TestCallback();
+  }
+
+  @Test
+  public void testReplay() throws IOException {
+    transport.record("http://host/0/0/0.pbf", new byte[] {1, 2, 3});
+    transport.enqueue("http://host/0/0/0.pbf", NO_HEADERS, callback);
+
+    assertEquals(200, callback.response.getCode());
+    assertEquals(3, callback.response.getContentLength());
+    assertEquals(3, readFully(callback.response.getBody()).length);
+    assertEquals(1, transport.getRequestCount());
+  }
+
+  @Test
+  public void testMiss() {
+    transport.enqueue("http://host/missing", NO_HEADERS, callback);
+    assertEquals(404, callback.response.getCode());
+  }
+
+  @Test
+  public void testHeaders() {
+    Map<String, String> headers = new HashMap<>();
+    headers.put("ETag", "abc");
+    transport.record("http://host/style.json", 200, headers, new byte[0]);
+    transport.enqueue("http://host/style.json", NO_HEADERS, callback);
+    assertEquals("abc", callback.response.getHeader("etag"));
+    assertNull(callback.response.getHeader("Expires"));
+
+    transport.enqueue("http://host/style.json", Collections.singletonMap("If-None-Match", "abc"), callback);
+    assertEquals(304, callback.response.getCode());
+  }
+
+  @Test
+  public void testCancel() {
+    final Runnable[] deferred = new Runnable[1];
+    transport = new ReplayRequestTransport(new Executor() {
+      @Override
+      public void execute(Runnable runnable) {
+        deferred[0] = runnable;
+      }
+    });
+    transport.record("http://host/tile", new byte[] {1});
+    transport.enqueue("http://host/tile", NO_HEADERS, callback).cancel();
+    deferred[0].run();
+    assertNull(callback.response);
+  }
+
+  private static byte[] readFully(InputStream inputStream) throws IOException {
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    byte[] chunk = new byte[16];
+    int read;
+    while ((read = inputStream.read(chunk)) != -1) {
+      outputStream.write(chunk, 0, read);
+    }
+    return outputStream.toByteArray();
+  }
+
+  private static class TestCallback implements HttpRequestTransport.Callback {
+
+    HttpResponse response;
+
+    @Override
+    public void onResponse(HttpResponse response) {
+      this.response = response;
+    }
+
+    @Override
+    public void onFailure(Exception exception) {
+      throw new AssertionError(exception);
+    }
+  }
+}
@@ -1,23 +1,36 @@
 package com.mapbox.mapboxsdk.maps;
 
+import android.graphics.Bitmap;
+import android.graphics.PointF;
+import android.graphics.RectF;
 import android.support.v4.util.LongSparseArray;
 
 import com.mapbox.mapboxsdk.annotations.Annotation;
 import com.mapbox.mapboxsdk.annotations.BaseMarkerOptions;
+import com.mapbox.mapboxsdk.annotations.Icon;
 import com.mapbox.mapboxsdk.annotations.Marker;
 import com.mapbox.mapboxsdk.annotations.MarkerOptions;
+import com.mapbox.mapboxsdk.annotations.MarkerView;
 import com.mapbox.mapboxsdk.annotations.MarkerViewManager;
 import com.mapbox.mapboxsdk.geometry.LatLng;
 
 import org.junit.Test;
 import org.mockito.ArgumentMatchers;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 public class AnnotationManagerTest {
@@ -85,4 +98,206 @@ public class AnnotationManagerTest {
     assertEquals("first", ((Marker) annotationManager.getAnnotation(firstId)).getTitle());
     assertEquals("second", ((Marker) annotationManager.getAnnotation(secondId)).getTitle());
   }
-}
\ No newline at end of file
+
+  @Test
+  public void checksAddMarkersFromColumns() throws Exception {
+    NativeMapView aNativeMapView = mock(NativeMapView.class);
+    MapView aMapView = mock(MapView.class);
+    LongSparseArray<Annotation> annotationsArray = new LongSparseArray<>();
+    MarkerViewManager aMarkerViewManager = mock(MarkerViewManager.class);
+    IconManager aIconManager = mock(IconManager.class);
+    Annotations annotations = new AnnotationContainer(aNativeMapView, annotationsArray);
+    Markers markers = new MarkerContainer(aNativeMapView, aMapView, annotationsArray, aIconManager, aMarkerViewManager);
+    Polygons polygons = new PolygonContainer(aNativeMapView, annotationsArray);
+    Polylines polylines = new PolylineContainer(aNativeMapView, annotationsArray);
+    ShapeAnnotations shapeAnnotations = new ShapeAnnotationContainer(aNativeMapView, annotationsArray);
+    AnnotationManager annotationManager = new AnnotationManager(aNativeMapView, aMapView, annotationsArray,
+      aMarkerViewManager, aIconManager, annotations, markers, polygons, polylines, shapeAnnotations);
+    Icon firstIcon = mock(Icon.class);
+    Icon secondIcon = mock(Icon.class);
+    when(firstIcon.getId()).thenReturn("first");
+    when(secondIcon.getId()).thenReturn("second");
+    when(aIconManager.loadIconForMarkers(firstIcon, 2)).thenReturn(firstIcon);
+    when(aIconManager.loadIconForMarkers(secondIcon, 1)).thenReturn(secondIcon);
+    when(aIconManager.getTopOffsetPixelsForIcon(firstIcon)).thenReturn(10);
+    double[] latLngs = {1, 2, 3, 4, 5, 6};
+    int[] iconIndices = {0, 1, 0};
+    when(aNativeMapView.addMarkers(latLngs, new String[] {"first", "second"}, iconIndices))
+      .thenReturn(new long[] {1L, 2L, 3L});
+    MapboxMap aMapboxMap = mock(MapboxMap.class);
+
+    List<Marker> added = annotationManager.addMarkers(latLngs, new Icon[] {firstIcon, secondIcon}, iconIndices,
+      aMapboxMap);
+
+    assertEquals(3, added.size());
+    assertEquals(3, annotationManager.getAnnotations().size());
+    Marker lastMarker = (Marker) annotationManager.getAnnotation(3L);
+    assertEquals(5.0, lastMarker.getPosition().getLatitude());
+    assertEquals(6.0, lastMarker.getPosition().getLongitude());
+    assertEquals(firstIcon, lastMarker.getIcon());
+    assertEquals(secondIcon, ((Marker) annotationManager.getAnnotation(2L)).getIcon());
+    // top offsets are resolved once per distinct icon
+    verify(aIconManager, times(1)).getTopOffsetPixelsForIcon(firstIcon);
+  }
+
+  @Test
+  public void checksGetMarkersInRect() throws Exception {
+    NativeMapView aNativeMapView = mock(NativeMapView.class);
+    MapView aMapView = mock(MapView.class);
+    LongSparseArray<Annotation> annotationsArray = new LongSparseArray<>();
+    MarkerViewManager aMarkerViewManager = mock(MarkerViewManager.class);
+    IconManager aIconManager = mock(IconManager.class);
+    Markers markers = new MarkerContainer(aNativeMapView, aMapView, annotationsArray, aIconManager, aMarkerViewManager);
+    Marker firstMarker = new MarkerOptions().position(new LatLng()).getMarker();
+    Marker secondMarker = new MarkerOptions().position(new LatLng()).getMarker();
+    MarkerView markerView = mock(MarkerView.class);
+    firstMarker.setId(1L);
+    secondMarker.setId(2L);
+    annotationsArray.put(1L, firstMarker);
+    annotationsArray.put(2L, secondMarker);
+    annotationsArray.put(3L, markerView);
+    RectF rect = new RectF();
+    when(aNativeMapView.getDensityDependantRectangle(rect)).thenReturn(rect);
+    when(aNativeMapView.queryPointAnnotations(rect)).thenReturn(new long[] {3L, 1L, 7L});
+
+    List<Marker> markersInRect = markers.obtainAllIn(rect);
+
+    assertEquals(2, markersInRect.size());
+    assertEquals(firstMarker, markersInRect.get(0));
+    assertEquals(markerView, markersInRect.get(1));
+  }
+
+  @Test
+  public void checksMarkerBatchCoalescesUpdates() throws Exception {
+    NativeMapView aNativeMapView = mock(NativeMapView.class);
+    MapView aMapView = mock(MapView.class);
+    LongSparseArray<Annotation> annotationsArray = new LongSparseArray<>();
+    MarkerViewManager aMarkerViewManager = mock(MarkerViewManager.class);
+    IconManager aIconManager = mock(IconManager.class);
+    Annotations annotations = new AnnotationContainer(aNativeMapView, annotationsArray);
+    Markers markers = new MarkerContainer(aNativeMapView, aMapView, annotationsArray, aIconManager, aMarkerViewManager);
+    Polygons polygons = new PolygonContainer(aNativeMapView, annotationsArray);
+    Polylines polylines = new PolylineContainer(aNativeMapView, annotationsArray);
+    ShapeAnnotations shapeAnnotations = new ShapeAnnotationContainer(aNativeMapView, annotationsArray);
+    AnnotationManager annotationManager = new AnnotationManager(aNativeMapView, aMapView, annotationsArray,
+      aMarkerViewManager, aIconManager, annotations, markers, polygons, polylines, shapeAnnotations);
+    Marker firstMarker = new MarkerOptions().position(new LatLng()).getMarker();
+    Marker secondMarker = new MarkerOptions().position(new LatLng()).getMarker();
+    Marker removedMarker = new MarkerOptions().position(new LatLng()).getMarker();
+    firstMarker.setId(1L);
+    secondMarker.setId(2L);
+    removedMarker.setId(3L);
+    annotationsArray.put(1L, firstMarker);
+    annotationsArray.put(2L, secondMarker);
+    annotationsArray.put(3L, removedMarker);
+    MapboxMap aMapboxMap = mock(MapboxMap.class);
+
+    annotationManager.beginMarkerBatch();
+    annotationManager.updateMarker(firstMarker, aMapboxMap);
+    annotationManager.updateMarker(removedMarker, aMapboxMap);
+    annotationManager.updateMarkers(Arrays.asList(secondMarker, firstMarker), aMapboxMap);
+    annotationsArray.remove(3L);
+    verify(aNativeMapView, never()).updateMarkers(ArgumentMatchers.<Marker>anyList());
+    annotationManager.commitMarkerBatch(aMapboxMap);
+
+    verify(aNativeMapView, times(1)).updateMarkers(Arrays.asList(firstMarker, secondMarker));
+    verify(aNativeMapView, never()).updateMarker(any(Marker.class));
+  }
+
+  @Test
+  public void checksMarkerUpdatesDuringFlushAreBatched() throws Exception {
+    NativeMapView aNativeMapView = mock(NativeMapView.class);
+    MapView aMapView = mock(MapView.class);
+    LongSparseArray<Annotation> annotationsArray = new LongSparseArray<>();
+    MarkerViewManager aMarkerViewManager = mock(MarkerViewManager.class);
+    IconManager aIconManager = mock(IconManager.class);
+    Annotations annotations = new AnnotationContainer(aNativeMapView, annotationsArray);
+    Markers markers = new MarkerContainer(aNativeMapView, aMapView, annotationsArray, aIconManager, aMarkerViewManager);
+    Polygons polygons = new PolygonContainer(aNativeMapView, annotationsArray);
+    Polylines polylines = new PolylineContainer(aNativeMapView, annotationsArray);
+    ShapeAnnotations shapeAnnotations = new ShapeAnnotationContainer(aNativeMapView, annotationsArray);
+    final AnnotationManager annotationManager = new AnnotationManager(aNativeMapView, aMapView, annotationsArray,
+      aMarkerViewManager, aIconManager, annotations, markers, polygons, polylines, shapeAnnotations);
+    Marker firstMarker = new MarkerOptions().position(new LatLng()).getMarker();
+    final Marker secondMarker = new MarkerOptions().position(new LatLng()).getMarker();
+    firstMarker.setId(1L);
+    secondMarker.setId(2L);
+    annotationsArray.put(1L, firstMarker);
+    annotationsArray.put(2L, secondMarker);
+    final MapboxMap aMapboxMap = mock(MapboxMap.class);
+    // loading the icon of the first marker updates the second one
+    doAnswer(new Answer<Void>() {
+      @Override
+      public Void answer(InvocationOnMock invocation) throws Throwable {
+        annotationManager.updateMarker(secondMarker, aMapboxMap);
+        return null;
+      }
+    }).when(aIconManager).ensureIconLoaded(firstMarker, aMapboxMap);
+
+    annotationManager.beginMarkerBatch();
+    annotationManager.updateMarker(firstMarker, aMapboxMap);
+    annotationManager.commitMarkerBatch(aMapboxMap);
+
+    verify(aNativeMapView, times(1)).updateMarkers(Arrays.asList(firstMarker));
+    verify(aNativeMapView, times(1)).updateMarkers(Arrays.asList(secondMarker));
+    verify(aNativeMapView, never()).updateMarker(any(Marker.class));
+
+    annotationManager.updateMarker(firstMarker, aMapboxMap);
+    verify(aNativeMapView, times(1)).updateMarker(firstMarker);
+  }
+
+  @Test
+  public void checksTapResolvedFromMarkerIndex() throws Exception {
+    NativeMapView aNativeMapView = mock(NativeMapView.class);
+    MapView aMapView = mock(MapView.class);
+    LongSparseArray<Annotation> annotationsArray = new LongSparseArray<>();
+    MarkerViewManager aMarkerViewManager = mock(MarkerViewManager.class);
+    IconManager aIconManager = mock(IconManager.class);
+    Annotations annotations = new AnnotationContainer(aNativeMapView, annotationsArray);
+    Markers markers = new MarkerContainer(aNativeMapView, aMapView, annotationsArray, aIconManager, aMarkerViewManager);
+    Polygons polygons = new PolygonContainer(aNativeMapView, annotationsArray);
+    Polylines polylines = new PolylineContainer(aNativeMapView, annotationsArray);
+    ShapeAnnotations shapeAnnotations = new ShapeAnnotationContainer(aNativeMapView, annotationsArray);
+    AnnotationManager annotationManager = new AnnotationManager(aNativeMapView, aMapView, annotationsArray,
+      aMarkerViewManager, aIconManager, annotations, markers, polygons, polylines, shapeAnnotations);
+    Bitmap aBitmap = mock(Bitmap.class);
+    when(aBitmap.getWidth()).thenReturn(40);
+    when(aBitmap.getHeight()).thenReturn(40);
+    Icon anIcon = mock(Icon.class);
+    when(anIcon.getBitmap()).thenReturn(aBitmap);
+    when(aIconManager.getHighestIconWidth()).thenReturn(40);
+    when(aIconManager.getHighestIconHeight()).thenReturn(40);
+    when(aNativeMapView.addMarker(any(Marker.class))).thenReturn(1L, 2L);
+    // a screen of 1000 thousandths of a degree per pixel, centered on the tap at 100, 100
+    when(aNativeMapView.latLngsForPixels(any(double[].class))).thenAnswer(new Answer<double[]>() {
+      @Override
+      public double[] answer(InvocationOnMock invocation) throws Throwable {
+        double[] pixels = invocation.getArgument(0);
+        double[] latLngs = new double[pixels.length];
+        for (int i = 0; i < pixels.length; i += 2) {
+          latLngs[i] = (100 - pixels[i + 1]) / 1000;
+          latLngs[i + 1] = (pixels[i] - 100) / 1000;
+        }
+        return latLngs;
+      }
+    });
+    MapboxMap aMapboxMap = mock(MapboxMap.class);
+    MapboxMap.OnMarkerClickListener aListener = mock(MapboxMap.OnMarkerClickListener.class);
+    annotationManager.setOnMarkerClickListener(aListener);
+    annotationManager.addMarker(new MarkerOptions().position(new LatLng(0.5, 0.5)).icon(anIcon), aMapboxMap);
+    Marker nearMarker = annotationManager.addMarker(
+      new MarkerOptions().position(new LatLng(0.01, 0.01)).icon(anIcon), aMapboxMap);
+    when(aListener.onMarkerClick(nearMarker)).thenReturn(true);
+    annotationManager.setMarkerTapIndexEnabled(true);
+    PointF tapPoint = new PointF();
+    tapPoint.x = 100;
+    tapPoint.y = 100;
+
+    assertTrue(annotationManager.onTap(tapPoint));
+
+    verify(aListener).onMarkerClick(nearMarker);
+    verify(aNativeMapView, times(1)).latLngsForPixels(any(double[].class));
+    verify(aNativeMapView, never()).queryPointAnnotations(any(RectF.class));
+    verify(aNativeMapView, never()).queryShapeAnnotations(any(RectF.class));
+  }
+}
@@ -0,0 +1,61 @@
+package com.mapbox.mapboxsdk.maps;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertNotSame;
+import static junit.framework.Assert.assertSame;
+import static junit.framework.Assert.assertTrue;
+
+public class ImageConverterTest {
+
+  @Test
+  public void testPutPremultiplied() {
+    ByteBuffer pixels = ByteBuffer.allocateDirect(8);
+    int[] colors = new int[] {0xFF102030, 0x80FF8000};
+    ImageConverter.putPremultiplied(colors, colors.length, pixels);
+    pixels.flip();
+
+    assertEquals(0x10, pixels.get() & 0xFF);
+    assertEquals(0x20, pixels.get() & 0xFF);
+    assertEquals(0x30, pixels.get() & 0xFF);
+    assertEquals(0xFF, pixels.get() & 0xFF);
+
+    assertEquals(0x80, pixels.get() & 0xFF);
+    assertEquals(0x40, pixels.get() & 0xFF);
+    assertEquals(0x00, pixels.get() & 0xFF);
+    assertEquals(0x80, pixels.get() & 0xFF);
+  }
+
+  @Test
+  public void testBufferPoolReusesSmallestFittingBuffer() {
+    ImageConverter.BufferPool bufferPool = new ImageConverter.BufferPool(1024);
+    ByteBuffer large = bufferPool.acquire(512);
+    ByteBuffer small = bufferPool.acquire(128);
+    assertTrue(large.isDirect());
+    bufferPool.release(large);
+    bufferPool.release(small);
+    assertEquals(640, bufferPool.getPooledBytes());
+
+    ByteBuffer reused = bufferPool.acquire(100);
+    assertSame(small, reused);
+    assertEquals(100, reused.limit());
+    assertEquals(0, reused.position());
+    assertEquals(512, bufferPool.getPooledBytes());
+  }
+
+  @Test
+  public void testBufferPoolIsBounded() {
+    ImageConverter.BufferPool bufferPool = new ImageConverter.BufferPool(256);
+    ByteBuffer first = bufferPool.acquire(200);
+    ByteBuffer second = bufferPool.acquire(200);
+    bufferPool.release(first);
+    bufferPool.release(second);
+    assertEquals(200, bufferPool.getPooledBytes());
+
+    assertSame(first, bufferPool.acquire(200));
+    assertNotSame(second, bufferPool.acquire(200));
+  }
+}
@@ -187,6 +187,12 @@ public class MapboxMapOptionsTest {
       .myLocationBackgroundTintColor(Color.BLUE).getMyLocationBackgroundTintColor());
   }
 
+  @Test
+  public void testMaximumFps() {
+    assertEquals(0, new MapboxMapOptions().getMaximumFps());
+    assertEquals(30, new MapboxMapOptions().maximumFps(30).getMaximumFps());
+  }
+
   @Test
   public void testPrefetchesTiles() {
     // Default value
@@ -0,0 +1,119 @@
+package com.mapbox.mapboxsdk.maps;
+
+import android.support.annotation.NonNull;
+
+import com.mapbox.mapboxsdk.annotations.Marker;
+import com.mapbox.mapboxsdk.annotations.MarkerOptions;
+import com.mapbox.mapboxsdk.annotations.Polygon;
+import com.mapbox.mapboxsdk.annotations.PolygonOptions;
+import com.mapbox.mapboxsdk.geometry.LatLng;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertFalse;
+import static junit.framework.Assert.assertSame;
+import static junit.framework.Assert.assertTrue;
+
+public class MarkerIndexTest {
+
+  @Test
+  public void testQuery() {
+    MarkerIndex markerIndex = new MarkerIndex();
+    Marker inside = createMarker(1, new LatLng(1, 1));
+    Marker outside = createMarker(2, new LatLng(10, 10));
+    markerIndex.add(inside);
+    markerIndex.add(outside);
+
+    List<Marker> found = query(markerIndex, new LatLng(2, 0), new LatLng(0, 2));
+    assertEquals(1, found.size());
+    assertEquals(inside, found.get(0));
+  }
+
+  @Test
+  public void testQueryAcrossAntimeridian() {
+    MarkerIndex markerIndex = new MarkerIndex();
+    Marker east = createMarker(1, new LatLng(0, 179.5));
+    Marker west = createMarker(2, new LatLng(0, -179.5));
+    markerIndex.add(east);
+    markerIndex.add(west);
+
+    List<Marker> found = new ArrayList<>();
+    double minY = MarkerIndex.toWorldY(1);
+    double maxY = MarkerIndex.toWorldY(-1);
+    markerIndex.query(MarkerIndex.toWorldX(179) - 1, minY, MarkerIndex.toWorldX(-179), maxY, collect(found));
+    assertEquals(2, found.size());
+  }
+
+  @Test
+  public void testUpdate() {
+    MarkerIndex markerIndex = new MarkerIndex();
+    Marker marker = createMarker(1, new LatLng(1, 1));
+    markerIndex.add(marker);
+    marker.setPosition(new LatLng(40, 40));
+    markerIndex.update(marker);
+
+    assertTrue(query(markerIndex, new LatLng(2, 0), new LatLng(0, 2)).isEmpty());
+    assertEquals(1, query(markerIndex, new LatLng(41, 39), new LatLng(39, 41)).size());
+    assertEquals(1, markerIndex.size());
+  }
+
+  @Test
+  public void testUpdateWithOtherInstance() {
+    MarkerIndex markerIndex = new MarkerIndex();
+    markerIndex.add(createMarker(1, new LatLng(1, 1)));
+    Marker updated = createMarker(1, new LatLng(40, 40));
+    markerIndex.update(updated);
+
+    assertTrue(query(markerIndex, new LatLng(2, 0), new LatLng(0, 2)).isEmpty());
+    List<Marker> found = query(markerIndex, new LatLng(41, 39), new LatLng(39, 41));
+    assertEquals(1, found.size());
+    assertSame(updated, found.get(0));
+    assertEquals(1, markerIndex.size());
+
+    markerIndex.remove(createMarker(1, new LatLng(40, 40)));
+    assertEquals(0, markerIndex.size());
+  }
+
+  @Test
+  public void testRemove() {
+    MarkerIndex markerIndex = new MarkerIndex();
+    Marker marker = createMarker(1, new LatLng(1, 1));
+    Polygon polygon = new PolygonOptions().getPolygon();
+    markerIndex.add(marker);
+    markerIndex.add(polygon);
+    assertTrue(markerIndex.hasShapes());
+
+    markerIndex.remove(marker);
+    markerIndex.remove(polygon);
+
+    assertEquals(0, markerIndex.size());
+    assertFalse(markerIndex.hasShapes());
+    assertTrue(query(markerIndex, new LatLng(2, 0), new LatLng(0, 2)).isEmpty());
+  }
+
+  private static Marker createMarker(long id, LatLng position) {
+    Marker marker = new MarkerOptions().position(position).getMarker();
+    marker.setId(id);
+    return marker;
+  }
+
+  private static List<Marker> query(MarkerIndex markerIndex, LatLng northWest, LatLng southEast) {
+    List<Marker> found = new ArrayList<>();
+    markerIndex.query(MarkerIndex.toWorldX(northWest.getLongitude()), MarkerIndex.toWorldY(northWest.getLatitude()),
+      MarkerIndex.toWorldX(southEast.getLongitude()), MarkerIndex.toWorldY(southEast.getLatitude()), collect(found));
+    return found;
+  }
+
+  private static MarkerIndex.Visitor collect(final List<Marker> found) {
+    return new MarkerIndex.Visitor() {
+      @Override
+      public void visit(@NonNull Marker marker, double worldX, double worldY) {
+        found.add(marker);
+      }
+    };
+  }
+}
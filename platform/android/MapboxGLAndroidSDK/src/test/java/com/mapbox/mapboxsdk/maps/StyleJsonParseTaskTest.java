@@ -0,0 +1,40 @@
+package com.mapbox.mapboxsdk.maps;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+public class StyleJsonParseTaskTest {
+
+  private NativeMapView nativeMapView;
+  private MapboxMap.StyleJsonCallback callback;
+
+  @Before
+  public void beforeTest() {
+    nativeMapView = mock(NativeMapView.class);
+    callback = mock(MapboxMap.StyleJsonCallback.class);
+  }
+
+  @Test
+  public void testSetsParsedStyle() {
+    new NativeMapView.StyleJsonParseTask(nativeMapView, callback).onParsed(42, null);
+    verify(nativeMapView).setParsedStyleJson(42);
+    verify(nativeMapView, never()).releaseParsedStyleJson(anyLong());
+    verify(callback).onStyleJsonLoaded();
+    verify(callback, never()).onStyleJsonError(anyString());
+  }
+
+  @Test
+  public void testLeavesStyleUnchangedOnError() {
+    new NativeMapView.StyleJsonParseTask(nativeMapView, callback).onParsed(42, "parse error");
+    verify(nativeMapView, never()).setParsedStyleJson(anyLong());
+    verify(nativeMapView).releaseParsedStyleJson(42);
+    verify(callback).onStyleJsonError("parse error");
+    verify(callback, never()).onStyleJsonLoaded();
+  }
+}
@@ -0,0 +1,69 @@
+package com.mapbox.mapboxsdk.maps.renderer;
+
+import org.junit.Test;
+
+import static junit.framework.Assert.assertEquals;
+
+public class RenderStatsTest {
+
+  private static final long MILLIS = 1_000_000L;
+
+  @Test
+  public void testPercentiles() {
+    RenderStats renderStats = new RenderStats(100, 16 * MILLIS);
+    for (int i = 1; i <= 100; i++) {
+      // frames of just under 0.1 ms to 10 ms
+      renderStats.record(i * MILLIS / 10 - 1, 0, 0);
+    }
+    assertEquals(5 * MILLIS, renderStats.getFrameTimePercentile(50));
+    assertEquals(10 * MILLIS, renderStats.getFrameTimePercentile(100));
+  }
+
+  @Test
+  public void testRingBufferReplacesOldestFrames() {
+    RenderStats renderStats = new RenderStats(4, 16 * MILLIS);
+    for (int i = 1; i <= 6; i++) {
+      renderStats.record(i * MILLIS, MILLIS, i);
+    }
+    assertEquals(4, renderStats.getFrameCount());
+    assertEquals(6, renderStats.getTotalFrameCount());
+
+    long[] renderNanos = new long[4];
+    long[] swapNanos = new long[4];
+    int[] eventsDrained = new int[4];
+    assertEquals(4, renderStats.copyFrames(renderNanos, swapNanos, eventsDrained));
+    assertEquals(3 * MILLIS, renderNanos[0]);
+    assertEquals(6 * MILLIS, renderNanos[3]);
+    assertEquals(MILLIS, swapNanos[0]);
+    assertEquals(6, eventsDrained[3]);
+    // frames of 1 and 2 ms were replaced, the fastest frame kept takes 4 ms including the swap
+    assertEquals(4 * MILLIS + MILLIS / 2, renderStats.getFrameTimePercentile(0));
+  }
+
+  @Test
+  public void testCopyNewestFrames() {
+    RenderStats renderStats = new RenderStats(4, 16 * MILLIS);
+    for (int i = 1; i <= 3; i++) {
+      renderStats.record(i, 0, 0);
+    }
+    long[] renderNanos = new long[2];
+    assertEquals(2, renderStats.copyFrames(renderNanos, null, null));
+    assertEquals(2, renderNanos[0]);
+    assertEquals(3, renderNanos[1]);
+  }
+
+  @Test
+  public void testLateAndDroppedFrames() {
+    RenderStats renderStats = new RenderStats(10, 16 * MILLIS);
+    renderStats.record(10 * MILLIS, 2 * MILLIS, 0);
+    renderStats.record(20 * MILLIS, 0, 0);
+    renderStats.record(40 * MILLIS, MILLIS, 0);
+    assertEquals(2, renderStats.getLateFrameCount());
+    assertEquals(3, renderStats.getDroppedFrameCount());
+
+    renderStats.reset();
+    assertEquals(0, renderStats.getFrameCount());
+    assertEquals(0, renderStats.getLateFrameCount());
+    assertEquals(0, renderStats.getFrameTimePercentile(50));
+  }
+}
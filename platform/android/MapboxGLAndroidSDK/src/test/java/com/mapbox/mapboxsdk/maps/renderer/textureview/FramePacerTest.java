@@ -0,0 +1,99 @@
+package com.mapbox.mapboxsdk.maps.renderer.textureview;
+
+import android.support.annotation.NonNull;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static junit.framework.Assert.assertEquals;
+
+public class FramePacerTest {
+
+  private static final long VSYNC_NANOS = 16_666_667L;
+
+  private FakeVsyncSource vsyncSource;
+  private int frames;
+  private final Runnable frame = new Runnable() {
+    @Override
+    public void run() {
+      frames++;
+    }
+  };
+
+  @Before
+  public void setUp() {
+    vsyncSource = new FakeVsyncSource();
+    frames = 0;
+  }
+
+  @Test
+  public void testRequestsCoalescedPerVsync() {
+    FramePacer framePacer = new FramePacer(vsyncSource, 0, frame);
+    framePacer.requestFrame();
+    framePacer.requestFrame();
+    framePacer.requestFrame();
+    assertEquals(1, vsyncSource.callbacks.size());
+
+    vsyncSource.vsync(VSYNC_NANOS);
+    assertEquals(1, frames);
+
+    vsyncSource.vsync(2 * VSYNC_NANOS);
+    assertEquals(1, frames);
+  }
+
+  @Test
+  public void testMaximumFps() {
+    FramePacer framePacer = new FramePacer(vsyncSource, 30, frame);
+    for (int i = 1; i <= 60; i++) {
+      framePacer.requestFrame();
+      vsyncSource.vsync(i * VSYNC_NANOS);
+    }
+    assertEquals(30, frames);
+  }
+
+  @Test
+  public void testNoLimit() {
+    FramePacer framePacer = new FramePacer(vsyncSource, 0, frame);
+    for (int i = 1; i <= 60; i++) {
+      framePacer.requestFrame();
+      vsyncSource.vsync(i * VSYNC_NANOS);
+    }
+    assertEquals(60, frames);
+  }
+
+  @Test
+  public void testStop() {
+    FramePacer framePacer = new FramePacer(vsyncSource, 0, frame);
+    framePacer.requestFrame();
+    framePacer.stop();
+    framePacer.requestFrame();
+    vsyncSource.vsync(VSYNC_NANOS);
+    assertEquals(0, frames);
+  }
+
+  private static class FakeVsyncSource implements VsyncSource {
+
+    private final List<Callback> callbacks = new ArrayList<>();
+
+    @Override
+    public void postFrameCallback(@NonNull Callback callback) {
+      callbacks.add(callback);
+    }
+
+    @Override
+    public void removeFrameCallback(@NonNull Callback callback) {
+      callbacks.remove(callback);
+    }
+
+    void vsync(long frameTimeNanos) {
+      List<Callback> pending = new ArrayList<>(callbacks);
+      callbacks.clear();
+      for (Callback callback : pending) {
+        callback.onVsync(frameTimeNanos);
+      }
+    }
+  }
+}
@@ -0,0 +1,90 @@
+package com.mapbox.mapboxsdk.offline;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import static junit.framework.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class CoalescingObserverTest {
+
+  private OfflineRegion.OfflineRegionObserver observer;
+  private QueueExecutor executor;
+
+  @Before
+  public void beforeTest() {
+    observer = mock(OfflineRegion.OfflineRegionObserver.class);
+    executor = new QueueExecutor();
+  }
+
+  @Test
+  public void testKeepsLatestStatus() {
+    CoalescingObserver coalescingObserver = new CoalescingObserver(observer, executor, 0);
+    OfflineRegionStatus first = mock(OfflineRegionStatus.class);
+    OfflineRegionStatus second = mock(OfflineRegionStatus.class);
+    OfflineRegionStatus third = mock(OfflineRegionStatus.class);
+
+    coalescingObserver.onStatusChanged(first);
+    coalescingObserver.onStatusChanged(second);
+    coalescingObserver.onStatusChanged(third);
+    assertEquals(1, executor.runnables.size());
+
+    executor.runAll();
+    verify(observer, never()).onStatusChanged(first);
+    verify(observer, never()).onStatusChanged(second);
+    verify(observer, times(1)).onStatusChanged(third);
+  }
+
+  @Test
+  public void testDelaysStatusWithinInterval() {
+    CoalescingObserver coalescingObserver = new CoalescingObserver(observer, executor, 60 * 1000);
+    OfflineRegionStatus first = mock(OfflineRegionStatus.class);
+    OfflineRegionStatus second = mock(OfflineRegionStatus.class);
+
+    coalescingObserver.onStatusChanged(first);
+    executor.runAll();
+    verify(observer, times(1)).onStatusChanged(first);
+
+    coalescingObserver.onStatusChanged(second);
+    assertEquals(0, executor.runnables.size());
+  }
+
+  @Test
+  public void testForwardsErrors() {
+    CoalescingObserver coalescingObserver = new CoalescingObserver(observer, executor, 60 * 1000);
+    OfflineRegionError error = mock(OfflineRegionError.class);
+
+    coalescingObserver.onError(error);
+    coalescingObserver.onError(error);
+    coalescingObserver.mapboxTileCountLimitExceeded(6000);
+    executor.runAll();
+
+    verify(observer, times(2)).onError(error);
+    verify(observer, times(1)).mapboxTileCountLimitExceeded(6000);
+  }
+
+  private static class QueueExecutor implements Executor {
+
+    private final List<Runnable> runnables = new ArrayList<>();
+
+    @Override
+    public void execute(Runnable runnable) {
+      runnables.add(runnable);
+    }
+
+    void runAll() {
+      List<Runnable> pending = new ArrayList<>(runnables);
+      runnables.clear();
+      for (Runnable runnable : pending) {
+        runnable.run();
+      }
+    }
+  }
+}
@@ -0,0 +1,50 @@
+package com.mapbox.mapboxsdk.offline;
+
+import org.junit.Test;
+
+import static junit.framework.Assert.assertEquals;
+
+public class OfflineDownloadOptionsTest {
+
+  private static final double DELTA = 1e-6;
+
+  @Test
+  public void testDefaults() {
+    OfflineDownloadOptions options = new OfflineDownloadOptions.Builder().build();
+    assertEquals(OfflineDownloadOptions.DEFAULT_MAX_CONCURRENT_REQUESTS, options.getMaxConcurrentRequests());
+    assertEquals(OfflineDownloadOptions.DEFAULT_MAX_BYTES_PER_SECOND, options.getMaxBytesPerSecond());
+    assertEquals(OfflineDownloadOptions.DEFAULT_INITIAL_RETRY_DELAY, options.getInitialRetryDelay());
+    assertEquals(OfflineDownloadOptions.DEFAULT_RETRY_BACKOFF_FACTOR, options.getRetryBackoffFactor(), DELTA);
+    assertEquals(OfflineDownloadOptions.DEFAULT_MAX_RETRY_DELAY, options.getMaxRetryDelay());
+    assertEquals(OfflineDownloadOptions.DEFAULT_MAX_RETRIES, options.getMaxRetries());
+  }
+
+  @Test
+  public void testCopyBuilder() {
+    OfflineDownloadOptions options = new OfflineDownloadOptions.Builder()
+      .maxConcurrentRequests(8)
+      .maxBytesPerSecond(512 * 1024)
+      .retryBackoffFactor(1.5)
+      .build();
+    OfflineDownloadOptions copy = new OfflineDownloadOptions.Builder(options).maxRetries(3).build();
+    assertEquals(8, copy.getMaxConcurrentRequests());
+    assertEquals(512 * 1024, copy.getMaxBytesPerSecond());
+    assertEquals(1.5, copy.getRetryBackoffFactor(), DELTA);
+    assertEquals(3, copy.getMaxRetries());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidMaxConcurrentRequests() {
+    new OfflineDownloadOptions.Builder().maxConcurrentRequests(0);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidMaxBytesPerSecond() {
+    new OfflineDownloadOptions.Builder().maxBytesPerSecond(-1);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidRetryBackoffFactor() {
+    new OfflineDownloadOptions.Builder().retryBackoffFactor(0.5);
+  }
+}
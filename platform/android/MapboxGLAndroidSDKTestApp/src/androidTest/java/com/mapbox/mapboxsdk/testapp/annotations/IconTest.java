@@ -62,6 +62,21 @@ public class IconTest extends BaseActivityTest {
     assertTrue(iconMap.get(icon) == 1);
   }
 
+  @Test
+  public void testAddIdenticalIconMarker() throws Exception {
+    IconFactory iconFactory = IconFactory.getInstance(rule.getActivity());
+    Icon icon = iconFactory.fromResource(R.drawable.mapbox_logo_icon);
+    Icon identicalIcon = iconFactory.fromResource(R.drawable.mapbox_logo_icon);
+    getMapboxMap().addMarker(new MarkerOptions().icon(icon).position(new LatLng()));
+    Marker marker = getMapboxMap().addMarker(new MarkerOptions().icon(identicalIcon).position(new LatLng(1, 1)));
+    assertEquals(1, iconMap.size());
+    assertEquals(2, iconMap.get(icon), 0);
+    assertEquals(icon, marker.getIcon());
+
+    getMapboxMap().removeMarker(marker);
+    assertEquals(1, iconMap.get(icon), 0);
+  }
+
   @Test
   public void testAddRemoveIconMarker() throws Exception {
     MapboxMap mapboxMap = getMapboxMap();
@@ -0,0 +1,77 @@
+package com.mapbox.mapboxsdk.testapp.annotations;
+
+import android.support.test.espresso.UiController;
+
+import com.mapbox.mapboxsdk.annotations.MarkerViewManager;
+import com.mapbox.mapboxsdk.annotations.MarkerViewOptions;
+import com.mapbox.mapboxsdk.camera.CameraUpdateFactory;
+import com.mapbox.mapboxsdk.geometry.LatLng;
+import com.mapbox.mapboxsdk.maps.MapboxMap;
+import com.mapbox.mapboxsdk.testapp.action.MapboxMapAction;
+import com.mapbox.mapboxsdk.testapp.activity.BaseActivityTest;
+import com.mapbox.mapboxsdk.testapp.activity.espresso.EspressoTestActivity;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import timber.log.Timber;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Measures the per frame cost of invalidating MarkerViews while panning, with 5000 MarkerViews added.
+ * <p>
+ * Results are logged, compare them before and after a change to the annotation queries.
+ * </p>
+ */
+public class MarkerViewBenchmarkTest extends BaseActivityTest {
+
+  private static final int MARKER_COUNT = 5000;
+  private static final int FRAME_COUNT = 120;
+
+  @Override
+  protected Class getActivityClass() {
+    return EspressoTestActivity.class;
+  }
+
+  @Test
+  public void panWithMarkerViews() {
+    validateTestSetup();
+    MapboxMapAction.invoke(mapboxMap, new MapboxMapAction.OnInvokeActionListener() {
+      @Override
+      public void onInvokeAction(UiController uiController, MapboxMap mapboxMap) {
+        Random random = new Random(0);
+        List<MarkerViewOptions> markerViewOptions = new ArrayList<>(MARKER_COUNT);
+        for (int i = 0; i < MARKER_COUNT; i++) {
+          markerViewOptions.add(new MarkerViewOptions()
+            .position(new LatLng(random.nextDouble() * 2 - 1, random.nextDouble() * 2 - 1)));
+        }
+        mapboxMap.addMarkerViews(markerViewOptions);
+        assertEquals(MARKER_COUNT, mapboxMap.getMarkers().size());
+
+        mapboxMap.moveCamera(CameraUpdateFactory.newLatLngZoom(new LatLng(), 8));
+        uiController.loopMainThreadForAtLeast(500);
+
+        MarkerViewManager markerViewManager = mapboxMap.getMarkerViewManager();
+        long totalNanos = 0;
+        long worstNanos = 0;
+        for (int frame = 0; frame < FRAME_COUNT; frame++) {
+          mapboxMap.moveCamera(CameraUpdateFactory.scrollBy(4, 2));
+          long start = System.nanoTime();
+          markerViewManager.invalidateViewMarkersInVisibleRegion();
+          markerViewManager.updateMarkerViewsPosition();
+          long elapsed = System.nanoTime() - start;
+          totalNanos += elapsed;
+          worstNanos = Math.max(worstNanos, elapsed);
+          uiController.loopMainThreadUntilIdle();
+        }
+
+        Timber.i("MarkerView benchmark: %d markers, %d frames, average %.2f ms, worst %.2f ms per frame",
+          MARKER_COUNT, FRAME_COUNT, totalNanos / 1e6 / FRAME_COUNT, worstNanos / 1e6);
+      }
+    });
+  }
+}
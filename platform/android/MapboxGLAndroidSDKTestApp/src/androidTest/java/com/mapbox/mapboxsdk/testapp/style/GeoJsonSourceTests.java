@@ -1,13 +1,17 @@
 package com.mapbox.mapboxsdk.testapp.style;
 
+import android.graphics.RectF;
 import android.support.annotation.RawRes;
 import android.support.test.espresso.UiController;
 import android.support.test.espresso.ViewAction;
 import android.support.test.runner.AndroidJUnit4;
 import android.view.View;
 
+import com.mapbox.mapboxsdk.camera.CameraUpdateFactory;
+import com.mapbox.mapboxsdk.geometry.LatLng;
 import com.mapbox.mapboxsdk.style.layers.CircleLayer;
 import com.mapbox.mapboxsdk.style.layers.Layer;
+import com.mapbox.mapboxsdk.style.sources.GeoJsonOptions;
 import com.mapbox.mapboxsdk.style.sources.GeoJsonSource;
 import com.mapbox.mapboxsdk.testapp.R;
 import com.mapbox.mapboxsdk.testapp.activity.BaseActivityTest;
@@ -22,12 +26,19 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 
 import timber.log.Timber;
 
 import static android.support.test.espresso.Espresso.onView;
 import static android.support.test.espresso.matcher.ViewMatchers.isDisplayed;
 import static android.support.test.espresso.matcher.ViewMatchers.withId;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 
 /**
  * Tests for {@link GeoJsonSource}
@@ -98,6 +109,188 @@ public class GeoJsonSourceTests extends BaseActivityTest {
     });
   }
 
+  @Test
+  public void testIncrementalUpdates() {
+    validateTestSetup();
+    onView(withId(R.id.mapView)).perform(new BaseViewAction() {
+
+      @Override
+      public void perform(UiController uiController, View view) {
+        GeoJsonSource source = new GeoJsonSource("source", FeatureCollection.fromFeatures(new Feature[] {
+          createPoint("a", 30d, 30d), createPoint("b", 40d, 40d)
+        }), new GeoJsonOptions().withIncrementalUpdates(true));
+        mapboxMap.addSource(source);
+        mapboxMap.addLayer(new CircleLayer("layer", source.getId()));
+        mapboxMap.moveCamera(CameraUpdateFactory.newLatLngZoom(new LatLng(40, 40), 2));
+        uiController.loopMainThreadUntilIdle();
+
+        source.addFeatures(FeatureCollection.fromFeatures(new Feature[] {createPoint("c", 50d, 50d)}));
+        source.updateFeatures(FeatureCollection.fromFeatures(new Feature[] {createPoint("a", 31d, 31d)}));
+        source.removeFeatures("b", "unknown");
+        uiController.loopMainThreadUntilIdle();
+
+        List<String> ids = new ArrayList<>();
+        for (Feature feature : queryRenderedFeatures(view)) {
+          ids.add(feature.getId());
+        }
+        Collections.sort(ids);
+        assertEquals(Arrays.asList("a", "c"), ids);
+      }
+    });
+  }
+
+  @Test
+  public void testRemoveFeaturesWithNumericIds() {
+    validateTestSetup();
+    onView(withId(R.id.mapView)).perform(new BaseViewAction() {
+
+      @Override
+      public void perform(UiController uiController, View view) {
+        GeoJsonSource source = new GeoJsonSource("source", "{\"type\":\"FeatureCollection\",\"features\":["
+          + "{\"type\":\"Feature\",\"id\":1,\"properties\":{},"
+          + "\"geometry\":{\"type\":\"Point\",\"coordinates\":[30,30]}},"
+          + "{\"type\":\"Feature\",\"id\":2,\"properties\":{},"
+          + "\"geometry\":{\"type\":\"Point\",\"coordinates\":[40,40]}}"
+          + "]}", new GeoJsonOptions().withIncrementalUpdates(true));
+        mapboxMap.addSource(source);
+        mapboxMap.addLayer(new CircleLayer("layer", source.getId()));
+        mapboxMap.moveCamera(CameraUpdateFactory.newLatLngZoom(new LatLng(40, 40), 2));
+        uiController.loopMainThreadUntilIdle();
+        assertEquals(2, queryRenderedFeatures(view).size());
+
+        source.removeFeatures(1, 3L);
+        uiController.loopMainThreadUntilIdle();
+        assertEquals(1, queryRenderedFeatures(view).size());
+      }
+    });
+  }
+
+  private List<Feature> queryRenderedFeatures(View view) {
+    return mapboxMap.queryRenderedFeatures(new RectF(0, 0, view.getWidth(), view.getHeight()), "layer");
+  }
+
+  @Test
+  public void testGeobuf() {
+    validateTestSetup();
+    final String[] error = new String[1];
+    final int[] loaded = new int[1];
+    onView(withId(R.id.mapView)).perform(new BaseViewAction() {
+
+      @Override
+      public void perform(UiController uiController, View view) {
+        GeoJsonSource source = new GeoJsonSource("source");
+        mapboxMap.addSource(source);
+        mapboxMap.addLayer(new CircleLayer("layer", source.getId()));
+
+        GeoJsonSource.OnSourceDataLoaded callback = new GeoJsonSource.OnSourceDataLoaded() {
+          @Override
+          public void onSourceDataLoaded() {
+            loaded[0]++;
+          }
+
+          @Override
+          public void onSourceDataError(String message) {
+            error[0] = message;
+          }
+        };
+
+        // Feature collection of a point and a polygon feature
+        byte[] geobuf = new byte[] {
+          10, 4, 110, 97, 109, 101, 34, 48, 10, 24, 10, 10, 26, 8, -64, -115, -73, 1, -97, -44,
+          -110, 2, 90, 1, 97, 106, 3, 10, 1, 120, 114, 2, 0, 0, 10, 20, 10, 16, 8, 4,
+          26, 12, 0, 0, -128, -119, 122, 0, -1, -120, 122, -128, -119, 122, 96, 9
+        };
+        source.setGeobufAsync(ByteBuffer.wrap(geobuf), callback);
+        uiController.loopMainThreadUntilIdle();
+        ByteBuffer direct = ByteBuffer.allocateDirect(geobuf.length);
+        direct.put(geobuf).flip();
+        source.setGeobufAsync(direct, callback);
+        uiController.loopMainThreadUntilIdle();
+      }
+    });
+    assertNull(error[0]);
+    assertEquals(2, loaded[0]);
+  }
+
+  @Test
+  public void testSetGeoJsonAsyncSupersedes() {
+    validateTestSetup();
+    final String[] loaded = new String[1];
+    onView(withId(R.id.mapView)).perform(new BaseViewAction() {
+
+      @Override
+      public void perform(UiController uiController, View view) {
+        GeoJsonSource source = new GeoJsonSource("source");
+        mapboxMap.addSource(source);
+        mapboxMap.addLayer(new CircleLayer("layer", source.getId()));
+
+        source.setGeoJsonAsync(FeatureCollection.fromFeatures(new Feature[] {createPoint("a", 0d, 0d)}),
+          new LoadedCallback(loaded, "first"));
+        source.setGeoJsonAsync(FeatureCollection.fromFeatures(new Feature[] {createPoint("b", 1d, 1d)}),
+          new LoadedCallback(loaded, "second"));
+        uiController.loopMainThreadUntilIdle();
+      }
+    });
+    assertEquals("second", loaded[0]);
+  }
+
+  @Test
+  public void testFeatureChangesQueuedBehindSetGeoJsonAsync() {
+    validateTestSetup();
+    final String[] loaded = new String[1];
+    onView(withId(R.id.mapView)).perform(new BaseViewAction() {
+
+      @Override
+      public void perform(UiController uiController, View view) {
+        GeoJsonSource source = new GeoJsonSource("source", new GeoJsonOptions().withIncrementalUpdates(true));
+        mapboxMap.addSource(source);
+        mapboxMap.addLayer(new CircleLayer("layer", source.getId()));
+        mapboxMap.moveCamera(CameraUpdateFactory.newLatLngZoom(new LatLng(40, 40), 2));
+
+        source.setGeoJsonAsync(FeatureCollection.fromFeatures(new Feature[] {
+          createPoint("a", 30d, 30d), createPoint("b", 40d, 40d)
+        }), new LoadedCallback(loaded, "data"));
+        source.addFeatures(FeatureCollection.fromFeatures(new Feature[] {createPoint("c", 50d, 50d)}));
+        source.removeFeatures("b");
+        uiController.loopMainThreadUntilIdle();
+
+        List<String> ids = new ArrayList<>();
+        for (Feature feature : queryRenderedFeatures(view)) {
+          ids.add(feature.getId());
+        }
+        Collections.sort(ids);
+        assertEquals(Arrays.asList("a", "c"), ids);
+      }
+    });
+    assertEquals("data", loaded[0]);
+  }
+
+  private static class LoadedCallback implements GeoJsonSource.OnSourceDataLoaded {
+
+    private final String[] loaded;
+    private final String name;
+
+    LoadedCallback(String[] loaded, String name) {
+      this.loaded = loaded;
+      this.name = name;
+    }
+
+    @Override
+    public void onSourceDataLoaded() {
+      assertNull(loaded[0]);
+      loaded[0] = name;
+    }
+
+    @Override
+    public void onSourceDataError(String message) {
+      throw new AssertionError(message);
+    }
+  }
+
+  private static Feature createPoint(String id, double longitude, double latitude) {
+    return Feature.fromGeometry(Point.fromCoordinates(new double[] {longitude, latitude}), null, id);
+  }
+
   @Test
   public void testPointFeature() {
     testFeatureFromResource(R.raw.test_point_feature);
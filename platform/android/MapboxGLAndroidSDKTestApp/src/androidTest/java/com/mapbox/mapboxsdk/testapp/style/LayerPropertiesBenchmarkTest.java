@@ -0,0 +1,124 @@
+package com.mapbox.mapboxsdk.testapp.style;
+
+import android.graphics.Color;
+import android.support.test.espresso.UiController;
+
+import com.mapbox.mapboxsdk.maps.MapboxMap;
+import com.mapbox.mapboxsdk.style.layers.CircleLayer;
+import com.mapbox.mapboxsdk.style.layers.Layer;
+import com.mapbox.mapboxsdk.style.layers.Property;
+import com.mapbox.mapboxsdk.style.layers.PropertyValue;
+import com.mapbox.mapboxsdk.style.sources.GeoJsonSource;
+import com.mapbox.mapboxsdk.testapp.action.MapboxMapAction;
+import com.mapbox.mapboxsdk.testapp.activity.BaseActivityTest;
+import com.mapbox.mapboxsdk.testapp.activity.espresso.EspressoTestActivity;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import timber.log.Timber;
+
+import static com.mapbox.mapboxsdk.style.functions.Function.zoom;
+import static com.mapbox.mapboxsdk.style.functions.stops.Stop.stop;
+import static com.mapbox.mapboxsdk.style.functions.stops.Stops.exponential;
+import static com.mapbox.mapboxsdk.style.layers.PropertyFactory.circleBlur;
+import static com.mapbox.mapboxsdk.style.layers.PropertyFactory.circleColor;
+import static com.mapbox.mapboxsdk.style.layers.PropertyFactory.circleOpacity;
+import static com.mapbox.mapboxsdk.style.layers.PropertyFactory.circlePitchScale;
+import static com.mapbox.mapboxsdk.style.layers.PropertyFactory.circleRadius;
+import static com.mapbox.mapboxsdk.style.layers.PropertyFactory.circleStrokeColor;
+import static com.mapbox.mapboxsdk.style.layers.PropertyFactory.circleStrokeOpacity;
+import static com.mapbox.mapboxsdk.style.layers.PropertyFactory.circleStrokeWidth;
+import static com.mapbox.mapboxsdk.style.layers.PropertyFactory.circleTranslate;
+import static com.mapbox.mapboxsdk.style.layers.PropertyFactory.circleTranslateAnchor;
+
+/**
+ * Measures restyling 50 layers with 10 properties each, setting the properties of a layer in a single batch against
+ * setting them one at a time.
+ * <p>
+ * Results are logged, compare them before and after a change to the property conversion.
+ * </p>
+ */
+public class LayerPropertiesBenchmarkTest extends BaseActivityTest {
+
+  private static final int LAYER_COUNT = 50;
+  private static final int WARMUP_ITERATIONS = 5;
+  private static final int ITERATIONS = 20;
+
+  @Override
+  protected Class getActivityClass() {
+    return EspressoTestActivity.class;
+  }
+
+  @Test
+  public void setProperties() {
+    validateTestSetup();
+    MapboxMapAction.invoke(mapboxMap, new MapboxMapAction.OnInvokeActionListener() {
+      @Override
+      public void onInvokeAction(UiController uiController, MapboxMap mapboxMap) {
+        mapboxMap.addSource(new GeoJsonSource("benchmark-source"));
+        List<Layer> layers = new ArrayList<>(LAYER_COUNT);
+        for (int i = 0; i < LAYER_COUNT; i++) {
+          Layer layer = new CircleLayer("benchmark-layer-" + i, "benchmark-source");
+          mapboxMap.addLayer(layer);
+          layers.add(layer);
+        }
+
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+          setBatched(layers, i);
+          setOneByOne(layers, i);
+          uiController.loopMainThreadUntilIdle();
+        }
+
+        long batchedNanos = 0;
+        long oneByOneNanos = 0;
+        for (int i = 0; i < ITERATIONS; i++) {
+          long start = System.nanoTime();
+          setBatched(layers, i);
+          batchedNanos += System.nanoTime() - start;
+          uiController.loopMainThreadUntilIdle();
+
+          start = System.nanoTime();
+          setOneByOne(layers, i);
+          oneByOneNanos += System.nanoTime() - start;
+          uiController.loopMainThreadUntilIdle();
+        }
+
+        Timber.i("Layer properties benchmark: %d layers, average %.2f ms batched, %.2f ms one by one",
+          LAYER_COUNT, batchedNanos / 1e6 / ITERATIONS, oneByOneNanos / 1e6 / ITERATIONS);
+      }
+    });
+  }
+
+  private static void setBatched(List<Layer> layers, int iteration) {
+    for (Layer layer : layers) {
+      layer.setProperties(createProperties(iteration));
+    }
+  }
+
+  private static void setOneByOne(List<Layer> layers, int iteration) {
+    for (Layer layer : layers) {
+      for (PropertyValue<?> property : createProperties(iteration)) {
+        layer.setProperties(property);
+      }
+    }
+  }
+
+  private static PropertyValue<?>[] createProperties(int iteration) {
+    float offset = iteration % 2;
+    return new PropertyValue<?>[] {
+      circleRadius(zoom(exponential(stop(0, circleRadius(2f + offset)), stop(18, circleRadius(20f))))),
+      circleColor(iteration % 2 == 0 ? Color.RED : Color.BLUE),
+      circleBlur(0.1f + offset),
+      circleOpacity(0.9f),
+      circleTranslate(new Float[] {offset, offset}),
+      circleTranslateAnchor(Property.CIRCLE_TRANSLATE_ANCHOR_MAP),
+      circlePitchScale(Property.CIRCLE_PITCH_SCALE_MAP),
+      circleStrokeWidth(1f + offset),
+      circleStrokeColor(Color.WHITE),
+      circleStrokeOpacity(0.5f)
+    };
+  }
+}
@@ -10,12 +10,16 @@ import android.view.View;
 
 import com.mapbox.mapboxsdk.maps.MapboxMap;
 import com.mapbox.mapboxsdk.style.layers.CannotAddLayerException;
+import com.mapbox.mapboxsdk.style.functions.CameraFunction;
 import com.mapbox.mapboxsdk.style.layers.CircleLayer;
+import com.mapbox.mapboxsdk.style.layers.CompiledFilter;
 import com.mapbox.mapboxsdk.style.layers.FillLayer;
+import com.mapbox.mapboxsdk.style.layers.Filter;
 import com.mapbox.mapboxsdk.style.layers.Layer;
 import com.mapbox.mapboxsdk.style.layers.LineLayer;
 import com.mapbox.mapboxsdk.style.layers.Property;
 import com.mapbox.mapboxsdk.style.layers.PropertyFactory;
+import com.mapbox.mapboxsdk.style.layers.PropertyValue;
 import com.mapbox.mapboxsdk.style.sources.CannotAddSourceException;
 import com.mapbox.mapboxsdk.style.sources.GeoJsonSource;
 import com.mapbox.mapboxsdk.style.sources.RasterSource;
@@ -42,6 +46,9 @@ import timber.log.Timber;
 import static android.support.test.espresso.Espresso.onView;
 import static android.support.test.espresso.matcher.ViewMatchers.isDisplayed;
 import static android.support.test.espresso.matcher.ViewMatchers.withId;
+import static com.mapbox.mapboxsdk.style.functions.Function.zoom;
+import static com.mapbox.mapboxsdk.style.functions.stops.Stop.stop;
+import static com.mapbox.mapboxsdk.style.functions.stops.Stops.exponential;
 import static com.mapbox.mapboxsdk.testapp.action.MapboxMapAction.invoke;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
@@ -294,6 +301,42 @@ public class RuntimeStyleTests extends BaseActivityTest {
     });
   }
 
+  @Test
+  public void testCompiledPropertyAndFilter() {
+    validateTestSetup();
+    invoke(mapboxMap, new MapboxMapAction.OnInvokeActionListener() {
+      @Override
+      public void onInvokeAction(UiController uiController, MapboxMap mapboxMap) {
+        mapboxMap.addSource(new GeoJsonSource("compiled-source"));
+        CircleLayer first = new CircleLayer("compiled-first", "compiled-source");
+        CircleLayer second = new CircleLayer("compiled-second", "compiled-source");
+        mapboxMap.addLayer(first);
+        mapboxMap.addLayer(second);
+
+        PropertyValue<?> radius = PropertyFactory.circleRadius(
+          zoom(exponential(stop(0, PropertyFactory.circleRadius(2f)), stop(18, PropertyFactory.circleRadius(20f))))
+        ).compile();
+        PropertyValue<?> color = PropertyFactory.circleColor(Color.RED).compile();
+        first.setProperties(radius, color);
+        second.setProperties(radius, color);
+        assertEquals(CameraFunction.class, first.getCircleRadius().getFunction().getClass());
+        assertEquals(Color.RED, (int) second.getCircleColorAsInt());
+
+        CompiledFilter filter = Filter.eq("type", "compiled").compile();
+        first.setFilter(filter);
+        second.setFilter(filter);
+        assertNotNull(mapboxMap.queryRenderedFeatures(new PointF(0, 0), filter, "compiled-first"));
+
+        try {
+          Filter.eq("type", new Object()).compile();
+          fail("Should not have been allowed to compile an invalid filter");
+        } catch (IllegalArgumentException illegalArgumentException) {
+          // OK
+        }
+      }
+    });
+  }
+
   /**
    * https://github.com/mapbox/mapbox-gl-native/issues/7973
    */
@@ -204,6 +204,10 @@ add_library(mbgl-android STATIC
     platform/android/src/style/position.hpp
     platform/android/src/style/light.cpp
     platform/android/src/style/light.hpp
+    platform/android/src/style/compiled_filter.cpp
+    platform/android/src/style/compiled_filter.hpp
+    platform/android/src/style/compiled_value.cpp
+    platform/android/src/style/compiled_value.hpp
 
     # FileSource holder
     platform/android/src/file_source.cpp
@@ -290,6 +294,8 @@ add_library(mbgl-android STATIC
     platform/android/src/offline/offline_region_definition.hpp
     platform/android/src/offline/offline_region_error.cpp
     platform/android/src/offline/offline_region_error.hpp
+    platform/android/src/offline/offline_region_estimate.cpp
+    platform/android/src/offline/offline_region_estimate.hpp
     platform/android/src/offline/offline_region_status.cpp
     platform/android/src/offline/offline_region_status.hpp
 
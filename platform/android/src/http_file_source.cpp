@@ -10,9 +10,19 @@
 
 #include <jni/jni.hpp>
 #include "attach_env.hpp"
+#include "java/nio.hpp"
+
+#include <atomic>
 
 namespace mbgl {
 
+namespace {
+
+// Follows the maximum amount of requests of the HttpClientConfig, pushed from Java when it changes
+std::atomic<uint32_t> maxConcurrentRequests { 20 };
+
+} // namespace
+
 class HTTPFileSource::Impl {
 public:
     android::UniqueEnv env { android::AttachEnv() };
@@ -30,7 +40,9 @@ public:
                     jni::String etag, jni::String modified,
                     jni::String cacheControl, jni::String expires,
                     jni::String retryAfter, jni::String xRateLimitReset,
-                    jni::Array<jni::jbyte> body);
+                    jni::Object<android::java::nio::ByteBuffer> body, jni::jint length);
+
+    static void setMaxRequests(jni::JNIEnv&, jni::Class<HTTPRequest>, jni::jint maxRequests);
 
     static jni::Class<HTTPRequest> javaClass;
     jni::UniqueObject<HTTPRequest> javaRequest;
@@ -64,6 +76,12 @@ void RegisterNativeHTTPRequest(jni::JNIEnv& env) {
     jni::RegisterNativePeer<HTTPRequest>(env, HTTPRequest::javaClass, "mNativePtr",
         METHOD(&HTTPRequest::onFailure, "nativeOnFailure"),
         METHOD(&HTTPRequest::onResponse, "nativeOnResponse"));
+
+    #define STATIC_METHOD(MethodPtr, name) jni::MakeNativeMethod<decltype(MethodPtr), (MethodPtr)>(name)
+
+    // The configuration can change before any request is made
+    jni::RegisterNatives(env, HTTPRequest::javaClass,
+        STATIC_METHOD(&HTTPRequest::setMaxRequests, "nativeSetMaxRequests"));
 }
 
 } // namespace android
@@ -83,13 +101,16 @@ HTTPRequest::HTTPRequest(jni::JNIEnv& env, const Resource& resource_, FileSource
     jni::UniqueLocalFrame frame = jni::PushLocalFrame(env, 10);
 
     static auto constructor =
-        javaClass.GetConstructor<jni::jlong, jni::String, jni::String, jni::String>(env);
+        javaClass.GetConstructor<jni::jlong, jni::String, jni::String, jni::String, jni::jint, jni::jboolean, jni::jint>(env);
 
     javaRequest = javaClass.New(env, constructor,
         reinterpret_cast<jlong>(this),
         jni::Make<jni::String>(env, resource.url),
         jni::Make<jni::String>(env, etagStr),
-        jni::Make<jni::String>(env, modifiedStr)).NewGlobalRef(env);
+        jni::Make<jni::String>(env, modifiedStr),
+        jni::jint(resource.kind),
+        jni::jboolean(resource.priority == Resource::Priority::Low),
+        jni::jint(resource.tileData ? resource.tileData->z : -1)).NewGlobalRef(env);
 }
 
 HTTPRequest::~HTTPRequest() {
@@ -104,7 +125,7 @@ void HTTPRequest::onResponse(jni::JNIEnv& env, int code,
                              jni::String etag, jni::String modified,
                              jni::String cacheControl, jni::String expires,
                              jni::String jRetryAfter, jni::String jXRateLimitReset,
-                             jni::Array<jni::jbyte> body) {
+                             jni::Object<android::java::nio::ByteBuffer> body, jni::jint length) {
 
     using Error = Response::Error;
 
@@ -128,9 +149,9 @@ void HTTPRequest::onResponse(jni::JNIEnv& env, int code,
 
     if (code == 200) {
         if (body) {
-            auto data = std::make_shared<std::string>(body.Length(env), char());
-            jni::GetArrayRegion(env, *body, 0, data->size(), reinterpret_cast<jbyte*>(&(*data)[0]));
-            response.data = data;
+            // The body is held in a direct buffer, read it in place without an intermediate Java array.
+            auto address = reinterpret_cast<const char*>(jni::GetDirectBufferAddress(env, *body));
+            response.data = std::make_shared<std::string>(address, length);
         } else {
             response.data = std::make_shared<std::string>();
         }
@@ -178,6 +199,10 @@ void HTTPRequest::onFailure(jni::JNIEnv& env, int type, jni::String message) {
     async.send();
 }
 
+void HTTPRequest::setMaxRequests(jni::JNIEnv&, jni::Class<HTTPRequest>, jni::jint maxRequests) {
+    maxConcurrentRequests = maxRequests;
+}
+
 HTTPFileSource::HTTPFileSource()
     : impl(std::make_unique<Impl>()) {
 }
@@ -189,7 +214,7 @@ std::unique_ptr<AsyncRequest> HTTPFileSource::request(const Resource& resource,
 }
 
 uint32_t HTTPFileSource::maximumConcurrentRequests() {
-    return 20;
+    return maxConcurrentRequests;
 }
 
 } // namespace mbgl
@@ -0,0 +1,16 @@
+#pragma once
+
+namespace mbgl {
+namespace android {
+namespace java {
+namespace nio {
+
+class ByteBuffer {
+public:
+    static constexpr auto Name() { return "java/nio/ByteBuffer"; };
+};
+
+} // namespace nio
+} // namespace java
+} // namespace android
+} // namespace mbgl
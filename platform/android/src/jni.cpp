@@ -39,6 +39,7 @@
 #include "offline/offline_region.hpp"
 #include "offline/offline_region_definition.hpp"
 #include "offline/offline_region_error.hpp"
+#include "offline/offline_region_estimate.hpp"
 #include "offline/offline_region_status.hpp"
 #include "style/transition_options.hpp"
 #include "style/functions/categorical_stops.hpp"
@@ -49,6 +50,8 @@
 #include "style/layers/layers.hpp"
 #include "style/sources/sources.hpp"
 #include "style/light.hpp"
+#include "style/compiled_filter.hpp"
+#include "style/compiled_value.hpp"
 #include "snapshotter/map_snapshotter.hpp"
 #include "snapshotter/map_snapshot.hpp"
 
@@ -163,6 +166,8 @@ void registerNatives(JavaVM *vm) {
     registerNativeLayers(env);
     registerNativeSources(env);
     Light::registerNative(env);
+    CompiledFilter::registerNative(env);
+    CompiledValue::registerNative(env);
     Position::registerNative(env);
     Stop::registerNative(env);
     CategoricalStops::registerNative(env);
@@ -182,7 +187,9 @@ void registerNatives(JavaVM *vm) {
     OfflineRegion::registerNative(env);
     OfflineRegionDefinition::registerNative(env);
     OfflineTilePyramidRegionDefinition::registerNative(env);
+    OfflineGeometryRegionDefinition::registerNative(env);
     OfflineRegionError::registerNative(env);
+    OfflineRegionEstimate::registerNative(env);
     OfflineRegionStatus::registerNative(env);
 
     // Snapshotter
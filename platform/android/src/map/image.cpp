@@ -1,6 +1,9 @@
 #include <mbgl/style/image.hpp>
 #include <mbgl/util/exception.hpp>
 #include "image.hpp"
+#include "../java/nio.hpp"
+
+#include <cstring>
 
 namespace mbgl {
 namespace android {
@@ -9,7 +12,7 @@ mbgl::style::Image Image::getImage(jni::JNIEnv& env, jni::Object<Image> image) {
     static auto widthField = Image::javaClass.GetField<jni::jint>(env, "width");
     static auto heightField = Image::javaClass.GetField<jni::jint>(env, "height");
     static auto pixelRatioField = Image::javaClass.GetField<jni::jfloat>(env, "pixelRatio");
-    static auto bufferField = Image::javaClass.GetField<jni::Array<jbyte>>(env, "buffer");
+    static auto bufferField = Image::javaClass.GetField<jni::Object<java::nio::ByteBuffer>>(env, "buffer");
     static auto nameField = Image::javaClass.GetField<jni::String>(env, "name");
 
     auto height = image.Get(env, heightField);
@@ -19,14 +22,15 @@ mbgl::style::Image Image::getImage(jni::JNIEnv& env, jni::Object<Image> image) {
     auto name = jni::Make<std::string>(env, image.Get(env, nameField));
 
     jni::NullCheck(env, &pixels);
-    std::size_t size = pixels.Length(env);
+    // The direct buffer is pooled, it can be larger than the image
+    std::size_t capacity = jni::GetDirectBufferCapacity(env, *pixels);
 
     mbgl::PremultipliedImage premultipliedImage({ static_cast<uint32_t>(width), static_cast<uint32_t>(height) });
-    if (premultipliedImage.bytes() != uint32_t(size)) {
+    if (premultipliedImage.bytes() > capacity) {
         throw mbgl::util::SpriteImageException("Sprite image pixel count mismatch");
     }
 
-    jni::GetArrayRegion(env, *pixels, 0, size, reinterpret_cast<jbyte*>(premultipliedImage.data.get()));
+    std::memcpy(premultipliedImage.data.get(), jni::GetDirectBufferAddress(env, *pixels), premultipliedImage.bytes());
 
     return mbgl::style::Image {name, std::move(premultipliedImage), pixelRatio};
 }
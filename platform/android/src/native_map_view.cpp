@@ -1,6 +1,7 @@
 #include "native_map_view.hpp"
 
 #include <cstdlib>
+#include <cstring>
 #include <ctime>
 #include <cassert>
 #include <memory>
@@ -23,6 +24,7 @@
 #include <mbgl/util/logging.hpp>
 #include <mbgl/util/platform.hpp>
 #include <mbgl/util/projection.hpp>
+#include <mbgl/util/string.hpp>
 #include <mbgl/style/style.hpp>
 #include <mbgl/style/image.hpp>
 #include <mbgl/style/filter.hpp>
@@ -37,6 +39,7 @@
 #include "conversion/conversion.hpp"
 #include "conversion/collection.hpp"
 #include "style/conversion/filter.hpp"
+#include "style/compiled_filter.hpp"
 #include "geojson/conversion/feature.hpp"
 
 #include "jni.hpp"
@@ -195,6 +198,30 @@ void NativeMapView::setStyleJson(jni::JNIEnv& env, jni::String json) {
     map->getStyle().loadJSON(jni::Make<std::string>(env, json));
 }
 
+void NativeMapView::setParsedStyleJson(jni::JNIEnv&, jni::jlong parsedPtr) {
+    // Takes ownership of the style parsed by parseStyleJson
+    map->getStyle().loadJSON(std::unique_ptr<mbgl::style::Style::Parsed>(
+        reinterpret_cast<mbgl::style::Style::Parsed*>(parsedPtr)));
+}
+
+jni::jlong NativeMapView::parseStyleJson(jni::JNIEnv& env, jni::Class<NativeMapView>, jni::String json) {
+    // Called on a worker thread, parsing does not touch the map
+    auto parsed = mbgl::style::Style::parseJSON(jni::Make<std::string>(env, json));
+    return reinterpret_cast<jni::jlong>(parsed.release());
+}
+
+jni::String NativeMapView::getParsedStyleJsonError(jni::JNIEnv& env, jni::Class<NativeMapView>, jni::jlong parsedPtr) {
+    auto error = reinterpret_cast<mbgl::style::Style::Parsed*>(parsedPtr)->getError();
+    if (!error) {
+        return jni::String();
+    }
+    return jni::Make<jni::String>(env, mbgl::util::toString(error));
+}
+
+void NativeMapView::releaseParsedStyleJson(jni::JNIEnv&, jni::Class<NativeMapView>, jni::jlong parsedPtr) {
+    delete reinterpret_cast<mbgl::style::Style::Parsed*>(parsedPtr);
+}
+
 void NativeMapView::setLatLngBounds(jni::JNIEnv& env, jni::Object<mbgl::android::LatLngBounds> jBounds) {
     if (jBounds) {
         map->setLatLngBounds(mbgl::android::LatLngBounds::getLatLngBounds(env, jBounds));
@@ -426,21 +453,57 @@ void NativeMapView::updateMarker(jni::JNIEnv& env, jni::jlong markerId, jni::jdo
     map->updateAnnotation(markerId, mbgl::SymbolAnnotation { mbgl::Point<double>(lon, lat), iconId });
 }
 
-jni::Array<jni::jlong> NativeMapView::addMarkers(jni::JNIEnv& env, jni::Array<jni::Object<Marker>> jmarkers) {
-    jni::NullCheck(env, &jmarkers);
-    std::size_t len = jmarkers.Length(env);
+void NativeMapView::updateMarkers(jni::JNIEnv& env, jni::Array<jni::jlong> jids, jni::Array<jni::jdouble> jlatLngs,
+                                  jni::Array<jni::String> jiconIds, jni::Array<jni::jint> jiconIndices) {
+    jni::NullCheck(env, &jids);
+    jni::NullCheck(env, &jlatLngs);
+    jni::NullCheck(env, &jiconIds);
+    jni::NullCheck(env, &jiconIndices);
+    std::size_t len = jids.Length(env);
+
+    std::vector<std::string> iconIds = android::conversion::toVector(env, jiconIds);
+
+    auto idElements = jni::GetArrayElements(env, *jids);
+    jni::jlong* ids = std::get<0>(idElements).get();
+    auto latLngElements = jni::GetArrayElements(env, *jlatLngs);
+    jni::jdouble* latLngs = std::get<0>(latLngElements).get();
+    auto iconIndexElements = jni::GetArrayElements(env, *jiconIndices);
+    jni::jint* iconIndices = std::get<0>(iconIndexElements).get();
+
+    for (std::size_t i = 0; i < len; i++) {
+        if (ids[i] == -1) {
+            continue;
+        }
+        map->updateAnnotation(ids[i], mbgl::SymbolAnnotation {
+            mbgl::Point<double>(latLngs[2 * i + 1], latLngs[2 * i]),
+            iconIds[iconIndices[i]]
+        });
+    }
+}
+
+jni::Array<jni::jlong> NativeMapView::addMarkers(jni::JNIEnv& env, jni::Array<jni::jdouble> jlatLngs,
+                                                 jni::Array<jni::String> jiconIds, jni::Array<jni::jint> jiconIndices) {
+    jni::NullCheck(env, &jlatLngs);
+    jni::NullCheck(env, &jiconIds);
+    jni::NullCheck(env, &jiconIndices);
+    std::size_t len = jiconIndices.Length(env);
+
+    // Markers share a handful of icons, convert each distinct id once
+    std::vector<std::string> iconIds = android::conversion::toVector(env, jiconIds);
+
+    auto latLngElements = jni::GetArrayElements(env, *jlatLngs);
+    jni::jdouble* latLngs = std::get<0>(latLngElements).get();
+    auto iconIndexElements = jni::GetArrayElements(env, *jiconIndices);
+    jni::jint* iconIndices = std::get<0>(iconIndexElements).get();
 
     std::vector<jni::jlong> ids;
     ids.reserve(len);
 
     for (std::size_t i = 0; i < len; i++) {
-        jni::Object<Marker> marker = jmarkers.Get(env, i);
         ids.push_back(map->addAnnotation(mbgl::SymbolAnnotation {
-            Marker::getPosition(env, marker),
-            Marker::getIconId(env, marker)
+            mbgl::Point<double>(latLngs[2 * i + 1], latLngs[2 * i]),
+            iconIds[iconIndices[i]]
         }));
-
-        jni::DeleteLocalRef(env, marker);
     }
 
     auto result = jni::Array<jni::jlong>::New(env, len);
@@ -495,6 +558,28 @@ jni::Object<LatLng> NativeMapView::latLngForPixel(JNIEnv& env, jfloat x, jfloat
     return LatLng::New(env, map->latLngForPixel(mbgl::ScreenCoordinate(x, y)));
 }
 
+jni::Array<jni::jdouble> NativeMapView::latLngsForPixels(JNIEnv& env, jni::Array<jni::jdouble> jpixels) {
+    NullCheck(env, &jpixels);
+    std::size_t len = jpixels.Length(env);
+
+    auto pixelElements = jni::GetArrayElements(env, *jpixels);
+    jni::jdouble* pixels = std::get<0>(pixelElements).get();
+
+    std::vector<jni::jdouble> latLngs;
+    latLngs.reserve(len);
+
+    for (std::size_t i = 0; i + 1 < len; i += 2) {
+        mbgl::LatLng latLng = map->latLngForPixel(mbgl::ScreenCoordinate(pixels[i], pixels[i + 1]));
+        latLngs.push_back(latLng.latitude());
+        latLngs.push_back(latLng.longitude());
+    }
+
+    auto result = jni::Array<jni::jdouble>::New(env, latLngs.size());
+    result.SetRegion<std::vector<jni::jdouble>>(env, 0, latLngs);
+
+    return result;
+}
+
 jni::Array<jlong> NativeMapView::addPolylines(JNIEnv& env, jni::Array<jni::Object<Polyline>> polylines) {
     NullCheck(env, &polylines);
     std::size_t len = polylines.Length(env);
@@ -566,18 +651,23 @@ void NativeMapView::removeAnnotations(JNIEnv& env, jni::Array<jlong> ids) {
     }
 }
 
-void NativeMapView::addAnnotationIcon(JNIEnv& env, jni::String symbol, jint w, jint h, jfloat scale, jni::Array<jbyte> jpixels) {
+void NativeMapView::addAnnotationIcon(JNIEnv& env, jni::String symbol, jint w, jint h, jfloat scale,
+                                      jni::Object<android::java::nio::ByteBuffer> jpixels, jint length) {
     const std::string symbolName = jni::Make<std::string>(env, symbol);
 
     NullCheck(env, &jpixels);
-    std::size_t size = jpixels.Length(env);
+    // The buffer is reused across icons, only its first length bytes hold the pixels of this one
+    std::size_t size = length;
+    if (size > std::size_t(jni::GetDirectBufferCapacity(env, *jpixels))) {
+        throw mbgl::util::SpriteImageException("Sprite image pixel count mismatch");
+    }
 
     mbgl::PremultipliedImage premultipliedImage({ static_cast<uint32_t>(w), static_cast<uint32_t>(h) });
-    if (premultipliedImage.bytes() != uint32_t(size)) {
+    if (premultipliedImage.bytes() != size) {
         throw mbgl::util::SpriteImageException("Sprite image pixel count mismatch");
     }
 
-    jni::GetArrayRegion(env, *jpixels, 0, size, reinterpret_cast<jbyte*>(premultipliedImage.data.get()));
+    std::memcpy(premultipliedImage.data.get(), jni::GetDirectBufferAddress(env, *jpixels), premultipliedImage.bytes());
     map->addAnnotationImage(std::make_unique<mbgl::style::Image>(
         symbolName, std::move(premultipliedImage), float(scale)));
 }
@@ -654,9 +744,17 @@ jni::Array<jlong> NativeMapView::queryShapeAnnotations(JNIEnv &env, jni::Object<
     return result;
 }
 
+static mbgl::optional<mbgl::style::Filter> queryFilter(JNIEnv& env, jni::Array<jni::Object<>> jfilter, jni::jlong compiledFilterPtr) {
+    if (compiledFilterPtr) {
+        return reinterpret_cast<CompiledFilter*>(compiledFilterPtr)->getFilter();
+    }
+    return conversion::toFilter(env, jfilter);
+}
+
 jni::Array<jni::Object<geojson::Feature>> NativeMapView::queryRenderedFeaturesForPoint(JNIEnv& env, jni::jfloat x, jni::jfloat y,
                                                                               jni::Array<jni::String> layerIds,
-                                                                              jni::Array<jni::Object<>> jfilter) {
+                                                                              jni::Array<jni::Object<>> jfilter,
+                                                                              jni::jlong compiledFilterPtr) {
     using namespace mbgl::android::conversion;
     using namespace mbgl::android::geojson;
 
@@ -668,12 +766,13 @@ jni::Array<jni::Object<geojson::Feature>> NativeMapView::queryRenderedFeaturesFo
 
     return *convert<jni::Array<jni::Object<Feature>>, std::vector<mbgl::Feature>>(
             env,
-            rendererFrontend->queryRenderedFeatures(point, { layers, toFilter(env, jfilter) }));
+            rendererFrontend->queryRenderedFeatures(point, { layers, queryFilter(env, jfilter, compiledFilterPtr) }));
 }
 
 jni::Array<jni::Object<geojson::Feature>> NativeMapView::queryRenderedFeaturesForBox(JNIEnv& env, jni::jfloat left, jni::jfloat top,
                                                                             jni::jfloat right, jni::jfloat bottom, jni::Array<jni::String> layerIds,
-                                                                            jni::Array<jni::Object<>> jfilter) {
+                                                                            jni::Array<jni::Object<>> jfilter,
+                                                                            jni::jlong compiledFilterPtr) {
     using namespace mbgl::android::conversion;
     using namespace mbgl::android::geojson;
 
@@ -688,7 +787,7 @@ jni::Array<jni::Object<geojson::Feature>> NativeMapView::queryRenderedFeaturesFo
 
     return *convert<jni::Array<jni::Object<Feature>>, std::vector<mbgl::Feature>>(
             env,
-            rendererFrontend->queryRenderedFeatures(box, { layers, toFilter(env, jfilter) }));
+            rendererFrontend->queryRenderedFeatures(box, { layers, queryFilter(env, jfilter, compiledFilterPtr) }));
 }
 
 jni::Object<Light> NativeMapView::getLight(JNIEnv& env) {
@@ -908,23 +1007,6 @@ void NativeMapView::removeSource(JNIEnv&, jlong sourcePtr) {
     }
 }
 
-void NativeMapView::addImage(JNIEnv& env, jni::String name, jni::jint w, jni::jint h, jni::jfloat scale, jni::Array<jbyte> pixels) {
-    jni::NullCheck(env, &pixels);
-    std::size_t size = pixels.Length(env);
-
-    mbgl::PremultipliedImage premultipliedImage({ static_cast<uint32_t>(w), static_cast<uint32_t>(h) });
-    if (premultipliedImage.bytes() != uint32_t(size)) {
-        throw mbgl::util::SpriteImageException("Sprite image pixel count mismatch");
-    }
-
-    jni::GetArrayRegion(env, *pixels, 0, size, reinterpret_cast<jbyte*>(premultipliedImage.data.get()));
-
-    map->getStyle().addImage(std::make_unique<mbgl::style::Image>(
-        jni::Make<std::string>(env, name),
-        std::move(premultipliedImage),
-        float(scale)));
-}
-
 void NativeMapView::addImages(JNIEnv& env, jni::Array<jni::Object<mbgl::android::Image>> jimages) {
     jni::NullCheck(env, &jimages);
     std::size_t len = jimages.Length(env);
@@ -978,6 +1060,7 @@ void NativeMapView::registerNative(jni::JNIEnv& env) {
             METHOD(&NativeMapView::setStyleUrl, "nativeSetStyleUrl"),
             METHOD(&NativeMapView::getStyleJson, "nativeGetStyleJson"),
             METHOD(&NativeMapView::setStyleJson, "nativeSetStyleJson"),
+            METHOD(&NativeMapView::setParsedStyleJson, "nativeSetParsedStyleJson"),
             METHOD(&NativeMapView::cancelTransitions, "nativeCancelTransitions"),
             METHOD(&NativeMapView::setGestureInProgress, "nativeSetGestureInProgress"),
             METHOD(&NativeMapView::moveBy, "nativeMoveBy"),
@@ -1010,6 +1093,7 @@ void NativeMapView::registerNative(jni::JNIEnv& env) {
             METHOD(&NativeMapView::getCameraPosition, "nativeGetCameraPosition"),
             METHOD(&NativeMapView::updateMarker, "nativeUpdateMarker"),
             METHOD(&NativeMapView::addMarkers, "nativeAddMarkers"),
+            METHOD(&NativeMapView::updateMarkers, "nativeUpdateMarkers"),
             METHOD(&NativeMapView::setDebug, "nativeSetDebug"),
             METHOD(&NativeMapView::cycleDebugOptions, "nativeCycleDebugOptions"),
             METHOD(&NativeMapView::getDebug, "nativeGetDebug"),
@@ -1020,6 +1104,7 @@ void NativeMapView::registerNative(jni::JNIEnv& env) {
             METHOD(&NativeMapView::pixelForLatLng, "nativePixelForLatLng"),
             METHOD(&NativeMapView::latLngForProjectedMeters, "nativeLatLngForProjectedMeters"),
             METHOD(&NativeMapView::latLngForPixel, "nativeLatLngForPixel"),
+            METHOD(&NativeMapView::latLngsForPixels, "nativeLatLngsForPixels"),
             METHOD(&NativeMapView::addPolylines, "nativeAddPolylines"),
             METHOD(&NativeMapView::addPolygons, "nativeAddPolygons"),
             METHOD(&NativeMapView::updatePolyline, "nativeUpdatePolyline"),
@@ -1050,7 +1135,6 @@ void NativeMapView::registerNative(jni::JNIEnv& env) {
             METHOD(&NativeMapView::addSource, "nativeAddSource"),
             METHOD(&NativeMapView::removeSourceById, "nativeRemoveSourceById"),
             METHOD(&NativeMapView::removeSource, "nativeRemoveSource"),
-            METHOD(&NativeMapView::addImage, "nativeAddImage"),
             METHOD(&NativeMapView::addImages, "nativeAddImages"),
             METHOD(&NativeMapView::removeImage, "nativeRemoveImage"),
             METHOD(&NativeMapView::getImage, "nativeGetImage"),
@@ -1058,6 +1142,15 @@ void NativeMapView::registerNative(jni::JNIEnv& env) {
             METHOD(&NativeMapView::setPrefetchesTiles, "nativeSetPrefetchesTiles"),
             METHOD(&NativeMapView::getPrefetchesTiles, "nativeGetPrefetchesTiles")
     );
+
+    #define STATIC_METHOD(MethodPtr, name) jni::MakeNativeMethod<decltype(MethodPtr), (MethodPtr)>(name)
+
+    // Style parsing does not need a peer, it runs on a worker thread before the style is set
+    jni::RegisterNatives(env, NativeMapView::javaClass,
+            STATIC_METHOD(&NativeMapView::parseStyleJson, "nativeParseStyleJson"),
+            STATIC_METHOD(&NativeMapView::getParsedStyleJsonError, "nativeGetParsedStyleJsonError"),
+            STATIC_METHOD(&NativeMapView::releaseParsedStyleJson, "nativeReleaseParsedStyleJson")
+    );
 }
 
 } // namespace android
@@ -25,6 +25,7 @@
 #include "map/image.hpp"
 #include "style/light.hpp"
 #include "bitmap.hpp"
+#include "java/nio.hpp"
 
 #include <exception>
 #include <string>
@@ -86,6 +87,14 @@ public:
 
     void setStyleJson(jni::JNIEnv&, jni::String);
 
+    void setParsedStyleJson(jni::JNIEnv&, jni::jlong);
+
+    static jni::jlong parseStyleJson(jni::JNIEnv&, jni::Class<NativeMapView>, jni::String);
+
+    static jni::String getParsedStyleJsonError(jni::JNIEnv&, jni::Class<NativeMapView>, jni::jlong);
+
+    static void releaseParsedStyleJson(jni::JNIEnv&, jni::Class<NativeMapView>, jni::jlong);
+
     void setLatLngBounds(jni::JNIEnv&, jni::Object<mbgl::android::LatLngBounds>);
 
     void cancelTransitions(jni::JNIEnv&);
@@ -150,7 +159,11 @@ public:
 
     void updateMarker(jni::JNIEnv&, jni::jlong, jni::jdouble, jni::jdouble, jni::String);
 
-    jni::Array<jni::jlong> addMarkers(jni::JNIEnv&, jni::Array<jni::Object<Marker>>);
+    void updateMarkers(jni::JNIEnv&, jni::Array<jni::jlong>, jni::Array<jni::jdouble>, jni::Array<jni::String>,
+                       jni::Array<jni::jint>);
+
+    jni::Array<jni::jlong> addMarkers(jni::JNIEnv&, jni::Array<jni::jdouble>, jni::Array<jni::String>,
+                                      jni::Array<jni::jint>);
 
     void onLowMemory(JNIEnv& env);
 
@@ -172,6 +185,8 @@ public:
 
     jni::Object<LatLng> latLngForPixel(JNIEnv&, jfloat, jfloat);
 
+    jni::Array<jni::jdouble> latLngsForPixels(JNIEnv&, jni::Array<jni::jdouble>);
+
     jni::Array<jlong> addPolylines(JNIEnv&, jni::Array<jni::Object<Polyline>>);
 
     jni::Array<jlong> addPolygons(JNIEnv&, jni::Array<jni::Object<Polygon>>);
@@ -182,7 +197,7 @@ public:
 
     void removeAnnotations(JNIEnv&, jni::Array<jlong>);
 
-    void addAnnotationIcon(JNIEnv&, jni::String, jint, jint, jfloat, jni::Array<jbyte>);
+    void addAnnotationIcon(JNIEnv&, jni::String, jint, jint, jfloat, jni::Object<android::java::nio::ByteBuffer>, jint);
 
     void removeAnnotationIcon(JNIEnv&, jni::String);
 
@@ -202,11 +217,13 @@ public:
 
     jni::Array<jni::Object<geojson::Feature>> queryRenderedFeaturesForPoint(JNIEnv&, jni::jfloat, jni::jfloat,
                                                                    jni::Array<jni::String>,
-                                                                   jni::Array<jni::Object<>> jfilter);
+                                                                   jni::Array<jni::Object<>> jfilter,
+                                                                   jni::jlong compiledFilter);
 
     jni::Array<jni::Object<geojson::Feature>> queryRenderedFeaturesForBox(JNIEnv&, jni::jfloat, jni::jfloat, jni::jfloat,
                                                                  jni::jfloat, jni::Array<jni::String>,
-                                                                 jni::Array<jni::Object<>> jfilter);
+                                                                 jni::Array<jni::Object<>> jfilter,
+                                                                 jni::jlong compiledFilter);
 
     jni::Object<Light> getLight(JNIEnv&);
 
@@ -236,8 +253,6 @@ public:
 
     void removeSource(JNIEnv&, jlong);
 
-    void addImage(JNIEnv&, jni::String, jni::jint, jni::jint, jni::jfloat, jni::Array<jbyte>);
-
     void addImages(JNIEnv&, jni::Array<jni::Object<mbgl::android::Image>>);
 
     void removeImage(JNIEnv&, jni::String);
@@ -39,15 +39,110 @@ void OfflineManager::listOfflineRegions(jni::JNIEnv& env_, jni::Object<FileSourc
     });
 }
 
+void OfflineManager::listInterruptedOfflineRegions(jni::JNIEnv& env_, jni::Object<FileSource> jFileSource_, jni::Object<ListOfflineRegionsCallback> callback_) {
+    fileSource.listInterruptedOfflineRegions([
+        //Keep a shared ptr to a global reference of the callback and file source so they are not GC'd in the meanwhile
+        callback = std::shared_ptr<jni::jobject>(callback_.NewGlobalRef(env_).release()->Get(), GenericGlobalRefDeleter()),
+        jFileSource = std::shared_ptr<jni::jobject>(jFileSource_.NewGlobalRef(env_).release()->Get(), GenericGlobalRefDeleter())
+    ](std::exception_ptr error, mbgl::optional<std::vector<mbgl::OfflineRegion>> regions) mutable {
+
+        // Reattach, the callback comes from a different thread
+        android::UniqueEnv env = android::AttachEnv();
+
+        if (error) {
+            OfflineManager::ListOfflineRegionsCallback::onError(*env, jni::Object<ListOfflineRegionsCallback>(*callback), error);
+        } else if (regions) {
+            OfflineManager::ListOfflineRegionsCallback::onList(*env, jni::Object<FileSource>(*jFileSource), jni::Object<ListOfflineRegionsCallback>(*callback), std::move(regions));
+        }
+    });
+}
+
+void OfflineManager::listOfflineRegionsWithStatus(jni::JNIEnv& env_, jni::Object<FileSource> jFileSource_, jni::Object<ListOfflineRegionsWithStatusCallback> callback_) {
+    fileSource.listOfflineRegionsWithStatus([
+        //Keep a shared ptr to a global reference of the callback and file source so they are not GC'd in the meanwhile
+        callback = std::shared_ptr<jni::jobject>(callback_.NewGlobalRef(env_).release()->Get(), GenericGlobalRefDeleter()),
+        jFileSource = std::shared_ptr<jni::jobject>(jFileSource_.NewGlobalRef(env_).release()->Get(), GenericGlobalRefDeleter())
+    ](std::exception_ptr error, mbgl::optional<std::vector<std::pair<mbgl::OfflineRegion, mbgl::OfflineRegionStatus>>> regions) mutable {
+
+        // Reattach, the callback comes from a different thread
+        android::UniqueEnv env = android::AttachEnv();
+
+        if (error) {
+            OfflineManager::ListOfflineRegionsWithStatusCallback::onError(*env, jni::Object<ListOfflineRegionsWithStatusCallback>(*callback), error);
+        } else if (regions) {
+            OfflineManager::ListOfflineRegionsWithStatusCallback::onList(*env, jni::Object<FileSource>(*jFileSource), jni::Object<ListOfflineRegionsWithStatusCallback>(*callback), std::move(regions));
+        }
+    });
+}
+
+void OfflineManager::deleteOfflineRegions(jni::JNIEnv& env_, jni::Object<FileSource> jFileSource_, jni::Array<jni::jlong> regionIDs_,
+                                          jni::Object<OfflineRegion::OfflineRegionDeleteCallback> callback_) {
+    // Convert
+    std::size_t length = regionIDs_.Length(env_);
+    auto elements = jni::GetArrayElements(env_, *regionIDs_);
+    jni::jlong* jRegionIDs = std::get<0>(elements).get();
+    std::vector<int64_t> regionIDs(jRegionIDs, jRegionIDs + length);
+
+    // Delete regions
+    fileSource.deleteOfflineRegions(std::move(regionIDs), [
+        //Keep a shared ptr to a global reference of the callback and file source so they are not GC'd in the meanwhile
+        callback = std::shared_ptr<jni::jobject>(callback_.NewGlobalRef(env_).release()->Get(), GenericGlobalRefDeleter()),
+        jFileSource = std::shared_ptr<jni::jobject>(jFileSource_.NewGlobalRef(env_).release()->Get(), GenericGlobalRefDeleter())
+    ](std::exception_ptr error) mutable {
+        // Reattach, the callback comes from a different thread
+        android::UniqueEnv env = android::AttachEnv();
+
+        if (error) {
+            OfflineRegion::OfflineRegionDeleteCallback::onError(*env, jni::Object<OfflineRegion::OfflineRegionDeleteCallback>(*callback), error);
+        } else {
+            OfflineRegion::OfflineRegionDeleteCallback::onDelete(*env, jni::Object<OfflineRegion::OfflineRegionDeleteCallback>(*callback));
+        }
+    });
+}
+
+void OfflineManager::compact(jni::JNIEnv& env_, jni::Object<FileSource> jFileSource_, jni::Object<CompactCallback> callback_) {
+    //Keep a shared ptr to a global reference of the callback and file source so they are not GC'd in the meanwhile
+    auto callback = std::shared_ptr<jni::jobject>(callback_.NewGlobalRef(env_).release()->Get(), GenericGlobalRefDeleter());
+    auto jFileSource = std::shared_ptr<jni::jobject>(jFileSource_.NewGlobalRef(env_).release()->Get(), GenericGlobalRefDeleter());
+
+    fileSource.compactOfflineDatabase([callback](uint64_t reclaimedSize, uint64_t reclaimableSize) {
+        // Reattach, the callback comes from a different thread
+        android::UniqueEnv env = android::AttachEnv();
+
+        OfflineManager::CompactCallback::onProgress(*env, jni::Object<CompactCallback>(*callback), reclaimedSize, reclaimableSize);
+    }, [callback, jFileSource](std::exception_ptr error, mbgl::optional<uint64_t> reclaimedSize) mutable {
+
+        // Reattach, the callback comes from a different thread
+        android::UniqueEnv env = android::AttachEnv();
+
+        if (error) {
+            OfflineManager::CompactCallback::onError(*env, jni::Object<CompactCallback>(*callback), error);
+        } else if (reclaimedSize) {
+            OfflineManager::CompactCallback::onCompact(*env, jni::Object<CompactCallback>(*callback), reclaimedSize);
+        }
+    });
+}
+
+void OfflineManager::setOfflineDownloadOptions(jni::JNIEnv&, jni::jint maxConcurrentRequests, jni::jlong maxBytesPerSecond,
+                                               jni::jlong initialRetryDelay, jni::jdouble retryBackoffFactor,
+                                               jni::jlong maxRetryDelay, jni::jint maxRetries) {
+    mbgl::OfflineDownloadOptions options;
+    options.maximumConcurrentRequests = maxConcurrentRequests;
+    options.maximumBytesPerSecond = maxBytesPerSecond;
+    options.initialRetryDelay = mbgl::Milliseconds(initialRetryDelay);
+    options.retryBackoffFactor = retryBackoffFactor;
+    options.maximumRetryDelay = mbgl::Milliseconds(maxRetryDelay);
+    options.maximumRetries = maxRetries;
+    fileSource.setOfflineDownloadOptions(options);
+}
+
 void OfflineManager::createOfflineRegion(jni::JNIEnv& env_,
                                          jni::Object<FileSource> jFileSource_,
                                          jni::Object<OfflineRegionDefinition> definition_,
                                          jni::Array<jni::jbyte> metadata_,
                                          jni::Object<CreateOfflineRegionCallback> callback_) {
     // Convert
-
-    // XXX hardcoded cast for now as we only support OfflineTilePyramidRegionDefinition
-    auto definition = OfflineTilePyramidRegionDefinition::getDefinition(env_, jni::Object<OfflineTilePyramidRegionDefinition>(*definition_));
+    auto definition = OfflineRegionDefinition::getDefinition(env_, definition_);
 
     mbgl::OfflineRegionMetadata metadata;
     if (metadata_) {
@@ -76,11 +171,39 @@ void OfflineManager::createOfflineRegion(jni::JNIEnv& env_,
     });
 }
 
+void OfflineManager::estimateOfflineRegion(jni::JNIEnv& env_,
+                                           jni::Object<FileSource> jFileSource_,
+                                           jni::Object<OfflineRegionDefinition> definition_,
+                                           jni::Object<EstimateOfflineRegionCallback> callback_) {
+    // Convert
+    auto definition = OfflineRegionDefinition::getDefinition(env_, definition_);
+
+    // Estimate region
+    fileSource.estimateOfflineRegion(definition, [
+        //Keep a shared ptr to a global reference of the callback and file source so they are not GC'd in the meanwhile
+        callback = std::shared_ptr<jni::jobject>(callback_.NewGlobalRef(env_).release()->Get(), GenericGlobalRefDeleter()),
+        jFileSource = std::shared_ptr<jni::jobject>(jFileSource_.NewGlobalRef(env_).release()->Get(), GenericGlobalRefDeleter())
+    ](std::exception_ptr error, mbgl::optional<mbgl::OfflineRegionEstimate> estimate) mutable {
+
+        // Reattach, the callback comes from a different thread
+        android::UniqueEnv env = android::AttachEnv();
+
+        if (error) {
+            OfflineManager::EstimateOfflineRegionCallback::onError(*env, jni::Object<EstimateOfflineRegionCallback>(*callback), error);
+        } else if (estimate) {
+            OfflineManager::EstimateOfflineRegionCallback::onEstimate(*env, jni::Object<EstimateOfflineRegionCallback>(*callback), std::move(estimate));
+        }
+    });
+}
+
 jni::Class<OfflineManager> OfflineManager::javaClass;
 
 void OfflineManager::registerNative(jni::JNIEnv& env) {
     OfflineManager::ListOfflineRegionsCallback::registerNative(env);
+    OfflineManager::ListOfflineRegionsWithStatusCallback::registerNative(env);
     OfflineManager::CreateOfflineRegionCallback::registerNative(env);
+    OfflineManager::EstimateOfflineRegionCallback::registerNative(env);
+    OfflineManager::CompactCallback::registerNative(env);
 
     javaClass = *jni::Class<OfflineManager>::Find(env).NewGlobalRef(env).release();
 
@@ -92,7 +215,13 @@ void OfflineManager::registerNative(jni::JNIEnv& env) {
         "finalize",
         METHOD(&OfflineManager::setOfflineMapboxTileCountLimit, "setOfflineMapboxTileCountLimit"),
         METHOD(&OfflineManager::listOfflineRegions, "listOfflineRegions"),
-        METHOD(&OfflineManager::createOfflineRegion, "createOfflineRegion"));
+        METHOD(&OfflineManager::listInterruptedOfflineRegions, "listInterruptedOfflineRegions"),
+        METHOD(&OfflineManager::listOfflineRegionsWithStatus, "listOfflineRegionsWithStatus"),
+        METHOD(&OfflineManager::deleteOfflineRegions, "deleteOfflineRegions"),
+        METHOD(&OfflineManager::compact, "compact"),
+        METHOD(&OfflineManager::setOfflineDownloadOptions, "setOfflineDownloadOptions"),
+        METHOD(&OfflineManager::createOfflineRegion, "createOfflineRegion"),
+        METHOD(&OfflineManager::estimateOfflineRegion, "estimateOfflineRegion"));
 }
 
 // OfflineManager::ListOfflineRegionsCallback //
@@ -131,6 +260,48 @@ void OfflineManager::ListOfflineRegionsCallback::registerNative(jni::JNIEnv& env
     javaClass = *jni::Class<OfflineManager::ListOfflineRegionsCallback>::Find(env).NewGlobalRef(env).release();
 }
 
+// OfflineManager::ListOfflineRegionsWithStatusCallback //
+
+void OfflineManager::ListOfflineRegionsWithStatusCallback::onError(jni::JNIEnv& env,
+                                                                   jni::Object<OfflineManager::ListOfflineRegionsWithStatusCallback> callback,
+                                                                   std::exception_ptr error) {
+    static auto method = javaClass.GetMethod<void (jni::String)>(env, "onError");
+    std::string message = mbgl::util::toString(error);
+    callback.Call(env, method, jni::Make<jni::String>(env, message));
+}
+
+void OfflineManager::ListOfflineRegionsWithStatusCallback::onList(jni::JNIEnv& env,
+                                                                  jni::Object<FileSource> jFileSource,
+                                                                  jni::Object<OfflineManager::ListOfflineRegionsWithStatusCallback> callback,
+                                                                  mbgl::optional<std::vector<std::pair<mbgl::OfflineRegion, mbgl::OfflineRegionStatus>>> regions) {
+    //Convert the regions and their status to java peer objects
+    std::size_t index = 0;
+    auto jregions = jni::Array<jni::Object<OfflineRegion>>::New(env, regions->size(), OfflineRegion::javaClass);
+    auto jstatuses = jni::Array<jni::Object<OfflineRegionStatus>>::New(env, regions->size(), OfflineRegionStatus::javaClass);
+    for (auto& region : *regions) {
+        auto jregion = OfflineRegion::New(env, jFileSource, std::move(region.first));
+        jregions.Set(env, index, jregion);
+        jni::DeleteLocalRef(env, jregion);
+
+        auto jstatus = OfflineRegionStatus::New(env, region.second);
+        jstatuses.Set(env, index, jstatus);
+        jni::DeleteLocalRef(env, jstatus);
+        index++;
+    }
+
+    // Trigger callback
+    static auto method = javaClass.GetMethod<void (jni::Array<jni::Object<OfflineRegion>>, jni::Array<jni::Object<OfflineRegionStatus>>)>(env, "onList");
+    callback.Call(env, method, jregions, jstatuses);
+    jni::DeleteLocalRef(env, jregions);
+    jni::DeleteLocalRef(env, jstatuses);
+}
+
+jni::Class<OfflineManager::ListOfflineRegionsWithStatusCallback> OfflineManager::ListOfflineRegionsWithStatusCallback::javaClass;
+
+void OfflineManager::ListOfflineRegionsWithStatusCallback::registerNative(jni::JNIEnv& env) {
+    javaClass = *jni::Class<OfflineManager::ListOfflineRegionsWithStatusCallback>::Find(env).NewGlobalRef(env).release();
+}
+
 // OfflineManager::CreateOfflineRegionCallback //
 
 void OfflineManager::CreateOfflineRegionCallback::onError(jni::JNIEnv& env,
@@ -160,5 +331,63 @@ void OfflineManager::CreateOfflineRegionCallback::registerNative(jni::JNIEnv& en
     javaClass = *jni::Class<OfflineManager::CreateOfflineRegionCallback>::Find(env).NewGlobalRef(env).release();
 }
 
+// OfflineManager::EstimateOfflineRegionCallback //
+
+void OfflineManager::EstimateOfflineRegionCallback::onError(jni::JNIEnv& env,
+                                                            jni::Object<OfflineManager::EstimateOfflineRegionCallback> callback,
+                                                            std::exception_ptr error) {
+    static auto method = javaClass.GetMethod<void (jni::String)>(env, "onError");
+    std::string message = mbgl::util::toString(error);
+    callback.Call(env, method, jni::Make<jni::String>(env, message));
+}
+
+void OfflineManager::EstimateOfflineRegionCallback::onEstimate(jni::JNIEnv& env,
+                                                               jni::Object<OfflineManager::EstimateOfflineRegionCallback> callback,
+                                                               mbgl::optional<mbgl::OfflineRegionEstimate> estimate) {
+    //Convert the estimate to a java object
+    auto jestimate = OfflineRegionEstimate::New(env, std::move(*estimate));
+
+    // Trigger callback
+    static auto method = javaClass.GetMethod<void (jni::Object<OfflineRegionEstimate>)>(env, "onEstimate");
+    callback.Call(env, method, jestimate);
+    jni::DeleteLocalRef(env, jestimate);
+}
+
+jni::Class<OfflineManager::EstimateOfflineRegionCallback> OfflineManager::EstimateOfflineRegionCallback::javaClass;
+
+void OfflineManager::EstimateOfflineRegionCallback::registerNative(jni::JNIEnv& env) {
+    javaClass = *jni::Class<OfflineManager::EstimateOfflineRegionCallback>::Find(env).NewGlobalRef(env).release();
+}
+
+// OfflineManager::CompactCallback //
+
+void OfflineManager::CompactCallback::onError(jni::JNIEnv& env,
+                                              jni::Object<OfflineManager::CompactCallback> callback,
+                                              std::exception_ptr error) {
+    static auto method = javaClass.GetMethod<void (jni::String)>(env, "onError");
+    std::string message = mbgl::util::toString(error);
+    callback.Call(env, method, jni::Make<jni::String>(env, message));
+}
+
+void OfflineManager::CompactCallback::onProgress(jni::JNIEnv& env,
+                                                 jni::Object<OfflineManager::CompactCallback> callback,
+                                                 uint64_t reclaimedSize, uint64_t reclaimableSize) {
+    static auto method = javaClass.GetMethod<void (jni::jlong, jni::jlong)>(env, "onProgress");
+    callback.Call(env, method, jni::jlong(reclaimedSize), jni::jlong(reclaimableSize));
+}
+
+void OfflineManager::CompactCallback::onCompact(jni::JNIEnv& env,
+                                                jni::Object<OfflineManager::CompactCallback> callback,
+                                                mbgl::optional<uint64_t> reclaimedSize) {
+    static auto method = javaClass.GetMethod<void (jni::jlong)>(env, "onCompact");
+    callback.Call(env, method, jni::jlong(*reclaimedSize));
+}
+
+jni::Class<OfflineManager::CompactCallback> OfflineManager::CompactCallback::javaClass;
+
+void OfflineManager::CompactCallback::registerNative(jni::JNIEnv& env) {
+    javaClass = *jni::Class<OfflineManager::CompactCallback>::Find(env).NewGlobalRef(env).release();
+}
+
 } // namespace android
 } // namespace mbgl
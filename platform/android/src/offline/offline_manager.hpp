@@ -8,6 +8,8 @@
 #include "../file_source.hpp"
 #include "offline_region.hpp"
 #include "offline_region_definition.hpp"
+#include "offline_region_estimate.hpp"
+#include "offline_region_status.hpp"
 
 
 namespace mbgl {
@@ -32,6 +34,22 @@ public:
         static void registerNative(jni::JNIEnv&);
     };
 
+    class ListOfflineRegionsWithStatusCallback {
+    public:
+        static constexpr auto Name() { return "com/mapbox/mapboxsdk/offline/OfflineManager$ListOfflineRegionsWithStatusCallback";}
+
+        static void onError(jni::JNIEnv&, jni::Object<OfflineManager::ListOfflineRegionsWithStatusCallback>, std::exception_ptr);
+
+        static void onList(jni::JNIEnv&,
+                           jni::Object<FileSource>,
+                           jni::Object<OfflineManager::ListOfflineRegionsWithStatusCallback>,
+                           mbgl::optional<std::vector<std::pair<mbgl::OfflineRegion, mbgl::OfflineRegionStatus>>>);
+
+        static jni::Class<OfflineManager::ListOfflineRegionsWithStatusCallback> javaClass;
+
+        static void registerNative(jni::JNIEnv&);
+    };
+
     class CreateOfflineRegionCallback {
     public:
         static constexpr auto Name() { return "com/mapbox/mapboxsdk/offline/OfflineManager$CreateOfflineRegionCallback"; }
@@ -48,6 +66,37 @@ public:
         static void registerNative(jni::JNIEnv&);
     };
 
+    class EstimateOfflineRegionCallback {
+    public:
+        static constexpr auto Name() { return "com/mapbox/mapboxsdk/offline/OfflineManager$EstimateOfflineRegionCallback"; }
+
+        static void onError(jni::JNIEnv&, jni::Object<OfflineManager::EstimateOfflineRegionCallback>, std::exception_ptr);
+
+        static void onEstimate(jni::JNIEnv&,
+                               jni::Object<OfflineManager::EstimateOfflineRegionCallback>,
+                               mbgl::optional<mbgl::OfflineRegionEstimate>);
+
+        static jni::Class<OfflineManager::EstimateOfflineRegionCallback> javaClass;
+
+        static void registerNative(jni::JNIEnv&);
+    };
+
+    class CompactCallback {
+    public:
+        static constexpr auto Name() { return "com/mapbox/mapboxsdk/offline/OfflineManager$CompactCallback"; }
+
+        static void onError(jni::JNIEnv&, jni::Object<OfflineManager::CompactCallback>, std::exception_ptr);
+
+        static void onProgress(jni::JNIEnv&, jni::Object<OfflineManager::CompactCallback>,
+                               uint64_t reclaimedSize, uint64_t reclaimableSize);
+
+        static void onCompact(jni::JNIEnv&, jni::Object<OfflineManager::CompactCallback>, mbgl::optional<uint64_t>);
+
+        static jni::Class<OfflineManager::CompactCallback> javaClass;
+
+        static void registerNative(jni::JNIEnv&);
+    };
+
     static constexpr auto Name() { return "com/mapbox/mapboxsdk/offline/OfflineManager"; };
 
     static jni::Class<OfflineManager> javaClass;
@@ -61,12 +110,30 @@ public:
 
     void listOfflineRegions(jni::JNIEnv&, jni::Object<FileSource>, jni::Object<ListOfflineRegionsCallback> callback);
 
+    void listInterruptedOfflineRegions(jni::JNIEnv&, jni::Object<FileSource>, jni::Object<ListOfflineRegionsCallback> callback);
+
+    void listOfflineRegionsWithStatus(jni::JNIEnv&, jni::Object<FileSource>, jni::Object<ListOfflineRegionsWithStatusCallback> callback);
+
+    void deleteOfflineRegions(jni::JNIEnv&, jni::Object<FileSource>, jni::Array<jni::jlong> regionIDs,
+                              jni::Object<OfflineRegion::OfflineRegionDeleteCallback> callback);
+
+    void compact(jni::JNIEnv&, jni::Object<FileSource>, jni::Object<CompactCallback> callback);
+
+    void setOfflineDownloadOptions(jni::JNIEnv&, jni::jint maxConcurrentRequests, jni::jlong maxBytesPerSecond,
+                                   jni::jlong initialRetryDelay, jni::jdouble retryBackoffFactor,
+                                   jni::jlong maxRetryDelay, jni::jint maxRetries);
+
     void createOfflineRegion(jni::JNIEnv&,
                              jni::Object<FileSource> jFileSource_,
                              jni::Object<OfflineRegionDefinition> definition,
                              jni::Array<jni::jbyte> metadata,
                              jni::Object<OfflineManager::CreateOfflineRegionCallback> callback);
 
+    void estimateOfflineRegion(jni::JNIEnv&,
+                               jni::Object<FileSource> jFileSource_,
+                               jni::Object<OfflineRegionDefinition> definition,
+                               jni::Object<OfflineManager::EstimateOfflineRegionCallback> callback);
+
 private:
     mbgl::DefaultFileSource& fileSource;
 };
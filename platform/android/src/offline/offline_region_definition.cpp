@@ -1,6 +1,13 @@
 #include "offline_region_definition.hpp"
 
 #include "../geometry/lat_lng_bounds.hpp"
+#include "../geojson/geometry.hpp"
+
+#include <mapbox/geojson.hpp>
+#include <mapbox/geojson/rapidjson.hpp>
+
+#include <rapidjson/stringbuffer.h>
+#include <rapidjson/writer.h>
 
 namespace mbgl {
 namespace android {
@@ -9,6 +16,24 @@ namespace android {
 
 jni::Class<OfflineRegionDefinition> OfflineRegionDefinition::javaClass;
 
+jni::Object<OfflineRegionDefinition> OfflineRegionDefinition::New(jni::JNIEnv& env, const mbgl::OfflineRegionDefinition& definition) {
+    return definition.match(
+        [&] (const mbgl::OfflineTilePyramidRegionDefinition& tilePyramid) {
+            return jni::Object<OfflineRegionDefinition>(*OfflineTilePyramidRegionDefinition::New(env, tilePyramid));
+        },
+        [&] (const mbgl::OfflineGeometryRegionDefinition& geometry) {
+            return jni::Object<OfflineRegionDefinition>(*OfflineGeometryRegionDefinition::New(env, geometry));
+        }
+    );
+}
+
+mbgl::OfflineRegionDefinition OfflineRegionDefinition::getDefinition(jni::JNIEnv& env, jni::Object<OfflineRegionDefinition> jDefinition) {
+    if (jni::IsInstanceOf(env, jDefinition.Get(), *OfflineGeometryRegionDefinition::javaClass)) {
+        return OfflineGeometryRegionDefinition::getDefinition(env, jni::Object<OfflineGeometryRegionDefinition>(*jDefinition));
+    }
+    return OfflineTilePyramidRegionDefinition::getDefinition(env, jni::Object<OfflineTilePyramidRegionDefinition>(*jDefinition));
+}
+
 void OfflineRegionDefinition::registerNative(jni::JNIEnv& env) {
     javaClass = *jni::Class<OfflineRegionDefinition>::Find(env).NewGlobalRef(env).release();
 }
@@ -65,5 +90,65 @@ void OfflineTilePyramidRegionDefinition::registerNative(jni::JNIEnv& env) {
     javaClass = *jni::Class<OfflineTilePyramidRegionDefinition>::Find(env).NewGlobalRef(env).release();
 }
 
+// OfflineGeometryRegionDefinition //
+
+jni::Object<OfflineGeometryRegionDefinition> OfflineGeometryRegionDefinition::New(jni::JNIEnv& env, const mbgl::OfflineGeometryRegionDefinition& definition) {
+
+    // The geometry is handed over as GeoJSON, the Java geometry types are parsed from it
+    mapbox::geojson::rapidjson_allocator allocator;
+    rapidjson::StringBuffer buffer;
+    rapidjson::Writer<rapidjson::StringBuffer> writer(buffer);
+    mapbox::geojson::convert(definition.geometry, allocator).Accept(writer);
+
+    //Convert objects
+    auto styleURL = jni::Make<jni::String>(env, definition.styleURL);
+    auto geometry = jni::Make<jni::String>(env, std::string(buffer.GetString(), buffer.GetSize()));
+
+    static auto constructor = javaClass.GetConstructor<jni::String, jni::String, jni::jdouble, jni::jdouble, jni::jfloat, jni::jdouble>(env);
+    auto jdefinition = javaClass.New(env, constructor, styleURL, geometry, definition.minZoom, definition.maxZoom, definition.pixelRatio, definition.bufferDistance);
+
+    //Delete References
+    jni::DeleteLocalRef(env, styleURL);
+    jni::DeleteLocalRef(env, geometry);
+
+    return jdefinition;
+}
+
+mbgl::OfflineGeometryRegionDefinition OfflineGeometryRegionDefinition::getDefinition(jni::JNIEnv& env, jni::Object<OfflineGeometryRegionDefinition> jDefinition) {
+    // Field references
+    static auto styleURLF = javaClass.GetField<jni::String>(env, "styleURL");
+    static auto geometryF = javaClass.GetField<jni::Object<geojson::Geometry>>(env, "geometry");
+    static auto minZoomF = javaClass.GetField<jni::jdouble>(env, "minZoom");
+    static auto maxZoomF = javaClass.GetField<jni::jdouble>(env, "maxZoom");
+    static auto pixelRatioF = javaClass.GetField<jni::jfloat>(env, "pixelRatio");
+    static auto bufferDistanceF = javaClass.GetField<jni::jdouble>(env, "bufferDistance");
+
+    // Get objects
+    auto jStyleURL = jDefinition.Get(env, styleURLF);
+    auto jGeometry = jDefinition.Get(env, geometryF);
+
+    // Create definition
+    mbgl::OfflineGeometryRegionDefinition definition(
+        jni::Make<std::string>(env, jStyleURL),
+        geojson::Geometry::convert(env, jGeometry),
+        jDefinition.Get(env, minZoomF),
+        jDefinition.Get(env, maxZoomF),
+        jDefinition.Get(env, pixelRatioF),
+        jDefinition.Get(env, bufferDistanceF)
+    );
+
+    // Delete references
+    jni::DeleteLocalRef(env, jStyleURL);
+    jni::DeleteLocalRef(env, jGeometry);
+
+    return definition;
+}
+
+jni::Class<OfflineGeometryRegionDefinition> OfflineGeometryRegionDefinition::javaClass;
+
+void OfflineGeometryRegionDefinition::registerNative(jni::JNIEnv& env) {
+    javaClass = *jni::Class<OfflineGeometryRegionDefinition>::Find(env).NewGlobalRef(env).release();
+}
+
 } // namespace android
 } // namespace mbgl
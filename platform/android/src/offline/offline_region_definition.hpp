@@ -10,6 +10,10 @@ class OfflineRegionDefinition {
 public:
     static constexpr auto Name() { return "com/mapbox/mapboxsdk/offline/OfflineRegionDefinition"; };
 
+    static jni::Object<OfflineRegionDefinition> New(jni::JNIEnv&, const mbgl::OfflineRegionDefinition&);
+
+    static mbgl::OfflineRegionDefinition getDefinition(jni::JNIEnv&, jni::Object<OfflineRegionDefinition>);
+
     static jni::Class<OfflineRegionDefinition> javaClass;
 
     static void registerNative(jni::JNIEnv&);
@@ -30,5 +34,19 @@ public:
 
 };
 
+class OfflineGeometryRegionDefinition: public OfflineRegionDefinition {
+public:
+    static constexpr auto Name() { return "com/mapbox/mapboxsdk/offline/OfflineGeometryRegionDefinition"; };
+
+    static jni::Object<OfflineGeometryRegionDefinition> New(jni::JNIEnv&, const mbgl::OfflineGeometryRegionDefinition&);
+
+    static mbgl::OfflineGeometryRegionDefinition getDefinition(jni::JNIEnv&, jni::Object<OfflineGeometryRegionDefinition>);
+
+    static jni::Class<OfflineGeometryRegionDefinition> javaClass;
+
+    static void registerNative(jni::JNIEnv&);
+
+};
+
 } // namespace android
 } // namespace mbgl
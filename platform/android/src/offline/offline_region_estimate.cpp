@@ -0,0 +1,24 @@
+#include "offline_region_estimate.hpp"
+
+namespace mbgl {
+namespace android {
+
+jni::Object<OfflineRegionEstimate> OfflineRegionEstimate::New(jni::JNIEnv& env, mbgl::OfflineRegionEstimate estimate) {
+    // Create java object
+    static auto constructor = javaClass.GetConstructor<jlong, jboolean, jlong, jlong>(env);
+    return javaClass.New(env, constructor,
+        jlong(estimate.tileCount),
+        jboolean(estimate.tileCountIsPrecise),
+        jlong(estimate.tileSize),
+        jlong(estimate.sampledTileCount)
+    );
+}
+
+jni::Class<OfflineRegionEstimate> OfflineRegionEstimate::javaClass;
+
+void OfflineRegionEstimate::registerNative(jni::JNIEnv& env) {
+    javaClass = *jni::Class<OfflineRegionEstimate>::Find(env).NewGlobalRef(env).release();
+}
+
+} // namespace android
+} // namespace mbgl
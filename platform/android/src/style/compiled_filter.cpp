@@ -0,0 +1,46 @@
+#include "compiled_filter.hpp"
+#include "android_conversion.hpp"
+
+#include <mbgl/style/conversion.hpp>
+#include <mbgl/style/conversion/filter.hpp>
+
+#include <string>
+
+namespace mbgl {
+namespace android {
+
+    CompiledFilter::CompiledFilter(jni::JNIEnv& env, jni::Array<jni::Object<>> jfilter) {
+        using namespace mbgl::style::conversion;
+
+        Error error;
+        optional<mbgl::style::Filter> converted = convert<mbgl::style::Filter>(Value(env, jfilter), error);
+        if (!converted) {
+            std::string message = "Invalid filter: " + error.message;
+            jni::ThrowNew(env, jni::FindClass(env, "java/lang/IllegalArgumentException"), message.c_str());
+            return;
+        }
+
+        filter = std::move(*converted);
+    }
+
+    const mbgl::style::Filter& CompiledFilter::getFilter() const {
+        return filter;
+    }
+
+    jni::Class<CompiledFilter> CompiledFilter::javaClass;
+
+    void CompiledFilter::registerNative(jni::JNIEnv& env) {
+        // Lookup the class
+        CompiledFilter::javaClass = *jni::Class<CompiledFilter>::Find(env).NewGlobalRef(env).release();
+
+        // Register the peer
+        jni::RegisterNativePeer<CompiledFilter>(
+            env, CompiledFilter::javaClass, "nativePtr",
+            std::make_unique<CompiledFilter, JNIEnv&, jni::Array<jni::Object<>>>,
+            "initialize",
+            "finalize"
+        );
+    }
+
+} // namespace android
+} // namespace mbgl
@@ -0,0 +1,32 @@
+#pragma once
+
+#include <mbgl/util/noncopyable.hpp>
+#include <mbgl/style/filter.hpp>
+
+#include <jni/jni.hpp>
+
+namespace mbgl {
+namespace android {
+
+/**
+ * Peer of a filter converted once, reused by layers and queries without converting it again
+ */
+class CompiledFilter : private mbgl::util::noncopyable {
+public:
+
+    static constexpr auto Name() { return "com/mapbox/mapboxsdk/style/layers/CompiledFilter"; };
+
+    static jni::Class<CompiledFilter> javaClass;
+
+    static void registerNative(jni::JNIEnv&);
+
+    CompiledFilter(jni::JNIEnv&, jni::Array<jni::Object<>>);
+
+    const mbgl::style::Filter& getFilter() const;
+
+private:
+    mbgl::style::Filter filter;
+};
+
+} // namespace android
+} // namespace mbgl
@@ -0,0 +1,85 @@
+#include "compiled_value.hpp"
+#include "value.hpp"
+
+#include "../java/util.hpp"
+
+#include <string>
+
+namespace mbgl {
+namespace android {
+
+    static void toJSValue(jni::JNIEnv& env, const Value& value, JSValue& out, JSDocument::AllocatorType& allocator) {
+        if (value.isNull()) {
+            out.SetNull();
+        } else if (value.isBool()) {
+            out.SetBool(value.toBool());
+        } else if (value.isNumber()) {
+            out.SetDouble(value.toDouble());
+        } else if (value.isString()) {
+            std::string string = value.toString();
+            out.SetString(string.c_str(), string.size(), allocator);
+        } else if (value.isArray()) {
+            int length = value.getLength();
+            out.SetArray();
+            out.Reserve(length, allocator);
+            for (int i = 0; i < length; i++) {
+                JSValue member;
+                toJSValue(env, value.get(i), member, allocator);
+                out.PushBack(member, allocator);
+            }
+        } else if (value.isObject()) {
+            // Iterate the entries of the java.util.Map
+            static auto entrySetMethod = java::util::Map::javaClass.GetMethod<jni::Object<java::util::Set> ()>(env, "entrySet");
+            auto map = jni::Object<java::util::Map>(value.value.get());
+            auto entrySet = map.Call(env, entrySetMethod);
+            auto entries = java::util::Set::toArray<java::util::Map::Entry>(env, entrySet);
+
+            out.SetObject();
+            std::size_t size = entries.Length(env);
+            for (std::size_t i = 0; i < size; i++) {
+                auto entry = entries.Get(env, i);
+                Value key(env, java::util::Map::Entry::getKey<jni::ObjectTag>(env, entry).Get());
+                Value member(env, java::util::Map::Entry::getValue<jni::ObjectTag>(env, entry).Get());
+
+                std::string name = key.toString();
+                JSValue jsName(name.c_str(), name.size(), allocator);
+                JSValue jsMember;
+                toJSValue(env, member, jsMember, allocator);
+                out.AddMember(jsName, jsMember, allocator);
+
+                jni::DeleteLocalRef(env, entry);
+            }
+
+            jni::DeleteLocalRef(env, entries);
+            jni::DeleteLocalRef(env, entrySet);
+        } else {
+            out.SetNull();
+        }
+    }
+
+    CompiledValue::CompiledValue(jni::JNIEnv& env, jni::Object<> jvalue) {
+        // The value takes ownership of the local reference
+        toJSValue(env, Value(env, jvalue.Get()), document, document.GetAllocator());
+    }
+
+    const JSValue& CompiledValue::get() const {
+        return document;
+    }
+
+    jni::Class<CompiledValue> CompiledValue::javaClass;
+
+    void CompiledValue::registerNative(jni::JNIEnv& env) {
+        // Lookup the class
+        CompiledValue::javaClass = *jni::Class<CompiledValue>::Find(env).NewGlobalRef(env).release();
+
+        // Register the peer
+        jni::RegisterNativePeer<CompiledValue>(
+            env, CompiledValue::javaClass, "nativePtr",
+            std::make_unique<CompiledValue, JNIEnv&, jni::Object<>>,
+            "initialize",
+            "finalize"
+        );
+    }
+
+} // namespace android
+} // namespace mbgl
@@ -0,0 +1,32 @@
+#pragma once
+
+#include <mbgl/util/noncopyable.hpp>
+#include <mbgl/util/rapidjson.hpp>
+
+#include <jni/jni.hpp>
+
+namespace mbgl {
+namespace android {
+
+/**
+ * Peer of a property value converted once to a json document, set on layers without converting it again
+ */
+class CompiledValue : private mbgl::util::noncopyable {
+public:
+
+    static constexpr auto Name() { return "com/mapbox/mapboxsdk/style/layers/CompiledValue"; };
+
+    static jni::Class<CompiledValue> javaClass;
+
+    static void registerNative(jni::JNIEnv&);
+
+    CompiledValue(jni::JNIEnv&, jni::Object<>);
+
+    const JSValue& get() const;
+
+private:
+    JSDocument document;
+};
+
+} // namespace android
+} // namespace mbgl
@@ -1,5 +1,7 @@
 #include "layer.hpp"
 #include "../android_conversion.hpp"
+#include "../compiled_filter.hpp"
+#include "../compiled_value.hpp"
 
 #include <jni/jni.hpp>
 
@@ -13,6 +15,7 @@
 #include <mbgl/style/layers/line_layer.hpp>
 #include <mbgl/style/layers/raster_layer.hpp>
 #include <mbgl/style/layers/symbol_layer.hpp>
+#include <mbgl/style/layer_observer.hpp>
 #include <mbgl/util/logging.hpp>
 
 // Java -> C++ conversion
@@ -20,9 +23,11 @@
 #include <mbgl/style/conversion/filter.hpp>
 #include <mbgl/style/conversion/layer.hpp>
 #include <mbgl/style/conversion/source.hpp>
+#include <mbgl/style/rapidjson_conversion.hpp>
 
 // C++ -> Java conversion
 #include "../conversion/property_value.hpp"
+#include "../../conversion/collection.hpp"
 
 #include <string>
 
@@ -104,6 +109,81 @@ namespace android {
         }
     }
 
+    /**
+     * Collects the changes to a layer while in scope, to notify its observer once for a batch of properties.
+     * The original observer is restored when going out of scope, also when setting a property throws.
+     */
+    class DeferredLayerObserver : public mbgl::style::LayerObserver {
+    public:
+        explicit DeferredLayerObserver(mbgl::style::Layer& layer_)
+            : layer(layer_), observer(layer_.observer) {
+            layer.setObserver(this);
+        }
+
+        ~DeferredLayerObserver() override {
+            layer.setObserver(observer);
+        }
+
+        void onLayerChanged(mbgl::style::Layer&) override {
+            changed = true;
+        }
+
+        bool changed = false;
+
+    private:
+        mbgl::style::Layer& layer;
+        mbgl::style::LayerObserver* observer;
+    };
+
+    void Layer::setProperties(jni::JNIEnv& env, jni::Array<jni::String> jnames, jni::Array<jni::Object<>> jvalues,
+                              jni::Array<jni::jlong> jcompiledValues, jni::Array<jni::jboolean> jpaint) {
+        using namespace mbgl::style::conversion;
+
+        jni::NullCheck(env, &jnames);
+        jni::NullCheck(env, &jvalues);
+        jni::NullCheck(env, &jcompiledValues);
+        jni::NullCheck(env, &jpaint);
+        std::size_t len = jnames.Length(env);
+
+        std::vector<std::string> names = android::conversion::toVector(env, jnames);
+        auto compiledValueElements = jni::GetArrayElements(env, *jcompiledValues);
+        jni::jlong* compiledValues = std::get<0>(compiledValueElements).get();
+        auto paintElements = jni::GetArrayElements(env, *jpaint);
+        jni::jboolean* paint = std::get<0>(paintElements).get();
+
+        // Each property change copies the style layers, notify the style once for the batch
+        bool changed = false;
+        {
+            DeferredLayerObserver deferred(layer);
+
+            for (std::size_t i = 0; i < len; i++) {
+                auto setProperty = [&](const Convertible& value) {
+                    return paint[i] ? setPaintProperty(layer, names[i], value) : setLayoutProperty(layer, names[i], value);
+                };
+
+                optional<Error> error;
+                if (compiledValues[i]) {
+                    // Converted once when compiled, no need to cross back into the jvm
+                    const JSValue* compiled = &reinterpret_cast<CompiledValue*>(compiledValues[i])->get();
+                    error = setProperty(Convertible(compiled));
+                } else {
+                    // The value takes ownership of the local reference
+                    error = setProperty(Value(env, jvalues.Get(env, i)));
+                }
+                if (error) {
+                    mbgl::Log::Error(mbgl::Event::JNI, "Error setting property: " + names[i] + " " + error->message);
+                }
+            }
+
+            changed = deferred.changed;
+        }
+
+        // Notified once the original observer is restored
+        if (changed) {
+            layer.observer->onLayerChanged(layer);
+        }
+    }
+
     struct SetFilterEvaluator {
         style::Filter filter;
 
@@ -131,6 +211,10 @@ namespace android {
         layer.accept(SetFilterEvaluator {std::move(*converted)});
     }
 
+    void Layer::setCompiledFilter(jni::JNIEnv&, jni::jlong compiledFilterPtr) {
+        layer.accept(SetFilterEvaluator {reinterpret_cast<CompiledFilter*>(compiledFilterPtr)->getFilter()});
+    }
+
     struct SetSourceLayerEvaluator {
         std::string sourceLayer;
 
@@ -202,7 +286,9 @@ namespace android {
             METHOD(&Layer::getId, "nativeGetId"),
             METHOD(&Layer::setLayoutProperty, "nativeSetLayoutProperty"),
             METHOD(&Layer::setPaintProperty, "nativeSetPaintProperty"),
+            METHOD(&Layer::setProperties, "nativeSetProperties"),
             METHOD(&Layer::setFilter, "nativeSetFilter"),
+            METHOD(&Layer::setCompiledFilter, "nativeSetCompiledFilter"),
             METHOD(&Layer::setSourceLayer, "nativeSetSourceLayer"),
             METHOD(&Layer::getSourceLayer, "nativeGetSourceLayer"),
             METHOD(&Layer::getMinZoom, "nativeGetMinZoom"),
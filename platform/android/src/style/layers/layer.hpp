@@ -54,6 +54,8 @@ public:
 
     void setPaintProperty(jni::JNIEnv&, jni::String, jni::Object<> value);
 
+    void setProperties(jni::JNIEnv&, jni::Array<jni::String>, jni::Array<jni::Object<>>, jni::Array<jni::jlong>, jni::Array<jni::jboolean>);
+
     // Zoom
 
     jni::jfloat getMinZoom(jni::JNIEnv&);
@@ -68,6 +70,8 @@ public:
 
     void setFilter(jni::JNIEnv&, jni::Array<jni::Object<>>);
 
+    void setCompiledFilter(jni::JNIEnv&, jni::jlong);
+
     void setSourceLayer(jni::JNIEnv&, jni::String);
 
     jni::String getSourceLayer(jni::JNIEnv&);
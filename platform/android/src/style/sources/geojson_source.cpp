@@ -1,6 +1,7 @@
 #include "geojson_source.hpp"
 
 #include <mbgl/renderer/query.hpp>
+#include <mbgl/util/geobuf.hpp>
 
 // Java -> C++ conversion
 #include "../android_conversion.hpp"
@@ -15,6 +16,7 @@
 #include "../../geojson/conversion/feature.hpp"
 #include "../conversion/url_or_tileset.hpp"
 
+#include <cmath>
 #include <string>
 
 namespace mbgl {
@@ -40,11 +42,13 @@ namespace android {
         : Source(env, std::make_unique<mbgl::style::GeoJSONSource>(
                 jni::Make<std::string>(env, sourceId),
                 convertGeoJSONOptions(env, options))
-            ) {
+            ),
+          sourceOptions(source.as<mbgl::style::GeoJSONSource>()->GeoJSONSource::getOptions()) {
     }
 
     GeoJSONSource::GeoJSONSource(mbgl::style::GeoJSONSource& coreSource)
-        : Source(coreSource) {
+        : Source(coreSource),
+          sourceOptions(coreSource.getOptions()) {
     }
 
     GeoJSONSource::~GeoJSONSource() = default;
@@ -94,6 +98,117 @@ namespace android {
         source.as<mbgl::style::GeoJSONSource>()->GeoJSONSource::setGeoJSON(GeoJSON(geometry));
     }
 
+    jni::jlong GeoJSONSource::prepare(GeoJSON geoJSON) {
+        auto prepared = std::make_unique<mbgl::style::GeoJSONSource::Prepared>(std::move(geoJSON), sourceOptions);
+        return reinterpret_cast<jni::jlong>(prepared.release());
+    }
+
+    jni::jlong GeoJSONSource::prepareGeoJSONString(jni::JNIEnv& env, jni::String json) {
+        using namespace mbgl::style::conversion;
+
+        // Convert the jni object
+        Error error;
+        optional<GeoJSON> converted = convert<GeoJSON>(mbgl::android::Value(env, json), error);
+        if (!converted) {
+            std::string message = "Invalid geo json: " + error.message;
+            jni::ThrowNew(env, jni::FindClass(env, "java/lang/IllegalArgumentException"), message.c_str());
+            return 0;
+        }
+
+        return prepare(std::move(*converted));
+    }
+
+    jni::jlong GeoJSONSource::prepareFeatureCollection(jni::JNIEnv& env, jni::Object<geojson::FeatureCollection> jFeatures) {
+        return prepare(GeoJSON(geojson::FeatureCollection::convert(env, jFeatures)));
+    }
+
+    jni::jlong GeoJSONSource::prepareFeature(jni::JNIEnv& env, jni::Object<geojson::Feature> jFeature) {
+        return prepare(GeoJSON(geojson::Feature::convert(env, jFeature)));
+    }
+
+    jni::jlong GeoJSONSource::prepareGeometry(jni::JNIEnv& env, jni::Object<geojson::Geometry> jGeometry) {
+        return prepare(GeoJSON(geojson::Geometry::convert(env, jGeometry)));
+    }
+
+    jni::jlong GeoJSONSource::prepareGeobuf(jni::JNIEnv& env, jni::Object<java::nio::ByteBuffer> buffer,
+                                            jni::jint offset, jni::jint length) {
+        // The direct buffer is decoded in place
+        jni::NullCheck(env, &buffer);
+        const std::size_t capacity = jni::GetDirectBufferCapacity(env, *buffer);
+        if (offset < 0 || length < 0 || std::size_t(offset) + std::size_t(length) > capacity) {
+            jni::ThrowNew(env, jni::FindClass(env, "java/lang/IndexOutOfBoundsException"), "Invalid geobuf range");
+            return 0;
+        }
+
+        const char* data = reinterpret_cast<const char*>(jni::GetDirectBufferAddress(env, *buffer)) + offset;
+        GeoJSON geoJSON;
+        try {
+            geoJSON = mbgl::util::decodeGeobuf(data, length);
+        } catch (const std::exception& exception) {
+            std::string message = std::string("Invalid geobuf: ") + exception.what();
+            jni::ThrowNew(env, jni::FindClass(env, "java/lang/IllegalArgumentException"), message.c_str());
+            return 0;
+        }
+
+        return prepare(std::move(geoJSON));
+    }
+
+    void GeoJSONSource::setPreparedGeoJSON(jni::JNIEnv&, jni::jlong preparedPtr) {
+        // Takes ownership of the data returned by one of the prepare methods
+        std::unique_ptr<mbgl::style::GeoJSONSource::Prepared> prepared(
+            reinterpret_cast<mbgl::style::GeoJSONSource::Prepared*>(preparedPtr));
+
+        // Update the core source
+        source.as<mbgl::style::GeoJSONSource>()->GeoJSONSource::setGeoJSON(std::move(prepared));
+    }
+
+    void GeoJSONSource::releasePreparedGeoJSON(jni::JNIEnv&, jni::Class<GeoJSONSource>, jni::jlong preparedPtr) {
+        delete reinterpret_cast<mbgl::style::GeoJSONSource::Prepared*>(preparedPtr);
+    }
+
+    void GeoJSONSource::addFeatures(jni::JNIEnv& env, jni::Object<geojson::FeatureCollection> jFeatures) {
+        using namespace mbgl::android::geojson;
+
+        // Convert the jni object
+        auto features = FeatureCollection::convert(env, jFeatures);
+
+        // Update the core source
+        source.as<mbgl::style::GeoJSONSource>()->GeoJSONSource::addFeatures(features);
+    }
+
+    void GeoJSONSource::updateFeatures(jni::JNIEnv& env, jni::Object<geojson::FeatureCollection> jFeatures) {
+        using namespace mbgl::android::geojson;
+
+        // Convert the jni object
+        auto features = FeatureCollection::convert(env, jFeatures);
+
+        // Update the core source
+        source.as<mbgl::style::GeoJSONSource>()->GeoJSONSource::updateFeatures(features);
+    }
+
+    void GeoJSONSource::removeFeatures(jni::JNIEnv& env, jni::Array<jni::Object<>> jIds) {
+        // Ids are strings or numbers, numbers match the ids parsed from GeoJSON
+        std::vector<mbgl::FeatureIdentifier> ids;
+        for (std::size_t i = 0; i < jIds.Length(env); i++) {
+            mbgl::android::Value id(env, jIds.Get(env, i).Get());
+            if (id.isString()) {
+                ids.emplace_back(id.toString());
+            } else if (id.isNumber()) {
+                const double number = id.toDouble();
+                if (std::trunc(number) != number) {
+                    ids.emplace_back(number);
+                } else if (number < 0) {
+                    ids.emplace_back(int64_t(number));
+                } else {
+                    ids.emplace_back(uint64_t(number));
+                }
+            }
+        }
+
+        // Update the core source
+        source.as<mbgl::style::GeoJSONSource>()->GeoJSONSource::removeFeatures(ids);
+    }
+
     void GeoJSONSource::setURL(jni::JNIEnv& env, jni::String url) {
         // Update the core source
         source.as<mbgl::style::GeoJSONSource>()->GeoJSONSource::setURL(jni::Make<std::string>(env, url));
@@ -139,10 +254,26 @@ namespace android {
             METHOD(&GeoJSONSource::setFeatureCollection, "nativeSetFeatureCollection"),
             METHOD(&GeoJSONSource::setFeature, "nativeSetFeature"),
             METHOD(&GeoJSONSource::setGeometry, "nativeSetGeometry"),
+            METHOD(&GeoJSONSource::addFeatures, "nativeAddFeatures"),
+            METHOD(&GeoJSONSource::updateFeatures, "nativeUpdateFeatures"),
+            METHOD(&GeoJSONSource::removeFeatures, "nativeRemoveFeatures"),
             METHOD(&GeoJSONSource::setURL, "nativeSetUrl"),
             METHOD(&GeoJSONSource::getURL, "nativeGetUrl"),
+            METHOD(&GeoJSONSource::prepareGeoJSONString, "nativePrepareGeoJsonString"),
+            METHOD(&GeoJSONSource::prepareFeatureCollection, "nativePrepareFeatureCollection"),
+            METHOD(&GeoJSONSource::prepareFeature, "nativePrepareFeature"),
+            METHOD(&GeoJSONSource::prepareGeometry, "nativePrepareGeometry"),
+            METHOD(&GeoJSONSource::prepareGeobuf, "nativePrepareGeobuf"),
+            METHOD(&GeoJSONSource::setPreparedGeoJSON, "nativeSetPreparedGeoJson"),
             METHOD(&GeoJSONSource::querySourceFeatures, "querySourceFeatures")
         );
+
+        #define STATIC_METHOD(MethodPtr, name) jni::MakeNativeMethod<decltype(MethodPtr), (MethodPtr)>(name)
+
+        // Prepared data can be released without a peer
+        jni::RegisterNatives(env, GeoJSONSource::javaClass,
+            STATIC_METHOD(&GeoJSONSource::releasePreparedGeoJSON, "nativeReleasePreparedGeoJson")
+        );
     }
 
 } // namespace android
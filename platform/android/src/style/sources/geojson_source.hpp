@@ -5,6 +5,7 @@
 #include "../../geojson/geometry.hpp"
 #include "../../geojson/feature.hpp"
 #include "../../geojson/feature_collection.hpp"
+#include "../../java/nio.hpp"
 #include <jni/jni.hpp>
 
 namespace mbgl {
@@ -35,6 +36,28 @@ public:
 
     void setURL(jni::JNIEnv&, jni::String);
 
+    // Preparing converts the data and builds its tile index, it can be called on any thread
+
+    jni::jlong prepareGeoJSONString(jni::JNIEnv&, jni::String);
+
+    jni::jlong prepareFeatureCollection(jni::JNIEnv&, jni::Object<geojson::FeatureCollection>);
+
+    jni::jlong prepareFeature(jni::JNIEnv&, jni::Object<geojson::Feature>);
+
+    jni::jlong prepareGeometry(jni::JNIEnv&, jni::Object<geojson::Geometry>);
+
+    jni::jlong prepareGeobuf(jni::JNIEnv&, jni::Object<java::nio::ByteBuffer>, jni::jint offset, jni::jint length);
+
+    void setPreparedGeoJSON(jni::JNIEnv&, jni::jlong);
+
+    static void releasePreparedGeoJSON(jni::JNIEnv&, jni::Class<GeoJSONSource>, jni::jlong);
+
+    void addFeatures(jni::JNIEnv&, jni::Object<geojson::FeatureCollection>);
+
+    void updateFeatures(jni::JNIEnv&, jni::Object<geojson::FeatureCollection>);
+
+    void removeFeatures(jni::JNIEnv&, jni::Array<jni::Object<>>);
+
     jni::Array<jni::Object<geojson::Feature>> querySourceFeatures(jni::JNIEnv&,
                                                                   jni::Array<jni::Object<>> jfilter);
 
@@ -42,6 +65,12 @@ public:
 
     jni::jobject* createJavaPeer(jni::JNIEnv&);
 
+private:
+    jni::jlong prepare(GeoJSON);
+
+    // Options never change, a copy can be read on any thread
+    const mbgl::style::GeoJSONOptions sourceOptions;
+
 }; // class GeoJSONSource
 
 } // namespace android
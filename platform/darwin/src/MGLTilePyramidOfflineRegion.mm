@@ -8,6 +8,8 @@
 #import "MGLGeometry_Private.h"
 #import "MGLStyle.h"
 
+#include <mapbox/geometry/envelope.hpp>
+
 @interface MGLTilePyramidOfflineRegion () <MGLOfflineRegion_Private>
 
 @end
@@ -54,9 +56,20 @@
 }
 
 - (instancetype)initWithOfflineRegionDefinition:(const mbgl::OfflineRegionDefinition &)definition {
-    NSURL *styleURL = [NSURL URLWithString:@(definition.styleURL.c_str())];
-    MGLCoordinateBounds bounds = MGLCoordinateBoundsFromLatLngBounds(definition.bounds);
-    return [self initWithStyleURL:styleURL bounds:bounds fromZoomLevel:definition.minZoom toZoomLevel:definition.maxZoom];
+    if (definition.is<mbgl::OfflineGeometryRegionDefinition>()) {
+        // Geometry regions can be created by other SDKs sharing the database, they are exposed by their bounds.
+        const auto &geometryDefinition = definition.get<mbgl::OfflineGeometryRegionDefinition>();
+        NSURL *styleURL = [NSURL URLWithString:@(geometryDefinition.styleURL.c_str())];
+        const auto envelope = mapbox::geometry::envelope(geometryDefinition.geometry);
+        MGLCoordinateBounds bounds = MGLCoordinateBoundsMake(CLLocationCoordinate2DMake(envelope.min.y, envelope.min.x),
+                                                             CLLocationCoordinate2DMake(envelope.max.y, envelope.max.x));
+        return [self initWithStyleURL:styleURL bounds:bounds fromZoomLevel:geometryDefinition.minZoom toZoomLevel:geometryDefinition.maxZoom];
+    }
+
+    const auto &tilePyramidDefinition = definition.get<mbgl::OfflineTilePyramidRegionDefinition>();
+    NSURL *styleURL = [NSURL URLWithString:@(tilePyramidDefinition.styleURL.c_str())];
+    MGLCoordinateBounds bounds = MGLCoordinateBoundsFromLatLngBounds(tilePyramidDefinition.bounds);
+    return [self initWithStyleURL:styleURL bounds:bounds fromZoomLevel:tilePyramidDefinition.minZoom toZoomLevel:tilePyramidDefinition.maxZoom];
 }
 
 - (const mbgl::OfflineRegionDefinition)offlineRegionDefinition {
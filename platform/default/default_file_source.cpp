@@ -12,7 +12,9 @@
 #include <mbgl/util/thread.hpp>
 #include <mbgl/util/work_request.hpp>
 
+#include <algorithm>
 #include <cassert>
+#include <set>
 
 namespace {
 
@@ -28,8 +30,9 @@ namespace mbgl {
 
 class DefaultFileSource::Impl {
 public:
-    Impl(ActorRef<Impl> self, std::shared_ptr<FileSource> assetFileSource_, const std::string& cachePath, uint64_t maximumCacheSize)
-            : assetFileSource(assetFileSource_)
+    Impl(ActorRef<Impl> self_, std::shared_ptr<FileSource> assetFileSource_, const std::string& cachePath, uint64_t maximumCacheSize)
+            : self(self_)
+            , assetFileSource(assetFileSource_)
             , localFileSource(std::make_unique<LocalFileSource>()) {
         // Initialize the Database asynchronously so as to not block Actor creation.
         self.invoke(&Impl::initializeOfflineDatabase, cachePath, maximumCacheSize);
@@ -67,6 +70,41 @@ public:
         }
     }
 
+    void listInterruptedRegions(std::function<void (std::exception_ptr, optional<std::vector<OfflineRegion>>)> callback) {
+        try {
+            std::vector<OfflineRegion> regions = offlineDatabase->listActiveRegions();
+            // Regions whose download state was set in this session were activated or deactivated since.
+            regions.erase(std::remove_if(regions.begin(), regions.end(), [&] (const OfflineRegion& region) {
+                return downloadStateChanged.find(region.getID()) != downloadStateChanged.end();
+            }), regions.end());
+            callback({}, std::move(regions));
+        } catch (...) {
+            callback(std::current_exception(), {});
+        }
+    }
+
+    void listRegionsWithStatus(std::function<void (std::exception_ptr, optional<std::vector<std::pair<OfflineRegion, OfflineRegionStatus>>>)> callback) {
+        try {
+            std::vector<std::pair<OfflineRegion, OfflineRegionStatus>> result;
+            for (auto& region : offlineDatabase->listRegions()) {
+                auto it = downloads.find(region.getID());
+                if (it != downloads.end()) {
+                    OfflineRegionStatus status = it->second->getStatus();
+                    result.emplace_back(std::move(region), status);
+                    continue;
+                }
+                // Don't keep a download around for every region listed, compute the status with a temporary one
+                OfflineRegionDefinition definition = region.getDefinition();
+                OfflineRegionStatus status = OfflineDownload(region.getID(), std::move(definition),
+                                                             *offlineDatabase, onlineFileSource).getStatus();
+                result.emplace_back(std::move(region), status);
+            }
+            callback({}, std::move(result));
+        } catch (...) {
+            callback(std::current_exception(), {});
+        }
+    }
+
     void createRegion(const OfflineRegionDefinition& definition,
                       const OfflineRegionMetadata& metadata,
                       std::function<void (std::exception_ptr, optional<OfflineRegion>)> callback) {
@@ -95,6 +133,15 @@ public:
         }
     }
 
+    void estimateRegion(const OfflineRegionDefinition& definition,
+                        std::function<void (std::exception_ptr, optional<OfflineRegionEstimate>)> callback) {
+        try {
+            callback({}, estimateOfflineRegion(definition, *offlineDatabase));
+        } catch (...) {
+            callback(std::current_exception(), {});
+        }
+    }
+
     void deleteRegion(OfflineRegion&& region, std::function<void (std::exception_ptr)> callback) {
         try {
             downloads.erase(region.getID());
@@ -105,11 +152,58 @@ public:
         }
     }
 
+    void deleteRegions(std::vector<int64_t> regionIDs, std::function<void (std::exception_ptr)> callback) {
+        try {
+            for (int64_t regionID : regionIDs) {
+                downloads.erase(regionID);
+            }
+            offlineDatabase->deleteRegions(regionIDs);
+            callback({});
+        } catch (...) {
+            callback(std::current_exception());
+        }
+    }
+
+    void compactDatabase(std::function<void (uint64_t, uint64_t)> progress,
+                         std::function<void (std::exception_ptr, optional<uint64_t>)> callback) {
+        try {
+            const uint64_t reclaimableSize = offlineDatabase->startCompaction();
+            continueCompaction(0, reclaimableSize, progress, callback);
+        } catch (...) {
+            callback(std::current_exception(), {});
+        }
+    }
+
+    // Each step is a separate message, so that requests and other database operations
+    // are not held back until the whole database is compacted.
+    void continueCompaction(uint64_t reclaimedSize,
+                            uint64_t reclaimableSize,
+                            std::function<void (uint64_t, uint64_t)> progress,
+                            std::function<void (std::exception_ptr, optional<uint64_t>)> callback) {
+        try {
+            const uint64_t stepSize = reclaimedSize < reclaimableSize ? offlineDatabase->compactStep() : 0;
+            if (stepSize == 0) {
+                callback({}, reclaimedSize);
+                return;
+            }
+
+            reclaimedSize += stepSize;
+            // Operations between steps can free more pages.
+            reclaimableSize = std::max(reclaimableSize, reclaimedSize);
+            progress(reclaimedSize, reclaimableSize);
+
+            self.invoke(&Impl::continueCompaction, reclaimedSize, reclaimableSize, progress, callback);
+        } catch (...) {
+            callback(std::current_exception(), {});
+        }
+    }
+
     void setRegionObserver(int64_t regionID, std::unique_ptr<OfflineRegionObserver> observer) {
         getDownload(regionID).setObserver(std::move(observer));
     }
 
     void setRegionDownloadState(int64_t regionID, OfflineRegionDownloadState state) {
+        downloadStateChanged.insert(regionID);
         getDownload(regionID).setState(state);
     }
 
@@ -173,6 +267,10 @@ public:
         tasks.erase(req);
     }
 
+    void setOfflineDownloadOptions(const OfflineDownloadOptions& options) {
+        downloadScheduler.setOptions(options);
+    }
+
     void setOfflineMapboxTileCountLimit(uint64_t limit) {
         offlineDatabase->setOfflineMapboxTileCountLimit(limit);
     }
@@ -192,16 +290,23 @@ private:
             return *it->second;
         }
         return *downloads.emplace(regionID,
-            std::make_unique<OfflineDownload>(regionID, offlineDatabase->getRegionDefinition(regionID), *offlineDatabase, onlineFileSource)).first->second;
+            std::make_unique<OfflineDownload>(regionID, offlineDatabase->getRegionDefinition(regionID), *offlineDatabase, onlineFileSource, downloadScheduler)).first->second;
     }
 
+    ActorRef<Impl> self;
+
     // shared so that destruction is done on the creating thread
     const std::shared_ptr<FileSource> assetFileSource;
     const std::unique_ptr<FileSource> localFileSource;
     std::unique_ptr<OfflineDatabase> offlineDatabase;
     OnlineFileSource onlineFileSource;
     std::unordered_map<AsyncRequest*, std::unique_ptr<AsyncRequest>> tasks;
+    // Declared before the downloads, which use it until they are destroyed.
+    OfflineDownloadScheduler downloadScheduler;
     std::unordered_map<int64_t, std::unique_ptr<OfflineDownload>> downloads;
+    // Regions whose download state was set in this session; downloads are also
+    // created to read the status of a region or observe it.
+    std::set<int64_t> downloadStateChanged;
 };
 
 DefaultFileSource::DefaultFileSource(const std::string& cachePath,
@@ -265,6 +370,14 @@ void DefaultFileSource::listOfflineRegions(std::function<void (std::exception_pt
     impl->actor().invoke(&Impl::listRegions, callback);
 }
 
+void DefaultFileSource::listInterruptedOfflineRegions(std::function<void (std::exception_ptr, optional<std::vector<OfflineRegion>>)> callback) {
+    impl->actor().invoke(&Impl::listInterruptedRegions, callback);
+}
+
+void DefaultFileSource::listOfflineRegionsWithStatus(std::function<void (std::exception_ptr, optional<std::vector<std::pair<OfflineRegion, OfflineRegionStatus>>>)> callback) {
+    impl->actor().invoke(&Impl::listRegionsWithStatus, callback);
+}
+
 void DefaultFileSource::createOfflineRegion(const OfflineRegionDefinition& definition,
                                             const OfflineRegionMetadata& metadata,
                                             std::function<void (std::exception_ptr, optional<OfflineRegion>)> callback) {
@@ -281,6 +394,15 @@ void DefaultFileSource::deleteOfflineRegion(OfflineRegion&& region, std::functio
     impl->actor().invoke(&Impl::deleteRegion, std::move(region), callback);
 }
 
+void DefaultFileSource::deleteOfflineRegions(std::vector<int64_t> regionIDs, std::function<void (std::exception_ptr)> callback) {
+    impl->actor().invoke(&Impl::deleteRegions, std::move(regionIDs), callback);
+}
+
+void DefaultFileSource::compactOfflineDatabase(std::function<void (uint64_t, uint64_t)> progress,
+                                               std::function<void (std::exception_ptr, optional<uint64_t>)> callback) {
+    impl->actor().invoke(&Impl::compactDatabase, progress, callback);
+}
+
 void DefaultFileSource::setOfflineRegionObserver(OfflineRegion& region, std::unique_ptr<OfflineRegionObserver> observer) {
     impl->actor().invoke(&Impl::setRegionObserver, region.getID(), std::move(observer));
 }
@@ -293,6 +415,14 @@ void DefaultFileSource::getOfflineRegionStatus(OfflineRegion& region, std::funct
     impl->actor().invoke(&Impl::getRegionStatus, region.getID(), callback);
 }
 
+void DefaultFileSource::estimateOfflineRegion(const OfflineRegionDefinition& definition, std::function<void (std::exception_ptr, optional<OfflineRegionEstimate>)> callback) const {
+    impl->actor().invoke(&Impl::estimateRegion, definition, callback);
+}
+
+void DefaultFileSource::setOfflineDownloadOptions(const OfflineDownloadOptions& options) {
+    impl->actor().invoke(&Impl::setOfflineDownloadOptions, options);
+}
+
 void DefaultFileSource::setOfflineMapboxTileCountLimit(uint64_t limit) const {
     impl->actor().invoke(&Impl::setOfflineMapboxTileCountLimit, limit);
 }
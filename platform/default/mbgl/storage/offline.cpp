@@ -3,6 +3,9 @@
 #include <mbgl/util/tileset.hpp>
 #include <mbgl/util/projection.hpp>
 
+#include <mapbox/geojson.hpp>
+#include <mapbox/geojson/rapidjson.hpp>
+
 #include <rapidjson/document.h>
 #include <rapidjson/stringbuffer.h>
 #include <rapidjson/writer.h>
@@ -11,6 +14,28 @@
 
 namespace mbgl {
 
+namespace {
+
+void validateZoomRange(double minZoom, double maxZoom, float pixelRatio) {
+    if (minZoom < 0 || maxZoom < 0 || maxZoom < minZoom || pixelRatio < 0 ||
+        !std::isfinite(minZoom) || std::isnan(maxZoom) || !std::isfinite(pixelRatio)) {
+        throw std::invalid_argument("Invalid offline region definition");
+    }
+}
+
+Range<uint8_t> coveringZoomRange(double minZoom, double maxZoom, style::SourceType type, uint16_t tileSize, const Range<uint8_t>& zoomRange) {
+    double minZ = std::max<double>(util::coveringZoomLevel(minZoom, type, tileSize), zoomRange.min);
+    double maxZ = std::min<double>(util::coveringZoomLevel(maxZoom, type, tileSize), zoomRange.max);
+
+    assert(minZ >= 0);
+    assert(maxZ >= 0);
+    assert(minZ < std::numeric_limits<uint8_t>::max());
+    assert(maxZ < std::numeric_limits<uint8_t>::max());
+    return { static_cast<uint8_t>(minZ), static_cast<uint8_t>(maxZ) };
+}
+
+} // namespace
+
 OfflineTilePyramidRegionDefinition::OfflineTilePyramidRegionDefinition(
     std::string styleURL_, LatLngBounds bounds_, double minZoom_, double maxZoom_, float pixelRatio_)
     : styleURL(std::move(styleURL_)),
@@ -18,10 +43,7 @@ OfflineTilePyramidRegionDefinition::OfflineTilePyramidRegionDefinition(
       minZoom(minZoom_),
       maxZoom(maxZoom_),
       pixelRatio(pixelRatio_) {
-    if (minZoom < 0 || maxZoom < 0 || maxZoom < minZoom || pixelRatio < 0 ||
-        !std::isfinite(minZoom) || std::isnan(maxZoom) || !std::isfinite(pixelRatio)) {
-        throw std::invalid_argument("Invalid offline region definition");
-    }
+    validateZoomRange(minZoom, maxZoom, pixelRatio);
 }
 
 std::vector<CanonicalTileID> OfflineTilePyramidRegionDefinition::tileCover(style::SourceType type, uint16_t tileSize, const Range<uint8_t>& zoomRange) const {
@@ -50,25 +72,65 @@ uint64_t OfflineTilePyramidRegionDefinition::tileCount(style::SourceType type, u
 }
 
 Range<uint8_t> OfflineTilePyramidRegionDefinition::coveringZoomRange(style::SourceType type, uint16_t tileSize, const Range<uint8_t>& zoomRange) const {
-    double minZ = std::max<double>(util::coveringZoomLevel(minZoom, type, tileSize), zoomRange.min);
-    double maxZ = std::min<double>(util::coveringZoomLevel(maxZoom, type, tileSize), zoomRange.max);
+    return mbgl::coveringZoomRange(minZoom, maxZoom, type, tileSize, zoomRange);
+}
 
-    assert(minZ >= 0);
-    assert(maxZ >= 0);
-    assert(minZ < std::numeric_limits<uint8_t>::max());
-    assert(maxZ < std::numeric_limits<uint8_t>::max());
-    return { static_cast<uint8_t>(minZ), static_cast<uint8_t>(maxZ) };
+OfflineGeometryRegionDefinition::OfflineGeometryRegionDefinition(
+    std::string styleURL_, Geometry<double> geometry_, double minZoom_, double maxZoom_, float pixelRatio_, double bufferDistance_)
+    : styleURL(std::move(styleURL_)),
+      geometry(std::move(geometry_)),
+      minZoom(minZoom_),
+      maxZoom(maxZoom_),
+      pixelRatio(pixelRatio_),
+      bufferDistance(bufferDistance_) {
+    validateZoomRange(minZoom, maxZoom, pixelRatio);
+    if (bufferDistance < 0 || !std::isfinite(bufferDistance)) {
+        throw std::invalid_argument("Invalid offline region definition");
+    }
+}
+
+std::vector<CanonicalTileID> OfflineGeometryRegionDefinition::tileCover(style::SourceType type, uint16_t tileSize, const Range<uint8_t>& zoomRange) const {
+    const Range<uint8_t> clampedZoomRange = coveringZoomRange(type, tileSize, zoomRange);
+
+    std::vector<CanonicalTileID> result;
+
+    for (uint8_t z = clampedZoomRange.min; z <= clampedZoomRange.max; z++) {
+        for (const auto& tile : util::tileCover(geometry, z, bufferDistance)) {
+            result.emplace_back(tile.canonical);
+        }
+    }
+
+    return result;
+}
+
+uint64_t OfflineGeometryRegionDefinition::tileCount(style::SourceType type, uint16_t tileSize, const Range<uint8_t>& zoomRange) const {
+    const Range<uint8_t> clampedZoomRange = coveringZoomRange(type, tileSize, zoomRange);
+    uint64_t result = 0;
+    for (uint8_t z = clampedZoomRange.min; z <= clampedZoomRange.max; z++) {
+        result += util::tileCount(geometry, z, bufferDistance);
+    }
+
+    return result;
+}
+
+Range<uint8_t> OfflineGeometryRegionDefinition::coveringZoomRange(style::SourceType type, uint16_t tileSize, const Range<uint8_t>& zoomRange) const {
+    return mbgl::coveringZoomRange(minZoom, maxZoom, type, tileSize, zoomRange);
 }
 
 OfflineRegionDefinition decodeOfflineRegionDefinition(const std::string& region) {
     rapidjson::GenericDocument<rapidjson::UTF8<>, rapidjson::CrtAllocator> doc;
     doc.Parse<0>(region.c_str());
 
-    if (doc.HasParseError() ||
+    // A geometry member distinguishes geometry regions, tile pyramids are encoded with bounds
+    const bool isGeometry = !doc.HasParseError() && doc.IsObject() && doc.HasMember("geometry");
+
+    if (doc.HasParseError() || !doc.IsObject() ||
         !doc.HasMember("style_url") || !doc["style_url"].IsString() ||
-        !doc.HasMember("bounds") || !doc["bounds"].IsArray() || doc["bounds"].Size() != 4 ||
+        (isGeometry && (!doc["geometry"].IsObject() ||
+          (doc.HasMember("buffer_distance") && !doc["buffer_distance"].IsNumber()))) ||
+        (!isGeometry && (!doc.HasMember("bounds") || !doc["bounds"].IsArray() || doc["bounds"].Size() != 4 ||
           !doc["bounds"][0].IsDouble() || !doc["bounds"][1].IsDouble() ||
-          !doc["bounds"][2].IsDouble() || !doc["bounds"][3].IsDouble() ||
+          !doc["bounds"][2].IsDouble() || !doc["bounds"][3].IsDouble())) ||
         !doc.HasMember("min_zoom") || !doc["min_zoom"].IsDouble() ||
         (doc.HasMember("max_zoom") && !doc["max_zoom"].IsDouble()) ||
         !doc.HasMember("pixel_ratio") || !doc["pixel_ratio"].IsDouble()) {
@@ -76,35 +138,60 @@ OfflineRegionDefinition decodeOfflineRegionDefinition(const std::string& region)
     }
 
     std::string styleURL { doc["style_url"].GetString(), doc["style_url"].GetStringLength() };
-    LatLngBounds bounds = LatLngBounds::hull(
-        LatLng(doc["bounds"][0].GetDouble(), doc["bounds"][1].GetDouble()),
-        LatLng(doc["bounds"][2].GetDouble(), doc["bounds"][3].GetDouble()));
     double minZoom = doc["min_zoom"].GetDouble();
     double maxZoom = doc.HasMember("max_zoom") ? doc["max_zoom"].GetDouble() : INFINITY;
     float pixelRatio = doc["pixel_ratio"].GetDouble();
 
-    return { styleURL, bounds, minZoom, maxZoom, pixelRatio };
+    if (isGeometry) {
+        Geometry<double> geometry = mapbox::geojson::convert<Geometry<double>>(doc["geometry"]);
+        double bufferDistance = doc.HasMember("buffer_distance") ? doc["buffer_distance"].GetDouble() : 0;
+        return OfflineGeometryRegionDefinition { styleURL, geometry, minZoom, maxZoom, pixelRatio, bufferDistance };
+    }
+
+    LatLngBounds bounds = LatLngBounds::hull(
+        LatLng(doc["bounds"][0].GetDouble(), doc["bounds"][1].GetDouble()),
+        LatLng(doc["bounds"][2].GetDouble(), doc["bounds"][3].GetDouble()));
+
+    return OfflineTilePyramidRegionDefinition { styleURL, bounds, minZoom, maxZoom, pixelRatio };
 }
 
 std::string encodeOfflineRegionDefinition(const OfflineRegionDefinition& region) {
     rapidjson::GenericDocument<rapidjson::UTF8<>, rapidjson::CrtAllocator> doc;
     doc.SetObject();
 
-    doc.AddMember("style_url", rapidjson::StringRef(region.styleURL.data(), region.styleURL.length()), doc.GetAllocator());
-
-    rapidjson::GenericValue<rapidjson::UTF8<>, rapidjson::CrtAllocator> bounds(rapidjson::kArrayType);
-    bounds.PushBack(region.bounds.south(), doc.GetAllocator());
-    bounds.PushBack(region.bounds.west(), doc.GetAllocator());
-    bounds.PushBack(region.bounds.north(), doc.GetAllocator());
-    bounds.PushBack(region.bounds.east(), doc.GetAllocator());
-    doc.AddMember("bounds", bounds, doc.GetAllocator());
-
-    doc.AddMember("min_zoom", region.minZoom, doc.GetAllocator());
-    if (std::isfinite(region.maxZoom)) {
-        doc.AddMember("max_zoom", region.maxZoom, doc.GetAllocator());
-    }
-
-    doc.AddMember("pixel_ratio", region.pixelRatio, doc.GetAllocator());
+    region.match(
+        [&] (const OfflineTilePyramidRegionDefinition& definition) {
+            doc.AddMember("style_url", rapidjson::StringRef(definition.styleURL.data(), definition.styleURL.length()), doc.GetAllocator());
+
+            rapidjson::GenericValue<rapidjson::UTF8<>, rapidjson::CrtAllocator> bounds(rapidjson::kArrayType);
+            bounds.PushBack(definition.bounds.south(), doc.GetAllocator());
+            bounds.PushBack(definition.bounds.west(), doc.GetAllocator());
+            bounds.PushBack(definition.bounds.north(), doc.GetAllocator());
+            bounds.PushBack(definition.bounds.east(), doc.GetAllocator());
+            doc.AddMember("bounds", bounds, doc.GetAllocator());
+
+            doc.AddMember("min_zoom", definition.minZoom, doc.GetAllocator());
+            if (std::isfinite(definition.maxZoom)) {
+                doc.AddMember("max_zoom", definition.maxZoom, doc.GetAllocator());
+            }
+
+            doc.AddMember("pixel_ratio", definition.pixelRatio, doc.GetAllocator());
+        },
+        [&] (const OfflineGeometryRegionDefinition& definition) {
+            doc.AddMember("style_url", rapidjson::StringRef(definition.styleURL.data(), definition.styleURL.length()), doc.GetAllocator());
+            doc.AddMember("geometry", mapbox::geojson::convert(definition.geometry, doc.GetAllocator()), doc.GetAllocator());
+            if (definition.bufferDistance > 0) {
+                doc.AddMember("buffer_distance", definition.bufferDistance, doc.GetAllocator());
+            }
+
+            doc.AddMember("min_zoom", definition.minZoom, doc.GetAllocator());
+            if (std::isfinite(definition.maxZoom)) {
+                doc.AddMember("max_zoom", definition.maxZoom, doc.GetAllocator());
+            }
+
+            doc.AddMember("pixel_ratio", definition.pixelRatio, doc.GetAllocator());
+        }
+    );
 
     rapidjson::StringBuffer buffer;
     rapidjson::Writer<rapidjson::StringBuffer> writer(buffer);
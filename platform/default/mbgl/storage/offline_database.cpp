@@ -50,7 +50,8 @@ void OfflineDatabase::ensureSchema() {
             case 3: // no-op and fall through
             case 4: migrateToVersion5(); // fall through
             case 5: migrateToVersion6(); // fall through
-            case 6: return;
+            case 6: migrateToVersion7(); // fall through
+            case 7: return;
             default: break; // downgrade, delete the database
             }
 
@@ -84,7 +85,7 @@ void OfflineDatabase::ensureSchema() {
         db->exec("PRAGMA journal_mode = DELETE");
         db->exec("PRAGMA synchronous = FULL");
         db->exec(schema);
-        db->exec("PRAGMA user_version = 6");
+        db->exec("PRAGMA user_version = 7");
     } catch (...) {
         Log::Error(Event::Database, "Unexpected error creating database schema: %s", util::toString(std::current_exception()).c_str());
         throw;
@@ -135,6 +136,13 @@ void OfflineDatabase::migrateToVersion6() {
     transaction.commit();
 }
 
+void OfflineDatabase::migrateToVersion7() {
+    mapbox::sqlite::Transaction transaction(*db);
+    db->exec("ALTER TABLE regions ADD COLUMN download_state INTEGER NOT NULL DEFAULT 0");
+    db->exec("PRAGMA user_version = 7");
+    transaction.commit();
+}
+
 OfflineDatabase::Statement OfflineDatabase::getStatement(const char * sql) {
     auto it = statements.find(sql);
 
@@ -575,6 +583,24 @@ std::vector<OfflineRegion> OfflineDatabase::listRegions() {
     return result;
 }
 
+std::vector<OfflineRegion> OfflineDatabase::listActiveRegions() {
+    // clang-format off
+    Statement stmt = getStatement(
+        "SELECT id, definition, description FROM regions WHERE download_state = 1");
+    // clang-format on
+
+    std::vector<OfflineRegion> result;
+
+    while (stmt->run()) {
+        result.push_back(OfflineRegion(
+            stmt->get<int64_t>(0),
+            decodeOfflineRegionDefinition(stmt->get<std::string>(1)),
+            stmt->get<std::vector<uint8_t>>(2)));
+    }
+
+    return result;
+}
+
 OfflineRegion OfflineDatabase::createRegion(const OfflineRegionDefinition& definition,
                                             const OfflineRegionMetadata& metadata) {
     // clang-format off
@@ -603,6 +629,17 @@ OfflineRegionMetadata OfflineDatabase::updateMetadata(const int64_t regionID, co
     return metadata;
 }
 
+void OfflineDatabase::setRegionDownloadState(int64_t regionID, OfflineRegionDownloadState state) {
+    // clang-format off
+    Statement stmt = getStatement(
+        "UPDATE regions SET download_state = ?1 WHERE id = ?2");
+    // clang-format on
+
+    stmt->bind(1, state == OfflineRegionDownloadState::Active ? 1 : 0);
+    stmt->bind(2, regionID);
+    stmt->run();
+}
+
 void OfflineDatabase::deleteRegion(OfflineRegion&& region) {
     // clang-format off
     Statement stmt = getStatement(
@@ -619,6 +656,55 @@ void OfflineDatabase::deleteRegion(OfflineRegion&& region) {
     offlineMapboxTileCount = {};
 }
 
+void OfflineDatabase::deleteRegions(const std::vector<int64_t>& regionIDs) {
+    {
+        mapbox::sqlite::Transaction transaction(*db, mapbox::sqlite::Transaction::Immediate);
+
+        for (int64_t regionID : regionIDs) {
+            // clang-format off
+            Statement stmt = getStatement(
+                "DELETE FROM regions WHERE id = ?");
+            // clang-format on
+
+            stmt->bind(1, regionID);
+            stmt->run();
+        }
+
+        transaction.commit();
+    }
+
+    evict(0);
+
+    // Ensure that the cached offlineTileCount value is recalculated.
+    offlineMapboxTileCount = {};
+}
+
+uint64_t OfflineDatabase::startCompaction() {
+    evict(0);
+
+    return getPragma<int64_t>("PRAGMA page_size") * getPragma<int64_t>("PRAGMA freelist_count");
+}
+
+// A VACUUM would rebuild the whole file at once, without reporting progress and
+// requiring as much free disk space as the database takes. The database uses
+// incremental auto vacuum instead, so free pages can be truncated in steps.
+uint64_t OfflineDatabase::compactStep() {
+    const uint64_t freePageCount = getPragma<int64_t>("PRAGMA freelist_count");
+    if (freePageCount == 0) {
+        return 0;
+    }
+
+    db->exec("PRAGMA incremental_vacuum(4096)");
+
+    // Without incremental auto vacuum, the pragma has no effect.
+    const uint64_t remainingPageCount = getPragma<int64_t>("PRAGMA freelist_count");
+    if (remainingPageCount >= freePageCount) {
+        return 0;
+    }
+
+    return (freePageCount - remainingPageCount) * getPragma<int64_t>("PRAGMA page_size");
+}
+
 optional<std::pair<Response, uint64_t>> OfflineDatabase::getRegionResource(int64_t regionID, const Resource& resource) {
     auto response = getInternal(resource);
 
@@ -784,6 +870,28 @@ std::pair<int64_t, int64_t> OfflineDatabase::getCompletedTileCountAndSize(int64_
     return { stmt->get<int64_t>(0), stmt->get<int64_t>(1) };
 }
 
+std::map<uint8_t, std::pair<uint64_t, double>> OfflineDatabase::getTileSizeAverages(const std::string& urlTemplate) {
+    // clang-format off
+    Statement stmt = urlTemplate.empty() ? getStatement(
+        "SELECT z, COUNT(*), AVG(IFNULL(LENGTH(data), 0)) "
+        "FROM tiles "
+        "GROUP BY z") : getStatement(
+        "SELECT z, COUNT(*), AVG(IFNULL(LENGTH(data), 0)) "
+        "FROM tiles "
+        "WHERE url_template = ?1 "
+        "GROUP BY z");
+    // clang-format on
+    if (!urlTemplate.empty()) {
+        stmt->bind(1, urlTemplate);
+    }
+
+    std::map<uint8_t, std::pair<uint64_t, double>> result;
+    while (stmt->run()) {
+        result.emplace(stmt->get<int64_t>(0), std::make_pair(stmt->get<int64_t>(1), stmt->get<double>(2)));
+    }
+    return result;
+}
+
 template <class T>
 T OfflineDatabase::getPragma(const char * sql) {
     Statement stmt = getStatement(sql);
@@ -7,6 +7,7 @@
 #include <mbgl/util/constants.hpp>
 #include <mbgl/util/mapbox.hpp>
 
+#include <map>
 #include <unordered_map>
 #include <memory>
 #include <string>
@@ -37,13 +38,31 @@ public:
 
     std::vector<OfflineRegion> listRegions();
 
+    // Regions whose download state was last set to active, including downloads
+    // interrupted by the process being stopped.
+    std::vector<OfflineRegion> listActiveRegions();
+
     OfflineRegion createRegion(const OfflineRegionDefinition&,
                                const OfflineRegionMetadata&);
 
     OfflineRegionMetadata updateMetadata(const int64_t regionID, const OfflineRegionMetadata&);
 
+    void setRegionDownloadState(int64_t regionID, OfflineRegionDownloadState);
+
     void deleteRegion(OfflineRegion&&);
 
+    // Deletes the regions in a single transaction and evicts once. The freed space
+    // stays in the database file until it is compacted.
+    void deleteRegions(const std::vector<int64_t>& regionIDs);
+
+    // Evicts cached resources beyond the maximum cache size. Return value is the
+    // size the database file can be shrunk by, in successive compactStep() calls.
+    uint64_t startCompaction();
+
+    // Truncates a bounded number of free pages of the database file. Return value
+    // is the reclaimed size, 0 once there is nothing left to reclaim.
+    uint64_t compactStep();
+
     // Return value is (response, stored size)
     optional<std::pair<Response, uint64_t>> getRegionResource(int64_t regionID, const Resource&);
     optional<int64_t> hasRegionResource(int64_t regionID, const Resource&);
@@ -52,6 +71,10 @@ public:
     OfflineRegionDefinition getRegionDefinition(int64_t regionID);
     OfflineRegionStatus getRegionCompletedStatus(int64_t regionID);
 
+    // Return value is (tile count, average stored size) by zoom level, for the tiles
+    // of a URL template, or for all tiles when the template is empty.
+    std::map<uint8_t, std::pair<uint64_t, double>> getTileSizeAverages(const std::string& urlTemplate);
+
     void setOfflineMapboxTileCountLimit(uint64_t);
     uint64_t getOfflineMapboxTileCountLimit();
     bool offlineMapboxTileCountLimitExceeded();
@@ -65,6 +88,7 @@ private:
     void migrateToVersion3();
     void migrateToVersion5();
     void migrateToVersion6();
+    void migrateToVersion7();
 
     class Statement {
     public:
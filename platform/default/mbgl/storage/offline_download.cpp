@@ -16,13 +16,148 @@
 #include <mbgl/util/run_loop.hpp>
 #include <mbgl/util/tile_cover.hpp>
 #include <mbgl/util/tileset.hpp>
+#include <mbgl/util/async_request.hpp>
 
+#include <cassert>
+#include <cmath>
+#include <map>
 #include <set>
 
 namespace mbgl {
 
 using namespace style;
 
+namespace {
+
+// A delayed retry, held with the requests of a download so that deactivating the
+// download cancels it.
+class RetryRequest : public AsyncRequest {
+public:
+    RetryRequest(Duration delay, std::function<void ()> retry_)
+        : retry(std::move(retry_)) {
+        timer.start(delay, Duration::zero(), [this] {
+            // Retrying destroys this request, keep a copy of the callback while it runs.
+            auto retryCopy = retry;
+            retryCopy();
+        });
+    }
+
+private:
+    util::Timer timer;
+    std::function<void ()> retry;
+};
+
+const std::string& getStyleURL(const OfflineRegionDefinition& definition) {
+    return definition.match(
+        [] (const auto& region) -> const std::string& { return region.styleURL; });
+}
+
+float getPixelRatio(const OfflineRegionDefinition& definition) {
+    return definition.match(
+        [] (const auto& region) { return region.pixelRatio; });
+}
+
+std::vector<CanonicalTileID> tileCover(const OfflineRegionDefinition& definition, SourceType type, uint16_t tileSize, const Range<uint8_t>& zoomRange) {
+    return definition.match(
+        [&] (const auto& region) { return region.tileCover(type, tileSize, zoomRange); });
+}
+
+uint64_t tileCount(const OfflineRegionDefinition& definition, SourceType type, uint16_t tileSize, const Range<uint8_t>& zoomRange) {
+    return definition.match(
+        [&] (const auto& region) { return region.tileCount(type, tileSize, zoomRange); });
+}
+
+// The average size at the closest zoom level with stored tiles.
+double averageTileSize(const std::map<uint8_t, std::pair<uint64_t, double>>& averages, uint8_t z) {
+    if (averages.empty()) {
+        return 0;
+    }
+    auto next = averages.lower_bound(z);
+    if (next == averages.end()) {
+        return std::prev(next)->second.second;
+    }
+    if (next->first == z || next == averages.begin()) {
+        return next->second.second;
+    }
+    auto previous = std::prev(next);
+    return z - previous->first <= next->first - z ? previous->second.second : next->second.second;
+}
+
+} // namespace
+
+OfflineDownloadScheduler::OfflineDownloadScheduler() = default;
+
+OfflineDownloadScheduler::~OfflineDownloadScheduler() = default;
+
+void OfflineDownloadScheduler::setOptions(OfflineDownloadOptions options_) {
+    options = std::move(options_);
+    if (!options.maximumBytesPerSecond) {
+        nextRequestTime = TimePoint();
+        timer.stop();
+    }
+    schedule();
+}
+
+const OfflineDownloadOptions& OfflineDownloadScheduler::getOptions() const {
+    return options;
+}
+
+void OfflineDownloadScheduler::add(OfflineDownload& download) {
+    downloads.push_back(&download);
+}
+
+void OfflineDownloadScheduler::remove(OfflineDownload& download) {
+    downloads.remove(&download);
+}
+
+void OfflineDownloadScheduler::schedule() {
+    if (options.maximumBytesPerSecond) {
+        const TimePoint now = Clock::now();
+        if (now < nextRequestTime) {
+            timer.start(nextRequestTime - now, Duration::zero(), [this] { schedule(); });
+            return;
+        }
+    }
+
+    // Take turns so that a region with many queued tiles does not hold back the others.
+    std::size_t idleDownloads = 0;
+    while (activeRequests < maximumConcurrentRequests() && idleDownloads < downloads.size()) {
+        OfflineDownload* download = downloads.front();
+        downloads.splice(downloads.end(), downloads, downloads.begin());
+        if (download->startNextResource()) {
+            idleDownloads = 0;
+        } else {
+            idleDownloads++;
+        }
+    }
+}
+
+void OfflineDownloadScheduler::requestStarted() {
+    activeRequests++;
+}
+
+void OfflineDownloadScheduler::requestFinished(uint64_t size) {
+    assert(activeRequests > 0);
+    activeRequests--;
+
+    if (options.maximumBytesPerSecond && size) {
+        const std::chrono::duration<double> transferTime(double(size) / options.maximumBytesPerSecond);
+        nextRequestTime = std::max(nextRequestTime, Clock::now()) +
+            std::chrono::duration_cast<Duration>(transferTime);
+    }
+}
+
+void OfflineDownloadScheduler::requestsCancelled(std::size_t count) {
+    assert(activeRequests >= count);
+    activeRequests -= count;
+    schedule();
+}
+
+uint32_t OfflineDownloadScheduler::maximumConcurrentRequests() const {
+    return options.maximumConcurrentRequests ? options.maximumConcurrentRequests
+                                             : HTTPFileSource::maximumConcurrentRequests();
+}
+
 OfflineDownload::OfflineDownload(int64_t id_,
                                  OfflineRegionDefinition&& definition_,
                                  OfflineDatabase& offlineDatabase_,
@@ -30,11 +165,29 @@ OfflineDownload::OfflineDownload(int64_t id_,
     : id(id_),
       definition(definition_),
       offlineDatabase(offlineDatabase_),
-      onlineFileSource(onlineFileSource_) {
+      onlineFileSource(onlineFileSource_),
+      ownScheduler(std::make_unique<OfflineDownloadScheduler>()),
+      scheduler(*ownScheduler) {
     setObserver(nullptr);
 }
 
-OfflineDownload::~OfflineDownload() = default;
+OfflineDownload::OfflineDownload(int64_t id_,
+                                 OfflineRegionDefinition&& definition_,
+                                 OfflineDatabase& offlineDatabase_,
+                                 FileSource& onlineFileSource_,
+                                 OfflineDownloadScheduler& scheduler_)
+    : id(id_),
+      definition(definition_),
+      offlineDatabase(offlineDatabase_),
+      onlineFileSource(onlineFileSource_),
+      scheduler(scheduler_) {
+    setObserver(nullptr);
+}
+
+OfflineDownload::~OfflineDownload() {
+    scheduler.remove(*this);
+    scheduler.requestsCancelled(activeResources);
+}
 
 void OfflineDownload::setObserver(std::unique_ptr<OfflineRegionObserver> observer_) {
     observer = observer_ ? std::move(observer_) : std::make_unique<OfflineRegionObserver>();
@@ -47,6 +200,10 @@ void OfflineDownload::setState(OfflineRegionDownloadState state) {
 
     status.downloadState = state;
 
+    // Persist the state so that a download interrupted by the process being stopped
+    // can be resumed; resources already stored are not requested again.
+    offlineDatabase.setRegionDownloadState(id, state);
+
     if (status.downloadState == OfflineRegionDownloadState::Active) {
         activateDownload();
     } else {
@@ -64,7 +221,7 @@ OfflineRegionStatus OfflineDownload::getStatus() const {
     OfflineRegionStatus result = offlineDatabase.getRegionCompletedStatus(id);
 
     result.requiredResourceCount++;
-    optional<Response> styleResponse = offlineDatabase.get(Resource::style(definition.styleURL));
+    optional<Response> styleResponse = offlineDatabase.get(Resource::style(getStyleURL(definition)));
     if (!styleResponse) {
         return result;
     }
@@ -80,7 +237,7 @@ OfflineRegionStatus OfflineDownload::getStatus() const {
         auto handleTiledSource = [&] (const variant<std::string, Tileset>& urlOrTileset, const uint16_t tileSize) {
             if (urlOrTileset.is<Tileset>()) {
                 result.requiredResourceCount +=
-                    definition.tileCount(type, tileSize, urlOrTileset.get<Tileset>().zoomRange);
+                    tileCount(definition, type, tileSize, urlOrTileset.get<Tileset>().zoomRange);
             } else {
                 result.requiredResourceCount += 1;
                 const auto& url = urlOrTileset.get<std::string>();
@@ -90,7 +247,7 @@ OfflineRegionStatus OfflineDownload::getStatus() const {
                     optional<Tileset> tileset = style::conversion::convertJSON<Tileset>(*sourceResponse->data, error);
                     if (tileset) {
                         result.requiredResourceCount +=
-                            definition.tileCount(type, tileSize, (*tileset).zoomRange);
+                            tileCount(definition, type, tileSize, (*tileset).zoomRange);
                     }
                 } else {
                     result.requiredResourceCountIsPrecise = false;
@@ -144,11 +301,114 @@ OfflineRegionStatus OfflineDownload::getStatus() const {
     return result;
 }
 
+OfflineRegionEstimate estimateOfflineRegion(const OfflineRegionDefinition& definition, OfflineDatabase& offlineDatabase) {
+    OfflineRegionEstimate result;
+    double tileSize = 0;
+
+    // Counts of the stored tiles the averages were taken from, by URL template, or
+    // under an empty template when taken from all tiles.
+    std::map<std::string, uint64_t> sampledTileCounts;
+
+    auto estimateTiles = [&] (SourceType type, uint16_t size, const Range<uint8_t>& zoomRange, const std::string& urlTemplate) {
+        auto averages = offlineDatabase.getTileSizeAverages(urlTemplate);
+        std::string sampledURLTemplate = urlTemplate;
+
+        // Fall back to the tiles of all sources when none of this source are stored.
+        if (averages.empty() && !urlTemplate.empty()) {
+            averages = offlineDatabase.getTileSizeAverages({});
+            sampledURLTemplate.clear();
+        }
+
+        uint64_t& sampled = sampledTileCounts[sampledURLTemplate];
+        sampled = 0;
+        for (const auto& average : averages) {
+            sampled += average.second.first;
+        }
+
+        for (uint32_t z = zoomRange.min; z <= zoomRange.max; z++) {
+            const uint64_t count = tileCount(definition, type, size, { uint8_t(z), uint8_t(z) });
+            result.tileCount += count;
+            tileSize += count * averageTileSize(averages, z);
+        }
+    };
+
+    optional<Response> styleResponse = offlineDatabase.get(Resource::style(getStyleURL(definition)));
+    if (styleResponse && styleResponse->data) {
+        style::Parser parser;
+        parser.parse(*styleResponse->data);
+
+        result.tileCountIsPrecise = true;
+
+        for (const auto& source : parser.sources) {
+            SourceType type = source->getType();
+
+            auto handleTiledSource = [&] (const variant<std::string, Tileset>& urlOrTileset, const uint16_t size) {
+                optional<Tileset> tileset;
+                if (urlOrTileset.is<Tileset>()) {
+                    tileset = urlOrTileset.get<Tileset>();
+                } else {
+                    optional<Response> sourceResponse = offlineDatabase.get(Resource::source(urlOrTileset.get<std::string>()));
+                    if (sourceResponse && sourceResponse->data) {
+                        style::conversion::Error error;
+                        tileset = style::conversion::convertJSON<Tileset>(*sourceResponse->data, error);
+                    }
+                }
+
+                if (tileset && !tileset->tiles.empty()) {
+                    estimateTiles(type, size, tileset->zoomRange, tileset->tiles[0]);
+                } else {
+                    result.tileCountIsPrecise = false;
+                    estimateTiles(type, size, Tileset().zoomRange, {});
+                }
+            };
+
+            switch (type) {
+            case SourceType::Vector: {
+                const auto& vectorSource = *source->as<VectorSource>();
+                handleTiledSource(vectorSource.getURLOrTileset(), util::tileSize);
+                break;
+            }
+
+            case SourceType::Raster: {
+                const auto& rasterSource = *source->as<RasterSource>();
+                handleTiledSource(rasterSource.getURLOrTileset(), rasterSource.getTileSize());
+                break;
+            }
+
+            case SourceType::GeoJSON:
+            case SourceType::Image:
+            case SourceType::Video:
+            case SourceType::Annotations:
+                break;
+            }
+        }
+    } else {
+        // Without the style, the region is assumed to use a single vector source.
+        estimateTiles(SourceType::Vector, util::tileSize, Tileset().zoomRange, {});
+    }
+
+    result.tileSize = std::llround(tileSize);
+
+    // All tiles include the tiles of every URL template.
+    auto allTiles = sampledTileCounts.find({});
+    if (allTiles != sampledTileCounts.end()) {
+        result.sampledTileCount = allTiles->second;
+    } else {
+        for (const auto& sampled : sampledTileCounts) {
+            result.sampledTileCount += sampled.second;
+        }
+    }
+
+    return result;
+}
+
 void OfflineDownload::activateDownload() {
+    scheduler.add(*this);
+
     status = OfflineRegionStatus();
     status.downloadState = OfflineRegionDownloadState::Active;
     status.requiredResourceCount++;
-    ensureResource(Resource::style(definition.styleURL), [&](Response styleResponse) {
+    ensureResource(Resource::style(getStyleURL(definition)), [&](Response styleResponse) {
         status.requiredResourceCountIsPrecise = true;
 
         style::Parser parser;
@@ -227,8 +487,8 @@ void OfflineDownload::activateDownload() {
         }
 
         if (!parser.spriteURL.empty()) {
-            queueResource(Resource::spriteImage(parser.spriteURL, definition.pixelRatio));
-            queueResource(Resource::spriteJSON(parser.spriteURL, definition.pixelRatio));
+            queueResource(Resource::spriteImage(parser.spriteURL, getPixelRatio(definition)));
+            queueResource(Resource::spriteJSON(parser.spriteURL, getPixelRatio(definition)));
         }
 
         continueDownload();
@@ -236,13 +496,13 @@ void OfflineDownload::activateDownload() {
 }
 
 /*
-   Fill up our own request queue by requesting the next few resources. This is called
-   when activating the download, or when a request completes successfully.
+   Fill up the request queue shared by all downloads by requesting the next few resources.
+   This is called when activating the download, or when a request completes successfully.
 
    Note "successfully"; it's not called when a requests receives an error. A request
-   that errors will be retried after some delay. So in that sense it's still "active"
-   and consuming resources, notably the request object, its timer, and network resources
-   when the timer fires.
+   that errors will be retried after the delay of the retry policy. So in that sense it's
+   still "active" and consuming resources, notably its slot in the scheduler, its timer,
+   and network resources when the timer fires.
 
    We could try to squeeze in subsequent requests while we wait for the errored request
    to retry. But that risks overloading the upstream request queue -- defeating our own
@@ -258,16 +518,27 @@ void OfflineDownload::continueDownload() {
         return;
     }
 
-    while (!resourcesRemaining.empty() && requests.size() < HTTPFileSource::maximumConcurrentRequests()) {
-        ensureResource(resourcesRemaining.front());
-        resourcesRemaining.pop_front();
+    scheduler.schedule();
+}
+
+bool OfflineDownload::startNextResource() {
+    if (resourcesRemaining.empty()) {
+        return false;
     }
+
+    ensureResource(resourcesRemaining.front());
+    resourcesRemaining.pop_front();
+    return true;
 }
 
 void OfflineDownload::deactivateDownload() {
     requiredSourceURLs.clear();
     resourcesRemaining.clear();
     requests.clear();
+
+    scheduler.remove(*this);
+    scheduler.requestsCancelled(activeResources);
+    activeResources = 0;
 }
 
 void OfflineDownload::queueResource(Resource resource) {
@@ -276,15 +547,18 @@ void OfflineDownload::queueResource(Resource resource) {
 }
 
 void OfflineDownload::queueTiles(SourceType type, uint16_t tileSize, const Tileset& tileset) {
-    for (const auto& tile : definition.tileCover(type, tileSize, tileset.zoomRange)) {
+    for (const auto& tile : tileCover(definition, type, tileSize, tileset.zoomRange)) {
         status.requiredResourceCount++;
         resourcesRemaining.push_back(
-            Resource::tile(tileset.tiles[0], definition.pixelRatio, tile.x, tile.y, tile.z, tileset.scheme));
+            Resource::tile(tileset.tiles[0], getPixelRatio(definition), tile.x, tile.y, tile.z, tileset.scheme));
     }
 }
 
 void OfflineDownload::ensureResource(const Resource& resource,
                                      std::function<void(Response)> callback) {
+    activeResources++;
+    scheduler.requestStarted();
+
     auto workRequestsIt = requests.insert(requests.begin(), nullptr);
     *workRequestsIt = util::RunLoop::Get()->invokeCancellable([=]() {
         requests.erase(workRequestsIt);
@@ -310,6 +584,8 @@ void OfflineDownload::ensureResource(const Resource& resource,
                 status.completedTileSize += *offlineResponse;
             }
 
+            // Stored resources do not count towards the download rate.
+            finishResource(0);
             observer->statusChanged(status);
             continueDownload();
             return;
@@ -319,38 +595,90 @@ void OfflineDownload::ensureResource(const Resource& resource,
             return;
         }
 
-        auto fileRequestsIt = requests.insert(requests.begin(), nullptr);
-        *fileRequestsIt = onlineFileSource.request(resource, [=](Response onlineResponse) {
-            if (onlineResponse.error) {
+        requestResource(resource, callback, 0);
+    });
+}
+
+void OfflineDownload::requestResource(const Resource& resource,
+                                      std::function<void(Response)> callback,
+                                      uint32_t failures) {
+    // Offline downloads must not delay the resources needed by the map on screen.
+    Resource onlineResource = resource;
+    onlineResource.priority = Resource::Priority::Low;
+
+    auto fileRequestsIt = requests.insert(requests.begin(), nullptr);
+    *fileRequestsIt = onlineFileSource.request(onlineResource, [=](Response onlineResponse) {
+        requests.erase(fileRequestsIt);
+
+        if (onlineResponse.error) {
+            const uint32_t maximumRetries = scheduler.getOptions().maximumRetries;
+            if (maximumRetries && failures >= maximumRetries) {
+                // Give up for now, stored resources are kept for the next activation.
+                observer->responseError(*onlineResponse.error);
+                setState(OfflineRegionDownloadState::Inactive);
+            } else {
+                retryResource(resource, callback, failures + 1, onlineResponse.error->retryAfter);
                 observer->responseError(*onlineResponse.error);
-                return;
             }
+            return;
+        }
 
-            requests.erase(fileRequestsIt);
+        if (callback) {
+            callback(onlineResponse);
+        }
 
-            if (callback) {
-                callback(onlineResponse);
-            }
+        status.completedResourceCount++;
+        uint64_t resourceSize = offlineDatabase.putRegionResource(id, resource, onlineResponse);
+        status.completedResourceSize += resourceSize;
+        if (resource.kind == Resource::Kind::Tile) {
+            status.completedTileCount += 1;
+            status.completedTileSize += resourceSize;
+        }
 
-            status.completedResourceCount++;
-            uint64_t resourceSize = offlineDatabase.putRegionResource(id, resource, onlineResponse);
-            status.completedResourceSize += resourceSize;
-            if (resource.kind == Resource::Kind::Tile) {
-                status.completedTileCount += 1;
-                status.completedTileSize += resourceSize;
-            }
+        finishResource(onlineResponse.data ? onlineResponse.data->size() : 0);
+        observer->statusChanged(status);
 
-            observer->statusChanged(status);
+        if (checkTileCountLimit(resource)) {
+            return;
+        }
 
-            if (checkTileCountLimit(resource)) {
-                return;
-            }
+        continueDownload();
+    });
+}
 
-            continueDownload();
-        });
+/*
+   A failed request keeps its slot in the scheduler while waiting to be retried, see
+   `continueDownload`. The delay grows exponentially with the number of consecutive
+   failures of the resource, unless the server asked for a later retry.
+*/
+void OfflineDownload::retryResource(const Resource& resource,
+                                    std::function<void(Response)> callback,
+                                    uint32_t failures,
+                                    optional<Timestamp> retryAfter) {
+    const OfflineDownloadOptions& options = scheduler.getOptions();
+
+    using FractionalSeconds = std::chrono::duration<double>;
+    const double delay = std::min(
+        FractionalSeconds(options.initialRetryDelay).count() * std::pow(options.retryBackoffFactor, failures - 1),
+        FractionalSeconds(options.maximumRetryDelay).count());
+    Duration timeout = std::chrono::duration_cast<Duration>(FractionalSeconds(delay));
+    if (retryAfter) {
+        timeout = std::max<Duration>(timeout, *retryAfter - util::now());
+    }
+
+    auto retryRequestsIt = requests.insert(requests.begin(), nullptr);
+    *retryRequestsIt = std::make_unique<RetryRequest>(timeout, [=]() {
+        requests.erase(retryRequestsIt);
+        requestResource(resource, callback, failures);
     });
 }
 
+void OfflineDownload::finishResource(uint64_t size) {
+    assert(activeResources > 0);
+    activeResources--;
+    scheduler.requestFinished(size);
+}
+
 bool OfflineDownload::checkTileCountLimit(const Resource& resource) {
     if (resource.kind == Resource::Kind::Tile && util::mapbox::isMapboxURL(resource.url) &&
         offlineDatabase.offlineMapboxTileCountLimitExceeded()) {
@@ -2,6 +2,8 @@
 
 #include <mbgl/storage/offline.hpp>
 #include <mbgl/storage/resource.hpp>
+#include <mbgl/util/chrono.hpp>
+#include <mbgl/util/timer.hpp>
 
 #include <list>
 #include <unordered_set>
@@ -11,6 +13,7 @@
 namespace mbgl {
 
 class OfflineDatabase;
+class OfflineDownload;
 class FileSource;
 class AsyncRequest;
 class Response;
@@ -20,6 +23,46 @@ namespace style {
 class Parser;
 } // namespace style
 
+/**
+ * Shares the limits of `OfflineDownloadOptions` between the downloads of several
+ * regions. Active downloads take turns starting requests, until the number of
+ * requests in progress reaches the limit or the download rate exceeds it.
+
+ * @private
+ */
+class OfflineDownloadScheduler {
+public:
+    OfflineDownloadScheduler();
+    ~OfflineDownloadScheduler();
+
+    void setOptions(OfflineDownloadOptions);
+    const OfflineDownloadOptions& getOptions() const;
+
+    void add(OfflineDownload&);
+    void remove(OfflineDownload&);
+
+    /*
+     * Start requests of the active downloads while the limits allow it. Called
+     * when a download has resources to request, or when a request completes.
+     */
+    void schedule();
+
+    void requestStarted();
+    void requestFinished(uint64_t size);
+    void requestsCancelled(std::size_t count);
+
+private:
+    uint32_t maximumConcurrentRequests() const;
+
+    OfflineDownloadOptions options;
+    std::list<OfflineDownload*> downloads;
+    std::size_t activeRequests = 0;
+
+    // Requests are paced so that the average download rate stays below the limit.
+    TimePoint nextRequestTime;
+    util::Timer timer;
+};
+
 /**
  * Coordinates the request and storage of all resources for an offline region.
 
@@ -28,6 +71,8 @@ class Parser;
 class OfflineDownload {
 public:
     OfflineDownload(int64_t id, OfflineRegionDefinition&&, OfflineDatabase& offline, FileSource& online);
+    OfflineDownload(int64_t id, OfflineRegionDefinition&&, OfflineDatabase& offline, FileSource& online,
+                    OfflineDownloadScheduler&);
     ~OfflineDownload();
 
     void setObserver(std::unique_ptr<OfflineRegionObserver>);
@@ -35,6 +80,12 @@ public:
 
     OfflineRegionStatus getStatus() const;
 
+    /*
+     * Request the next queued resource, if any. Called by the scheduler when the
+     * limits allow another request.
+     */
+    bool startNextResource();
+
 private:
     void activateDownload();
     void continueDownload();
@@ -46,16 +97,23 @@ private:
      * is deactivated, all in progress requests are cancelled.
      */
     void ensureResource(const Resource&, std::function<void (Response)> = {});
+    void requestResource(const Resource&, std::function<void (Response)>, uint32_t failures);
+    void retryResource(const Resource&, std::function<void (Response)>, uint32_t failures, optional<Timestamp> retryAfter);
+    void finishResource(uint64_t size);
     bool checkTileCountLimit(const Resource& resource);
 
     int64_t id;
     OfflineRegionDefinition definition;
     OfflineDatabase& offlineDatabase;
     FileSource& onlineFileSource;
+    std::unique_ptr<OfflineDownloadScheduler> ownScheduler;
+    OfflineDownloadScheduler& scheduler;
     OfflineRegionStatus status;
     std::unique_ptr<OfflineRegionObserver> observer;
 
     std::list<std::unique_ptr<AsyncRequest>> requests;
+    // Resources being ensured, each holding a request slot of the scheduler.
+    std::size_t activeResources = 0;
     std::unordered_set<std::string> requiredSourceURLs;
     std::deque<Resource> resourcesRemaining;
 
@@ -63,4 +121,11 @@ private:
     void queueTiles(style::SourceType, uint16_t tileSize, const Tileset&);
 };
 
+/*
+ * Estimate the tiles of a region definition from the style, sources and tiles already
+ * stored in the database. Tiles are enumerated for each zoom level and weighted by the
+ * average size of the stored tiles of their source at that zoom level.
+ */
+OfflineRegionEstimate estimateOfflineRegion(const OfflineRegionDefinition&, OfflineDatabase&);
+
 } // namespace mbgl
@@ -34,7 +34,8 @@ CREATE TABLE regions (
   definition TEXT NOT NULL,   -- JSON formatted definition of region. Regions may be of variant types:
                               -- e.g. bbox and zoom range, route path, flyTo parameters, etc. Note that
                               -- the set of tiles required for a region may span multiple sources.
-  description BLOB            -- User provided data in user-defined format
+  description BLOB,           -- User provided data in user-defined format
+  download_state INTEGER NOT NULL DEFAULT 0 -- 1 while the region is downloading, so interrupted downloads can resume
 );
 
 CREATE TABLE region_resources (
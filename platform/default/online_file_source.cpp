@@ -111,7 +111,14 @@ public:
     }
 
     void queueRequest(OnlineFileRequest* request) {
-        auto it = pendingRequestsList.insert(pendingRequestsList.end(), request);
+        auto position = pendingRequestsList.end();
+        if (request->resource.priority == Resource::Priority::Regular) {
+            // Regular requests are queued ahead of all low priority requests.
+            position = std::find_if(pendingRequestsList.begin(), pendingRequestsList.end(), [](OnlineFileRequest* pending) {
+                return pending->resource.priority == Resource::Priority::Low;
+            });
+        }
+        auto it = pendingRequestsList.insert(position, request);
         pendingRequestsMap.emplace(request, std::move(it));
         assert(pendingRequestsMap.size() == pendingRequestsList.size());
     }
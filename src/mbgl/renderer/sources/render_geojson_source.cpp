@@ -36,13 +36,17 @@ void RenderGeoJSONSource::update(Immutable<style::Source::Impl> baseImpl_,
     GeoJSONData* data_ = impl().getData();
 
     if (data_ != data) {
+        const uint64_t previousRevision = revision;
         data = data_;
+        revision = impl().getRevision();
         tilePyramid.cache.clear();
 
         if (data) {
             const uint8_t maxZ = impl().getZoomRange().max;
             for (const auto& pair : tilePyramid.tiles) {
-                if (pair.first.canonical.z <= maxZ) {
+                // Tiles outside of the area of incremental updates keep their data
+                if (pair.first.canonical.z <= maxZ &&
+                    impl().isTileChangedSince(previousRevision, pair.first.canonical)) {
                     static_cast<GeoJSONTile*>(pair.second.get())->updateData(data->getTile(pair.first.canonical));
                 }
             }
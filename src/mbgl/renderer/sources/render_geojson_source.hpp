@@ -44,6 +44,7 @@ private:
 
     TilePyramid tilePyramid;
     style::GeoJSONData* data = nullptr;
+    uint64_t revision = 0;
 };
 
 template <>
@@ -77,6 +77,16 @@ optional<GeoJSONOptions> Converter<GeoJSONOptions>::operator()(const Convertible
         }
     }
 
+    const auto incrementalUpdatesValue = objectMember(value, "incrementalUpdates");
+    if (incrementalUpdatesValue) {
+        if (toBool(*incrementalUpdatesValue)) {
+            options.incrementalUpdates = *toBool(*incrementalUpdatesValue);
+        } else {
+            error = { "GeoJSON source incrementalUpdates value must be a boolean" };
+            return {};
+        }
+    }
+
     return { options };
 }
 
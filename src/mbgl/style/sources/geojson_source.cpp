@@ -5,6 +5,15 @@
 #include <mbgl/style/conversion/geojson.hpp>
 #include <mbgl/storage/file_source.hpp>
 #include <mbgl/util/logging.hpp>
+#include <mbgl/util/constants.hpp>
+#include <mbgl/math/clamp.hpp>
+
+#include <mapbox/geometry/envelope.hpp>
+
+#include <cmath>
+#include <limits>
+#include <map>
+#include <set>
 
 namespace mbgl {
 namespace style {
@@ -36,10 +45,118 @@ void GeoJSONSource::setGeoJSON(const mapbox::geojson::geojson& geoJSON) {
     observer->onSourceChanged(*this);
 }
 
+void GeoJSONSource::setGeoJSON(std::unique_ptr<Prepared> prepared) {
+    req.reset();
+    baseImpl = makeMutable<Impl>(impl(), std::move(*prepared));
+    observer->onSourceChanged(*this);
+}
+
+void GeoJSONSource::addFeatures(const FeatureCollection& added) {
+    applyFeatureChanges(added, {}, true);
+}
+
+void GeoJSONSource::updateFeatures(const FeatureCollection& updated) {
+    applyFeatureChanges(updated, {}, false);
+}
+
+void GeoJSONSource::removeFeatures(const std::vector<FeatureIdentifier>& removed) {
+    applyFeatureChanges({}, removed, false);
+}
+
+// Extends an area in world coordinates, from 0 to 1 west to east and north to south, by the bounds of a feature.
+static void extendArea(mapbox::geometry::box<double>& area, const Feature& feature) {
+    const mapbox::geometry::box<double> bounds = mapbox::geometry::envelope(feature.geometry);
+    if (bounds.min.x > bounds.max.x) {
+        // Empty geometry
+        return;
+    }
+
+    auto project = [] (double latitude) {
+        const double constrained = util::clamp(latitude, -util::LATITUDE_MAX, util::LATITUDE_MAX);
+        return 0.5 - std::log(std::tan(M_PI / 4 + constrained * util::DEG2RAD / 2)) / (2 * M_PI);
+    };
+    area.min.x = std::min(area.min.x, (bounds.min.x + util::LONGITUDE_MAX) / util::DEGREES_MAX);
+    area.max.x = std::max(area.max.x, (bounds.max.x + util::LONGITUDE_MAX) / util::DEGREES_MAX);
+    area.min.y = std::min(area.min.y, project(bounds.max.y));
+    area.max.y = std::max(area.max.y, project(bounds.min.y));
+}
+
+void GeoJSONSource::applyFeatureChanges(const FeatureCollection& changed,
+                                        const std::vector<FeatureIdentifier>& removed,
+                                        bool addUnmatched) {
+    if (!impl().getOptions().incrementalUpdates) {
+        Log::Warning(Event::General, "GeoJSON source \"%s\" needs the incrementalUpdates option to update features",
+                     getID().c_str());
+        return;
+    }
+
+    // The first of several changed features with the same id applies
+    std::map<FeatureIdentifier, const Feature*> changes;
+    for (const auto& feature : changed) {
+        if (feature.id) {
+            changes.emplace(*feature.id, &feature);
+        }
+    }
+    const std::set<FeatureIdentifier> removals(removed.begin(), removed.end());
+
+    const FeatureCollection& current = impl().getFeatures();
+    FeatureCollection result;
+    result.reserve(current.size() + (addUnmatched ? changed.size() : 0));
+
+    const double infinity = std::numeric_limits<double>::infinity();
+    mapbox::geometry::box<double> area { { infinity, infinity }, { -infinity, -infinity } };
+    bool modified = false;
+
+    for (const auto& feature : current) {
+        if (feature.id) {
+            if (removals.count(*feature.id)) {
+                extendArea(area, feature);
+                modified = true;
+                continue;
+            }
+
+            auto it = changes.find(*feature.id);
+            if (it != changes.end()) {
+                const Feature& replacement = *it->second;
+                if (!(replacement == feature)) {
+                    extendArea(area, feature);
+                    extendArea(area, replacement);
+                    modified = true;
+                }
+                result.push_back(replacement);
+                changes.erase(it);
+                continue;
+            }
+        }
+        result.push_back(feature);
+    }
+
+    if (addUnmatched) {
+        for (const auto& feature : changed) {
+            if (!feature.id || changes.erase(*feature.id)) {
+                extendArea(area, feature);
+                result.push_back(feature);
+                modified = true;
+            }
+        }
+    }
+
+    if (!modified) {
+        return;
+    }
+
+    baseImpl = makeMutable<Impl>(impl(), std::move(result), area);
+    observer->onSourceChanged(*this);
+}
+
 optional<std::string> GeoJSONSource::getURL() const {
     return url;
 }
 
+const GeoJSONOptions& GeoJSONSource::getOptions() const {
+    return impl().getOptions();
+}
+
 void GeoJSONSource::loadDescription(FileSource& fileSource) {
     if (!url) {
         loaded = true;
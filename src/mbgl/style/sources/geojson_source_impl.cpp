@@ -6,6 +6,7 @@
 #include <mapbox/geojsonvt.hpp>
 #include <supercluster.hpp>
 
+#include <atomic>
 #include <cmath>
 
 namespace mbgl {
@@ -39,14 +40,28 @@ private:
     mapbox::supercluster::Supercluster impl;
 };
 
-GeoJSONSource::Impl::Impl(std::string id_, GeoJSONOptions options_)
-    : Source::Impl(SourceType::GeoJSON, std::move(id_)),
-      options(std::move(options_)) {
+// Number of incremental updates that can be applied to tiles rendered with an earlier revision.
+static const std::size_t maxChanges = 8;
+
+static uint64_t nextRevision() {
+    static std::atomic<uint64_t> revision { 0 };
+    return ++revision;
 }
 
-GeoJSONSource::Impl::Impl(const Impl& other, const GeoJSON& geoJSON)
-    : Source::Impl(other),
-      options(other.options) {
+static std::shared_ptr<const GeoJSON> toFeatureCollection(const GeoJSON& geoJSON) {
+    return geoJSON.match(
+        [] (const FeatureCollection& collection) {
+            return std::make_shared<const GeoJSON>(collection);
+        },
+        [] (const Feature& feature) {
+            return std::make_shared<const GeoJSON>(FeatureCollection { feature });
+        },
+        [] (const mapbox::geometry::geometry<double>& geometry) {
+            return std::make_shared<const GeoJSON>(FeatureCollection { Feature { geometry } });
+        });
+}
+
+static std::unique_ptr<GeoJSONData> createData(const GeoJSON& geoJSON, const GeoJSONOptions& options) {
     double scale = util::EXTENT / util::tileSize;
 
     if (options.cluster
@@ -56,7 +71,7 @@ GeoJSONSource::Impl::Impl(const Impl& other, const GeoJSON& geoJSON)
         clusterOptions.maxZoom = options.clusterMaxZoom;
         clusterOptions.extent = util::EXTENT;
         clusterOptions.radius = ::round(scale * options.clusterRadius);
-        data = std::make_unique<SuperclusterData>(
+        return std::make_unique<SuperclusterData>(
             geoJSON.get<mapbox::geometry::feature_collection<double>>(), clusterOptions);
     } else {
         mapbox::geojsonvt::Options vtOptions;
@@ -64,12 +79,81 @@ GeoJSONSource::Impl::Impl(const Impl& other, const GeoJSON& geoJSON)
         vtOptions.extent = util::EXTENT;
         vtOptions.buffer = ::round(scale * options.buffer);
         vtOptions.tolerance = scale * options.tolerance;
-        data = std::make_unique<GeoJSONVTData>(geoJSON, vtOptions);
+        return std::make_unique<GeoJSONVTData>(geoJSON, vtOptions);
+    }
+}
+
+static bool isSameOptions(const GeoJSONOptions& a, const GeoJSONOptions& b) {
+    return a.minzoom == b.minzoom && a.maxzoom == b.maxzoom && a.buffer == b.buffer && a.tolerance == b.tolerance &&
+           a.cluster == b.cluster && a.clusterRadius == b.clusterRadius && a.clusterMaxZoom == b.clusterMaxZoom;
+}
+
+GeoJSONSource::Prepared::Prepared(GeoJSON geoJSON_, const GeoJSONOptions& options_)
+    : options(options_),
+      data(createData(geoJSON_, options)),
+      geoJSON(std::make_shared<const GeoJSON>(std::move(geoJSON_))) {
+}
+
+GeoJSONSource::Prepared::~Prepared() = default;
+
+GeoJSONSource::Impl::Impl(std::string id_, GeoJSONOptions options_)
+    : Source::Impl(SourceType::GeoJSON, std::move(id_)),
+      options(std::move(options_)),
+      features(options.incrementalUpdates ? std::make_shared<const GeoJSON>(FeatureCollection {}) : nullptr),
+      revision(nextRevision()) {
+}
+
+GeoJSONSource::Impl::Impl(const Impl& other, const GeoJSON& geoJSON)
+    : Source::Impl(other),
+      options(other.options),
+      features(options.incrementalUpdates ? toFeatureCollection(geoJSON) : nullptr),
+      data(createData(geoJSON, options)),
+      revision(nextRevision()) {
+}
+
+GeoJSONSource::Impl::Impl(const Impl& other, Prepared&& prepared)
+    : Source::Impl(other),
+      options(other.options),
+      data(std::move(prepared.data)),
+      revision(nextRevision()) {
+    if (!isSameOptions(prepared.options, options)) {
+        // Prepared for another source
+        data = createData(*prepared.geoJSON, options);
+    }
+    if (options.incrementalUpdates) {
+        features = prepared.geoJSON->is<FeatureCollection>() ? std::move(prepared.geoJSON)
+                                                             : toFeatureCollection(*prepared.geoJSON);
+    }
+}
+
+GeoJSONSource::Impl::Impl(const Impl& other, FeatureCollection&& collection, const mapbox::geometry::box<double>& area)
+    : Source::Impl(other),
+      options(other.options),
+      features(std::make_shared<const GeoJSON>(std::move(collection))),
+      data(createData(*features, options)),
+      revision(nextRevision()) {
+    // Clusters depend on all features, any change affects every tile.
+    if (!options.cluster) {
+        changes.emplace_back(other.revision, area);
+        for (const auto& change : other.changes) {
+            if (changes.size() == maxChanges) {
+                break;
+            }
+            const auto& previous = change.second;
+            changes.emplace_back(change.first, mapbox::geometry::box<double> {
+                { std::min(previous.min.x, area.min.x), std::min(previous.min.y, area.min.y) },
+                { std::max(previous.max.x, area.max.x), std::max(previous.max.y, area.max.y) }
+            });
+        }
     }
 }
 
 GeoJSONSource::Impl::~Impl() = default;
 
+const GeoJSONOptions& GeoJSONSource::Impl::getOptions() const {
+    return options;
+}
+
 Range<uint8_t> GeoJSONSource::Impl::getZoomRange() const {
     return { options.minzoom, options.maxzoom };
 }
@@ -78,6 +162,45 @@ GeoJSONData* GeoJSONSource::Impl::getData() const {
     return data.get();
 }
 
+const FeatureCollection& GeoJSONSource::Impl::getFeatures() const {
+    static const FeatureCollection empty;
+    return features ? features->get<FeatureCollection>() : empty;
+}
+
+uint64_t GeoJSONSource::Impl::getRevision() const {
+    return revision;
+}
+
+bool GeoJSONSource::Impl::isTileChangedSince(uint64_t since, const CanonicalTileID& tileID) const {
+    if (since == revision) {
+        return false;
+    }
+
+    for (const auto& change : changes) {
+        if (change.first != since) {
+            continue;
+        }
+
+        // Tiles include the features within their buffer, and wrapped copies of features
+        // across the antimeridian.
+        const double tileExtent = 1.0 / (1u << tileID.z);
+        const double buffer = tileExtent * options.buffer / util::tileSize;
+        const mapbox::geometry::box<double>& area = change.second;
+        for (int wrap = -1; wrap <= 1; ++wrap) {
+            if (area.min.x + wrap < (tileID.x + 1) * tileExtent + buffer &&
+                area.max.x + wrap > tileID.x * tileExtent - buffer &&
+                area.min.y < (tileID.y + 1) * tileExtent + buffer &&
+                area.max.y > tileID.y * tileExtent - buffer) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Replaced as a whole, or too many updates since
+    return true;
+}
+
 optional<std::string> GeoJSONSource::Impl::getAttribution() const {
     return {};
 }
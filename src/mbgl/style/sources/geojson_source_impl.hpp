@@ -4,6 +4,10 @@
 #include <mbgl/style/sources/geojson_source.hpp>
 #include <mbgl/util/range.hpp>
 
+#include <mapbox/geometry/box.hpp>
+
+#include <vector>
+
 namespace mbgl {
 
 class AsyncRequest;
@@ -21,16 +25,33 @@ class GeoJSONSource::Impl : public Source::Impl {
 public:
     Impl(std::string id, GeoJSONOptions);
     Impl(const GeoJSONSource::Impl&, const GeoJSON&);
+    Impl(const GeoJSONSource::Impl&, GeoJSONSource::Prepared&&);
+    // Incremental update, changing the features within the given area in world coordinates.
+    Impl(const GeoJSONSource::Impl&, FeatureCollection&&, const mapbox::geometry::box<double>& changedArea);
     ~Impl() final;
 
+    const GeoJSONOptions& getOptions() const;
     Range<uint8_t> getZoomRange() const;
     GeoJSONData* getData() const;
 
+    // The current features, empty until data was set or without the incrementalUpdates option.
+    const FeatureCollection& getFeatures() const;
+
+    uint64_t getRevision() const;
+
+    // Returns whether the tile may differ from the same tile of the data at the given revision.
+    bool isTileChangedSince(uint64_t revision, const CanonicalTileID&) const;
+
     optional<std::string> getAttribution() const final;
 
 private:
     GeoJSONOptions options;
+    std::shared_ptr<const GeoJSON> features;
     std::unique_ptr<GeoJSONData> data;
+    uint64_t revision;
+
+    // Areas changed since earlier revisions by incremental updates, newest first.
+    std::vector<std::pair<uint64_t, mapbox::geometry::box<double>>> changes;
 };
 
 } // namespace style
@@ -18,6 +18,14 @@ void Style::loadJSON(const std::string& json) {
     impl->loadJSON(json);
 }
 
+std::unique_ptr<Style::Parsed> Style::parseJSON(const std::string& json) {
+    return std::make_unique<Parsed>(json);
+}
+
+void Style::loadJSON(std::unique_ptr<Parsed> parsed) {
+    impl->loadJSON(*parsed);
+}
+
 void Style::loadURL(const std::string& url) {
     impl->loadURL(url);
 }
@@ -25,6 +25,18 @@ namespace style {
 
 static Observer nullObserver;
 
+Style::Parsed::Parsed(std::string json_)
+    : json(std::move(json_)),
+      parser(std::make_unique<Parser>()) {
+    error = parser->parse(json);
+}
+
+Style::Parsed::~Parsed() = default;
+
+std::exception_ptr Style::Parsed::getError() const {
+    return error;
+}
+
 Style::Impl::Impl(Scheduler& scheduler_, FileSource& fileSource_, float pixelRatio)
     : scheduler(scheduler_),
       fileSource(fileSource_),
@@ -45,6 +57,14 @@ void Style::Impl::loadJSON(const std::string& json_) {
     parse(json_);
 }
 
+void Style::Impl::loadJSON(Parsed& parsed) {
+    lastError = nullptr;
+    observer->onStyleLoading();
+
+    url.clear();
+    load(parsed.json, *parsed.parser, parsed.error);
+}
+
 void Style::Impl::loadURL(const std::string& url_) {
     lastError = nullptr;
     observer->onStyleLoading();
@@ -78,8 +98,11 @@ void Style::Impl::loadURL(const std::string& url_) {
 
 void Style::Impl::parse(const std::string& json_) {
     Parser parser;
+    load(json_, parser, parser.parse(json_));
+}
 
-    if (auto error = parser.parse(json_)) {
+void Style::Impl::load(const std::string& json_, Parser& parser, std::exception_ptr error) {
+    if (error) {
         std::string message = "Failed to parse style: " + util::toString(error);
         Log::Error(Event::ParseStyle, message.c_str());
         observer->onStyleError(std::make_exception_ptr(util::StyleParseException(message)));
@@ -42,6 +42,7 @@ public:
     ~Impl() override;
 
     void loadJSON(const std::string&);
+    void loadJSON(Parsed&);
     void loadURL(const std::string&);
 
     std::string getJSON() const;
@@ -97,6 +98,7 @@ public:
 
 private:
     void parse(const std::string&);
+    void load(const std::string&, Parser&, std::exception_ptr error);
 
     Scheduler& scheduler;
     FileSource& fileSource;
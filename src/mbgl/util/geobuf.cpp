@@ -0,0 +1,324 @@
+#include <mbgl/util/geobuf.hpp>
+#include <mbgl/util/feature.hpp>
+#include <mbgl/util/rapidjson.hpp>
+
+#include <protozero/pbf_reader.hpp>
+
+#include <cmath>
+#include <stdexcept>
+
+namespace mbgl {
+namespace util {
+
+namespace {
+
+using GeometryType = mapbox::geometry::geometry<double>;
+using PointType = mapbox::geometry::point<double>;
+
+enum class GeobufGeometryType : uint32_t {
+    Point = 0,
+    MultiPoint = 1,
+    LineString = 2,
+    MultiLineString = 3,
+    Polygon = 4,
+    MultiPolygon = 5,
+    GeometryCollection = 6
+};
+
+Value convertJSONValue(const JSValue& value) {
+    if (value.IsString()) {
+        return std::string { value.GetString(), value.GetStringLength() };
+    } else if (value.IsBool()) {
+        return value.GetBool();
+    } else if (value.IsUint64()) {
+        return value.GetUint64();
+    } else if (value.IsInt64()) {
+        return value.GetInt64();
+    } else if (value.IsNumber()) {
+        return value.GetDouble();
+    } else if (value.IsArray()) {
+        std::vector<Value> values;
+        values.reserve(value.Size());
+        for (const auto& element : value.GetArray()) {
+            values.push_back(convertJSONValue(element));
+        }
+        return mapbox::util::recursive_wrapper<std::vector<Value>> { std::move(values) };
+    } else if (value.IsObject()) {
+        std::unordered_map<std::string, Value> members;
+        for (const auto& member : value.GetObject()) {
+            members.emplace(std::string { member.name.GetString(), member.name.GetStringLength() },
+                            convertJSONValue(member.value));
+        }
+        return mapbox::util::recursive_wrapper<std::unordered_map<std::string, Value>> { std::move(members) };
+    }
+    return NullValue();
+}
+
+class GeobufDecoder {
+public:
+    GeoJSON decode(protozero::pbf_reader data) {
+        while (data.next()) {
+            switch (data.tag()) {
+            case 1: // keys
+                keys.push_back(data.get_string());
+                break;
+            case 2: // dimensions
+                dimensions = data.get_uint32();
+                if (dimensions < 2) {
+                    throw std::runtime_error("unsupported geobuf dimensions");
+                }
+                break;
+            case 3: // precision
+                factor = std::pow(10.0, data.get_uint32());
+                break;
+            case 4: // feature_collection
+                return readFeatureCollection(data.get_message());
+            case 5: // feature
+                return readFeature(data.get_message());
+            case 6: // geometry
+                return readGeometry(data.get_message());
+            default:
+                data.skip();
+                break;
+            }
+        }
+        throw std::runtime_error("geobuf data contains no GeoJSON");
+    }
+
+private:
+    FeatureCollection readFeatureCollection(protozero::pbf_reader collection) {
+        FeatureCollection features;
+        // Collection values and custom properties have no equivalent
+        while (collection.next(1)) {
+            features.push_back(readFeature(collection.get_message()));
+        }
+        return features;
+    }
+
+    Feature readFeature(protozero::pbf_reader pbf) {
+        Feature feature;
+        std::vector<Value> values;
+        std::vector<uint32_t> properties;
+
+        while (pbf.next()) {
+            switch (pbf.tag()) {
+            case 1: // geometry
+                feature.geometry = readGeometry(pbf.get_message());
+                break;
+            case 11: // id
+                feature.id = FeatureIdentifier { pbf.get_string() };
+                break;
+            case 12: { // int_id
+                const int64_t id = pbf.get_sint64();
+                if (id >= 0) {
+                    feature.id = FeatureIdentifier { static_cast<uint64_t>(id) };
+                } else {
+                    feature.id = FeatureIdentifier { id };
+                }
+                break;
+            }
+            case 13: // values
+                values.push_back(readValue(pbf.get_message()));
+                break;
+            case 14: { // properties, pairs of key and value indices
+                auto indices = pbf.get_packed_uint32();
+                properties.insert(properties.end(), indices.begin(), indices.end());
+                break;
+            }
+            default:
+                pbf.skip();
+                break;
+            }
+        }
+
+        for (std::size_t i = 0; i + 1 < properties.size(); i += 2) {
+            if (properties[i] >= keys.size() || properties[i + 1] >= values.size()) {
+                throw std::runtime_error("invalid geobuf property index");
+            }
+            feature.properties[keys[properties[i]]] = std::move(values[properties[i + 1]]);
+        }
+
+        return feature;
+    }
+
+    Value readValue(protozero::pbf_reader pbf) {
+        Value value;
+        while (pbf.next()) {
+            switch (pbf.tag()) {
+            case 1: // string_value
+                value = pbf.get_string();
+                break;
+            case 2: // double_value
+                value = pbf.get_double();
+                break;
+            case 3: // pos_int_value
+                value = pbf.get_uint64();
+                break;
+            case 4: // neg_int_value
+                value = -static_cast<int64_t>(pbf.get_uint64());
+                break;
+            case 5: // bool_value
+                value = pbf.get_bool();
+                break;
+            case 6: { // json_value
+                const std::string json = pbf.get_string();
+                JSDocument document;
+                document.Parse<0>(json.c_str());
+                if (document.HasParseError()) {
+                    throw std::runtime_error("invalid geobuf json value");
+                }
+                value = convertJSONValue(document);
+                break;
+            }
+            default:
+                pbf.skip();
+                break;
+            }
+        }
+        return value;
+    }
+
+    GeometryType readGeometry(protozero::pbf_reader pbf) {
+        GeobufGeometryType type = GeobufGeometryType::Point;
+        std::vector<uint32_t> lengths;
+        std::vector<int64_t> coords;
+        mapbox::geometry::geometry_collection<double> geometries;
+
+        while (pbf.next()) {
+            switch (pbf.tag()) {
+            case 1: // type
+                type = static_cast<GeobufGeometryType>(pbf.get_enum());
+                break;
+            case 2: { // lengths
+                auto values = pbf.get_packed_uint32();
+                lengths.assign(values.begin(), values.end());
+                break;
+            }
+            case 3: { // coords
+                auto values = pbf.get_packed_sint64();
+                coords.assign(values.begin(), values.end());
+                break;
+            }
+            case 4: // geometries
+                geometries.push_back(readGeometry(pbf.get_message()));
+                break;
+            default:
+                pbf.skip();
+                break;
+            }
+        }
+
+        switch (type) {
+        case GeobufGeometryType::Point:
+            if (coords.size() < dimensions) {
+                throw std::runtime_error("invalid geobuf point");
+            }
+            return PointType { coords[0] / factor, coords[1] / factor };
+        case GeobufGeometryType::MultiPoint:
+            return readPoints<mapbox::geometry::multi_point<double>>(coords, 0, coords.size(), false);
+        case GeobufGeometryType::LineString:
+            return readPoints<mapbox::geometry::line_string<double>>(coords, 0, coords.size(), false);
+        case GeobufGeometryType::MultiLineString:
+            return readLines<mapbox::geometry::multi_line_string<double>>(coords, lengths, false);
+        case GeobufGeometryType::Polygon:
+            return readLines<mapbox::geometry::polygon<double>>(coords, lengths, true);
+        case GeobufGeometryType::MultiPolygon:
+            return readMultiPolygon(coords, lengths);
+        case GeobufGeometryType::GeometryCollection:
+            return geometries;
+        }
+        throw std::runtime_error("unknown geobuf geometry type");
+    }
+
+    // Coordinates are delta encoded integers within each line or ring, closing points are omitted.
+    template <class Points>
+    Points readPoints(const std::vector<int64_t>& coords, std::size_t start, std::size_t end, bool closed) const {
+        if (end > coords.size() || start > end) {
+            throw std::runtime_error("invalid geobuf coordinates");
+        }
+
+        Points points;
+        points.reserve((end - start) / dimensions + (closed ? 1 : 0));
+        int64_t x = 0;
+        int64_t y = 0;
+        for (std::size_t i = start; i + dimensions <= end; i += dimensions) {
+            x += coords[i];
+            y += coords[i + 1];
+            points.emplace_back(x / factor, y / factor);
+        }
+        if (closed && !points.empty()) {
+            points.push_back(points.front());
+        }
+        return points;
+    }
+
+    template <class Lines>
+    Lines readLines(const std::vector<int64_t>& coords, const std::vector<uint32_t>& lengths, bool closed) const {
+        using Line = typename Lines::value_type;
+
+        Lines lines;
+        if (lengths.empty()) {
+            lines.push_back(readPoints<Line>(coords, 0, coords.size(), closed));
+            return lines;
+        }
+
+        lines.reserve(lengths.size());
+        std::size_t end = 0;
+        for (uint32_t length : lengths) {
+            const std::size_t start = end;
+            end = start + std::size_t(length) * dimensions;
+            lines.push_back(readPoints<Line>(coords, start, end, closed));
+        }
+        return lines;
+    }
+
+    mapbox::geometry::multi_polygon<double> readMultiPolygon(const std::vector<int64_t>& coords,
+                                                             const std::vector<uint32_t>& lengths) const {
+        using Ring = mapbox::geometry::linear_ring<double>;
+
+        mapbox::geometry::multi_polygon<double> polygons;
+        if (lengths.empty()) {
+            polygons.push_back({ readPoints<Ring>(coords, 0, coords.size(), true) });
+            return polygons;
+        }
+
+        // Number of polygons, then for each polygon the number of rings followed by their lengths
+        auto length = [&] (std::size_t index) {
+            if (index >= lengths.size()) {
+                throw std::runtime_error("invalid geobuf lengths");
+            }
+            return lengths[index];
+        };
+
+        std::size_t end = 0;
+        std::size_t index = 1;
+        const uint32_t polygonCount = length(0);
+        polygons.reserve(polygonCount);
+        for (uint32_t i = 0; i < polygonCount; i++) {
+            const uint32_t ringCount = length(index);
+            mapbox::geometry::polygon<double> polygon;
+            polygon.reserve(ringCount);
+            for (uint32_t k = 0; k < ringCount; k++) {
+                const std::size_t start = end;
+                end = start + std::size_t(length(index + 1 + k)) * dimensions;
+                polygon.push_back(readPoints<Ring>(coords, start, end, true));
+            }
+            index += ringCount + 1;
+            polygons.push_back(std::move(polygon));
+        }
+        return polygons;
+    }
+
+    std::vector<std::string> keys;
+    uint32_t dimensions = 2;
+    double factor = 1e6;
+};
+
+} // namespace
+
+GeoJSON decodeGeobuf(const char* data, std::size_t size) {
+    return GeobufDecoder().decode(protozero::pbf_reader(data, size));
+}
+
+} // namespace util
+} // namespace mbgl
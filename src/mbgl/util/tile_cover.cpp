@@ -3,7 +3,9 @@
 #include <mbgl/util/interpolate.hpp>
 #include <mbgl/map/transform_state.hpp>
 
+#include <algorithm>
 #include <functional>
+#include <map>
 
 namespace mbgl {
 
@@ -124,6 +126,272 @@ std::vector<UnwrappedTileID> tileCover(const Point<double>& tl,
     return result;
 }
 
+// Collects the tiles of a single zoom level within a buffer of a geometry. Every
+// segment covers the tiles within the buffer of its path, polygons additionally
+// cover the tiles whose center lies inside of them. Tiles are kept as column
+// ranges per row, so that counting them doesn't need to store every tile.
+class GeometryTileCover {
+public:
+    GeometryTileCover(int32_t z_, double buffer_)
+        : z(z_), tiles(1 << z_), buffer(std::max(buffer_, 0.0)) {
+    }
+
+    void operator()(const Point<double>& point) {
+        coverSegment(point, point);
+    }
+
+    void operator()(const MultiPoint<double>& points) {
+        for (const auto& point : points) {
+            coverSegment(point, point);
+        }
+    }
+
+    void operator()(const LineString<double>& line) {
+        coverPath(line);
+    }
+
+    void operator()(const MultiLineString<double>& lines) {
+        for (const auto& line : lines) {
+            (*this)(line);
+        }
+    }
+
+    void operator()(const Polygon<double>& polygon) {
+        for (const auto& ring : polygon) {
+            coverPath(ring);
+            if (!ring.empty() && ring.front() != ring.back()) {
+                coverSegment(ring.back(), ring.front());
+            }
+        }
+        coverInterior(polygon);
+    }
+
+    void operator()(const MultiPolygon<double>& polygons) {
+        for (const auto& polygon : polygons) {
+            (*this)(polygon);
+        }
+    }
+
+    void operator()(const mapbox::geometry::geometry_collection<double>& geometries) {
+        for (const auto& geometry : geometries) {
+            Geometry<double>::visit(geometry, *this);
+        }
+    }
+
+    std::vector<UnwrappedTileID> result() {
+        std::vector<UnwrappedTileID> result;
+        result.reserve(count());
+        eachRange([&](int32_t y, int32_t x0, int32_t x1) {
+            for (int32_t x = x0; x <= x1; ++x) {
+                result.emplace_back(z, x, y);
+            }
+        });
+        return result;
+    }
+
+    uint64_t count() {
+        uint64_t count = 0;
+        eachRange([&](int32_t, int32_t x0, int32_t x1) {
+            count += x1 - x0 + 1;
+        });
+        return count;
+    }
+
+private:
+    Point<double> project(const Point<double>& point) const {
+        return TileCoordinate::fromLatLng(z, { point.y, point.x }).p;
+    }
+
+    // The buffer in tile units, measured at the latitude of the segment end
+    // closest to a pole, where the mercator scale is the largest.
+    double radius(const Point<double>& a, const Point<double>& b) const {
+        if (buffer == 0) {
+            return 0;
+        }
+        const double latitude = std::min(std::max(std::abs(a.y), std::abs(b.y)), util::LATITUDE_MAX);
+        const double tileMeters = 2 * M_PI * util::EARTH_RADIUS_M * std::cos(latitude * util::DEG2RAD) / tiles;
+        return buffer / tileMeters;
+    }
+
+    int32_t clampX(double x) const {
+        return util::clamp(std::floor(x), 0.0, tiles - 1.0);
+    }
+
+    int32_t clampY(double y) const {
+        return util::clamp(std::floor(y), 0.0, tiles - 1.0);
+    }
+
+    void addRange(int32_t y, int32_t x0, int32_t x1) {
+        if (x0 <= x1) {
+            rows[y].emplace_back(x0, x1);
+        }
+    }
+
+    // Merges the overlapping and adjacent ranges of every row, and calls fn with
+    // each merged range, ordered by row and column.
+    template <class Fn>
+    void eachRange(Fn&& fn) {
+        for (auto& row : rows) {
+            auto& ranges = row.second;
+            std::sort(ranges.begin(), ranges.end());
+            std::size_t merged = 0;
+            for (std::size_t i = 1; i < ranges.size(); ++i) {
+                if (ranges[i].first <= ranges[merged].second + 1) {
+                    ranges[merged].second = std::max(ranges[merged].second, ranges[i].second);
+                } else {
+                    ranges[++merged] = ranges[i];
+                }
+            }
+            ranges.resize(ranges.empty() ? 0 : merged + 1);
+            for (const auto& range : ranges) {
+                fn(row.first, range.first, range.second);
+            }
+        }
+    }
+
+    template <class Points>
+    void coverPath(const Points& points) {
+        if (points.size() == 1) {
+            coverSegment(points[0], points[0]);
+        }
+        for (std::size_t i = 1; i < points.size(); ++i) {
+            coverSegment(points[i - 1], points[i]);
+        }
+    }
+
+    // Squared distance between the segment ab and the tile at x/y, 0 when they intersect.
+    static double sqDistance(const Point<double>& a, const Point<double>& b, int32_t x, int32_t y) {
+        const Point<double> corners[] = { { double(x), double(y) }, { x + 1.0, double(y) },
+                                          { x + 1.0, y + 1.0 }, { double(x), y + 1.0 } };
+
+        // Clip the segment against the tile, an intersecting segment has a distance of 0.
+        double t0 = 0, t1 = 1;
+        const double d[] = { -(b.x - a.x), b.x - a.x, -(b.y - a.y), b.y - a.y };
+        const double q[] = { a.x - x, x + 1.0 - a.x, a.y - y, y + 1.0 - a.y };
+        bool intersects = true;
+        for (std::size_t i = 0; i < 4 && intersects; ++i) {
+            if (d[i] == 0) {
+                intersects = q[i] >= 0;
+            } else if (d[i] < 0) {
+                t0 = std::max(t0, q[i] / d[i]);
+            } else {
+                t1 = std::min(t1, q[i] / d[i]);
+            }
+        }
+        if (intersects && t0 <= t1) {
+            return 0;
+        }
+
+        auto sqDistanceToTile = [&](const Point<double>& p) {
+            const double dx = std::max({ x - p.x, 0.0, p.x - (x + 1) });
+            const double dy = std::max({ y - p.y, 0.0, p.y - (y + 1) });
+            return dx * dx + dy * dy;
+        };
+
+        auto sqDistanceToSegment = [&](const Point<double>& p) {
+            const double dx = b.x - a.x, dy = b.y - a.y;
+            const double length = dx * dx + dy * dy;
+            const double t = length == 0 ? 0 : util::clamp(((p.x - a.x) * dx + (p.y - a.y) * dy) / length, 0.0, 1.0);
+            const double ex = a.x + t * dx - p.x, ey = a.y + t * dy - p.y;
+            return ex * ex + ey * ey;
+        };
+
+        double result = std::min(sqDistanceToTile(a), sqDistanceToTile(b));
+        for (const auto& corner : corners) {
+            result = std::min(result, sqDistanceToSegment(corner));
+        }
+        return result;
+    }
+
+    void coverSegment(const Point<double>& a_, const Point<double>& b_) {
+        const Point<double> a = project(a_);
+        const Point<double> b = project(b_);
+        const double r = radius(a_, b_);
+
+        const int32_t minY = clampY(std::min(a.y, b.y) - r);
+        const int32_t maxY = clampY(std::max(a.y, b.y) + r);
+
+        for (int32_t y = minY; y <= maxY; ++y) {
+            // The part of the segment within the buffer of this row.
+            double t0 = 0, t1 = 1;
+            if (a.y != b.y) {
+                t0 = (y - r - a.y) / (b.y - a.y);
+                t1 = (y + 1 + r - a.y) / (b.y - a.y);
+                if (t0 > t1) {
+                    std::swap(t0, t1);
+                }
+                t0 = std::max(t0, 0.0);
+                t1 = std::min(t1, 1.0);
+                if (t0 > t1) {
+                    continue;
+                }
+            }
+            const double x0 = a.x + t0 * (b.x - a.x);
+            const double x1 = a.x + t1 * (b.x - a.x);
+
+            int32_t minX = clampX(std::min(x0, x1) - r);
+            int32_t maxX = clampX(std::max(x0, x1) + r);
+            if (r != 0) {
+                // The buffered segment is convex, so the tiles within it form a single range in this row.
+                while (minX <= maxX && sqDistance(a, b, minX, y) > r * r) {
+                    ++minX;
+                }
+                while (maxX >= minX && sqDistance(a, b, maxX, y) > r * r) {
+                    --maxX;
+                }
+            }
+            addRange(y, minX, maxX);
+        }
+    }
+
+    // Scans the polygon at the center of each row, with the even-odd rule across all rings.
+    void coverInterior(const Polygon<double>& polygon) {
+        if (polygon.empty() || polygon.front().size() < 3) {
+            return;
+        }
+
+        std::vector<std::vector<Point<double>>> rings;
+        double minY = std::numeric_limits<double>::infinity();
+        double maxY = -std::numeric_limits<double>::infinity();
+        for (const auto& ring : polygon) {
+            rings.emplace_back();
+            for (const auto& point : ring) {
+                rings.back().push_back(project(point));
+                minY = std::min(minY, rings.back().back().y);
+                maxY = std::max(maxY, rings.back().back().y);
+            }
+        }
+
+        std::vector<double> crossings;
+        for (int32_t y = clampY(minY); y <= clampY(maxY); ++y) {
+            const double center = y + 0.5;
+            crossings.clear();
+            for (const auto& ring : rings) {
+                for (std::size_t i = 0, j = ring.size() - 1; i < ring.size(); j = i++) {
+                    const Point<double>& a = ring[j];
+                    const Point<double>& b = ring[i];
+                    if ((a.y <= center) != (b.y <= center)) {
+                        crossings.push_back(a.x + (center - a.y) * (b.x - a.x) / (b.y - a.y));
+                    }
+                }
+            }
+            std::sort(crossings.begin(), crossings.end());
+            for (std::size_t i = 1; i < crossings.size(); i += 2) {
+                const int32_t minX = std::max<int32_t>(std::ceil(crossings[i - 1] - 0.5), 0);
+                const int32_t maxX = std::min<int32_t>(std::floor(crossings[i] - 0.5), tiles - 1);
+                addRange(y, minX, maxX);
+            }
+        }
+    }
+
+    const int32_t z;
+    const int32_t tiles;
+    const double buffer;
+
+    // Covered column ranges, inclusive, by row.
+    std::map<int32_t, std::vector<std::pair<int32_t, int32_t>>> rows;
+};
+
 } // namespace
 
 int32_t coveringZoomLevel(double zoom, style::SourceType type, uint16_t size) {
@@ -155,6 +423,12 @@ std::vector<UnwrappedTileID> tileCover(const LatLngBounds& bounds_, int32_t z) {
         z);
 }
 
+std::vector<UnwrappedTileID> tileCover(const Geometry<double>& geometry, int32_t z, double buffer) {
+    GeometryTileCover cover(z, buffer);
+    Geometry<double>::visit(geometry, cover);
+    return cover.result();
+}
+
 std::vector<UnwrappedTileID> tileCover(const TransformState& state, int32_t z) {
     assert(state.valid());
 
@@ -190,5 +464,12 @@ uint64_t tileCount(const LatLngBounds& bounds, uint8_t zoom, uint16_t tileSize_)
     return (maxX - minX + 1) * (maxY - minY + 1);
 }
 
+// Tiles covered by a geometry can't be counted from its bounds, they are enumerated instead.
+uint64_t tileCount(const Geometry<double>& geometry, uint8_t zoom, double buffer) {
+    GeometryTileCover cover(zoom, buffer);
+    Geometry<double>::visit(geometry, cover);
+    return cover.count();
+}
+
 } // namespace util
 } // namespace mbgl
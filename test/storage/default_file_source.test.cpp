@@ -1,7 +1,9 @@
 #include <mbgl/actor/actor.hpp>
 #include <mbgl/test/util.hpp>
 #include <mbgl/storage/default_file_source.hpp>
+#include <mbgl/storage/offline_database.hpp>
 #include <mbgl/storage/resource_transform.hpp>
+#include <mbgl/util/io.hpp>
 #include <mbgl/util/run_loop.hpp>
 
 using namespace mbgl;
@@ -649,3 +651,42 @@ TEST(DefaultFileSource, TEST_REQUIRES_SERVER(RespondToStaleMustRevalidate)) {
 
     loop.run();
 }
+
+TEST(DefaultFileSource, TEST_REQUIRES_WRITE(ListInterruptedOfflineRegionsAfterGetStatus)) {
+    util::RunLoop loop;
+
+    const std::string path = "test/fixtures/offline_database/interrupted.db";
+    try {
+        util::deleteFile(path);
+    } catch (const util::IOException&) {
+    }
+
+    // A region whose download was still active when the database was last used.
+    optional<OfflineRegion> region;
+    {
+        OfflineDatabase db(path);
+        OfflineTilePyramidRegionDefinition definition { "http://example.com/style", LatLngBounds::hull({1, 2}, {3, 4}), 5, 6, 1.0 };
+        region.emplace(db.createRegion(definition, OfflineRegionMetadata()));
+        db.setRegionDownloadState(region->getID(), OfflineRegionDownloadState::Active);
+    }
+
+    DefaultFileSource fs(path, ".");
+
+    // Reading the status does not change the download state of the region.
+    fs.getOfflineRegionStatus(*region, [&](std::exception_ptr error, optional<OfflineRegionStatus> status) {
+        EXPECT_FALSE(error);
+        EXPECT_TRUE(bool(status));
+    });
+
+    fs.listInterruptedOfflineRegions([&](std::exception_ptr error, optional<std::vector<OfflineRegion>> regions) {
+        EXPECT_FALSE(error);
+        EXPECT_TRUE(bool(regions));
+        if (regions) {
+            EXPECT_EQ(1u, regions->size());
+            EXPECT_EQ(region->getID(), regions->at(0).getID());
+        }
+        loop.stop();
+    });
+
+    loop.run();
+}
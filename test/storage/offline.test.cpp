@@ -61,3 +61,56 @@ TEST(OfflineTilePyramidRegionDefinition, TileCount) {
     EXPECT_EQ(38424u, region.tileCount(SourceType::Vector, 512, { 10, 18 }));
     EXPECT_EQ(9675240u, region.tileCount(SourceType::Vector, 512, { 3, 22 }));
 }
+
+static const LineString<double> sanFranciscoToLosAngeles {
+    { -122.4194, 37.7749 }, { -118.2437, 34.0522 }
+};
+
+TEST(OfflineGeometryRegionDefinition, TileCoverLineString) {
+    OfflineGeometryRegionDefinition region("", sanFranciscoToLosAngeles, 8, 8, 1.0);
+
+    EXPECT_EQ((std::vector<CanonicalTileID>{
+                  { 8, 40, 98 }, { 8, 40, 99 }, { 8, 41, 99 }, { 8, 41, 100 },
+                  { 8, 42, 100 }, { 8, 42, 101 }, { 8, 43, 101 }, { 8, 43, 102 }
+              }),
+              region.tileCover(SourceType::Vector, 512, { 0, 22 }));
+
+    EXPECT_EQ((std::vector<CanonicalTileID>{}), region.tileCover(SourceType::Vector, 512, { 9, 22 }));
+}
+
+TEST(OfflineGeometryRegionDefinition, TileCountCorridor) {
+    OfflineGeometryRegionDefinition corridor("", sanFranciscoToLosAngeles, 0, 22, 1.0, 1000);
+    OfflineTilePyramidRegionDefinition boundingBox("", LatLngBounds::hull({ 37.7749, -122.4194 }, { 34.0522, -118.2437 }), 0, 22, 1.0);
+
+    EXPECT_EQ(117u, corridor.tileCount(SourceType::Vector, 512, { 12, 12 }));
+    EXPECT_LT(corridor.tileCount(SourceType::Vector, 512, { 10, 14 }) * 10,
+              boundingBox.tileCount(SourceType::Vector, 512, { 10, 14 }));
+}
+
+TEST(OfflineGeometryRegionDefinition, Invalid) {
+    EXPECT_THROW(OfflineGeometryRegionDefinition("", sanFranciscoToLosAngeles, 2, 1, 1.0), std::invalid_argument);
+    EXPECT_THROW(OfflineGeometryRegionDefinition("", sanFranciscoToLosAngeles, 0, 1, 1.0, -1), std::invalid_argument);
+}
+
+TEST(OfflineRegionDefinition, EncodeDecodeGeometry) {
+    OfflineGeometryRegionDefinition region("http://example.com/style", sanFranciscoToLosAngeles, 5, INFINITY, 2.0, 1000);
+
+    OfflineRegionDefinition result = decodeOfflineRegionDefinition(encodeOfflineRegionDefinition(region));
+    ASSERT_TRUE(result.is<OfflineGeometryRegionDefinition>());
+
+    const auto& decoded = result.get<OfflineGeometryRegionDefinition>();
+    EXPECT_EQ(region.styleURL, decoded.styleURL);
+    EXPECT_EQ(region.geometry, decoded.geometry);
+    EXPECT_EQ(region.minZoom, decoded.minZoom);
+    EXPECT_EQ(region.maxZoom, decoded.maxZoom);
+    EXPECT_EQ(region.pixelRatio, decoded.pixelRatio);
+    EXPECT_EQ(region.bufferDistance, decoded.bufferDistance);
+}
+
+TEST(OfflineRegionDefinition, EncodeDecodeTilePyramid) {
+    OfflineTilePyramidRegionDefinition region("http://example.com/style", sanFrancisco, 5, 6, 2.0);
+
+    OfflineRegionDefinition result = decodeOfflineRegionDefinition(encodeOfflineRegionDefinition(region));
+    ASSERT_TRUE(result.is<OfflineTilePyramidRegionDefinition>());
+    EXPECT_EQ(region.bounds, result.get<OfflineTilePyramidRegionDefinition>().bounds);
+}
@@ -262,15 +262,15 @@ TEST(OfflineDatabase, CreateRegion) {
     using namespace mbgl;
 
     OfflineDatabase db(":memory:");
-    OfflineRegionDefinition definition { "http://example.com/style", LatLngBounds::hull({1, 2}, {3, 4}), 5, 6, 2.0 };
+    OfflineTilePyramidRegionDefinition definition { "http://example.com/style", LatLngBounds::hull({1, 2}, {3, 4}), 5, 6, 2.0 };
     OfflineRegionMetadata metadata {{ 1, 2, 3 }};
     OfflineRegion region = db.createRegion(definition, metadata);
 
-    EXPECT_EQ(definition.styleURL, region.getDefinition().styleURL);
-    EXPECT_EQ(definition.bounds, region.getDefinition().bounds);
-    EXPECT_EQ(definition.minZoom, region.getDefinition().minZoom);
-    EXPECT_EQ(definition.maxZoom, region.getDefinition().maxZoom);
-    EXPECT_EQ(definition.pixelRatio, region.getDefinition().pixelRatio);
+    EXPECT_EQ(definition.styleURL, region.getDefinition().get<OfflineTilePyramidRegionDefinition>().styleURL);
+    EXPECT_EQ(definition.bounds, region.getDefinition().get<OfflineTilePyramidRegionDefinition>().bounds);
+    EXPECT_EQ(definition.minZoom, region.getDefinition().get<OfflineTilePyramidRegionDefinition>().minZoom);
+    EXPECT_EQ(definition.maxZoom, region.getDefinition().get<OfflineTilePyramidRegionDefinition>().maxZoom);
+    EXPECT_EQ(definition.pixelRatio, region.getDefinition().get<OfflineTilePyramidRegionDefinition>().pixelRatio);
     EXPECT_EQ(metadata, region.getMetadata());
 }
 
@@ -278,7 +278,7 @@ TEST(OfflineDatabase, UpdateMetadata) {
     using namespace mbgl;
 
     OfflineDatabase db(":memory:");
-    OfflineRegionDefinition definition { "http://example.com/style", LatLngBounds::hull({1, 2}, {3, 4}), 5, 6, 2.0 };
+    OfflineTilePyramidRegionDefinition definition { "http://example.com/style", LatLngBounds::hull({1, 2}, {3, 4}), 5, 6, 2.0 };
     OfflineRegionMetadata metadata {{ 1, 2, 3 }};
     OfflineRegion region = db.createRegion(definition, metadata);
 
@@ -287,11 +287,61 @@ TEST(OfflineDatabase, UpdateMetadata) {
     EXPECT_EQ(db.listRegions().at(0).getMetadata(), newmetadata);
 }
 
+TEST(OfflineDatabase, ListActiveRegions) {
+    using namespace mbgl;
+
+    OfflineDatabase db(":memory:");
+    OfflineTilePyramidRegionDefinition definition { "http://example.com/style", LatLngBounds::hull({1, 2}, {3, 4}), 5, 6, 2.0 };
+    OfflineRegionMetadata metadata {{ 1, 2, 3 }};
+
+    OfflineRegion region1 = db.createRegion(definition, metadata);
+    OfflineRegion region2 = db.createRegion(definition, metadata);
+    EXPECT_EQ(0u, db.listActiveRegions().size());
+
+    db.setRegionDownloadState(region2.getID(), OfflineRegionDownloadState::Active);
+    std::vector<OfflineRegion> regions = db.listActiveRegions();
+    ASSERT_EQ(1u, regions.size());
+    EXPECT_EQ(region2.getID(), regions.at(0).getID());
+    EXPECT_EQ(metadata, regions.at(0).getMetadata());
+
+    db.setRegionDownloadState(region2.getID(), OfflineRegionDownloadState::Inactive);
+    EXPECT_EQ(0u, db.listActiveRegions().size());
+}
+
+TEST(OfflineDatabase, TileSizeAverages) {
+    using namespace mbgl;
+
+    OfflineDatabase db(":memory:");
+    EXPECT_TRUE(db.getTileSizeAverages({}).empty());
+
+    Response response;
+    response.data = std::make_shared<std::string>("first");
+    uint64_t size1 = db.put(Resource::tile("http://example.com/a/{z}/{x}/{y}", 1.0, 0, 0, 0, Tileset::Scheme::XYZ), response).second;
+    response.data = std::make_shared<std::string>("second tile");
+    uint64_t size2 = db.put(Resource::tile("http://example.com/b/{z}/{x}/{y}", 1.0, 0, 0, 0, Tileset::Scheme::XYZ), response).second;
+    uint64_t size3 = db.put(Resource::tile("http://example.com/b/{z}/{x}/{y}", 1.0, 0, 0, 1, Tileset::Scheme::XYZ), response).second;
+    EXPECT_EQ(size2, size3);
+
+    auto averages = db.getTileSizeAverages("http://example.com/a/{z}/{x}/{y}");
+    ASSERT_EQ(1u, averages.size());
+    EXPECT_EQ(1u, averages[0].first);
+    EXPECT_DOUBLE_EQ(size1, averages[0].second);
+
+    averages = db.getTileSizeAverages({});
+    ASSERT_EQ(2u, averages.size());
+    EXPECT_EQ(2u, averages[0].first);
+    EXPECT_DOUBLE_EQ((size1 + size2) / 2.0, averages[0].second);
+    EXPECT_EQ(1u, averages[1].first);
+    EXPECT_DOUBLE_EQ(size3, averages[1].second);
+
+    EXPECT_TRUE(db.getTileSizeAverages("http://example.com/c/{z}/{x}/{y}").empty());
+}
+
 TEST(OfflineDatabase, ListRegions) {
     using namespace mbgl;
 
     OfflineDatabase db(":memory:");
-    OfflineRegionDefinition definition { "http://example.com/style", LatLngBounds::hull({1, 2}, {3, 4}), 5, 6, 2.0 };
+    OfflineTilePyramidRegionDefinition definition { "http://example.com/style", LatLngBounds::hull({1, 2}, {3, 4}), 5, 6, 2.0 };
     OfflineRegionMetadata metadata {{ 1, 2, 3 }};
 
     OfflineRegion region = db.createRegion(definition, metadata);
@@ -299,11 +349,11 @@ TEST(OfflineDatabase, ListRegions) {
 
     ASSERT_EQ(1u, regions.size());
     EXPECT_EQ(region.getID(), regions.at(0).getID());
-    EXPECT_EQ(definition.styleURL, regions.at(0).getDefinition().styleURL);
-    EXPECT_EQ(definition.bounds, regions.at(0).getDefinition().bounds);
-    EXPECT_EQ(definition.minZoom, regions.at(0).getDefinition().minZoom);
-    EXPECT_EQ(definition.maxZoom, regions.at(0).getDefinition().maxZoom);
-    EXPECT_EQ(definition.pixelRatio, regions.at(0).getDefinition().pixelRatio);
+    EXPECT_EQ(definition.styleURL, regions.at(0).getDefinition().get<OfflineTilePyramidRegionDefinition>().styleURL);
+    EXPECT_EQ(definition.bounds, regions.at(0).getDefinition().get<OfflineTilePyramidRegionDefinition>().bounds);
+    EXPECT_EQ(definition.minZoom, regions.at(0).getDefinition().get<OfflineTilePyramidRegionDefinition>().minZoom);
+    EXPECT_EQ(definition.maxZoom, regions.at(0).getDefinition().get<OfflineTilePyramidRegionDefinition>().maxZoom);
+    EXPECT_EQ(definition.pixelRatio, regions.at(0).getDefinition().get<OfflineTilePyramidRegionDefinition>().pixelRatio);
     EXPECT_EQ(metadata, regions.at(0).getMetadata());
 }
 
@@ -311,11 +361,11 @@ TEST(OfflineDatabase, GetRegionDefinition) {
     using namespace mbgl;
 
     OfflineDatabase db(":memory:");
-    OfflineRegionDefinition definition { "http://example.com/style", LatLngBounds::hull({1, 2}, {3, 4}), 5, 6, 2.0 };
+    OfflineTilePyramidRegionDefinition definition { "http://example.com/style", LatLngBounds::hull({1, 2}, {3, 4}), 5, 6, 2.0 };
     OfflineRegionMetadata metadata {{ 1, 2, 3 }};
 
     OfflineRegion region = db.createRegion(definition, metadata);
-    OfflineRegionDefinition result = db.getRegionDefinition(region.getID());
+    OfflineTilePyramidRegionDefinition result = db.getRegionDefinition(region.getID()).get<OfflineTilePyramidRegionDefinition>();
 
     EXPECT_EQ(definition.styleURL, result.styleURL);
     EXPECT_EQ(definition.bounds, result.bounds);
@@ -328,7 +378,7 @@ TEST(OfflineDatabase, DeleteRegion) {
     using namespace mbgl;
 
     OfflineDatabase db(":memory:");
-    OfflineRegionDefinition definition { "http://example.com/style", LatLngBounds::hull({1, 2}, {3, 4}), 5, 6, 2.0 };
+    OfflineTilePyramidRegionDefinition definition { "http://example.com/style", LatLngBounds::hull({1, 2}, {3, 4}), 5, 6, 2.0 };
     OfflineRegionMetadata metadata {{ 1, 2, 3 }};
     OfflineRegion region = db.createRegion(definition, metadata);
 
@@ -343,16 +393,41 @@ TEST(OfflineDatabase, DeleteRegion) {
     ASSERT_EQ(0u, db.listRegions().size());
 }
 
+TEST(OfflineDatabase, DeleteRegions) {
+    using namespace mbgl;
+
+    OfflineDatabase db(":memory:");
+    OfflineTilePyramidRegionDefinition definition { "http://example.com/style", LatLngBounds::hull({1, 2}, {3, 4}), 5, 6, 2.0 };
+    OfflineRegionMetadata metadata {{ 1, 2, 3 }};
+    OfflineRegion region1 = db.createRegion(definition, metadata);
+    OfflineRegion region2 = db.createRegion(definition, metadata);
+    OfflineRegion region3 = db.createRegion(definition, metadata);
+
+    Response response;
+    response.noContent = true;
+
+    db.putRegionResource(region1.getID(), Resource::style("http://example.com/"), response);
+    db.putRegionResource(region2.getID(), Resource::style("http://example.com/"), response);
+    db.putRegionResource(region3.getID(), Resource::style("http://example.com/"), response);
+
+    db.deleteRegions({ region1.getID(), region3.getID() });
+
+    std::vector<OfflineRegion> regions = db.listRegions();
+    ASSERT_EQ(1u, regions.size());
+    EXPECT_EQ(region2.getID(), regions.at(0).getID());
+    EXPECT_TRUE(bool(db.getRegionResource(region2.getID(), Resource::style("http://example.com/"))));
+}
+
 TEST(OfflineDatabase, CreateRegionInfiniteMaxZoom) {
     using namespace mbgl;
 
     OfflineDatabase db(":memory:");
-    OfflineRegionDefinition definition { "", LatLngBounds::world(), 0, INFINITY, 1.0 };
+    OfflineTilePyramidRegionDefinition definition { "", LatLngBounds::world(), 0, INFINITY, 1.0 };
     OfflineRegionMetadata metadata;
     OfflineRegion region = db.createRegion(definition, metadata);
 
-    EXPECT_EQ(0, region.getDefinition().minZoom);
-    EXPECT_EQ(INFINITY, region.getDefinition().maxZoom);
+    EXPECT_EQ(0, region.getDefinition().get<OfflineTilePyramidRegionDefinition>().minZoom);
+    EXPECT_EQ(INFINITY, region.getDefinition().get<OfflineTilePyramidRegionDefinition>().maxZoom);
 }
 
 TEST(OfflineDatabase, TEST_REQUIRES_WRITE(ConcurrentUse)) {
@@ -436,7 +511,7 @@ TEST(OfflineDatabase, PutRegionResourceDoesNotEvict) {
     using namespace mbgl;
 
     OfflineDatabase db(":memory:", 1024 * 100);
-    OfflineRegionDefinition definition { "", LatLngBounds::world(), 0, INFINITY, 1.0 };
+    OfflineTilePyramidRegionDefinition definition { "", LatLngBounds::world(), 0, INFINITY, 1.0 };
     OfflineRegion region = db.createRegion(definition, OfflineRegionMetadata());
 
     Response response;
@@ -462,11 +537,43 @@ TEST(OfflineDatabase, PutFailsWhenEvictionInsuffices) {
     EXPECT_FALSE(bool(db.get(Resource::style("http://example.com/big"))));
 }
 
+TEST(OfflineDatabase, Compact) {
+    using namespace mbgl;
+
+    OfflineDatabase db(":memory:", 1024 * 100);
+    OfflineTilePyramidRegionDefinition definition { "", LatLngBounds::world(), 0, INFINITY, 1.0 };
+    OfflineRegion region = db.createRegion(definition, OfflineRegionMetadata());
+
+    Response response;
+    response.data = randomString(1024 * 10);
+
+    for (uint32_t i = 1; i <= 100; i++) {
+        db.putRegionResource(region.getID(), Resource::style("http://example.com/"s + util::toString(i)), response);
+    }
+
+    // Evicts the resources of the region beyond the cache size, without shrinking the file.
+    db.deleteRegions({ region.getID() });
+
+    uint64_t reclaimable = db.startCompaction();
+    EXPECT_LE(1024u * 10 * 80, reclaimable);
+
+    uint64_t reclaimed = 0;
+    uint64_t steps = 0;
+    while (uint64_t stepSize = db.compactStep()) {
+        reclaimed += stepSize;
+        steps++;
+    }
+
+    EXPECT_EQ(reclaimable, reclaimed);
+    EXPECT_EQ(1u, steps);
+    EXPECT_EQ(0u, db.startCompaction());
+}
+
 TEST(OfflineDatabase, GetRegionCompletedStatus) {
     using namespace mbgl;
 
     OfflineDatabase db(":memory:");
-    OfflineRegionDefinition definition { "http://example.com/style", LatLngBounds::hull({1, 2}, {3, 4}), 5, 6, 2.0 };
+    OfflineTilePyramidRegionDefinition definition { "http://example.com/style", LatLngBounds::hull({1, 2}, {3, 4}), 5, 6, 2.0 };
     OfflineRegionMetadata metadata;
     OfflineRegion region = db.createRegion(definition, metadata);
 
@@ -500,7 +607,7 @@ TEST(OfflineDatabase, HasRegionResource) {
     using namespace mbgl;
 
     OfflineDatabase db(":memory:", 1024 * 100);
-    OfflineRegionDefinition definition { "", LatLngBounds::world(), 0, INFINITY, 1.0 };
+    OfflineTilePyramidRegionDefinition definition { "", LatLngBounds::world(), 0, INFINITY, 1.0 };
     OfflineRegion region = db.createRegion(definition, OfflineRegionMetadata());
 
     EXPECT_FALSE(bool(db.hasRegionResource(region.getID(), Resource::style("http://example.com/1"))));
@@ -522,7 +629,7 @@ TEST(OfflineDatabase, HasRegionResourceTile) {
     using namespace mbgl;
 
     OfflineDatabase db(":memory:", 1024 * 100);
-    OfflineRegionDefinition definition { "", LatLngBounds::world(), 0, INFINITY, 1.0 };
+    OfflineTilePyramidRegionDefinition definition { "", LatLngBounds::world(), 0, INFINITY, 1.0 };
     OfflineRegion region = db.createRegion(definition, OfflineRegionMetadata());
 
     Resource resource { Resource::Tile, "http://example.com/" };
@@ -553,7 +660,7 @@ TEST(OfflineDatabase, OfflineMapboxTileCount) {
     using namespace mbgl;
 
     OfflineDatabase db(":memory:");
-    OfflineRegionDefinition definition { "http://example.com/style", LatLngBounds::hull({1, 2}, {3, 4}), 5, 6, 2.0 };
+    OfflineTilePyramidRegionDefinition definition { "http://example.com/style", LatLngBounds::hull({1, 2}, {3, 4}), 5, 6, 2.0 };
     OfflineRegionMetadata metadata;
 
     OfflineRegion region1 = db.createRegion(definition, metadata);
@@ -661,7 +768,7 @@ TEST(OfflineDatabase, MigrateFromV2Schema) {
         }
     }
 
-    EXPECT_EQ(6, databaseUserVersion("test/fixtures/offline_database/migrated.db"));
+    EXPECT_EQ(7, databaseUserVersion("test/fixtures/offline_database/migrated.db"));
     EXPECT_LT(databasePageCount("test/fixtures/offline_database/migrated.db"),
               databasePageCount("test/fixtures/offline_database/v2.db"));
 }
@@ -682,7 +789,7 @@ TEST(OfflineDatabase, MigrateFromV3Schema) {
         }
     }
 
-    EXPECT_EQ(6, databaseUserVersion("test/fixtures/offline_database/migrated.db"));
+    EXPECT_EQ(7, databaseUserVersion("test/fixtures/offline_database/migrated.db"));
 }
 
 TEST(OfflineDatabase, MigrateFromV4Schema) {
@@ -701,7 +808,7 @@ TEST(OfflineDatabase, MigrateFromV4Schema) {
         }
     }
 
-    EXPECT_EQ(6, databaseUserVersion("test/fixtures/offline_database/migrated.db"));
+    EXPECT_EQ(7, databaseUserVersion("test/fixtures/offline_database/migrated.db"));
 
     // Journal mode should be DELETE after migration to v5.
     EXPECT_EQ("delete", databaseJournalMode("test/fixtures/offline_database/migrated.db"));
@@ -727,7 +834,7 @@ TEST(OfflineDatabase, MigrateFromV5Schema) {
         }
     }
 
-    EXPECT_EQ(6, databaseUserVersion("test/fixtures/offline_database/migrated.db"));
+    EXPECT_EQ(7, databaseUserVersion("test/fixtures/offline_database/migrated.db"));
 
     EXPECT_EQ((std::vector<std::string>{ "id", "url_template", "pixel_ratio", "z", "x", "y",
                                          "expires", "modified", "etag", "data", "compressed",
@@ -736,6 +843,8 @@ TEST(OfflineDatabase, MigrateFromV5Schema) {
     EXPECT_EQ((std::vector<std::string>{ "id", "url", "kind", "expires", "modified", "etag", "data",
                                          "compressed", "accessed", "must_revalidate" }),
               databaseTableColumns("test/fixtures/offline_database/migrated.db", "resources"));
+    EXPECT_EQ((std::vector<std::string>{ "id", "definition", "description", "download_state" }),
+              databaseTableColumns("test/fixtures/offline_database/migrated.db", "regions"));
 }
 
 TEST(OfflineDatabase, DowngradeSchema) {
@@ -751,7 +860,7 @@ TEST(OfflineDatabase, DowngradeSchema) {
         OfflineDatabase db("test/fixtures/offline_database/migrated.db", 0);
     }
 
-    EXPECT_EQ(6, databaseUserVersion("test/fixtures/offline_database/migrated.db"));
+    EXPECT_EQ(7, databaseUserVersion("test/fixtures/offline_database/migrated.db"));
 
     EXPECT_EQ((std::vector<std::string>{ "id", "url_template", "pixel_ratio", "z", "x", "y",
                                          "expires", "modified", "etag", "data", "compressed",
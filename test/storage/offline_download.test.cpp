@@ -43,7 +43,7 @@ public:
     std::size_t size = 0;
 
     OfflineRegion createRegion() {
-        OfflineRegionDefinition definition { "", LatLngBounds::hull({1, 2}, {3, 4}), 5, 6, 1.0 };
+        OfflineTilePyramidRegionDefinition definition { "", LatLngBounds::hull({1, 2}, {3, 4}), 5, 6, 1.0 };
         OfflineRegionMetadata metadata;
         return db.createRegion(definition, metadata);
     }
@@ -270,6 +270,112 @@ TEST(OfflineDownload, DoesNotFloodTheFileSourceWithRequests) {
     EXPECT_EQ(HTTPFileSource::maximumConcurrentRequests(), fileSource.requests.size());
 }
 
+TEST(OfflineDownload, SharesRequestLimitBetweenRegions) {
+    FakeFileSource fileSource;
+    OfflineTest test;
+    OfflineRegion region1 = test.createRegion();
+    OfflineRegion region2 = test.createRegion();
+
+    OfflineDownloadScheduler scheduler;
+    OfflineDownloadOptions options;
+    options.maximumConcurrentRequests = 4;
+    scheduler.setOptions(options);
+
+    OfflineDownload download1(
+        region1.getID(),
+        OfflineTilePyramidRegionDefinition("http://127.0.0.1:3000/style.json", LatLngBounds::world(), 0.0, 0.0, 1.0),
+        test.db, fileSource, scheduler);
+    OfflineDownload download2(
+        region2.getID(),
+        OfflineTilePyramidRegionDefinition("http://127.0.0.1:3000/style.json", LatLngBounds::world(), 0.0, 0.0, 1.0),
+        test.db, fileSource, scheduler);
+
+    download1.setState(OfflineRegionDownloadState::Active);
+    download2.setState(OfflineRegionDownloadState::Active);
+    test.loop.runOnce();
+
+    EXPECT_EQ(2u, fileSource.requests.size());
+
+    // The first region takes the remaining requests while the second one waits for its style.
+    fileSource.respond(Resource::Kind::Style, test.response("style.json"));
+    test.loop.runOnce();
+
+    EXPECT_EQ(options.maximumConcurrentRequests, fileSource.requests.size());
+
+    download1.setState(OfflineRegionDownloadState::Inactive);
+    test.loop.runOnce();
+
+    EXPECT_EQ(1u, fileSource.requests.size());
+
+    // The requests released by the first region are taken over by the second one.
+    fileSource.respond(Resource::Kind::Style, test.response("style.json"));
+    test.loop.runOnce();
+
+    EXPECT_EQ(options.maximumConcurrentRequests, fileSource.requests.size());
+}
+
+TEST(OfflineDownload, BandwidthLimitDelaysRequests) {
+    FakeFileSource fileSource;
+    OfflineTest test;
+    OfflineRegion region = test.createRegion();
+
+    OfflineDownloadScheduler scheduler;
+    OfflineDownloadOptions options;
+    options.maximumConcurrentRequests = 1;
+    options.maximumBytesPerSecond = 1;
+    scheduler.setOptions(options);
+
+    OfflineDownload download(
+        region.getID(),
+        OfflineTilePyramidRegionDefinition("http://127.0.0.1:3000/style.json", LatLngBounds::world(), 0.0, 0.0, 1.0),
+        test.db, fileSource, scheduler);
+
+    download.setState(OfflineRegionDownloadState::Active);
+    test.loop.runOnce();
+    fileSource.respond(Resource::Kind::Style, test.response("style.json"));
+    test.loop.runOnce();
+    fileSource.respond(Resource::Kind::Source, test.response("streets.json"));
+    test.loop.runOnce();
+
+    // Receiving the style and source at one byte per second takes longer than the test.
+    EXPECT_EQ(0u, fileSource.requests.size());
+
+    options.maximumBytesPerSecond = 0;
+    scheduler.setOptions(options);
+    test.loop.runOnce();
+
+    EXPECT_EQ(1u, fileSource.requests.size());
+}
+
+TEST(OfflineDownload, PersistsDownloadState) {
+    FakeFileSource fileSource;
+    OfflineTest test;
+    OfflineRegion region = test.createRegion();
+
+    {
+        OfflineDownload download(
+            region.getID(),
+            OfflineTilePyramidRegionDefinition("http://127.0.0.1:3000/style.json", LatLngBounds::world(), 0.0, 0.0, 1.0),
+            test.db, fileSource);
+        download.setState(OfflineRegionDownloadState::Active);
+        test.loop.runOnce();
+    }
+
+    // The download was interrupted while active, it can be resumed.
+    std::vector<OfflineRegion> regions = test.db.listActiveRegions();
+    ASSERT_EQ(1u, regions.size());
+    EXPECT_EQ(region.getID(), regions.at(0).getID());
+
+    OfflineDownload download(
+        region.getID(),
+        OfflineTilePyramidRegionDefinition("http://127.0.0.1:3000/style.json", LatLngBounds::world(), 0.0, 0.0, 1.0),
+        test.db, fileSource);
+    download.setState(OfflineRegionDownloadState::Active);
+    download.setState(OfflineRegionDownloadState::Inactive);
+
+    EXPECT_EQ(0u, test.db.listActiveRegions().size());
+}
+
 TEST(OfflineDownload, GetStatusNoResources) {
     OfflineTest test;
     OfflineRegion region = test.createRegion();
@@ -335,6 +441,38 @@ TEST(OfflineDownload, GetStatusStyleAndSourceComplete) {
     EXPECT_FALSE(status.complete());
 }
 
+TEST(OfflineDownload, EstimateWithStoredStyleAndTiles) {
+    OfflineTest test;
+
+    test.db.put(Resource::style("http://127.0.0.1:3000/style.json"), test.response("inline_source.style.json"));
+    uint64_t tileSize = test.db.put(
+        Resource::tile("http://127.0.0.1:3000/{z}-{x}-{y}.vector.pbf", 1, 0, 0, 0, Tileset::Scheme::XYZ),
+        test.response("0-0-0.vector.pbf")).second;
+
+    OfflineRegionEstimate estimate = estimateOfflineRegion(
+        OfflineTilePyramidRegionDefinition("http://127.0.0.1:3000/style.json", LatLngBounds::world(), 0.0, 1.0, 1.0),
+        test.db);
+
+    // One tile at z0 and four at z1, sized like the stored z0 tile.
+    EXPECT_EQ(5u, estimate.tileCount);
+    EXPECT_TRUE(estimate.tileCountIsPrecise);
+    EXPECT_EQ(5 * tileSize, estimate.tileSize);
+    EXPECT_EQ(1u, estimate.sampledTileCount);
+}
+
+TEST(OfflineDownload, EstimateWithoutStyle) {
+    OfflineTest test;
+
+    OfflineRegionEstimate estimate = estimateOfflineRegion(
+        OfflineTilePyramidRegionDefinition("http://127.0.0.1:3000/style.json", LatLngBounds::world(), 0.0, 1.0, 1.0),
+        test.db);
+
+    EXPECT_EQ(5u, estimate.tileCount);
+    EXPECT_FALSE(estimate.tileCountIsPrecise);
+    EXPECT_EQ(0u, estimate.tileSize);
+    EXPECT_EQ(0u, estimate.sampledTileCount);
+}
+
 TEST(OfflineDownload, RequestError) {
     OfflineTest test;
     OfflineRegion region = test.createRegion();
@@ -396,6 +534,51 @@ TEST(OfflineDownload, RequestErrorsAreRetried) {
     test.loop.run();
 }
 
+TEST(OfflineDownload, RequestErrorsDeactivateAfterMaximumRetries) {
+    OfflineTest test;
+    OfflineRegion region = test.createRegion();
+
+    OfflineDownloadScheduler scheduler;
+    OfflineDownloadOptions options;
+    options.initialRetryDelay = Milliseconds(1);
+    options.maximumRetries = 2;
+    scheduler.setOptions(options);
+
+    OfflineDownload download(
+        region.getID(),
+        OfflineTilePyramidRegionDefinition("http://127.0.0.1:3000/style.json", LatLngBounds::world(), 0.0, 0.0, 1.0),
+        test.db, test.fileSource, scheduler);
+
+    test.fileSource.styleResponse = [&] (const Resource&) {
+        Response response;
+        response.error = std::make_unique<Response::Error>(Response::Error::Reason::Server, "server error");
+        return response;
+    };
+
+    auto observer = std::make_unique<MockObserver>();
+    uint32_t errorCount = 0;
+
+    observer->responseErrorFn = [&] (Response::Error error) {
+        EXPECT_EQ(Response::Error::Reason::Server, error.reason);
+        errorCount++;
+    };
+
+    observer->statusChangedFn = [&] (OfflineRegionStatus status) {
+        if (status.downloadState == OfflineRegionDownloadState::Inactive) {
+            test.loop.stop();
+        }
+    };
+
+    download.setObserver(std::move(observer));
+    download.setState(OfflineRegionDownloadState::Active);
+
+    test.loop.run();
+
+    // The first request and two retries.
+    EXPECT_EQ(3u, errorCount);
+    EXPECT_EQ(0u, test.db.listActiveRegions().size());
+}
+
 TEST(OfflineDownload, TileCountLimitExceededNoTileResponse) {
     OfflineTest test;
     OfflineRegion region = test.createRegion();
@@ -8,6 +8,7 @@
 #include <mbgl/style/sources/raster_source.hpp>
 #include <mbgl/style/sources/vector_source.hpp>
 #include <mbgl/style/sources/geojson_source.hpp>
+#include <mbgl/style/sources/geojson_source_impl.hpp>
 #include <mbgl/style/sources/image_source.hpp>
 #include <mbgl/style/layers/raster_layer.cpp>
 #include <mbgl/style/layers/line_layer.hpp>
@@ -513,6 +514,110 @@ TEST(Source, GeoJSonSourceUrlUpdate) {
     test.run();
 }
 
+TEST(Source, GeoJSONSourceIncrementalUpdate) {
+    StubStyleObserver observer;
+    unsigned changes = 0;
+    observer.sourceChanged = [&] (Source&) {
+        changes++;
+    };
+
+    auto point = [] (std::string id, double longitude, double latitude) {
+        Feature feature { Point<double> { longitude, latitude } };
+        feature.id = FeatureIdentifier { std::move(id) };
+        return feature;
+    };
+
+    GeoJSONOptions options;
+    options.incrementalUpdates = true;
+    GeoJSONSource source("source", options);
+    source.setObserver(&observer);
+    source.setGeoJSON(FeatureCollection { point("a", -120, 40), point("b", 120, -40) });
+    const uint64_t initial = source.impl().getRevision();
+    ASSERT_EQ(1u, changes);
+
+    // Moving a feature changes the tiles around its old and new position
+    source.updateFeatures(FeatureCollection { point("b", 121, -40), point("unknown", 0, 0) });
+    ASSERT_EQ(2u, changes);
+    ASSERT_EQ(2u, source.impl().getFeatures().size());
+    const uint64_t moved = source.impl().getRevision();
+    EXPECT_FALSE(source.impl().isTileChangedSince(initial, CanonicalTileID { 1, 0, 0 }));
+    EXPECT_TRUE(source.impl().isTileChangedSince(initial, CanonicalTileID { 1, 1, 1 }));
+    EXPECT_FALSE(source.impl().isTileChangedSince(moved, CanonicalTileID { 1, 1, 1 }));
+
+    // Unchanged features don't update the source
+    source.updateFeatures(FeatureCollection { point("b", 121, -40) });
+    ASSERT_EQ(2u, changes);
+
+    // Changes accumulate for tiles rendered with earlier revisions
+    source.removeFeatures({ FeatureIdentifier { std::string("a") } });
+    ASSERT_EQ(3u, changes);
+    ASSERT_EQ(1u, source.impl().getFeatures().size());
+    EXPECT_TRUE(source.impl().isTileChangedSince(moved, CanonicalTileID { 1, 0, 0 }));
+    EXPECT_FALSE(source.impl().isTileChangedSince(moved, CanonicalTileID { 1, 1, 1 }));
+    EXPECT_TRUE(source.impl().isTileChangedSince(initial, CanonicalTileID { 1, 0, 0 }));
+    EXPECT_TRUE(source.impl().isTileChangedSince(initial, CanonicalTileID { 1, 1, 1 }));
+
+    // Added features with an existing id replace it
+    source.addFeatures(FeatureCollection { point("b", 10, 10), point("c", 20, 20) });
+    ASSERT_EQ(4u, changes);
+    ASSERT_EQ(2u, source.impl().getFeatures().size());
+
+    // Replacing the data updates every tile
+    source.setGeoJSON(FeatureCollection {});
+    EXPECT_TRUE(source.impl().isTileChangedSince(initial, CanonicalTileID { 1, 0, 0 }));
+    EXPECT_TRUE(source.impl().getFeatures().empty());
+}
+
+TEST(Source, GeoJSONSourceIncrementalUpdateNeedsOption) {
+    StubStyleObserver observer;
+    unsigned changes = 0;
+    observer.sourceChanged = [&] (Source&) {
+        changes++;
+    };
+
+    Feature feature { Point<double> { 1, 1 } };
+    feature.id = FeatureIdentifier { uint64_t(1) };
+
+    // Without the option, the features aren't kept and can't be updated
+    GeoJSONSource source("source");
+    source.setObserver(&observer);
+    source.setGeoJSON(FeatureCollection { feature });
+    ASSERT_EQ(1u, changes);
+    EXPECT_TRUE(source.impl().getFeatures().empty());
+
+    source.removeFeatures({ FeatureIdentifier { uint64_t(1) } });
+    EXPECT_EQ(1u, changes);
+}
+
+TEST(Source, GeoJSONSourcePrepared) {
+    StubStyleObserver observer;
+    unsigned changes = 0;
+    observer.sourceChanged = [&] (Source&) {
+        changes++;
+    };
+
+    GeoJSONOptions options;
+    options.maxzoom = 10;
+    options.incrementalUpdates = true;
+    GeoJSONSource source("source", options);
+    source.setObserver(&observer);
+
+    // Prepared data is used as is when prepared with the options of the source
+    auto prepared = std::make_unique<GeoJSONSource::Prepared>(
+        FeatureCollection { Feature { Point<double> { 1, 1 } } }, source.getOptions());
+    source.setGeoJSON(std::move(prepared));
+    EXPECT_EQ(1u, changes);
+    EXPECT_EQ(1u, source.impl().getFeatures().size());
+    EXPECT_NE(nullptr, source.impl().getData());
+
+    // Otherwise it is tiled again
+    source.setGeoJSON(std::make_unique<GeoJSONSource::Prepared>(
+        Feature { Point<double> { 2, 2 } }, GeoJSONOptions()));
+    EXPECT_EQ(2u, changes);
+    EXPECT_EQ(1u, source.impl().getFeatures().size());
+    EXPECT_NE(nullptr, source.impl().getData());
+}
+
 TEST(Source, ImageSourceImageUpdate) {
     SourceTest test;
 
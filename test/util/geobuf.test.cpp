@@ -0,0 +1,43 @@
+#include <mbgl/test/util.hpp>
+
+#include <mbgl/util/geobuf.hpp>
+#include <mbgl/util/feature.hpp>
+#include <mbgl/util/geometry.hpp>
+
+using namespace mbgl;
+
+TEST(Geobuf, FeatureCollection) {
+    // {"type":"FeatureCollection","features":[
+    //   {"type":"Feature","id":"a","properties":{"name":"x"},"geometry":{"type":"Point","coordinates":[1.5,-2.25]}},
+    //   {"type":"Feature","id":-5,"properties":{},"geometry":{"type":"Polygon","coordinates":[[[0,0],[1,0],[0,1],[0,0]]]}}]}
+    const std::string data {
+        "\x0a\x04\x6e\x61\x6d\x65\x22\x30\x0a\x18\x0a\x0a\x1a\x08\xc0\x8d\xb7\x01\x9f\xd4\x92\x02\x5a\x01\x61\x6a"
+        "\x03\x0a\x01\x78\x72\x02\x00\x00\x0a\x14\x0a\x10\x08\x04\x1a\x0c\x00\x00\x80\x89\x7a\x00\xff\x88\x7a\x80"
+        "\x89\x7a\x60\x09", 56
+    };
+
+    const GeoJSON geoJSON = util::decodeGeobuf(data.data(), data.size());
+    ASSERT_TRUE(geoJSON.is<FeatureCollection>());
+    const auto& features = geoJSON.get<FeatureCollection>();
+    ASSERT_EQ(2u, features.size());
+
+    EXPECT_EQ(FeatureIdentifier { std::string("a") }, *features[0].id);
+    EXPECT_EQ(Value { std::string("x") }, features[0].properties.at("name"));
+    ASSERT_TRUE(features[0].geometry.is<Point<double>>());
+    EXPECT_EQ(Point<double>(1.5, -2.25), features[0].geometry.get<Point<double>>());
+
+    EXPECT_EQ(FeatureIdentifier { int64_t(-5) }, *features[1].id);
+    ASSERT_TRUE(features[1].geometry.is<Polygon<double>>());
+    const auto& polygon = features[1].geometry.get<Polygon<double>>();
+    ASSERT_EQ(1u, polygon.size());
+    ASSERT_EQ(4u, polygon[0].size());
+    EXPECT_EQ(Point<double>(1, 0), polygon[0][1]);
+    EXPECT_EQ(Point<double>(0, 1), polygon[0][2]);
+    EXPECT_EQ(polygon[0][0], polygon[0][3]);
+}
+
+TEST(Geobuf, Malformed) {
+    const std::string data { "\x22\x05\x0a\x03\x0a\x01", 6 };
+    EXPECT_ANY_THROW(util::decodeGeobuf(data.data(), data.size()));
+    EXPECT_ANY_THROW(util::decodeGeobuf(nullptr, 0));
+}
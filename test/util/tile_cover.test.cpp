@@ -4,6 +4,8 @@
 
 #include <gtest/gtest.h>
 
+#include <algorithm>
+
 using namespace mbgl;
 
 TEST(TileCover, Empty) {
@@ -93,3 +95,71 @@ TEST(TileCount, SanFranciscoZ22) {
     EXPECT_EQ(7254450u, util::tileCount(sanFrancisco, 22, util::tileSize));
 }
 
+
+static const LineString<double> sanFranciscoToLosAngeles {
+    { -122.4194, 37.7749 }, { -118.2437, 34.0522 }
+};
+
+TEST(TileCover, GeometryPoint) {
+    EXPECT_EQ((std::vector<UnwrappedTileID>{ { 10, 163, 395 } }),
+              util::tileCover(Point<double>{ -122.4194, 37.7749 }, 10));
+}
+
+TEST(TileCover, GeometryPolygon) {
+    const Polygon<double> polygon {
+        { { -122.5744, 37.6609 }, { -122.3204, 37.6609 }, { -122.3204, 37.8271 },
+          { -122.5744, 37.8271 }, { -122.5744, 37.6609 } }
+    };
+
+    EXPECT_EQ((std::vector<UnwrappedTileID>{
+                  { 10, 163, 395 }, { 10, 164, 395 }, { 10, 163, 396 }, { 10, 164, 396 }
+              }),
+              util::tileCover(polygon, 10));
+}
+
+TEST(TileCover, GeometryPolygonHole) {
+    const Polygon<double> polygon {
+        { { -40, -40 }, { 40, -40 }, { 40, 40 }, { -40, 40 }, { -40, -40 } },
+        { { -20, -20 }, { 20, -20 }, { 20, 20 }, { -20, 20 }, { -20, -20 } }
+    };
+
+    // The 4 tiles within the hole are not covered.
+    EXPECT_EQ(60u, util::tileCover(polygon, 5).size());
+}
+
+TEST(TileCover, GeometryLineString) {
+    EXPECT_EQ((std::vector<UnwrappedTileID>{
+                  { 8, 40, 98 }, { 8, 40, 99 }, { 8, 41, 99 }, { 8, 41, 100 },
+                  { 8, 42, 100 }, { 8, 42, 101 }, { 8, 43, 101 }, { 8, 43, 102 }
+              }),
+              util::tileCover(sanFranciscoToLosAngeles, 8));
+}
+
+TEST(TileCover, GeometryLineStringBuffer) {
+    const auto tiles = util::tileCover(sanFranciscoToLosAngeles, 8, 20000);
+    EXPECT_EQ(12u, tiles.size());
+    for (const auto& tile : util::tileCover(sanFranciscoToLosAngeles, 8)) {
+        EXPECT_NE(tiles.end(), std::find(tiles.begin(), tiles.end(), tile));
+    }
+}
+
+TEST(TileCount, GeometryLineString) {
+    EXPECT_EQ(100u, util::tileCount(sanFranciscoToLosAngeles, 12));
+    EXPECT_EQ(117u, util::tileCount(sanFranciscoToLosAngeles, 12, 1000));
+}
+
+TEST(TileCount, GeometryPolygon) {
+    const Polygon<double> polygon {
+        { { -40, -40 }, { 40, -40 }, { 40, 40 }, { -40, 40 }, { -40, -40 } },
+        { { -20, -20 }, { 20, -20 }, { 20, 20 }, { -20, 20 }, { -20, -20 } }
+    };
+
+    EXPECT_EQ(util::tileCover(polygon, 5).size(), util::tileCount(polygon, 5));
+    EXPECT_EQ(util::tileCover(sanFranciscoToLosAngeles, 10, 5000).size(),
+              util::tileCount(sanFranciscoToLosAngeles, 10, 5000));
+
+    // About 4.5 * 10^10 tiles, counted without storing them.
+    const uint64_t count = util::tileCount(polygon, 20);
+    EXPECT_LT(45000000000ull, count);
+    EXPECT_GT(46000000000ull, count);
+}